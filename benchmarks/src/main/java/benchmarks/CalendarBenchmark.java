@@ -0,0 +1,58 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.CalendarStorage;
+
+/**
+ * Base of the benchmarks that run against a generated calendar. Every benchmark is measured for
+ * every calendar size, share of recurring series and way of keeping the events, so a change can be
+ * checked for how it scales as well as how fast it is.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public abstract class CalendarBenchmark {
+
+  static final long SEED = 20250401L;
+
+  /**
+   * The number of entries in the calendar, single events and recurring series together.
+   */
+  @Param({"1000", "10000", "100000", "1000000"})
+  public int calendarSize;
+
+  /**
+   * The share of the entries that are recurring series.
+   */
+  @Param({"0.0", "0.1", "0.5"})
+  public double recurringDensity;
+
+  /**
+   * The way the calendar keeps its events.
+   */
+  @Param({"OBJECTS", "COLUMNAR"})
+  public CalendarStorage storage;
+
+  CalendarFixture fixture;
+
+  /**
+   * Generates the calendar for the current parameters.
+   */
+  void buildFixture() {
+    fixture = new CalendarFixture(calendarSize, recurringDensity, storage, SEED);
+  }
+}
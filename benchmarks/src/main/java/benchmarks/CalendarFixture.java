@@ -0,0 +1,165 @@
+package benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import model.BasicCalendarModel;
+import model.CalendarModel;
+import model.CalendarStorage;
+import model.SingleCalendar;
+
+import static utils.DateTimeUtils.daysOfWeekToString;
+
+/**
+ * Generates a calendar of synthetic events for the benchmarks. The same size, density and seed
+ * always give the same calendar, so runs can be compared with each other. Events are spread over
+ * enough days that every day holds a few of them, and a share of the entries are weekly recurring
+ * series instead of single events.
+ */
+final class CalendarFixture {
+
+  static final String CALENDAR_NAME = "bench";
+  static final String TIME_ZONE = "America/New_York";
+  static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+
+  /**
+   * The number of entries that start on a day, on average.
+   */
+  static final int ENTRIES_PER_DAY = 8;
+
+  /**
+   * The number of occurrences of every recurring series.
+   */
+  static final int SERIES_LENGTH = 8;
+
+  private final CalendarModel model;
+  private final int spanDays;
+  private final String[] names;
+  private final String[] starts;
+  private final boolean[] isRecurring;
+
+  /**
+   * Creates a calendar of the given number of entries in a new model, and makes it the current
+   * calendar of the model.
+   *
+   * @param size             the number of entries to add.
+   * @param recurringDensity the share of the entries that are recurring series, from 0 to 1.
+   * @param storage          the way the calendar keeps its events.
+   * @param seed             the seed of the generated times.
+   */
+  CalendarFixture(int size, double recurringDensity, CalendarStorage storage, long seed) {
+    if (size < 1 || recurringDensity < 0 || recurringDensity > 1) {
+      throw new IllegalArgumentException("Invalid fixture size or density");
+    }
+    BasicCalendarModel model = new BasicCalendarModel();
+    model.addCalendar(CALENDAR_NAME, TIME_ZONE, storage);
+    this.model = model;
+    model.useCalendar(CALENDAR_NAME);
+    this.spanDays = Math.max(7, size / ENTRIES_PER_DAY);
+    this.names = new String[size];
+    this.starts = new String[size];
+    this.isRecurring = new boolean[size];
+
+    SingleCalendar calendar = model.getCurrentCalendar();
+    Random random = new Random(seed);
+    for (int i = 0; i < size; i++) {
+      LocalDateTime start = randomStart(random);
+      LocalDateTime end = start.plusMinutes(15L * (1 + random.nextInt(8)));
+      names[i] = "Entry " + i;
+      starts[i] = start.toString();
+      isRecurring[i] = random.nextDouble() < recurringDensity;
+      if (isRecurring[i]) {
+        calendar.addRecurringEventFrequency(names[i], starts[i], end.toString(), "", "",
+                daysOfWeekToString(List.of(start.getDayOfWeek())), SERIES_LENGTH, false, false);
+      } else {
+        calendar.addSingleEvent(names[i], starts[i], end.toString(), "", "", false, false);
+      }
+    }
+  }
+
+  /**
+   * Gets the model that holds the generated calendar.
+   */
+  CalendarModel getModel() {
+    return model;
+  }
+
+  /**
+   * Gets the generated calendar.
+   */
+  SingleCalendar getCalendar() {
+    return model.getCurrentCalendar();
+  }
+
+  /**
+   * Gets the number of days the start times of the entries are spread over.
+   */
+  int getSpanDays() {
+    return spanDays;
+  }
+
+  /**
+   * Gets the number of generated entries.
+   */
+  int size() {
+    return names.length;
+  }
+
+  /**
+   * Gets the name of the given entry.
+   */
+  String getName(int entry) {
+    return names[entry];
+  }
+
+  /**
+   * Gets the start date time of the given entry, or of the first occurrence of a series.
+   */
+  String getStart(int entry) {
+    return starts[entry];
+  }
+
+  /**
+   * Checks if the given entry is a recurring series.
+   */
+  boolean isRecurring(int entry) {
+    return isRecurring[entry];
+  }
+
+  /**
+   * Finds the first entry at or after the given one that is a recurring series, or the given
+   * entry if there are no series after it.
+   */
+  int findSeries(int entry) {
+    for (int i = entry; i < names.length; i++) {
+      if (isRecurring[i]) {
+        return i;
+      }
+    }
+    return entry;
+  }
+
+  /**
+   * Picks a start time within the days of the calendar, on a quarter of an hour between 6 AM and
+   * 9 PM. Keeping to the daytime keeps events clear of midnight and of daylight saving changes.
+   */
+  LocalDateTime randomStart(Random random) {
+    return FIRST_DAY.plusDays(random.nextInt(spanDays))
+            .atTime(6 + random.nextInt(15), 15 * random.nextInt(4));
+  }
+
+  /**
+   * Picks the given number of start times within the days of the calendar, for queries that
+   * should not all hit the same day.
+   */
+  LocalDateTime[] randomStarts(int count, long seed) {
+    Random random = new Random(seed);
+    LocalDateTime[] result = new LocalDateTime[count];
+    for (int i = 0; i < count; i++) {
+      result[i] = randomStart(random);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,170 @@
+package benchmarks;
+
+import controller.BasicCalendarController;
+import controller.command.ArgumentGrammar;
+import controller.command.CommandArguments;
+import controller.command.CommandLexer;
+import controller.command.CommandLine;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.BasicCalendarModel;
+import utils.ParsingUtils;
+import view.BasicCalendarView;
+
+/**
+ * Measures the lines per second a script runs at in headless mode and in quiet batch mode, where
+ * only errors and the summary are written. Also measures the lines per second the create command's
+ * arguments are parsed at, by the compiled grammar and next to the way they were parsed before, by
+ * splitting the line and looking every keyword up in the tokens:
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar CommandBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CommandBenchmark {
+
+  private static final int LINE_COUNT = 1024;
+  private static final int SCRIPT_LINE_COUNT = 20_000;
+
+  private static final Set<String> CREATE_KEY_WORDS = Set.of("from", "to", "on", "repeats", "for",
+          "until", "description", "location", "--name", "--timezone");
+  private static final ArgumentGrammar CREATE_GRAMMAR = ArgumentGrammar.keyWords("from", "to",
+          "on", "repeats", "for", "until", "description", "location", "--name", "--timezone")
+          .flags("--autoDecline", "--public").fields("name");
+  private static final int NAME = CREATE_GRAMMAR.slot("name");
+
+  private final CommandLexer lexer = new CommandLexer();
+  private String[] lines;
+  private Path script;
+  private int next;
+
+  /**
+   * Generates the create commands to parse and the script to run.
+   *
+   * @throws IOException if the script cannot be written.
+   */
+  @Setup
+  public void setUp() throws IOException {
+    lines = new String[LINE_COUNT];
+    LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+    for (int i = 0; i < LINE_COUNT; i++) {
+      lines[i] = createLine(i, start.plusDays(i));
+    }
+    script = Files.createTempFile("script", ".txt");
+    try (BufferedWriter writer = Files.newBufferedWriter(script)) {
+      writer.write("create calendar --name work --timezone UTC");
+      writer.newLine();
+      writer.write("use calendar --name work");
+      writer.newLine();
+      for (int i = 0; i < SCRIPT_LINE_COUNT - 3; i++) {
+        LocalDateTime dateTime = start.plusHours(i / 3);
+        switch (i % 3) {
+          case 0:
+            writer.write(singleEventLine(i, dateTime));
+            break;
+          case 1:
+            writer.write("show status on " + dateTime);
+            break;
+          default:
+            writer.write("edit event location \"Team sync " + (i - 2) + "\" from " + dateTime
+                    + " to " + dateTime.plusMinutes(30) + " with \"Room 5\"");
+        }
+        writer.newLine();
+      }
+      writer.write("exit");
+      writer.newLine();
+    }
+  }
+
+  /**
+   * Deletes the script.
+   *
+   * @throws IOException if the script cannot be deleted.
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.delete(script);
+  }
+
+  @Benchmark
+  public CommandArguments parseWithGrammar() {
+    CommandLine line = lexer.tokenize(lines[next++ % LINE_COUNT]);
+    CommandArguments arguments = CREATE_GRAMMAR.parse(line);
+    arguments.set(NAME, arguments.valueAfter(line.get(2).equals("--autoDecline") ? 2 : 1));
+    return arguments;
+  }
+
+  @Benchmark
+  public Map<String, String> parseWithSplit() {
+    String[] input = lines[next++ % LINE_COUNT].split(" ");
+    Map<String, String> argMap = new HashMap<>();
+    int nameIndex = input[2].equals("--autoDecline") ? 2 : 1;
+    argMap.put("name", ParsingUtils.getKeyWordValue(input, nameIndex, CREATE_KEY_WORDS));
+    argMap.put("isAutoDecline",
+            Arrays.asList(input).contains("--autoDecline") ? "true" : "false");
+    argMap.put("isPublic", Arrays.asList(input).contains("--public") ? "true" : "false");
+    ParsingUtils.updateArgMap(input, CREATE_KEY_WORDS, argMap);
+    return argMap;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SCRIPT_LINE_COUNT)
+  public void runHeadlessScript() {
+    StringBuilder output = new StringBuilder();
+    new BasicCalendarController(new BasicCalendarModel(), new BasicCalendarView(output),
+            new ByteArrayInputStream(new byte[0]))
+            .startApp(new String[] {"--mode", "headless", script.toString()});
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SCRIPT_LINE_COUNT)
+  public void runQuietBatchScript() {
+    StringBuilder output = new StringBuilder();
+    new BasicCalendarController(new BasicCalendarModel(), new BasicCalendarView(output, false),
+            new ByteArrayInputStream(new byte[0]))
+            .startApp(new String[] {"--mode", "batch", script.toString(), "--quiet"});
+  }
+
+  private static String createLine(int index, LocalDateTime start) {
+    if (index % 2 == 0) {
+      return singleEventLine(index, start);
+    }
+    return "create event --autoDecline Review" + index + " from " + start + " to "
+            + start.plusHours(1) + " repeats TR for 6 times";
+  }
+
+  private static String singleEventLine(int index, LocalDateTime start) {
+    return "create event \"Team sync " + index + "\" from " + start + " to "
+            + start.plusMinutes(30) + " description \"weekly planning\" location \"Room 4\"";
+  }
+}
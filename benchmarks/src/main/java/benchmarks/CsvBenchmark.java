@@ -0,0 +1,99 @@
+package benchmarks;
+
+import controller.features.Features;
+import controller.features.GuiFeatures;
+import controller.fileexporter.CsvFileExporter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import model.BasicCalendarModel;
+import model.CalendarModel;
+import view.GuiView;
+
+/**
+ * Measures exporting the calendar to a CSV file and importing that file into an empty calendar.
+ * Recurring series are exported as one row per occurrence, so the files hold more rows than the
+ * calendar holds entries.
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CsvBenchmark extends CalendarBenchmark {
+
+  private File exportFile;
+  private File importFile;
+
+  /**
+   * Generates the calendar and exports it once, as the file to import.
+   *
+   * @throws IOException if the files cannot be written.
+   */
+  @Setup
+  public void setUp() throws IOException {
+    buildFixture();
+    exportFile = File.createTempFile("export", ".csv");
+    importFile = File.createTempFile("import", ".csv");
+    new CsvFileExporter().export(fixture.getCalendar(), importFile.getAbsolutePath());
+  }
+
+  /**
+   * Deletes the files of the benchmark.
+   */
+  @TearDown
+  public void tearDown() {
+    exportFile.delete();
+    importFile.delete();
+  }
+
+  @Benchmark
+  public Path exportCsv() throws IOException {
+    return new CsvFileExporter().export(fixture.getCalendar(), exportFile.getAbsolutePath());
+  }
+
+  @Benchmark
+  public CalendarModel importCsv() {
+    CalendarModel model = new BasicCalendarModel();
+    model.addCalendar(CalendarFixture.CALENDAR_NAME, CalendarFixture.TIME_ZONE);
+    model.useCalendar(CalendarFixture.CALENDAR_NAME);
+    Features features = new GuiFeatures(model, new SilentView());
+    features.importCSV(importFile.getAbsolutePath());
+    return model;
+  }
+
+  /**
+   * A view that ignores the messages of the import.
+   */
+  private static class SilentView implements GuiView {
+
+    @Override
+    public void addFeatures(Features features) {
+      // nothing to show
+    }
+
+    @Override
+    public void setUp() {
+      // nothing to show
+    }
+
+    @Override
+    public void refresh() {
+      // nothing to show
+    }
+
+    @Override
+    public void displayError(String message) {
+      // nothing to show
+    }
+
+    @Override
+    public void displayMessage(String message) {
+      // nothing to show
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package benchmarks;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import utils.DateTimeUtils;
+
+/**
+ * Measures the date time helpers every command, imported row and shown event goes through, next to
+ * the way they were written before, which built their formatters, patterns and zones on every call.
+ * Run it with the GC profiler to see the bytes allocated by every call:
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar DateTimeBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DateTimeBenchmark {
+
+  private static final int SAMPLE_COUNT = 1024;
+  private static final String TIME_ZONE = "America/New_York";
+
+  private String[] dateTimes;
+  private ZonedDateTime[] zonedDateTimes;
+  private int next;
+
+  /**
+   * Generates the date times to parse and format.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(CalendarBenchmark.SEED);
+    LocalDateTime first = LocalDateTime.of(2025, 1, 1, 0, 0);
+    dateTimes = new String[SAMPLE_COUNT];
+    zonedDateTimes = new ZonedDateTime[SAMPLE_COUNT];
+    for (int i = 0; i < SAMPLE_COUNT; i++) {
+      LocalDateTime dateTime = first.plusMinutes(random.nextInt(365 * 24 * 4) * 15L);
+      dateTimes[i] = dateTime.toString();
+      zonedDateTimes[i] = dateTime.atZone(ZoneId.of(TIME_ZONE));
+    }
+  }
+
+  @Benchmark
+  public boolean isInvalidDateTimeString() {
+    return DateTimeUtils.isInvalidDateTimeString(dateTimes[next++ % SAMPLE_COUNT]);
+  }
+
+  @Benchmark
+  public boolean isInvalidDateTimeStringWithRegex() {
+    return !dateTimes[next++ % SAMPLE_COUNT].matches("^\\d{4}-(0[1-9]|1[0-2])-(0[1-9]|[12][0-9]"
+            + "|3[01])T(0[0-9]|1[0-9]|2[0-3]):[0-5][0-9]$");
+  }
+
+  @Benchmark
+  public ZonedDateTime stringToZdt() {
+    return DateTimeUtils.stringToZdt(dateTimes[next++ % SAMPLE_COUNT], TIME_ZONE);
+  }
+
+  @Benchmark
+  public ZonedDateTime stringToZdtWithParse() {
+    return LocalDateTime.parse(dateTimes[next++ % SAMPLE_COUNT]).atZone(ZoneId.of(TIME_ZONE));
+  }
+
+  @Benchmark
+  public String zdtToString() {
+    return DateTimeUtils.zdtToString(zonedDateTimes[next++ % SAMPLE_COUNT], true);
+  }
+
+  @Benchmark
+  public String zdtToStringWithFormatter() {
+    return zonedDateTimes[next++ % SAMPLE_COUNT].format(
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
+  }
+
+  @Benchmark
+  public String convertTo12HourFormat() {
+    return DateTimeUtils.convertTo12HourFormat(dateTimes[next++ % SAMPLE_COUNT]);
+  }
+
+  @Benchmark
+  public String convertTo12HourFormatWithFormatters() {
+    return LocalDateTime.parse(dateTimes[next++ % SAMPLE_COUNT],
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"))
+            .format(DateTimeFormatter.ofPattern("MMM d, yyyy h:mm a"));
+  }
+}
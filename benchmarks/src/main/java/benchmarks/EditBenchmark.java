@@ -0,0 +1,80 @@
+package benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures the operations that change many events at once: editing a series, changing the time
+ * zone of the calendar and copying a week of events to another calendar. The edits flip a property
+ * between two values, so the calendar keeps its size however often they run.
+ */
+public class EditBenchmark extends CalendarBenchmark {
+
+  private static final int TARGET_COUNT = 64;
+  private static final String[] TIME_ZONES = {"America/New_York", "Europe/London"};
+
+  private String[] targetNames;
+  private String[] followingStarts;
+  private String[] copyStarts;
+  private String copyTarget;
+  private int copies;
+  private int next;
+
+  /**
+   * Generates the calendar and picks the series to edit and the weeks to copy, spread over the
+   * whole calendar. Without any series, single events are edited instead.
+   */
+  @Setup
+  public void setUp() {
+    buildFixture();
+    targetNames = new String[TARGET_COUNT];
+    followingStarts = new String[TARGET_COUNT];
+    copyStarts = new String[TARGET_COUNT];
+    for (int i = 0; i < TARGET_COUNT; i++) {
+      int entry = fixture.findSeries((int) ((long) i * fixture.size() / TARGET_COUNT));
+      LocalDateTime start = LocalDateTime.parse(fixture.getStart(entry));
+      targetNames[i] = fixture.getName(entry);
+      followingStarts[i] = (fixture.isRecurring(entry) ? start.plusWeeks(1) : start).toString();
+      copyStarts[i] = start.toLocalDate().toString();
+    }
+  }
+
+  /**
+   * Adds an empty calendar to copy events into, so copies do not pile up across iterations.
+   */
+  @Setup(Level.Iteration)
+  public void setUpCopyTarget() {
+    copyTarget = "copy " + copies++;
+    fixture.getModel().addCalendar(copyTarget, CalendarFixture.TIME_ZONE);
+  }
+
+  @Benchmark
+  public void editMultipleEventsAll() {
+    int target = next++ % TARGET_COUNT;
+    fixture.getCalendar().editMultipleEventsAll(targetNames[target], "description",
+            (next & 1) == 0 ? "even" : "odd", false);
+  }
+
+  @Benchmark
+  public void editMultipleEventsFollowing() {
+    int target = next++ % TARGET_COUNT;
+    fixture.getCalendar().editMultipleEventsFollowing(targetNames[target],
+            followingStarts[target], "location", (next & 1) == 0 ? "even" : "odd", false);
+  }
+
+  @Benchmark
+  public void changeTimezone() {
+    fixture.getCalendar().changeTimezone(TIME_ZONES[next++ & 1]);
+  }
+
+  @Benchmark
+  public void copyMultipleEventsRange() {
+    String start = copyStarts[next++ % TARGET_COUNT];
+    fixture.getModel().copyMultipleEventsRange(copyTarget, start,
+            LocalDate.parse(start).plusDays(6).toString(), start, false);
+  }
+}
@@ -0,0 +1,59 @@
+package benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+import static utils.DateTimeUtils.daysOfWeekToString;
+
+/**
+ * Measures adding events with autoDecline, which checks every new event for conflicts with the
+ * calendar. The calendar is generated again for every iteration so that the events added by one
+ * iteration do not grow the calendar the next one runs against. An event that is declined is
+ * measured too, since finding the conflict is most of the work.
+ */
+public class InsertBenchmark extends CalendarBenchmark {
+
+  private static final int START_COUNT = 4096;
+
+  private LocalDateTime[] starts;
+  private int next;
+
+  /**
+   * Generates the calendar and the start times of the events to add.
+   */
+  @Setup(Level.Iteration)
+  public void setUp() {
+    buildFixture();
+    starts = fixture.randomStarts(START_COUNT, SEED + 1);
+  }
+
+  @Benchmark
+  public boolean insertSingle() {
+    LocalDateTime start = starts[next++ % START_COUNT];
+    try {
+      fixture.getCalendar().addSingleEvent("Insert " + next, start.toString(),
+              start.plusHours(1).toString(), "", "", true, false);
+      return true;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  @Benchmark
+  public boolean insertRecurring() {
+    LocalDateTime start = starts[next++ % START_COUNT];
+    try {
+      fixture.getCalendar().addRecurringEventFrequency("Insert " + next, start.toString(),
+              start.plusHours(1).toString(), "", "",
+              daysOfWeekToString(List.of(start.getDayOfWeek())),
+              CalendarFixture.SERIES_LENGTH, true, false);
+      return true;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+}
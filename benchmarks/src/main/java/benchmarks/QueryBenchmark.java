@@ -0,0 +1,45 @@
+package benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures the queries that look at a single day or a single moment of the calendar. The queries
+ * cycle through a fixed set of random times, so they do not all hit the same day.
+ */
+public class QueryBenchmark extends CalendarBenchmark {
+
+  private static final int QUERY_COUNT = 1024;
+
+  private String[] dates;
+  private String[] dateTimes;
+  private int next;
+
+  /**
+   * Generates the calendar and the times to query.
+   */
+  @Setup
+  public void setUp() {
+    buildFixture();
+    LocalDateTime[] starts = fixture.randomStarts(QUERY_COUNT, SEED + 2);
+    dates = new String[QUERY_COUNT];
+    dateTimes = new String[QUERY_COUNT];
+    for (int i = 0; i < QUERY_COUNT; i++) {
+      dates[i] = starts[i].toLocalDate().toString();
+      dateTimes[i] = starts[i].toString();
+    }
+  }
+
+  @Benchmark
+  public Map<String, String>[] getEventsOnDate() {
+    return fixture.getCalendar().getEventsOnDate(dates[next++ % QUERY_COUNT]);
+  }
+
+  @Benchmark
+  public String getStatusOnDateTime() {
+    return fixture.getCalendar().getStatusOnDateTime(dateTimes[next++ % QUERY_COUNT]);
+  }
+}
@@ -0,0 +1,47 @@
+package benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures listing the events of a window of the calendar, for windows of a day up to a month.
+ */
+public class RangeBenchmark extends CalendarBenchmark {
+
+  private static final int QUERY_COUNT = 1024;
+
+  /**
+   * The number of days in the queried window.
+   */
+  @Param({"1", "7", "31"})
+  public int windowDays;
+
+  private String[] starts;
+  private String[] ends;
+  private int next;
+
+  /**
+   * Generates the calendar and the windows to query.
+   */
+  @Setup
+  public void setUp() {
+    buildFixture();
+    LocalDateTime[] windowStarts = fixture.randomStarts(QUERY_COUNT, SEED + 3);
+    starts = new String[QUERY_COUNT];
+    ends = new String[QUERY_COUNT];
+    for (int i = 0; i < QUERY_COUNT; i++) {
+      starts[i] = windowStarts[i].toString();
+      ends[i] = windowStarts[i].plusDays(windowDays).toString();
+    }
+  }
+
+  @Benchmark
+  public Map<String, String>[] getEventsRange() {
+    int query = next++ % QUERY_COUNT;
+    return fixture.getCalendar().getEventsRange(starts[query], ends[query]);
+  }
+}
@@ -1,12 +1,30 @@
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
 import static javax.swing.SwingUtilities.invokeLater;
 
 import controller.BasicCalendarController;
 import controller.CalendarController;
 import controller.GuiCalendarController;
+import controller.metrics.CommandMetrics;
+import controller.metrics.MetricsFileDump;
 import model.BasicCalendarModel;
 import model.CalendarModel;
+import model.JournaledCalendarModel;
 import view.BasicCalendarView;
 import view.CalendarView;
 import view.GuiCalendarView;
@@ -17,42 +35,197 @@ import view.GuiView;
  */
 public class CalendarApp {
 
-  private static final Set<String> validModes = Set.of("interactive", "headless");
+  private static final Set<String> validModes = Set.of("interactive", "headless", "batch");
+
+  /**
+   * The size of the buffer the output of a batch run is written through.
+   */
+  private static final int BATCH_OUTPUT_BUFFER_SIZE = 1 << 16;
+
+  /**
+   * The seconds between two dumps of the metrics to the file given after "--metrics".
+   */
+  private static final long METRICS_DUMP_PERIOD_SECONDS = 10;
 
   /**
    * The main method to start the calendar application. It validates the arguments and starts the
-   * application by creating a model, view, and controller.
+   * application by creating a model, view, and controller. The arguments can also hold
+   * "--journal" followed by a directory, to keep the calendars in that directory across runs,
+   * "--metrics" followed by a file, to dump the metrics of the commands to that file every few
+   * seconds, "--record" followed by a file, to write a flight recording of the run to that file
+   * on exit, and "--plain", to write the output without colors. The metrics are also registered
+   * over JMX.
    *
-   * @param args the arguments to start the application.
+   * @param startArgs the arguments to start the application.
    */
-  public static void main(String[] args) {
-    final CalendarModel model = new BasicCalendarModel();
+  public static void main(String[] startArgs) {
+    final List<String> argList = new ArrayList<>(Arrays.asList(startArgs));
+    final CalendarModel model = createModel(argList);
+    final CommandMetrics metrics = createMetrics(argList);
+    startRecording(argList);
+    final boolean colored = !argList.remove("--plain");
+    final String[] args = argList.toArray(new String[0]);
     final CalendarController controller;
 
     if (args.length == 0) { // run in gui mode
       final GuiView view = new GuiCalendarView("Calendar App");
-      controller = new GuiCalendarController(model, view);
+      controller = new GuiCalendarController(model, view, metrics);
       // Run the GUI asynchronously without blocking
       invokeLater(() -> controller.startApp(args));
     } else {
       validateStartArgs(args);
-      final CalendarView view = new BasicCalendarView(System.out);
-      controller = new BasicCalendarController(model, view, System.in);
+      if ("batch".equalsIgnoreCase(args[1])) {
+        runBatch(model, metrics, args, colored);
+        return;
+      }
+      final CalendarView view = new BasicCalendarView(System.out, colored);
+      controller = new BasicCalendarController(model, view, System.in, metrics);
       controller.startApp(args);
     }
   }
 
+  /**
+   * Runs a script in batch mode. The output goes through a large buffer that is written out when
+   * it fills and when the run ends, instead of after every line.
+   *
+   * @param model   the model to run the script against.
+   * @param metrics the metrics the commands record into.
+   * @param args    the arguments to start the application.
+   * @param colored whether to color the output.
+   */
+  private static void runBatch(
+          CalendarModel model,
+          CommandMetrics metrics,
+          String[] args,
+          boolean colored) {
+    final Writer out = new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(FileDescriptor.out)),
+            BATCH_OUTPUT_BUFFER_SIZE);
+    try {
+      final CalendarView view = new BasicCalendarView(out, colored);
+      new BasicCalendarController(model, view, System.in, metrics).startApp(args);
+    } finally {
+      try {
+        out.flush();
+      } catch (IOException e) {
+        System.err.println("Cannot write the output: " + e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Creates the model, kept in the directory given after "--journal" if there is one. The
+   * "--journal" argument and its directory are taken out of the arguments.
+   *
+   * @param args the arguments to start the application.
+   *
+   * @return the model to start the application with.
+   */
+  private static CalendarModel createModel(List<String> args) {
+    int index = args.indexOf("--journal");
+    if (index < 0) {
+      return new BasicCalendarModel();
+    }
+    if (index + 1 >= args.size()) {
+      throw new IllegalArgumentException("Missing directory for journal");
+    }
+    Path directory = Path.of(args.get(index + 1));
+    args.subList(index, index + 2).clear();
+    try {
+      JournaledCalendarModel model = new JournaledCalendarModel(directory);
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        try {
+          model.close();
+        } catch (IOException e) {
+          System.err.println("Cannot close the journal: " + e.getMessage());
+        }
+      }));
+      return model;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot open the journal in " + directory, e);
+    }
+  }
+
+  /**
+   * Creates the metrics the commands record into and registers them over JMX. If "--metrics" is
+   * given, followed by a file, the metrics are dumped to the file every few seconds and when the
+   * application exits. The "--metrics" argument and its file are taken out of the arguments.
+   *
+   * @param args the arguments to start the application.
+   *
+   * @return the metrics to start the application with.
+   */
+  private static CommandMetrics createMetrics(List<String> args) {
+    final CommandMetrics metrics = new CommandMetrics();
+    try {
+      metrics.register();
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+    }
+    int index = args.indexOf("--metrics");
+    if (index < 0) {
+      return metrics;
+    }
+    if (index + 1 >= args.size()) {
+      throw new IllegalArgumentException("Missing file for metrics");
+    }
+    Path file = Path.of(args.get(index + 1));
+    args.subList(index, index + 2).clear();
+    MetricsFileDump dump = new MetricsFileDump(metrics, file, METRICS_DUMP_PERIOD_SECONDS);
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      try {
+        dump.close();
+      } catch (IOException e) {
+        System.err.println("Cannot dump the metrics: " + e.getMessage());
+      }
+    }));
+    return metrics;
+  }
+
+  /**
+   * Starts a flight recording, with the default settings, that is written to the file given after
+   * "--record" when the application exits. The recording holds the events of the calendar
+   * operations next to those of the JVM, such as garbage collections. The "--record" argument and
+   * its file are taken out of the arguments.
+   *
+   * @param args the arguments to start the application.
+   */
+  private static void startRecording(List<String> args) {
+    int index = args.indexOf("--record");
+    if (index < 0) {
+      return;
+    }
+    if (index + 1 >= args.size()) {
+      throw new IllegalArgumentException("Missing file for recording");
+    }
+    Path file = Path.of(args.get(index + 1));
+    args.subList(index, index + 2).clear();
+    try {
+      Recording recording = new Recording(Configuration.getConfiguration("default"));
+      recording.setName("calendar");
+      recording.setDestination(file);
+      recording.setDumpOnExit(true);
+      recording.start();
+    } catch (IOException | ParseException e) {
+      System.err.println("Cannot start the recording: " + e.getMessage());
+    }
+  }
 
   /**
    * Validates the arguments to start the application. It checks if the arguments are of the correct
-   * length and if the first argument is "--mode" and the second argument is either "interactive" or
-   * "headless". If the mode is "headless", it checks if the third argument for file name is
-   * present.
+   * length and if the first argument is "--mode" and the second argument is "interactive",
+   * "headless" or "batch". If the mode is "headless" or "batch", it checks if the third argument
+   * for file name is present. Only batch mode takes a fourth argument, "--quiet".
    *
    * @param startAppArgs the arguments to start the application.
    */
   private static void validateStartArgs(String[] startAppArgs) {
-    if (startAppArgs.length != 2 && startAppArgs.length != 3) {
+    if ("batch".equalsIgnoreCase(startAppArgs.length > 1 ? startAppArgs[1] : "")
+            && startAppArgs.length == 4) {
+      if (!"--quiet".equals(startAppArgs[3])) {
+        throw new IllegalArgumentException("Invalid batch option: " + startAppArgs[3]);
+      }
+    } else if (startAppArgs.length != 2 && startAppArgs.length != 3) {
       throw new IllegalArgumentException("Invalid length of arguments: expected 2 or 3 arguments "
               + "only, given " + startAppArgs.length + " arguments");
     }
@@ -69,6 +242,10 @@ public class CalendarApp {
       throw new IllegalArgumentException("Missing file name for headless mode");
     }
 
+    if ("batch".equalsIgnoreCase(startAppArgs[1]) && startAppArgs.length < 3) {
+      throw new IllegalArgumentException("Missing file name for batch mode");
+    }
+
   }
 
 }
\ No newline at end of file
@@ -1,32 +1,58 @@
 package controller;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Scanner;
-import java.util.function.Supplier;
 
 import controller.command.Command;
+import controller.command.CommandLexer;
+import controller.command.CommandLine;
 import controller.command.CopyCommand;
 import controller.command.CreateCommand;
 import controller.command.EditCommand;
 import controller.command.ExportCommand;
 import controller.command.PrintCommand;
 import controller.command.ShowCommand;
+import controller.command.TimedCommand;
+import controller.command.Transaction;
+import controller.command.TransactionCommand;
 import controller.command.UseCommand;
+import controller.metrics.CommandMetrics;
 import model.CalendarModel;
 import view.CalendarView;
+import view.QuietCalendarView;
 
 /**
  * The BasicCalendarController class is an implementation of the CalendarController interface. This
  * class is used to control the flow of the application. It takes in user input and processes it
  * accordingly.
+ *
+ * <p>Besides the interactive and headless modes, a batch mode runs large scripts: it reads the file
+ * through a large buffer, carries on past failing commands, and ends with a summary of the commands
+ * run, the errors and the lines per second. With "--quiet" after the file name, a batch run shows
+ * only the errors and the summary.
+ *
+ * <p>The single events created between "begin" and "commit" are added as a whole at commit, or
+ * none of them are if any fails. A block still open at the end of the input is dropped and
+ * reported as an error.
+ *
+ * <p>Every command records how long it takes and whether it failed into the metrics of the
+ * controller, which "show metrics" shows.
  */
 public class BasicCalendarController implements CalendarController {
 
+  /**
+   * The size of the buffer a batch script is read through.
+   */
+  private static final int BATCH_BUFFER_SIZE = 1 << 16;
+
   /**
    * The view object that the controller will interact with.
    */
@@ -39,16 +65,38 @@ public class BasicCalendarController implements CalendarController {
   /**
    * A map that maps the command name to the command object.
    */
-  private final Map<String, Supplier<Command>> commandMap;
+  private Map<String, Command> commandMap;
+  /**
+   * The lexer that splits every line of input into tokens.
+   */
+  private final CommandLexer lexer;
+  /**
+   * The block the single events created between "begin" and "commit" are staged in.
+   */
+  private final Transaction transaction;
+  /**
+   * The count, errors and latencies of every command.
+   */
+  private final CommandMetrics metrics;
   /**
    * The scanner object that the controller will use to take in user input.
    */
   private Scanner scanner;
   /**
-   * The mode of the application. Can be either "interactive" or "headless".
+   * The mode of the application. Can be "interactive", "headless" or "batch".
    */
   private String mode;
 
+  /**
+   * Whether a batch run shows only errors and the summary.
+   */
+  private boolean quiet;
+
+  /**
+   * The number of the script line being run in batch mode.
+   */
+  private long lineNumber;
+
   /**
    * The name of the file that the application is reading from in headless mode.
    */
@@ -64,10 +112,30 @@ public class BasicCalendarController implements CalendarController {
    * @param input the input stream that the controller will use to take in user input.
    */
   public BasicCalendarController(CalendarModel model, CalendarView view, InputStream input) {
+    this(model, view, input, new CommandMetrics());
+  }
+
+  /**
+   * Constructor for the BasicCalendarController class. Initializes the controller with the given
+   * model, view, input stream and the metrics its commands record into.
+   *
+   * @param model   the model object that the controller will interact with.
+   * @param view    the view object that the controller will interact with.
+   * @param input   the input stream that the controller will use to take in user input.
+   * @param metrics the metrics the commands record into.
+   */
+  public BasicCalendarController(
+          CalendarModel model,
+          CalendarView view,
+          InputStream input,
+          CommandMetrics metrics) {
     this.model = model;
     this.view = view;
     this.scanner = new Scanner(input);
-    this.commandMap = initializeCommands();
+    this.transaction = new Transaction();
+    this.metrics = metrics;
+    this.commandMap = initializeCommands(view);
+    this.lexer = new CommandLexer();
     this.mode = "interactive";
     this.fileName = null;
   }
@@ -86,8 +154,8 @@ public class BasicCalendarController implements CalendarController {
   }
 
   /**
-   * Method to set the mode of the application. Sets the mode of the application to either
-   * "interactive" or "headless" based on the given arguments.
+   * Method to set the mode of the application. Sets the mode of the application to
+   * "interactive", "headless" or "batch" based on the given arguments.
    *
    * @param startAppArgs the arguments to start the application with.
    */
@@ -101,68 +169,111 @@ public class BasicCalendarController implements CalendarController {
         this.mode = "headless";
         this.fileName = startAppArgs[2];
         break;
+      case "batch":
+        this.mode = "batch";
+        this.fileName = startAppArgs[2];
+        this.quiet = startAppArgs.length > 3 && "--quiet".equals(startAppArgs[3]);
+        if (quiet) {
+          this.commandMap = initializeCommands(new QuietCalendarView(view));
+        }
+        break;
       default:
         throw new IllegalArgumentException("Invalid mode: " + startAppArgs[1]);
     }
   }
 
   /**
-   * Method to process the user input. Processes the user input by splitting the input into an array
-   * of strings and then executing the command based on the first element of the array. If the
-   * command is not found, an error message is displayed.
+   * Method to process the user input. Processes the user input by splitting the input into tokens
+   * and then executing the command based on the first token. If the command is not found, an error
+   * message is displayed.
    *
    * @param input the user input to process.
    *
+   * @return true if the command was executed, false if it failed.
+   *
    * @throws IllegalArgumentException if the command is not found or if the command execution fails.
    *                                  Only thrown in headless mode to stop the application. Else the
    *                                  user is prompted to enter a new command.
    */
-  private void processInput(final String input) {
-    final String[] inputArray = input.split(" ");
-    final Supplier<Command> command = commandMap.getOrDefault(inputArray[0], null);
+  private boolean processInput(final String input) {
+    final CommandLine inputLine = lexer.tokenize(input);
+    final Command command = commandMap.get(inputLine.get(0));
     if (command != null) {
       try {
-        command.get().execute(inputArray);
-        view.displayMessage("Command executed successfully");
+        command.execute(inputLine);
+        if (!quiet) {
+          view.displayMessage("Command executed successfully");
+        }
+        return true;
       } catch (IllegalArgumentException e) {
-        view.displayError(e.getMessage());
+        displayError(e.getMessage(), input);
         if (this.mode.equals("headless")) {
           throw new IllegalArgumentException(
                   "Error: " + e.getMessage() + System.lineSeparator() + " for command: " + input);
         }
       }
     } else {
-      view.displayError("Unknown command: " + input);
+      displayError("Unknown command: " + input, input);
       if (this.mode.equals("headless")) {
         throw new IllegalArgumentException("Unknown command: " + input);
       }
     }
+    return false;
+  }
+
+  /**
+   * Displays the error of a command. In batch mode the error also names the script line and the
+   * command, as the run carries on past it.
+   *
+   * @param message the error message.
+   * @param input   the command that failed.
+   */
+  private void displayError(final String message, final String input) {
+    if (this.mode.equals("batch")) {
+      view.displayError("Line " + lineNumber + ": " + message + " for command: " + input);
+    } else {
+      view.displayError(message);
+    }
   }
 
   /**
    * Method to initialize the command map. Initializes the command map with the commands that the
-   * controller can execute. Uses Supplier functional interface to create the command objects
-   * lazily.
+   * controller can execute. Commands keep no state between lines, so every command is created once
+   * and executes every line given to it.
+   *
+   * @param commandView the view the commands show their output on.
    *
    * @return the map of commands that the controller can execute.
    */
-  private Map<String, Supplier<Command>> initializeCommands() {
-    Map<String, Supplier<Command>> commands = new HashMap<>();
-    commands.put("create", () -> new CreateCommand(model));
-    commands.put("edit", () -> new EditCommand(model));
-    commands.put("print", () -> new PrintCommand(model, view));
-    commands.put("export", () -> new ExportCommand(model, view));
-    commands.put("show", () -> new ShowCommand(model, view));
-    commands.put("use", () -> new UseCommand(model));
-    commands.put("copy", () -> new CopyCommand(model));
+  private Map<String, Command> initializeCommands(CalendarView commandView) {
+    Map<String, Command> commands = new HashMap<>();
+    addCommand(commands, "create", new CreateCommand(model, transaction));
+    addCommand(commands, "edit", new EditCommand(model));
+    addCommand(commands, "print", new PrintCommand(model, commandView));
+    addCommand(commands, "export", new ExportCommand(model, commandView));
+    addCommand(commands, "show", new ShowCommand(model, commandView, metrics));
+    addCommand(commands, "use", new UseCommand(model));
+    addCommand(commands, "copy", new CopyCommand(model));
+    final Command transactionCommand = new TransactionCommand(model, commandView, transaction);
+    addCommand(commands, "begin", transactionCommand);
+    addCommand(commands, "commit", transactionCommand);
+    addCommand(commands, "rollback", transactionCommand);
     return commands;
   }
 
+  /**
+   * Adds a command to the map under its name, timed into the metrics of that name.
+   */
+  private void addCommand(Map<String, Command> commands, String name, Command command) {
+    commands.put(name, new TimedCommand(name, command, metrics));
+  }
+
+
   /**
    * Handles the mode of the application by displaying the appropriate message based on the mode. If
    * the mode is interactive, the user is prompted to enter commands. If the mode is headless, the
    * user is prompted to wait for the output. Changes the scanner to read from the file in headless
-   * mode.
+   * mode. Batch mode reads the file itself.
    */
   private void handleMode() {
     if (this.mode.equals("interactive")) {
@@ -170,10 +281,69 @@ public class BasicCalendarController implements CalendarController {
     } else if (this.mode.equals("headless")) {
       view.displayMessage("You are in headless mode, please wait for the output");
       changeScanner();
+    } else if (this.mode.equals("batch")) {
+      if (!quiet) {
+        view.displayMessage("You are in batch mode, please wait for the output");
+      }
+      processBatch();
+      return;
     }
     processInputLoop();
   }
 
+  /**
+   * Runs every line of the script in batch mode, until the end of the file or a line with "exit".
+   * A failing command is reported and the run carries on with the next line. Ends with a summary
+   * of the commands run, the errors and the lines per second.
+   */
+  private void processBatch() {
+    long commands = 0;
+    long errors = 0;
+    final long start = System.nanoTime();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            Files.newInputStream(Paths.get(this.fileName)), StandardCharsets.UTF_8),
+            BATCH_BUFFER_SIZE)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        final String userInput = line.trim();
+        if (userInput.isEmpty()) {
+          continue;
+        }
+        if (userInput.equalsIgnoreCase("exit")) {
+          break;
+        }
+        commands++;
+        if (!processInput(userInput)) {
+          errors++;
+        }
+      }
+      if (dropOpenTransaction()) {
+        errors++;
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException(
+              "Error (No such file or directory): " + e.getMessage());
+    }
+    final long millis = (System.nanoTime() - start) / 1_000_000;
+    view.displayMessage("Ran " + commands + " commands with " + errors + " errors in " + millis
+            + " ms (" + commands * 1000 / Math.max(millis, 1) + " lines/sec)");
+  }
+
+  /**
+   * Drops the events staged in a block that was begun and never committed, and reports it.
+   *
+   * @return true if a block was open, false otherwise.
+   */
+  private boolean dropOpenTransaction() {
+    if (!transaction.isOpen()) {
+      return false;
+    }
+    view.displayError("Transaction not committed, " + transaction.rollback()
+            + " staged events were dropped");
+    return true;
+  }
+
   /**
    * Changes the scanner to read from the file in headless mode. If the file is not found, an error
    * message is displayed.
@@ -200,6 +370,9 @@ public class BasicCalendarController implements CalendarController {
       }
 
       if (userInput.equalsIgnoreCase("exit")) {
+        if (dropOpenTransaction() && this.mode.equals("headless")) {
+          throw new IllegalArgumentException("Error: Transaction not committed before 'exit'");
+        }
         view.displayMessage("Goodbye!");
         break;
       }
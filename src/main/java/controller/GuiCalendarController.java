@@ -2,6 +2,8 @@ package controller;
 
 import controller.features.Features;
 import controller.features.GuiFeatures;
+import controller.features.TimedFeatures;
+import controller.metrics.CommandMetrics;
 import model.CalendarModel;
 import view.GuiView;
 
@@ -14,6 +16,7 @@ public class GuiCalendarController implements CalendarController {
 
   private final CalendarModel model;
   private final GuiView view;
+  private final CommandMetrics metrics;
 
   /**
    * Constructor for the GuiCalendarController class. Initializes the controller with the given view
@@ -23,16 +26,29 @@ public class GuiCalendarController implements CalendarController {
    * @param view  the GUI view that displays the calendar interface
    */
   public GuiCalendarController(CalendarModel model, GuiView view) {
+    this(model, view, new CommandMetrics());
+  }
+
+  /**
+   * Constructor for the GuiCalendarController class. Initializes the controller with the given
+   * view, model and the metrics every call to the features records into.
+   *
+   * @param model   the calendar model that contains the application data
+   * @param view    the GUI view that displays the calendar interface
+   * @param metrics the metrics the features record into
+   */
+  public GuiCalendarController(CalendarModel model, GuiView view, CommandMetrics metrics) {
     this.model = model;
     this.view = view;
+    this.metrics = metrics;
   }
 
   /**
-   * Sets up the controller by initializing the features and view. Creates the features object and
-   * connects it to the view, then initiates the view setup process.
+   * Sets up the controller by initializing the features and view. Creates the features object,
+   * timed into the metrics, and connects it to the view, then initiates the view setup process.
    */
   private void setup() {
-    Features features = new GuiFeatures(model, view);
+    Features features = new TimedFeatures(new GuiFeatures(model, view), metrics);
     view.addFeatures(features);
     view.setUp();
   }
@@ -1,7 +1,5 @@
 package controller.command;
 
-import java.util.Map;
-
 import model.CalendarModel;
 import view.CalendarView;
 
@@ -50,11 +48,11 @@ public abstract class AbstractCommand implements Command {
   }
 
   /**
-   * Parses the input arguments into a map of key-value pairs.
+   * Parses the input arguments by the grammar of the command.
    *
    * @param inputArguments the input arguments to be parsed
    *
-   * @return a map of key-value pairs
+   * @return the parsed arguments, valid until the line is parsed again
    */
-  protected abstract Map<String, String> parseInputArguments(String[] inputArguments);
+  protected abstract CommandArguments parseInputArguments(CommandLine inputArguments);
 }
\ No newline at end of file
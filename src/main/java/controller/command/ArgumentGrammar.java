@@ -0,0 +1,146 @@
+package controller.command;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The arguments a command understands, compiled once per command. A grammar gives every keyword,
+ * flag and field a slot, and parses a CommandLine into a CommandArguments by those slots:
+ *
+ * <ul>
+ *   <li>a keyword, like {@code from}, takes the words after it up to the next keyword or
+ *   {@code --} option as its value, or the quoted phrase right after it,</li>
+ *   <li>a flag, like {@code --public}, is only present or absent,</li>
+ *   <li>a field is never read from the line; the command fills it with a value it works out
+ *   itself, like the name of the event.</li>
+ * </ul>
+ *
+ * <p>A line is parsed in one pass over its tokens, recording where every keyword and flag first
+ * appears, and every keyword's value is then read from the tokens after it. Tokens are matched
+ * against the keywords where they are in the line, so a token that is never read never becomes a
+ * string. Grammars are immutable, so a command keeps its grammar in a static field.
+ */
+public final class ArgumentGrammar {
+
+  private final String[] keyWords;
+  private final String[] flags;
+  private final String[] fields;
+  private final Map<String, Integer> slots = new HashMap<>();
+  /**
+   * The keywords followed by the flags, by slot.
+   */
+  private final String[] matched;
+
+  private ArgumentGrammar(String[] keyWords, String[] flags, String[] fields) {
+    this.keyWords = keyWords;
+    this.flags = flags;
+    this.fields = fields;
+    for (String[] names : new String[][] {keyWords, flags, fields}) {
+      for (String name : names) {
+        if (slots.putIfAbsent(name, slots.size()) != null) {
+          throw new IllegalArgumentException("Duplicate argument: " + name);
+        }
+      }
+    }
+    this.matched = new String[keyWords.length + flags.length];
+    System.arraycopy(keyWords, 0, matched, 0, keyWords.length);
+    System.arraycopy(flags, 0, matched, keyWords.length, flags.length);
+  }
+
+  /**
+   * Creates a grammar with the given keywords.
+   *
+   * @param keyWords the keywords that take a value
+   *
+   * @return the grammar
+   */
+  public static ArgumentGrammar keyWords(String... keyWords) {
+    return new ArgumentGrammar(keyWords.clone(), new String[0], new String[0]);
+  }
+
+  /**
+   * Returns a grammar with the keywords and fields of this one and the given flags.
+   *
+   * @param flags the options that are only present or absent
+   *
+   * @return the grammar
+   */
+  public ArgumentGrammar flags(String... flags) {
+    return new ArgumentGrammar(keyWords, flags.clone(), fields);
+  }
+
+  /**
+   * Returns a grammar with the keywords and flags of this one and the given fields.
+   *
+   * @param fields the arguments the command fills itself
+   *
+   * @return the grammar
+   */
+  public ArgumentGrammar fields(String... fields) {
+    return new ArgumentGrammar(keyWords, flags, fields.clone());
+  }
+
+  /**
+   * Returns the slot of the given keyword, flag or field.
+   *
+   * @param name the keyword, flag or field
+   *
+   * @return the slot
+   *
+   * @throws IllegalArgumentException if the grammar does not have the argument
+   */
+  public int slot(String name) {
+    final Integer slot = slots.get(name);
+    if (slot == null) {
+      throw new IllegalArgumentException("Unknown argument: " + name);
+    }
+    return slot;
+  }
+
+  /**
+   * Parses the given line. The returned arguments belong to the line and are overwritten when the
+   * line is parsed again.
+   *
+   * @param line the line to parse
+   *
+   * @return the arguments of the line
+   */
+  public CommandArguments parse(CommandLine line) {
+    final CommandArguments arguments = line.arguments();
+    arguments.reset(slots.size(), keyWords.length);
+    for (int i = 0; i < line.size(); i++) {
+      if (line.quoteStart(i) != -1) {
+        continue;
+      }
+      final int slot = match(line, i);
+      if (slot != -1) {
+        arguments.match(i, slot);
+      }
+    }
+    for (int slot = 0; slot < keyWords.length; slot++) {
+      final int position = arguments.position(slot);
+      if (position != -1) {
+        arguments.set(slot, arguments.valueAfter(position));
+      }
+    }
+    return arguments;
+  }
+
+  private int match(CommandLine line, int index) {
+    final String text = line.text();
+    final int start = line.start(index);
+    final int length = line.end(index) - start;
+    if (length == 0) {
+      return -1;
+    }
+    final char first = text.charAt(start);
+    for (int slot = 0; slot < matched.length; slot++) {
+      final String name = matched[slot];
+      if (name.length() == length && name.charAt(0) == first
+              && text.regionMatches(start, name, 0, length)) {
+        return slot;
+      }
+    }
+    return -1;
+  }
+}
@@ -7,9 +7,10 @@ package controller.command;
 public interface Command {
 
   /**
-   * Executes the command.
+   * Executes the command. A command is created once and executes every line given to it, so it
+   * keeps no state between lines.
    *
-   * @param input the input to the command
+   * @param input the tokens of the line typed by the user
    */
-  void execute(String[] input);
+  void execute(CommandLine input);
 }
@@ -0,0 +1,169 @@
+package controller.command;
+
+import java.util.Arrays;
+
+/**
+ * The arguments of a CommandLine, by the slots of the ArgumentGrammar that parsed it. One instance
+ * belongs to every line and is filled again each time the line is parsed, so nothing is allocated
+ * for the arguments of a command but their values.
+ */
+public final class CommandArguments {
+
+  private final CommandLine line;
+  private final StringBuilder value = new StringBuilder();
+  private String[] values = new String[0];
+  private int[] positions = new int[0];
+  /**
+   * For every token, the slot of the keyword or flag it is, or -1.
+   */
+  private int[] tokenSlots = new int[0];
+  private int keyWordCount;
+  private int keyWordsFound;
+
+  CommandArguments(CommandLine line) {
+    this.line = line;
+  }
+
+  /**
+   * Returns the value of the given keyword or field.
+   *
+   * @param slot the slot of the keyword or field
+   *
+   * @return the value, or an empty string if the keyword is not in the line
+   */
+  public String get(int slot) {
+    final String result = values[slot];
+    return result == null ? "" : result;
+  }
+
+  /**
+   * Sets the value of the given field, or overrides the value of a keyword.
+   *
+   * @param slot  the slot of the field or keyword
+   * @param value the value
+   */
+  public void set(int slot, String value) {
+    values[slot] = value;
+  }
+
+  /**
+   * Returns the index of the token where the given keyword or flag first appears.
+   *
+   * @param slot the slot of the keyword or flag
+   *
+   * @return the index, or -1 if it is not in the line
+   */
+  public int position(int slot) {
+    return positions[slot];
+  }
+
+  /**
+   * Returns whether the given keyword or flag is in the line.
+   *
+   * @param slot the slot of the keyword or flag
+   *
+   * @return true if it is in the line
+   */
+  public boolean has(int slot) {
+    return positions[slot] != -1;
+  }
+
+  /**
+   * Returns whether any keyword of the grammar is in the line.
+   *
+   * @return true if a keyword is in the line
+   */
+  public boolean hasKeyWords() {
+    return keyWordsFound > 0;
+  }
+
+  /**
+   * Returns the line the arguments were parsed from.
+   *
+   * @return the line
+   */
+  public CommandLine line() {
+    return line;
+  }
+
+  /**
+   * Reads the value that follows the token at the given index: the quoted phrase starting right
+   * after it, or else the words up to the next keyword or {@code --} option. Mirrors
+   * {@code ParsingUtils.getKeyWordValue}.
+   *
+   * @param index the index of the token the value follows
+   *
+   * @return the trimmed value, or an empty string if there is none
+   */
+  public String valueAfter(int index) {
+    final int first = index + 1;
+    if (first >= line.size()) {
+      return "";
+    }
+    if (line.quoteStart(first) == first) {
+      return line.phrase(first);
+    }
+    if (isPlain(first) && !endsValue(first)
+            && (first + 1 == line.size() || endsValue(first + 1))) {
+      return line.get(first);
+    }
+    final String text = line.text();
+    value.setLength(0);
+    boolean inQuotes = false;
+    for (int i = first; i < line.size(); i++) {
+      final int start = line.start(i);
+      final int end = line.end(i);
+      if (line.startsWith(i, "\"")) {
+        inQuotes = true;
+        value.append(text, start + 1, end).append(' ');
+      } else if (line.endsWithQuote(i)) {
+        value.append(text, start, end - 1);
+        break;
+      } else if (inQuotes) {
+        value.append(text, start, end).append(' ');
+      } else if (endsValue(i)) {
+        break;
+      } else {
+        value.append(text, start, end).append(' ');
+      }
+    }
+    return value.toString().trim();
+  }
+
+  private boolean isPlain(int index) {
+    return !line.startsWith(index, "\"") && !line.endsWithQuote(index);
+  }
+
+  /*
+   * Whether the token at the index ends a value that is not quoted: a keyword, a flag or any
+   * other -- option.
+   */
+  private boolean endsValue(int index) {
+    return isPlain(index) && (tokenSlots[index] != -1 || line.startsWith(index, "--"));
+  }
+
+  void reset(int slotCount, int keyWordCount) {
+    if (values.length < slotCount) {
+      values = new String[slotCount];
+      positions = new int[slotCount];
+    }
+    Arrays.fill(values, 0, slotCount, null);
+    Arrays.fill(positions, 0, slotCount, -1);
+    if (tokenSlots.length < line.size()) {
+      tokenSlots = new int[Math.max(line.size(), tokenSlots.length * 2)];
+    }
+    Arrays.fill(tokenSlots, 0, line.size(), -1);
+    this.keyWordCount = keyWordCount;
+    this.keyWordsFound = 0;
+  }
+
+  void match(int index, int slot) {
+    tokenSlots[index] = slot;
+    if (positions[slot] == -1) {
+      positions[slot] = index;
+    }
+    if (slot < keyWordCount) {
+      keyWordsFound++;
+    }
+  }
+}
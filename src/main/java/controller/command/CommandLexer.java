@@ -0,0 +1,46 @@
+package controller.command;
+
+/**
+ * Splits the lines typed by the user into tokens in a single pass. A line is split on single
+ * spaces, exactly like {@code String.split(" ")}, so a command sees the same number of tokens it
+ * always has. In the same pass the lexer marks quoted phrases: a phrase opens at a token starting
+ * with a quote and closes at the first token ending with one, which may be the opening token
+ * itself, as in {@code "Room"}. Keywords inside a quoted phrase are part of the phrase.
+ *
+ * <p>A lexer reuses one CommandLine for every line, so it belongs to a single controller.
+ */
+public final class CommandLexer {
+
+  private final CommandLine line = new CommandLine();
+
+  /**
+   * Splits the given line into tokens.
+   *
+   * @param text the line to split
+   *
+   * @return the tokens of the line, valid until the next call
+   */
+  public CommandLine tokenize(String text) {
+    line.reset(text);
+    final int length = text.length();
+    int start = 0;
+    int open = -1;
+    for (int i = 0; i <= length; i++) {
+      if (i < length && text.charAt(i) != ' ') {
+        continue;
+      }
+      final int index = line.size();
+      line.add(start, i);
+      if (open == -1 && i > start && text.charAt(start) == '"') {
+        open = index;
+      }
+      if (open != -1 && i - start >= (index == open ? 2 : 1) && text.charAt(i - 1) == '"') {
+        line.quote(open, index);
+        open = -1;
+      }
+      start = i + 1;
+    }
+    line.dropTrailingEmptyTokens();
+    return line;
+  }
+}
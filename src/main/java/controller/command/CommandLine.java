@@ -0,0 +1,167 @@
+package controller.command;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A command typed by the user, split into tokens by a CommandLexer. The tokens are the ones
+ * {@code String.split(" ")} gives, and every token also knows the quoted phrase it is part of, so a
+ * quoted value is read straight out of the line instead of being joined back together word by word.
+ * A token is kept as its bounds in the line, and only becomes a string when a command asks for it.
+ * A lexer fills the same CommandLine for every line it reads, so a command must not keep it, or the
+ * arguments parsed from it, after it returns.
+ */
+public final class CommandLine {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  /**
+   * The arguments parsed out of this line, reused by every grammar that parses it.
+   */
+  private final CommandArguments arguments = new CommandArguments(this);
+
+  private String text = "";
+  private String[] tokens = new String[INITIAL_CAPACITY];
+  private int[] starts = new int[INITIAL_CAPACITY];
+  private int[] ends = new int[INITIAL_CAPACITY];
+  /**
+   * For every token, the index of the token opening the quoted phrase it is part of, or -1.
+   */
+  private int[] quoteStarts = new int[INITIAL_CAPACITY];
+  /**
+   * For every token opening a quoted phrase, the index of the token closing it, or -1.
+   */
+  private int[] quoteEnds = new int[INITIAL_CAPACITY];
+  private int size;
+
+  CommandLine() {
+    // filled by CommandLexer
+  }
+
+  /**
+   * Returns the number of tokens in the line.
+   *
+   * @return the number of tokens
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the token at the given index.
+   *
+   * @param index the index of the token
+   *
+   * @return the token
+   *
+   * @throws IndexOutOfBoundsException if there is no token at the index
+   */
+  public String get(int index) {
+    String token = tokens[Objects.checkIndex(index, size)];
+    if (token == null) {
+      token = text.substring(starts[index], ends[index]);
+      tokens[index] = token;
+    }
+    return token;
+  }
+
+  /**
+   * Returns the index of the token opening the quoted phrase the given token is part of.
+   *
+   * @param index the index of the token
+   *
+   * @return the index of the opening token, or -1 if the token is not quoted
+   */
+  public int quoteStart(int index) {
+    return quoteStarts[Objects.checkIndex(index, size)];
+  }
+
+  /**
+   * Returns the text of the quoted phrase opened by the given token, without its quotes.
+   *
+   * @param index the index of the token opening the phrase
+   *
+   * @return the trimmed text between the quotes
+   *
+   * @throws IllegalArgumentException if the token does not open a quoted phrase
+   */
+  public String phrase(int index) {
+    final int end = quoteEnds[Objects.checkIndex(index, size)];
+    if (end == -1) {
+      throw new IllegalArgumentException("Token does not open a quoted phrase: " + get(index));
+    }
+    return text.substring(starts[index] + 1, ends[end] - 1).trim();
+  }
+
+  /**
+   * Returns the line the tokens were read from.
+   *
+   * @return the line
+   */
+  public String text() {
+    return text;
+  }
+
+  @Override
+  public String toString() {
+    return text;
+  }
+
+  CommandArguments arguments() {
+    return arguments;
+  }
+
+  int start(int index) {
+    return starts[index];
+  }
+
+  int end(int index) {
+    return ends[index];
+  }
+
+  boolean startsWith(int index, String prefix) {
+    return text.startsWith(prefix, starts[index]);
+  }
+
+  boolean endsWithQuote(int index) {
+    return ends[index] > starts[index] && text.charAt(ends[index] - 1) == '"';
+  }
+
+  void reset(String text) {
+    this.text = text;
+    this.size = 0;
+  }
+
+  void add(int start, int end) {
+    if (size == tokens.length) {
+      final int capacity = size * 2;
+      tokens = Arrays.copyOf(tokens, capacity);
+      starts = Arrays.copyOf(starts, capacity);
+      ends = Arrays.copyOf(ends, capacity);
+      quoteStarts = Arrays.copyOf(quoteStarts, capacity);
+      quoteEnds = Arrays.copyOf(quoteEnds, capacity);
+    }
+    tokens[size] = null;
+    starts[size] = start;
+    ends[size] = end;
+    quoteStarts[size] = -1;
+    quoteEnds[size] = -1;
+    size++;
+  }
+
+  void quote(int start, int end) {
+    for (int i = start; i <= end; i++) {
+      quoteStarts[i] = start;
+    }
+    quoteEnds[start] = end;
+  }
+
+  void dropTrailingEmptyTokens() {
+    if (text.isEmpty()) {
+      return;
+    }
+    while (size > 0 && starts[size - 1] == ends[size - 1]) {
+      size--;
+    }
+  }
+}
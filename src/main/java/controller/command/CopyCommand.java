@@ -1,15 +1,11 @@
 package controller.command;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
 
 import model.CalendarModel;
 
 import static utils.DateTimeUtils.isInvalidDateString;
 import static utils.DateTimeUtils.isInvalidDateTimeString;
-import static utils.ParsingUtils.getKeyWordValue;
-import static utils.ParsingUtils.updateArgMap;
 
 /**
  * The CopyCommand class is an implementation of the AbstractCommand class. This class is used to
@@ -17,9 +13,17 @@ import static utils.ParsingUtils.updateArgMap;
  */
 public class CopyCommand extends AbstractCommand {
 
-  private final Set<String> copyTypes = Set.of("event", "events");
+  private static final Set<String> COPY_TYPES = Set.of("event", "events");
 
-  private final Set<String> copyKeyWords = Set.of("on", "--target", "to", "and", "between");
+  private static final ArgumentGrammar GRAMMAR = ArgumentGrammar.keyWords(
+          "on", "--target", "to", "and", "between").fields("eventName");
+
+  private static final int ON = GRAMMAR.slot("on");
+  private static final int TARGET = GRAMMAR.slot("--target");
+  private static final int TO = GRAMMAR.slot("to");
+  private static final int AND = GRAMMAR.slot("and");
+  private static final int BETWEEN = GRAMMAR.slot("between");
+  private static final int EVENT_NAME = GRAMMAR.slot("eventName");
 
   /**
    * Constructor for the CopyCommand class. Initializes the calendarModel field.
@@ -31,18 +35,17 @@ public class CopyCommand extends AbstractCommand {
   }
 
   /**
-   * Parses the input arguments into a map of key-value pairs.
+   * Parses the input arguments by the copy grammar, and reads the name of the event.
    *
    * @param inputArguments the input arguments to be parsed
    *
-   * @return a map of key-value pairs
+   * @return the parsed arguments
    */
   @Override
-  protected Map<String, String> parseInputArguments(String[] inputArguments) {
-    final Map<String, String> argMap = new HashMap<>();
-    argMap.put("eventName", getKeyWordValue(inputArguments, 1, copyKeyWords));
-    updateArgMap(inputArguments, copyKeyWords, argMap);
-    return argMap;
+  protected CommandArguments parseInputArguments(CommandLine inputArguments) {
+    final CommandArguments arguments = GRAMMAR.parse(inputArguments);
+    arguments.set(EVENT_NAME, arguments.valueAfter(1));
+    return arguments;
   }
 
   /**
@@ -51,13 +54,12 @@ public class CopyCommand extends AbstractCommand {
    * @param input the input to the command
    */
   @Override
-  public void execute(String[] input) {
-    if (input.length < 8) {
-      throw new IllegalArgumentException(
-              "Invalid input length: " + String.join(" ", input));
+  public void execute(CommandLine input) {
+    if (input.size() < 8) {
+      throw new IllegalArgumentException("Invalid input length: " + input.text());
     }
-    final String copyType = input[1];
-    if (!copyTypes.contains(copyType)) {
+    final String copyType = input.get(1);
+    if (!COPY_TYPES.contains(copyType)) {
       throw new IllegalArgumentException("Invalid copy type: " + copyType);
     }
     switch (copyType) {
@@ -72,10 +74,10 @@ public class CopyCommand extends AbstractCommand {
     }
   }
 
-  private void copySingleEvent(String[] input) {
-    final Map<String, String> argMap = parseInputArguments(input);
-    final String onDate = argMap.get("on");
-    final String toDate = argMap.get("to");
+  private void copySingleEvent(CommandLine input) {
+    final CommandArguments arguments = parseInputArguments(input);
+    final String onDate = arguments.get(ON);
+    final String toDate = arguments.get(TO);
     if (onDate == null || isInvalidDateTimeString(onDate)) {
       throw new IllegalArgumentException("Invalid on date time string: " + onDate);
     }
@@ -83,22 +85,22 @@ public class CopyCommand extends AbstractCommand {
       throw new IllegalArgumentException("Invalid to date time string: " + toDate);
     }
     calendarModel.copySingleEvent(
-            argMap.get("eventName"),
-            argMap.get("--target"),
+            arguments.get(EVENT_NAME),
+            arguments.get(TARGET),
             onDate,
             toDate,
             isCheckConflict // autoDecline always true for Assignment 5
     );
   }
 
-  private void copyMultipleEvents(String[] input) {
-    final Map<String, String> argMap = parseInputArguments(input);
-    validateParsedArgs(argMap);
-    final String targetCalendar = argMap.get("--target");
-    final String targetDate = argMap.get("to");
-    final String startDate = argMap.get("between");
-    final String endDate = argMap.get("and");
-    final String onDate = argMap.get("on");
+  private void copyMultipleEvents(CommandLine input) {
+    final CommandArguments arguments = parseInputArguments(input);
+    validateParsedArgs(arguments);
+    final String targetCalendar = arguments.get(TARGET);
+    final String targetDate = arguments.get(TO);
+    final String startDate = arguments.get(BETWEEN);
+    final String endDate = arguments.get(AND);
+    final String onDate = arguments.get(ON);
 
     if (onDate.isEmpty()) {
       calendarModel.copyMultipleEventsRange(
@@ -119,9 +121,9 @@ public class CopyCommand extends AbstractCommand {
   }
 
 
-  private void validateParsedArgs(Map<String, String> argMap) {
-    final String targetCalendar = argMap.get("--target");
-    final String targetDate = argMap.get("to");
+  private void validateParsedArgs(CommandArguments arguments) {
+    final String targetCalendar = arguments.get(TARGET);
+    final String targetDate = arguments.get(TO);
 
     if (targetDate == null || isInvalidDateString(targetDate)) {
       throw new IllegalArgumentException("Invalid target date string: " + targetDate);
@@ -132,9 +134,9 @@ public class CopyCommand extends AbstractCommand {
     }
 
     // Check if we're using the 'between...and' format
-    if (!argMap.get("between").isEmpty() && !argMap.get("and").isEmpty()) {
-      final String startDate = argMap.get("between");
-      final String endDate = argMap.get("and");
+    if (!arguments.get(BETWEEN).isEmpty() && !arguments.get(AND).isEmpty()) {
+      final String startDate = arguments.get(BETWEEN);
+      final String endDate = arguments.get(AND);
 
       if (startDate == null || isInvalidDateString(startDate)) {
         throw new IllegalArgumentException("Invalid start date string: " + startDate);
@@ -144,7 +146,7 @@ public class CopyCommand extends AbstractCommand {
         throw new IllegalArgumentException("Invalid end date string: " + endDate);
       }
     } else {
-      final String onDate = argMap.get("on");
+      final String onDate = arguments.get(ON);
 
       if (onDate == null || isInvalidDateString(onDate)) {
         throw new IllegalArgumentException("Invalid on date string: " + onDate);
@@ -1,31 +1,27 @@
 package controller.command;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
 
 import model.CalendarModel;
 
 import static utils.DateTimeUtils.isInvalidDateOrDateTimeString;
 import static utils.DateTimeUtils.isInvalidWeekDays;
-import static utils.ParsingUtils.getKeyWordValue;
-import static utils.ParsingUtils.updateArgMap;
 
 /**
- * Command to create a new calendar entry.
+ * Command to create a new calendar entry. Inside a block begun with "begin", single events are
+ * staged in the block instead of added, and are added at "commit".
  */
 public class CreateCommand extends AbstractCommand {
 
   /**
    * Set of allowed creation types.
    */
-  private final Set<String> allowedCreationTypes = Set.of("event", "calendar");
+  private static final Set<String> CREATION_TYPES = Set.of("event", "calendar");
 
   /**
-   * Set of keywords for creating a calendar entry.
+   * The keywords and flags for creating a calendar entry.
    */
-  private final Set<String> createKeyWords = Set.of(
+  private static final ArgumentGrammar GRAMMAR = ArgumentGrammar.keyWords(
           "from",
           "to",
           "on",
@@ -36,15 +32,47 @@ public class CreateCommand extends AbstractCommand {
           "location",
           "--name", // for calendar name
           "--timezone" // for calendar timezone
-  );
+  ).flags("--autoDecline", "--public").fields("name");
+
+  private static final int FROM = GRAMMAR.slot("from");
+  private static final int TO = GRAMMAR.slot("to");
+  private static final int ON = GRAMMAR.slot("on");
+  private static final int REPEATS = GRAMMAR.slot("repeats");
+  private static final int FOR = GRAMMAR.slot("for");
+  private static final int UNTIL = GRAMMAR.slot("until");
+  private static final int DESCRIPTION = GRAMMAR.slot("description");
+  private static final int LOCATION = GRAMMAR.slot("location");
+  private static final int CALENDAR_NAME = GRAMMAR.slot("--name");
+  private static final int TIMEZONE = GRAMMAR.slot("--timezone");
+  private static final int AUTO_DECLINE = GRAMMAR.slot("--autoDecline");
+  private static final int PUBLIC = GRAMMAR.slot("--public");
+  private static final int NAME = GRAMMAR.slot("name");
+
+  /**
+   * The block single events are staged in while it is open.
+   */
+  private final Transaction transaction;
 
   /**
-   * Constructor for the CreateCommand class. Initializes the calendarModel field.
+   * Constructor for the CreateCommand class. Initializes the calendarModel field. Events are always
+   * added right away.
    *
    * @param calendarModel the calendarModel to be used
    */
   public CreateCommand(CalendarModel calendarModel) {
+    this(calendarModel, new Transaction());
+  }
+
+  /**
+   * Constructor for the CreateCommand class. Initializes the calendarModel field and the block
+   * single events are staged in while it is open.
+   *
+   * @param calendarModel the calendarModel to be used
+   * @param transaction   the block to stage single events in
+   */
+  public CreateCommand(CalendarModel calendarModel, Transaction transaction) {
     super(calendarModel);
+    this.transaction = transaction;
   }
 
   /**
@@ -59,13 +87,12 @@ public class CreateCommand extends AbstractCommand {
    *                                  specifying an invalid creation type.
    */
   @Override
-  public void execute(String[] input) {
-    if (input.length < 5) {
-      throw new IllegalArgumentException(
-              "Invalid input length: " + String.join(" ", input));
+  public void execute(CommandLine input) {
+    if (input.size() < 5) {
+      throw new IllegalArgumentException("Invalid input length: " + input.text());
     }
-    final String calendarEntryType = input[1];
-    if (!allowedCreationTypes.contains(calendarEntryType)) {
+    final String calendarEntryType = input.get(1);
+    if (!CREATION_TYPES.contains(calendarEntryType)) {
       throw new IllegalArgumentException("Invalid creation type: " + calendarEntryType);
     }
     if ("event".equals(calendarEntryType)) {
@@ -77,34 +104,18 @@ public class CreateCommand extends AbstractCommand {
   }
 
   /**
-   * Parses the input arguments into a map of key-value pairs.
+   * Parses the input arguments by the create grammar, and reads the name of the entry.
    *
    * @param inputArguments the input arguments to be parsed
    *
-   * @return a map of key-value pairs
+   * @return the parsed arguments
    */
   @Override
-  protected Map<String, String> parseInputArguments(String[] inputArguments) {
-    final Map<String, String> argMap = new HashMap<>();
-
-    final int nameIndex = inputArguments[2].equals("--autoDecline") ? 2 : 1;
-    final String name = getKeyWordValue(inputArguments, nameIndex, createKeyWords);
-    argMap.put("name", name);
-
-    argMap.put("isAutoDecline",
-            Arrays.asList(inputArguments).contains("--autoDecline") ? "true" : "false");
-
-    // this version of the controller will always check for conflicts by overriding the flag
-    // provided by the user.
-    if (isCheckConflict) {
-      argMap.put("isAutoDecline", "true");
-    }
-
-    argMap.put("isPublic",
-            Arrays.asList(inputArguments).contains("--public") ? "true" : "false");
-
-    updateArgMap(inputArguments, createKeyWords, argMap);
-    return argMap;
+  protected CommandArguments parseInputArguments(CommandLine inputArguments) {
+    final CommandArguments arguments = GRAMMAR.parse(inputArguments);
+    final int nameIndex = inputArguments.get(2).equals("--autoDecline") ? 2 : 1;
+    arguments.set(NAME, arguments.valueAfter(nameIndex));
+    return arguments;
   }
 
   /**
@@ -112,22 +123,22 @@ public class CreateCommand extends AbstractCommand {
    * are valid. Also checks if the start date time is missing if the date time is specified wrong if
    * both on and from/to date time is specified if the creation type is invalid.
    *
-   * @param argMap the map of key-value pairs to be validated
+   * @param arguments the parsed arguments to be validated
    *
    * @throws IllegalArgumentException if the parsed arguments are invalid
    */
-  private void validateParsedArguments(Map<String, String> argMap) {
-    final String fromDateTime = argMap.get("from");
+  private void validateParsedArguments(CommandArguments arguments) {
+    final String fromDateTime = arguments.get(FROM);
     if (!fromDateTime.isEmpty() && isInvalidDateOrDateTimeString(fromDateTime)) {
-      throw new IllegalArgumentException("Invalid from date time: " + argMap.get("from"));
+      throw new IllegalArgumentException("Invalid from date time: " + arguments.get(FROM));
     }
-    final String toDateTime = argMap.get("to");
+    final String toDateTime = arguments.get(TO);
     if (!toDateTime.isEmpty() && isInvalidDateOrDateTimeString(toDateTime)) {
-      throw new IllegalArgumentException("Invalid to date time: " + argMap.get("to"));
+      throw new IllegalArgumentException("Invalid to date time: " + arguments.get(TO));
     }
-    final String onDateTime = argMap.get("on");
+    final String onDateTime = arguments.get(ON);
     if (!onDateTime.isEmpty() && isInvalidDateOrDateTimeString(onDateTime)) {
-      throw new IllegalArgumentException("Invalid on date time: " + argMap.get("on"));
+      throw new IllegalArgumentException("Invalid on date time: " + arguments.get(ON));
     }
     if (fromDateTime.isEmpty() && onDateTime.isEmpty()) {
       throw new IllegalArgumentException(
@@ -138,18 +149,18 @@ public class CreateCommand extends AbstractCommand {
         throw new IllegalArgumentException("Cannot specify both on and from/to date time");
       }
     }
-    final String repeats = argMap.get("repeats");
+    final String repeats = arguments.get(REPEATS);
     if (!repeats.isEmpty() && isInvalidWeekDays(repeats)) {
-      throw new IllegalArgumentException("Invalid week days: " + argMap.get("repeats"));
+      throw new IllegalArgumentException("Invalid week days: " + arguments.get(REPEATS));
     }
-    final String forValue = argMap.get("for");
+    final String forValue = arguments.get(FOR);
     if (!forValue.isEmpty() && !forValue.matches("\\d+ times")) {
       throw new IllegalArgumentException("Invalid for value: " + forValue);
     }
 
-    final String until = argMap.get("until");
+    final String until = arguments.get(UNTIL);
     if (!until.isEmpty() && isInvalidDateOrDateTimeString(until)) {
-      throw new IllegalArgumentException("Invalid until date time: " + argMap.get("until"));
+      throw new IllegalArgumentException("Invalid until date time: " + arguments.get(UNTIL));
     }
   }
 
@@ -159,24 +170,34 @@ public class CreateCommand extends AbstractCommand {
    *
    * @param input the input to the command
    */
-  private void createEvent(String[] input) {
-    final Map<String, String> argMap = parseInputArguments(input);
-    validateParsedArguments(argMap);
+  private void createEvent(CommandLine input) {
+    final CommandArguments arguments = parseInputArguments(input);
+    validateParsedArguments(arguments);
 
-    final String name = argMap.get("name");
-    final String description = argMap.get("description");
-    final String location = argMap.get("location");
-    final String startDateTime = !argMap.get("on").isEmpty()
-            ? argMap.get("on")
-            : argMap.get("from");
-    final String endDateTime = !argMap.get("on").isEmpty() ? "" : argMap.get("to");
-    final String weekDays = argMap.get("repeats");
-    final String untilDateTime = argMap.get("until");
-    final Integer frequency = argMap.get("for").isEmpty() ? null :
-            Integer.parseInt(argMap.get("for").split(" ")[0]); // X times -> X
-    final boolean isPrivate = !Boolean.parseBoolean(argMap.get("isPublic"));
-    final boolean isAutoDecline = Boolean.parseBoolean(argMap.get("isAutoDecline"));
+    final String name = arguments.get(NAME);
+    final String description = arguments.get(DESCRIPTION);
+    final String location = arguments.get(LOCATION);
+    final String startDateTime = !arguments.get(ON).isEmpty()
+            ? arguments.get(ON)
+            : arguments.get(FROM);
+    final String endDateTime = !arguments.get(ON).isEmpty() ? "" : arguments.get(TO);
+    final String weekDays = arguments.get(REPEATS);
+    final String untilDateTime = arguments.get(UNTIL);
+    final Integer frequency = arguments.get(FOR).isEmpty() ? null :
+            Integer.parseInt(arguments.get(FOR).split(" ")[0]); // X times -> X
+    final boolean isPrivate = !arguments.has(PUBLIC);
+    // this version of the controller will always check for conflicts by overriding the flag
+    // provided by the user.
+    final boolean isAutoDecline = isCheckConflict || arguments.has(AUTO_DECLINE);
 
+    if (transaction.isOpen()) {
+      if (!weekDays.isEmpty()) {
+        throw new IllegalArgumentException(
+                "Recurring events cannot be created inside a transaction");
+      }
+      transaction.stage(name, startDateTime, endDateTime, description, location, isPrivate);
+      return;
+    }
 
     if (weekDays.isEmpty()) {
       createSingleEvent(
@@ -322,10 +343,10 @@ public class CreateCommand extends AbstractCommand {
    *
    * @param input the input to the command
    */
-  private void createCalendar(String[] input) {
-    final Map<String, String> argMap = parseInputArguments(input);
-    final String name = argMap.get("--name");
-    final String timezone = argMap.get("--timezone");
+  private void createCalendar(CommandLine input) {
+    final CommandArguments arguments = parseInputArguments(input);
+    final String name = arguments.get(CALENDAR_NAME);
+    final String timezone = arguments.get(TIMEZONE);
     calendarModel.addCalendar(name, timezone);
   }
 }
\ No newline at end of file
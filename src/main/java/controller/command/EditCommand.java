@@ -1,15 +1,10 @@
 package controller.command;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
 
 import model.CalendarModel;
 
 import static utils.DateTimeUtils.isInvalidDateOrDateTimeString;
-import static utils.ParsingUtils.getKeyWordValue;
-import static utils.ParsingUtils.updateArgMap;
 
 /**
  * EditCommand is a class that represents the command to edit an event or a series of events.
@@ -19,23 +14,31 @@ public class EditCommand extends AbstractCommand {
   /**
    * The set of allowed edit types.
    */
-  private final Set<String> allowedEditTypes = Set.of("event", "events", "calendar");
+  private static final Set<String> EDIT_TYPES = Set.of("event", "events", "calendar");
 
   /**
-   * The set of edit keywords.
+   * The edit keywords.
    */
-  private final Set<String> editKeyWords = Set.of(
+  private static final ArgumentGrammar GRAMMAR = ArgumentGrammar.keyWords(
           "from",
           "to",
           "with",
           "--name",
           "--property"
-  );
+  ).fields("propertyName", "eventName");
+
+  private static final int FROM = GRAMMAR.slot("from");
+  private static final int TO = GRAMMAR.slot("to");
+  private static final int WITH = GRAMMAR.slot("with");
+  private static final int CALENDAR_NAME = GRAMMAR.slot("--name");
+  private static final int PROPERTY = GRAMMAR.slot("--property");
+  private static final int PROPERTY_NAME = GRAMMAR.slot("propertyName");
+  private static final int EVENT_NAME = GRAMMAR.slot("eventName");
 
   /**
    * The set of editable properties for event.
    */
-  private final Set<String> eventEditableProperties = Set.of(
+  private static final Set<String> EVENT_PROPERTIES = Set.of(
           "name",
           "startDateTime",
           "endDateTime",
@@ -52,7 +55,7 @@ public class EditCommand extends AbstractCommand {
   /**
    * The set of editable properties for calendar.
    */
-  private final Set<String> calendarEditableProperties = Set.of(
+  private static final Set<String> CALENDAR_PROPERTIES = Set.of(
           "name",
           "timezone"
   );
@@ -78,13 +81,12 @@ public class EditCommand extends AbstractCommand {
    *                                  the date time strings are invalid.
    */
   @Override
-  public void execute(String[] input) {
-    if (input.length < 5) {
-      throw new IllegalArgumentException(
-              "Invalid input length: " + String.join(" ", input));
+  public void execute(CommandLine input) {
+    if (input.size() < 5) {
+      throw new IllegalArgumentException("Invalid input length: " + input.text());
     }
-    final String calendarEntryType = input[1];
-    if (!allowedEditTypes.contains(calendarEntryType)) {
+    final String calendarEntryType = input.get(1);
+    if (!EDIT_TYPES.contains(calendarEntryType)) {
       throw new IllegalArgumentException("Invalid edit type: " + calendarEntryType);
     }
     switch (calendarEntryType) {
@@ -107,92 +109,69 @@ public class EditCommand extends AbstractCommand {
    *
    * @param inputArguments The input arguments for the command.
    *
-   * @return A map containing the parsed input arguments.
+   * @return The parsed arguments.
    */
   @Override
-  protected Map<String, String> parseInputArguments(String[] inputArguments) {
-    final Map<String, String> argMap = new HashMap<>();
-    argMap.put("propertyName", inputArguments[2]);
-    if (noKeyWords(inputArguments)) {
-      manuallyAddKeyWords(inputArguments, argMap); // need to do this because getKeywordValue
+  protected CommandArguments parseInputArguments(CommandLine inputArguments) {
+    final CommandArguments arguments = GRAMMAR.parse(inputArguments);
+    arguments.set(PROPERTY_NAME, inputArguments.get(2));
+    if (!arguments.hasKeyWords()) {
+      manuallyAddKeyWords(arguments); // need to do this because valueAfter
       // depends on the existence of keyWords
     } else {
-      argMap.put("eventName", getKeyWordValue(inputArguments, 2, editKeyWords));
-      updateArgMap(inputArguments, editKeyWords, argMap);
+      arguments.set(EVENT_NAME, arguments.valueAfter(2));
     }
-    return argMap;
-  }
-
-  /**
-   * Checks if there are no keywords in the input arguments. Need this to handle the case where the
-   * user does not provide the keywords in the input arguments.
-   *
-   * @param inputArguments The input arguments for the command.
-   *
-   * @return True if there are no keywords in the input arguments, false otherwise.
-   */
-  private boolean noKeyWords(String[] inputArguments) {
-    return Arrays.stream(inputArguments).noneMatch(editKeyWords::contains);
+    return arguments;
   }
 
   /*
-   * Manually add the keywords to the argMap if the user does not provide them in the input
-   * arguments. Used in case of edit all recurring events.
+   * Manually add the event name and the with value if the user does not provide the keywords in
+   * the input arguments. Used in case of edit all recurring events.
    *
-   * @param inputArguments The input arguments for the command.
-   * @param argMap The map containing the parsed input arguments.
+   * @param arguments The parsed arguments.
    *
    */
-  private void manuallyAddKeyWords(String[] inputArguments, Map<String, String> argMap) {
-    parseNameValue(inputArguments, argMap);
-    parseWithValue(inputArguments, argMap);
-    argMap.put("from", "");
-    argMap.put("to", "");
+  private void manuallyAddKeyWords(CommandArguments arguments) {
+    parseNameValue(arguments);
+    parseWithValue(arguments);
   }
 
   /*
    * Parse the name value pair for the event name.
    *
-   * @param inputArguments The input arguments for the command.
-   *
-   * @param argMap The map containing the parsed input arguments.
+   * @param arguments The parsed arguments.
    *
    */
-  private void parseNameValue(String[] inputArguments, Map<String, String> argMap) {
+  private void parseNameValue(CommandArguments arguments) {
     // Check if we have a quoted string scenario
-    if (!inputArguments[3].startsWith("\"")) {
-      argMap.put("eventName", inputArguments[3]);
+    final String name = arguments.line().get(3);
+    if (!name.startsWith("\"")) {
+      arguments.set(EVENT_NAME, name);
       return;
     }
 
-    argMap.put("eventName", getKeyWordValue(inputArguments, 2, editKeyWords));
+    arguments.set(EVENT_NAME, arguments.valueAfter(2));
   }
 
 
   /*
    * Parse the with value for the event.
    *
-   * @param inputArguments The input arguments for the command.
-   *
-   * @param argMap The map containing the parsed input arguments.
+   * @param arguments The parsed arguments.
    *
    */
-  private void parseWithValue(String[] inputArguments, Map<String, String> argMap) {
+  private void parseWithValue(CommandArguments arguments) {
+    final CommandLine line = arguments.line();
+    final int last = line.size() - 1;
     // Check if we have a quoted string scenario
-    if (inputArguments[inputArguments.length - 1].endsWith("\"")) {
-      // Find the starting quote position
-      for (int i = inputArguments.length - 1; i >= 0; i--) {
-        if (inputArguments[i].startsWith("\"")) {
-          argMap.put("with", getKeyWordValue(inputArguments, i - 1, editKeyWords));
-          return;
-        }
-      }
+    final int quoteStart = line.quoteStart(last);
+    if (quoteStart != -1) {
+      arguments.set(WITH, arguments.valueAfter(quoteStart - 1));
+      return;
     }
 
     // Fall back to using the last argument if no quoted string is found
-    argMap.put("with", getKeyWordValue(inputArguments,
-            inputArguments.length - 2,
-            editKeyWords));
+    arguments.set(WITH, arguments.valueAfter(last - 1));
   }
 
   /*
@@ -201,21 +180,21 @@ public class EditCommand extends AbstractCommand {
    * @param input The input arguments for the command.
    *
    */
-  private void editCalendar(String[] input) {
-    final Map<String, String> argMap = parseInputArguments(input);
-    final int index = Arrays.asList(input).indexOf("--property");
+  private void editCalendar(CommandLine input) {
+    final CommandArguments arguments = parseInputArguments(input);
+    final int index = arguments.position(PROPERTY);
     if (index == -1) {
-      throw new IllegalArgumentException("Invalid command: " + String.join(" ", input));
+      throw new IllegalArgumentException("Invalid command: " + input.text());
     }
-    final String propertyName = input[index + 1];
-    if (!calendarEditableProperties.contains(propertyName)) {
+    final String propertyName = input.get(index + 1);
+    if (!CALENDAR_PROPERTIES.contains(propertyName)) {
       throw new IllegalArgumentException("Invalid property name: " + propertyName);
     }
-    parseWithValue(input, argMap);
+    parseWithValue(arguments);
     calendarModel.editCalendar(
-            argMap.get("--name"),
+            arguments.get(CALENDAR_NAME),
             propertyName,
-            argMap.get("with")
+            arguments.get(WITH)
     );
   }
 
@@ -225,15 +204,15 @@ public class EditCommand extends AbstractCommand {
    * @param input The input arguments for the command.
    *
    */
-  private void editSingleEvent(String[] input) {
-    final Map<String, String> argMap = parseInputArguments(input);
-    validateParsedArguments(argMap);
+  private void editSingleEvent(CommandLine input) {
+    final CommandArguments arguments = parseInputArguments(input);
+    validateParsedArguments(arguments);
     calendarModel.getCurrentCalendar().editSingleEvent(
-            argMap.get("eventName"),
-            argMap.get("from"),
-            argMap.get("to"),
-            argMap.get("propertyName"),
-            argMap.get("with"),
+            arguments.get(EVENT_NAME),
+            arguments.get(FROM),
+            arguments.get(TO),
+            arguments.get(PROPERTY_NAME),
+            arguments.get(WITH),
             isCheckConflict // autoDecline always true for Assignment 5
     );
   }
@@ -244,23 +223,23 @@ public class EditCommand extends AbstractCommand {
    * @param input The input arguments for the command.
    *
    */
-  private void editRecurringEvents(String[] input) {
-    final Map<String, String> argMap = parseInputArguments(input);
-    validateParsedArguments(argMap);
-    final String fromDateTime = argMap.get("from");
+  private void editRecurringEvents(CommandLine input) {
+    final CommandArguments arguments = parseInputArguments(input);
+    validateParsedArguments(arguments);
+    final String fromDateTime = arguments.get(FROM);
     if (!fromDateTime.isEmpty()) {
       calendarModel.getCurrentCalendar().editMultipleEventsFollowing(
-              argMap.get("eventName"),
-              argMap.get("from"),
-              argMap.get("propertyName"),
-              argMap.get("with"),
+              arguments.get(EVENT_NAME),
+              arguments.get(FROM),
+              arguments.get(PROPERTY_NAME),
+              arguments.get(WITH),
               isCheckConflict // autoDecline always true for Assignment 5
       );
     } else {
       calendarModel.getCurrentCalendar().editMultipleEventsAll(
-              argMap.get("eventName"),
-              argMap.get("propertyName"),
-              argMap.get("with"),
+              arguments.get(EVENT_NAME),
+              arguments.get(PROPERTY_NAME),
+              arguments.get(WITH),
               isCheckConflict // autoDecline always true for Assignment 5
       );
     }
@@ -272,22 +251,22 @@ public class EditCommand extends AbstractCommand {
   /*
    * Validates the parsed input arguments.
    *
-   * @param argMap The map containing the parsed input arguments.
+   * @param arguments The parsed arguments.
    *
    * @throws IllegalArgumentException If the input arguments are invalid.
    *
    */
-  private void validateParsedArguments(Map<String, String> argMap) {
-    final String propertyName = argMap.get("propertyName");
-    if (!eventEditableProperties.contains(propertyName)) {
+  private void validateParsedArguments(CommandArguments arguments) {
+    final String propertyName = arguments.get(PROPERTY_NAME);
+    if (!EVENT_PROPERTIES.contains(propertyName)) {
       throw new IllegalArgumentException("Invalid property name: " + propertyName);
     }
-    final String startDateTime = argMap.getOrDefault("from", "");
+    final String startDateTime = arguments.get(FROM);
     if (!startDateTime.isEmpty()
             && isInvalidDateOrDateTimeString(startDateTime)) {
       throw new IllegalArgumentException("Invalid from date time: " + startDateTime);
     }
-    final String endDateTime = argMap.getOrDefault("to", "");
+    final String endDateTime = arguments.get(TO);
     if (!endDateTime.isEmpty()
             && isInvalidDateOrDateTimeString(endDateTime)) {
       throw new IllegalArgumentException("Invalid to date time: " + endDateTime);
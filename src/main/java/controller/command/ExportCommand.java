@@ -4,20 +4,25 @@ import controller.fileexporter.CsvFileExporter;
 
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.Map;
 
+import model.CalendarImage;
 import model.CalendarModel;
 import view.CalendarView;
 
 import static utils.ParsingUtils.isValidCSVFileName;
+import static utils.ParsingUtils.isValidCalbinFileName;
 
 /**
- * ExportCommand is a class that exports the calendar to a csv file. It extends the AbstractCommand
- * class and overrides the execute and parseInputArguments methods.
+ * ExportCommand is a class that exports the calendar to a csv file, or to a calendar image when the
+ * file name ends with ".calbin". It extends the AbstractCommand class and overrides the execute and
+ * parseInputArguments methods.
  */
 public class ExportCommand extends AbstractCommand {
 
+  private static final ArgumentGrammar GRAMMAR = ArgumentGrammar.keyWords().fields("fileName");
+
+  private static final int FILE_NAME = GRAMMAR.slot("fileName");
+
   /**
    * Constructs an ExportCommand object by calling the super constructor of the AbstractCommand
    * class.
@@ -30,17 +35,23 @@ public class ExportCommand extends AbstractCommand {
   }
 
   /**
-   * Exports the calendar to a csv file.
+   * Exports the calendar to a csv file, or to a calendar image.
    *
    * @param input the input arguments
    */
   @Override
-  public void execute(String[] input) {
-    final Map<String, String> inputArguments = parseInputArguments(input);
-    final String fileName = inputArguments.get("fileName");
+  public void execute(CommandLine input) {
+    final CommandArguments inputArguments = parseInputArguments(input);
+    final String fileName = inputArguments.get(FILE_NAME);
     try {
-      Map<String, String>[] events = calendarModel.getCurrentCalendar().getAllEvents();
-      Path filePath = new CsvFileExporter().export(events, fileName);
+      Path filePath;
+      if (isValidCalbinFileName(fileName)) {
+        String timeZone = calendarModel.getAllCalendars()
+                .get(calendarModel.getCurrentCalendarName());
+        filePath = CalendarImage.write(calendarModel.getCurrentCalendar(), timeZone, fileName);
+      } else {
+        filePath = new CsvFileExporter().export(calendarModel.getCurrentCalendar(), fileName);
+      }
       if (calendarView != null) {
         calendarView.displayMessage("File exported to: " + filePath);
       }
@@ -60,17 +71,17 @@ public class ExportCommand extends AbstractCommand {
    *                                  invalid, or the file name is invalid
    */
   @Override
-  protected Map<String, String> parseInputArguments(String[] inputArguments) {
-    if (inputArguments.length != 3) {
+  protected CommandArguments parseInputArguments(CommandLine inputArguments) {
+    if (inputArguments.size() != 3) {
       throw new IllegalArgumentException("Invalid number of arguments");
     }
-    if (!inputArguments[1].equals("cal")) {
-      throw new IllegalArgumentException("Invalid export type: " + inputArguments[1]);
+    if (!inputArguments.get(1).equals("cal")) {
+      throw new IllegalArgumentException("Invalid export type: " + inputArguments.get(1));
     }
-    final String testFileName = inputArguments[2];
-    if (isValidCSVFileName(testFileName)) {
-      Map<String, String> parsedArguments = new HashMap<>();
-      parsedArguments.put("fileName", testFileName);
+    final String testFileName = inputArguments.get(2);
+    if (isValidCSVFileName(testFileName) || isValidCalbinFileName(testFileName)) {
+      final CommandArguments parsedArguments = GRAMMAR.parse(inputArguments);
+      parsedArguments.set(FILE_NAME, testFileName);
       return parsedArguments;
     }
     throw new IllegalArgumentException("Invalid file name");
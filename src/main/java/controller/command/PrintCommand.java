@@ -1,15 +1,14 @@
 package controller.command;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 import model.CalendarModel;
+import model.calendarentry.EventView;
 import view.CalendarView;
 
 import static utils.DateTimeUtils.isInvalidDateString;
 import static utils.DateTimeUtils.isInvalidDateTimeString;
-import static utils.ParsingUtils.updateArgMap;
 
 /**
  * PrintCommand is a class that prints a list of events from the calendar model. The list of events
@@ -17,15 +16,22 @@ import static utils.ParsingUtils.updateArgMap;
  */
 public class PrintCommand extends AbstractCommand {
 
+  private static final DateTimeFormatter DATE_TIME_FORMATTER =
+          DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+
   /**
-   * Set of keywords that are used to parse the input arguments.
+   * The keywords that are used to parse the input arguments.
    */
-  private final Set<String> printKeyWords = Set.of(
+  private static final ArgumentGrammar GRAMMAR = ArgumentGrammar.keyWords(
           "from",
           "to",
           "on"
   );
 
+  private static final int FROM = GRAMMAR.slot("from");
+  private static final int TO = GRAMMAR.slot("to");
+  private static final int ON = GRAMMAR.slot("on");
+
   /**
    * Constructs a PrintCommand object with the specified calendar model and view.
    *
@@ -46,44 +52,45 @@ public class PrintCommand extends AbstractCommand {
    * @throws IllegalArgumentException if the input arguments are invalid
    */
   @Override
-  public void execute(String[] input) {
-    if (input.length < 4 || !input[1].equals("events")) {
+  public void execute(CommandLine input) {
+    if (input.size() < 4 || !input.get(1).equals("events")) {
       throw new IllegalArgumentException(
               "Invalid command format. Use 'print events on <date>' "
                       + "or 'print events from <date> to <date>'");
     }
 
-    final Map<String, String> inputArguments = parseInputArguments(input);
+    final CommandArguments inputArguments = parseInputArguments(input);
     validateParsedArgs(inputArguments);
     String[] eventList;
-    String fromDate = inputArguments.get("from");
-    String toDate = inputArguments.get("to");
-    String onDate = inputArguments.get("on");
+    String fromDate = inputArguments.get(FROM);
+    String toDate = inputArguments.get(TO);
+    String onDate = inputArguments.get(ON);
 
     if (onDate.isEmpty()) {
-      eventList = convertArrayOfMapsToArrayOfStrings(
-          calendarModel.getCurrentCalendar().getEventsRange(fromDate, toDate));
+      eventList = convertViewsToStrings(
+          calendarModel.getCurrentCalendar().getEventViewsRange(fromDate, toDate));
     } else {
-      eventList = convertArrayOfMapsToArrayOfStrings(
-          calendarModel.getCurrentCalendar().getEventsOnDate(onDate));
+      eventList = convertViewsToStrings(
+          calendarModel.getCurrentCalendar().getEventViewsOnDate(onDate));
     }
 
     displayResults(eventList);
   }
 
-  private String[] convertArrayOfMapsToArrayOfStrings(Map<String, String>[] arrayOfMaps) {
-    String[] arrayOfStrings = new String[arrayOfMaps.length];
-    for (int i = 0; i < arrayOfMaps.length; i++) {
-      arrayOfStrings[i] = convertMapToString(arrayOfMaps[i]);
+  private String[] convertViewsToStrings(List<EventView> events) {
+    String[] eventStrings = new String[events.size()];
+    int i = 0;
+    for (EventView event : events) {
+      eventStrings[i++] = convertViewToString(event);
     }
-    return arrayOfStrings;
+    return eventStrings;
   }
 
-  private String convertMapToString(Map<String, String> eventDetails) {
-    return "Name:" + eventDetails.getOrDefault("Name", "") + " "
-        + "StartDateTime:" + eventDetails.getOrDefault("StartDateTime", "") + " "
-        + "EndDateTime:" + eventDetails.getOrDefault("EndDateTime", "") + " "
-        + "Location:" + eventDetails.getOrDefault("Location", "");
+  private String convertViewToString(EventView event) {
+    return "Name:" + event.getName() + " "
+        + "StartDateTime:" + event.getStartDateTime().format(DATE_TIME_FORMATTER) + " "
+        + "EndDateTime:" + event.getEndDateTime().format(DATE_TIME_FORMATTER) + " "
+        + "Location:" + event.getLocation();
   }
 
   private void displayResults(String[] eventList) {
@@ -94,17 +101,15 @@ public class PrintCommand extends AbstractCommand {
   }
 
   /**
-   * Parses the input arguments and returns a map of the arguments.
+   * Parses the input arguments by the print grammar.
    *
    * @param inputArguments the input arguments
    *
-   * @return a map of the input arguments
+   * @return the parsed arguments
    */
   @Override
-  protected Map<String, String> parseInputArguments(String[] inputArguments) {
-    Map<String, String> inputArgumentsMap = new HashMap<>();
-    updateArgMap(inputArguments, printKeyWords, inputArgumentsMap);
-    return inputArgumentsMap;
+  protected CommandArguments parseInputArguments(CommandLine inputArguments) {
+    return GRAMMAR.parse(inputArguments);
   }
 
   /**
@@ -112,27 +117,27 @@ public class PrintCommand extends AbstractCommand {
    * and 'to' arguments must be valid date time strings. The 'on' argument cannot be used with
    * 'from' or 'to'.
    *
-   * @param argMap the parsed input arguments
+   * @param arguments the parsed input arguments
    *
    * @throws IllegalArgumentException if the input arguments are invalid
    */
-  private void validateParsedArgs(Map<String, String> argMap) {
-    if (!argMap.get("on").isEmpty()) {
-      if (isInvalidDateString(argMap.get("on"))) {
+  private void validateParsedArgs(CommandArguments arguments) {
+    if (!arguments.get(ON).isEmpty()) {
+      if (isInvalidDateString(arguments.get(ON))) {
         throw new IllegalArgumentException(
-                "Invalid date string for 'on': " + argMap.get("on"));
+                "Invalid date string for 'on': " + arguments.get(ON));
       }
-      if (!argMap.get("from").isEmpty() || !argMap.get("to").isEmpty()) {
+      if (!arguments.get(FROM).isEmpty() || !arguments.get(TO).isEmpty()) {
         throw new IllegalArgumentException("Cannot use 'on' with 'from' or 'to'");
       }
-    } else if (!argMap.get("from").isEmpty() && !argMap.get("to").isEmpty()) {
-      if (isInvalidDateTimeString(argMap.get("from"))) {
+    } else if (!arguments.get(FROM).isEmpty() && !arguments.get(TO).isEmpty()) {
+      if (isInvalidDateTimeString(arguments.get(FROM))) {
         throw new IllegalArgumentException(
-                "Invalid date time string for 'from': " + argMap.get("from"));
+                "Invalid date time string for 'from': " + arguments.get(FROM));
       }
-      if (isInvalidDateTimeString(argMap.get("to"))) {
+      if (isInvalidDateTimeString(arguments.get(TO))) {
         throw new IllegalArgumentException(
-                "Invalid date time string for 'to': " + argMap.get("to"));
+                "Invalid date time string for 'to': " + arguments.get(TO));
       }
     } else {
       throw new IllegalArgumentException("Must provide either 'on' or both 'from' and 'to'");
@@ -1,19 +1,27 @@
 package controller.command;
 
-import java.util.HashMap;
-import java.util.Map;
-
+import controller.metrics.CommandMetrics;
 import model.CalendarModel;
 import view.CalendarView;
 
 import static utils.DateTimeUtils.isInvalidDateTimeString;
 
 /**
- * ShowCommand is a class that represents the command to show the status of a date. It extends the
- * AbstractCommand class and overrides the execute and parseInputArguments methods.
+ * ShowCommand is a class that represents the command to show the status of a date, or the metrics
+ * of the commands that ran. It extends the AbstractCommand class and overrides the execute and
+ * parseInputArguments methods.
  */
 public class ShowCommand extends AbstractCommand {
 
+  private static final ArgumentGrammar GRAMMAR = ArgumentGrammar.keyWords().fields("date");
+
+  private static final int DATE = GRAMMAR.slot("date");
+
+  /**
+   * The metrics shown by "show metrics", or null if they are not recorded.
+   */
+  private final CommandMetrics metrics;
+
   /**
    * Constructs a ShowCommand object with the provided calendarModel and calendarView.
    *
@@ -21,7 +29,23 @@ public class ShowCommand extends AbstractCommand {
    * @param calendarView  the view to be used by the ShowCommand object
    */
   public ShowCommand(CalendarModel calendarModel, CalendarView calendarView) {
+    this(calendarModel, calendarView, null);
+  }
+
+  /**
+   * Constructs a ShowCommand object with the provided calendarModel, calendarView and the metrics
+   * it shows.
+   *
+   * @param calendarModel the model to be used by the ShowCommand object
+   * @param calendarView  the view to be used by the ShowCommand object
+   * @param metrics       the metrics of the commands
+   */
+  public ShowCommand(
+          CalendarModel calendarModel,
+          CalendarView calendarView,
+          CommandMetrics metrics) {
     super(calendarModel, calendarView);
+    this.metrics = metrics;
   }
 
   /**
@@ -36,20 +60,33 @@ public class ShowCommand extends AbstractCommand {
    *                                  wrong.
    */
   @Override
-  public void execute(String[] input) {
-    if (input.length != 4) {
+  public void execute(CommandLine input) {
+    if (input.size() == 2 && input.get(1).equals("metrics")) {
+      showMetrics();
+      return;
+    }
+    if (input.size() != 4) {
       throw new IllegalArgumentException("Wrong number of arguments");
     }
-    if (!input[1].equals("status") || !input[2].equals("on")) {
+    if (!input.get(1).equals("status") || !input.get(2).equals("on")) {
       throw new IllegalArgumentException("Wrong arguments");
     }
-    final Map<String, String> inputArguments = parseInputArguments(input);
+    final CommandArguments inputArguments = parseInputArguments(input);
 
-    final String date = inputArguments.get("date");
+    final String date = inputArguments.get(DATE);
     final String status = calendarModel.getCurrentCalendar().getStatusOnDateTime(date);
     displayStatus(status);
   }
 
+  private void showMetrics() {
+    if (metrics == null) {
+      throw new IllegalArgumentException("Metrics are not recorded");
+    }
+    if (calendarView != null) {
+      calendarView.displayEntries(metrics.getReport());
+    }
+  }
+
   private void displayStatus(String status) {
     if (calendarView != null) {
       calendarView.displayMessage(status);
@@ -57,20 +94,20 @@ public class ShowCommand extends AbstractCommand {
   }
 
   /**
-   * Parses the input arguments and returns a map of the arguments.
+   * Parses the input arguments and returns the date time to show the status on.
    *
    * @param inputArguments the input arguments to be parsed.
    *
-   * @return a map of the parsed arguments.
+   * @return the parsed arguments.
    */
   @Override
-  protected Map<String, String> parseInputArguments(String[] inputArguments) {
-    final String testDateTimeString = inputArguments[3];
+  protected CommandArguments parseInputArguments(CommandLine inputArguments) {
+    final String testDateTimeString = inputArguments.get(3);
     if (isInvalidDateTimeString(testDateTimeString)) {
       throw new IllegalArgumentException("Invalid date time string: " + testDateTimeString);
     }
-    final Map<String, String> parsedArguments = new HashMap<>();
-    parsedArguments.put("date", testDateTimeString);
+    final CommandArguments parsedArguments = GRAMMAR.parse(inputArguments);
+    parsedArguments.set(DATE, testDateTimeString);
     return parsedArguments;
   }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package controller.command;
+
+import controller.metrics.CommandMetrics;
+import controller.metrics.OperationMetrics;
+
+/**
+ * A command that records how long every run of the command it wraps takes, and whether it failed,
+ * into the metrics of the command's name.
+ */
+public class TimedCommand implements Command {
+
+  private final Command command;
+  private final OperationMetrics metrics;
+
+  /**
+   * Constructs a TimedCommand that records the runs of the given command under the given name.
+   *
+   * @param name    the name of the command, like "create"
+   * @param command the command to time
+   * @param metrics the metrics to record into
+   */
+  public TimedCommand(String name, Command command, CommandMetrics metrics) {
+    this.command = command;
+    this.metrics = metrics.operation(name);
+  }
+
+  /**
+   * Runs the wrapped command and records how long it took. A run that throws is recorded as
+   * failed.
+   *
+   * @param input the tokens of the line typed by the user
+   */
+  @Override
+  public void execute(CommandLine input) {
+    final long start = System.nanoTime();
+    boolean failed = true;
+    try {
+      command.execute(input);
+      failed = false;
+    } finally {
+      metrics.record(System.nanoTime() - start, failed);
+    }
+  }
+}
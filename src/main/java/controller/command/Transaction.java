@@ -0,0 +1,133 @@
+package controller.command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.EventBatch;
+import model.SingleCalendar;
+
+/**
+ * A block of a script between "begin" and "commit". The single events created inside the block
+ * are staged instead of added, and at commit they are added to the calendar that was in use at
+ * begin as one all-or-nothing batch: they are checked against each other and against the calendar
+ * in one pass, and if any of them fails none of them is added. Other commands inside the block run
+ * right away and do not see the staged events.
+ */
+public final class Transaction {
+
+  private SingleCalendar calendar;
+  private EventBatch staged;
+  private final List<String> names = new ArrayList<>();
+
+  /**
+   * Checks if a block was begun and not yet committed or rolled back.
+   *
+   * @return true if events are being staged, false otherwise
+   */
+  public boolean isOpen() {
+    return staged != null;
+  }
+
+  /**
+   * Gets the number of events staged in the open block.
+   *
+   * @return the number of staged events, or 0 if no block is open
+   */
+  public int size() {
+    return staged == null ? 0 : staged.size();
+  }
+
+  /**
+   * Begins a block whose events are added to the given calendar at commit.
+   *
+   * @param calendar the calendar to add the staged events to
+   *
+   * @throws IllegalArgumentException if a block is already open
+   */
+  void begin(SingleCalendar calendar) {
+    if (isOpen()) {
+      throw new IllegalArgumentException("Transaction already started, commit or rollback first");
+    }
+    this.calendar = calendar;
+    this.staged = new EventBatch().allOrNothing();
+  }
+
+  /**
+   * Stages a single event. An empty end date time makes it an all-day event.
+   */
+  void stage(
+          String name,
+          String startDateTime,
+          String endDateTime,
+          String description,
+          String location,
+          boolean isPrivate) {
+    staged.add(name, startDateTime, endDateTime, description, location, isPrivate);
+    names.add(name);
+  }
+
+  /**
+   * Adds the staged events to the calendar as a whole, and closes the block either way.
+   *
+   * @param autoDecline whether conflicting events fail the block
+   *
+   * @return the number of events added
+   *
+   * @throws IllegalArgumentException if no block is open, or if an event failed and the block was
+   *                                  rolled back
+   */
+  int commit(boolean autoDecline) {
+    if (!isOpen()) {
+      throw new IllegalArgumentException("No transaction to commit");
+    }
+    try {
+      final EventBatch.Report report = calendar.addSingleEvents(staged, autoDecline);
+      if (report.isRolledBack()) {
+        throw new IllegalArgumentException(rollbackMessage(report));
+      }
+      return report.getAddedCount();
+    } finally {
+      close();
+    }
+  }
+
+  /**
+   * Drops the staged events and closes the block.
+   *
+   * @return the number of events dropped
+   *
+   * @throws IllegalArgumentException if no block is open
+   */
+  public int rollback() {
+    if (!isOpen()) {
+      throw new IllegalArgumentException("No transaction to roll back");
+    }
+    final int dropped = staged.size();
+    close();
+    return dropped;
+  }
+
+  private void close() {
+    calendar = null;
+    staged = null;
+    names.clear();
+  }
+
+  /*
+   * Names the first event that failed, and how many others did.
+   */
+  private String rollbackMessage(EventBatch.Report report) {
+    int failed = 0;
+    int first = -1;
+    for (int row = 0; row < report.size(); row++) {
+      if (report.getError(row) != null) {
+        failed++;
+        if (first == -1) {
+          first = row;
+        }
+      }
+    }
+    return "Transaction rolled back, " + failed + " of " + report.size() + " events failed: "
+            + report.getError(first) + " for event " + names.get(first);
+  }
+}
@@ -0,0 +1,81 @@
+package controller.command;
+
+import model.CalendarModel;
+import view.CalendarView;
+
+/**
+ * TransactionCommand begins, commits and rolls back the blocks of a script in which single events
+ * are staged, in the form 'begin', 'commit' and 'rollback'.
+ */
+public class TransactionCommand extends AbstractCommand {
+
+  /**
+   * The commands take no arguments.
+   */
+  private static final ArgumentGrammar GRAMMAR = ArgumentGrammar.keyWords();
+
+  /**
+   * The block the create command stages its single events in.
+   */
+  private final Transaction transaction;
+
+  /**
+   * Constructs a TransactionCommand object with the specified calendar model, view and block.
+   *
+   * @param calendarModel the calendar model
+   * @param calendarView  the calendar view
+   * @param transaction   the block the create command stages its single events in
+   */
+  public TransactionCommand(
+          CalendarModel calendarModel,
+          CalendarView calendarView,
+          Transaction transaction) {
+    super(calendarModel, calendarView);
+    this.transaction = transaction;
+  }
+
+  /**
+   * Parses the input arguments, of which there are none.
+   *
+   * @param inputArguments the input arguments to be parsed
+   *
+   * @return the parsed arguments
+   */
+  @Override
+  protected CommandArguments parseInputArguments(CommandLine inputArguments) {
+    return GRAMMAR.parse(inputArguments);
+  }
+
+  /**
+   * Executes the begin, commit or rollback command.
+   *
+   * @param input the input to the command
+   *
+   * @throws IllegalArgumentException if the command has arguments, if a block is begun inside
+   *                                  another, if there is no block to commit or roll back, or if
+   *                                  the block was rolled back because an event failed
+   */
+  @Override
+  public void execute(CommandLine input) {
+    final String command = input.get(0);
+    if (input.size() != 1) {
+      throw new IllegalArgumentException(
+              "Invalid command format. Use '" + command + "' on its own line");
+    }
+    switch (command) {
+      case "begin":
+        transaction.begin(calendarModel.getCurrentCalendar());
+        break;
+      case "commit":
+        final int added = transaction.commit(isCheckConflict);
+        calendarView.displayMessage("Committed " + added + " events");
+        break;
+      case "rollback":
+        final int dropped = transaction.rollback();
+        calendarView.displayMessage("Rolled back " + dropped + " events");
+        break;
+      default:
+        throw new IllegalArgumentException("Invalid transaction command: " + command);
+    }
+  }
+}
@@ -1,24 +1,22 @@
 package controller.command;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
 
 import model.CalendarModel;
 
-import static utils.ParsingUtils.updateArgMap;
-
 /**
  * UseCommand class is responsible for executing the use command.
  */
 public class UseCommand extends AbstractCommand {
 
-  private final Set<String> useTypes = Set.of("calendar");
+  private static final Set<String> USE_TYPES = Set.of("calendar");
 
   /**
-   * Set of keywords for using a calendar.
+   * The keywords for using a calendar.
    */
-  private final Set<String> useKeyWords = Set.of("--name");
+  private static final ArgumentGrammar GRAMMAR = ArgumentGrammar.keyWords("--name");
+
+  private static final int CALENDAR_NAME = GRAMMAR.slot("--name");
 
   /**
    * Constructor for the UseCommand class. Initializes the calendarModel field.
@@ -30,17 +28,15 @@ public class UseCommand extends AbstractCommand {
   }
 
   /**
-   * Parses the input arguments into a map of key-value pairs.
+   * Parses the input arguments by the use grammar.
    *
    * @param inputArguments the input arguments to be parsed
    *
-   * @return a map of key-value pairs
+   * @return the parsed arguments
    */
   @Override
-  protected Map<String, String> parseInputArguments(String[] inputArguments) {
-    final Map<String, String> argMap = new HashMap<>();
-    updateArgMap(inputArguments, useKeyWords, argMap);
-    return argMap;
+  protected CommandArguments parseInputArguments(CommandLine inputArguments) {
+    return GRAMMAR.parse(inputArguments);
   }
 
   /**
@@ -49,12 +45,12 @@ public class UseCommand extends AbstractCommand {
    * @param input the input to the command
    */
   @Override
-  public void execute(String[] input) {
-    if (input.length < 4) {
-      throw new IllegalArgumentException("Invalid input length: " + String.join(" ", input));
+  public void execute(CommandLine input) {
+    if (input.size() < 4) {
+      throw new IllegalArgumentException("Invalid input length: " + input.text());
     }
-    final String useType = input[1];
-    if (!useTypes.contains(useType)) {
+    final String useType = input.get(1);
+    if (!USE_TYPES.contains(useType)) {
       throw new IllegalArgumentException("Invalid use type: " + useType);
     }
     if ("calendar".equals(useType)) {
@@ -62,8 +58,8 @@ public class UseCommand extends AbstractCommand {
     }
   }
 
-  private void useCalendar(String[] input) {
-    final Map<String, String> argMap = parseInputArguments(input);
-    calendarModel.useCalendar(argMap.get("--name"));
+  private void useCalendar(CommandLine input) {
+    final CommandArguments arguments = parseInputArguments(input);
+    calendarModel.useCalendar(arguments.get(CALENDAR_NAME));
   }
 }
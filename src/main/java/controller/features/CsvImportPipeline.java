@@ -0,0 +1,191 @@
+package controller.features;
+
+import controller.fileparser.ParsedRow;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import model.EventBatch;
+import model.SingleCalendar;
+import view.GuiView;
+
+import static utils.DateTimeUtils.convertDateTimeFormat;
+
+/**
+ * Imports the rows of a CSV file into a calendar in three stages. The calling thread reads the
+ * rows into chunks, a bounded pool of workers converts and parses the date times of every chunk
+ * into a batch of typed events, and the calling thread adds the batches to the calendar in the
+ * order the chunks were read, so the calendar is only ever changed by one thread. Only a few
+ * chunks are read ahead of the one being added, so a large file is never held in memory at once.
+ */
+final class CsvImportPipeline {
+
+  private static final int CHUNK_SIZE = 1024;
+  private static final int PROGRESS_INTERVAL = 10_000;
+
+  /**
+   * The columns of a row that are copied out of the parser, in this order.
+   */
+  private static final String[] COLUMNS = {
+      "Subject", "Start Date", "Start Time", "End Date", "End Time",
+      "All Day Event", "Description", "Location", "Private"
+  };
+
+  private final SingleCalendar calendar;
+  private final GuiView view;
+  private final int workerCount;
+  private int added;
+  private int total;
+
+  /**
+   * Creates a pipeline that imports rows into the given calendar.
+   *
+   * @param calendar    the calendar to add the events to.
+   * @param view        the view to report the progress of a large import to.
+   * @param workerCount the number of workers that parse rows at the same time.
+   */
+  CsvImportPipeline(SingleCalendar calendar, GuiView view, int workerCount) {
+    if (workerCount < 1) {
+      throw new IllegalArgumentException("Import needs at least one worker");
+    }
+    this.calendar = calendar;
+    this.view = view;
+    this.workerCount = workerCount;
+  }
+
+  /**
+   * Imports every row into the calendar. A row is counted as not added if its date times are
+   * invalid or if the calendar declines it, the same way adding the rows one by one would.
+   *
+   * @param rows the rows of the file.
+   */
+  void run(Iterator<ParsedRow> rows) {
+    ExecutorService workers = Executors.newFixedThreadPool(workerCount);
+    Queue<Future<ParsedChunk>> pending = new ArrayDeque<>();
+    try {
+      while (rows.hasNext()) {
+        List<String[]> chunk = readChunk(rows);
+        pending.add(workers.submit(() -> parseChunk(chunk)));
+        if (pending.size() > 2 * workerCount) {
+          addChunk(pending.remove());
+        }
+      }
+      while (!pending.isEmpty()) {
+        addChunk(pending.remove());
+      }
+    } finally {
+      workers.shutdownNow();
+    }
+  }
+
+  /**
+   * Gets the number of rows that were added to the calendar.
+   *
+   * @return the number of added rows.
+   */
+  int getAddedCount() {
+    return added;
+  }
+
+  /**
+   * Gets the number of rows that were imported, added or not.
+   *
+   * @return the number of rows.
+   */
+  int getTotalCount() {
+    return total;
+  }
+
+  /**
+   * Copies the values of the next rows out of the parser, which reuses its rows.
+   */
+  private static List<String[]> readChunk(Iterator<ParsedRow> rows) {
+    List<String[]> chunk = new ArrayList<>(CHUNK_SIZE);
+    while (chunk.size() < CHUNK_SIZE && rows.hasNext()) {
+      ParsedRow row = rows.next();
+      String[] values = new String[COLUMNS.length];
+      for (int i = 0; i < COLUMNS.length; i++) {
+        values[i] = row.get(COLUMNS[i]);
+      }
+      chunk.add(values);
+    }
+    return chunk;
+  }
+
+  /**
+   * Converts the date times of the rows of a chunk and parses them into a batch of events. Rows
+   * whose date times cannot be converted are left out of the batch and counted as rejected.
+   */
+  private static ParsedChunk parseChunk(List<String[]> chunk) {
+    EventBatch batch = new EventBatch();
+    int rejected = 0;
+    for (String[] values : chunk) {
+      boolean isAllDayEvent = Boolean.parseBoolean(orDefault(values[5], "false"));
+      try {
+        LocalDateTime startDateTime = LocalDateTime.parse(
+                convertDateTimeFormat(values[1] + " " + values[2]));
+        LocalDateTime endDateTime = isAllDayEvent ? null : LocalDateTime.parse(
+                convertDateTimeFormat(orDefault(values[3], "") + " " + orDefault(values[4], "")));
+        batch.add(
+                values[0],
+                startDateTime,
+                endDateTime,
+                orDefault(values[6], ""),
+                orDefault(values[7], ""),
+                Boolean.parseBoolean(orDefault(values[8], ""))
+        );
+      } catch (IllegalArgumentException | DateTimeParseException e) {
+        rejected++;
+      }
+    }
+    return new ParsedChunk(batch, rejected);
+  }
+
+  /**
+   * Waits for a chunk to be parsed and adds its events to the calendar.
+   */
+  private void addChunk(Future<ParsedChunk> future) {
+    ParsedChunk chunk;
+    try {
+      chunk = future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Import was interrupted", e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+    EventBatch.Report report = calendar.addSingleEvents(chunk.batch, true);
+    int previousTotal = total;
+    added += report.getAddedCount();
+    total += report.size() + chunk.rejected;
+    if (total / PROGRESS_INTERVAL > previousTotal / PROGRESS_INTERVAL) {
+      view.displayProgress("Imported " + total + " rows, added " + added + " events so far");
+    }
+  }
+
+  private static String orDefault(String value, String defaultValue) {
+    return value != null ? value : defaultValue;
+  }
+
+  /**
+   * The events of a chunk that could be parsed, and the number of rows that could not.
+   */
+  private static final class ParsedChunk {
+    private final EventBatch batch;
+    private final int rejected;
+
+    private ParsedChunk(EventBatch batch, int rejected) {
+      this.batch = batch;
+      this.rejected = rejected;
+    }
+  }
+}
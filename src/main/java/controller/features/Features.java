@@ -131,4 +131,18 @@ public interface Features {
    * @param filePath the path where the CSV file should be saved
    */
   void exportCSV(String filePath);
+
+  /**
+   * Imports the entries of a calendar image into the current calendar.
+   *
+   * @param filePath the path to the ".calbin" file to import
+   */
+  void importCalendarImage(String filePath);
+
+  /**
+   * Exports the current calendar to a calendar image.
+   *
+   * @param filePath the path where the ".calbin" file should be saved
+   */
+  void exportCalendarImage(String filePath);
 }
\ No newline at end of file
@@ -2,9 +2,11 @@ package controller.features;
 
 import controller.fileexporter.CsvFileExporter;
 import controller.fileparser.CsvFileParser;
+import controller.fileparser.ParsedRow;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
@@ -15,7 +17,9 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import model.CalendarImage;
 import model.CalendarModel;
+import utils.jfr.CsvTransferEvent;
 import view.GuiView;
 
 import static utils.DateTimeUtils.convertDateTimeFormat;
@@ -122,20 +126,7 @@ public class GuiFeatures implements Features {
    */
   @Override
   public List<List<String>> getEventCountsInMonth(YearMonth month) {
-    List<List<String>> eventNamesInMonth = new ArrayList<>();
-
-    for (int i = 0; i < month.lengthOfMonth(); i++) {
-      LocalDate date = month.atDay(i + 1);
-      Map<String, String>[] eventsOnDate = model
-              .getCurrentCalendar().getEventsOnDate(date.toString());
-      List<String> eventNamesOnDay = new ArrayList<>();
-      for (Map<String, String> eventStr : eventsOnDate) {
-        eventNamesOnDay.add(eventStr.get("Name"));
-      }
-      eventNamesInMonth.add(eventNamesOnDay);
-    }
-
-    return eventNamesInMonth;
+    return model.getCurrentCalendar().getEventNamesInMonth(month);
   }
 
   /**
@@ -173,8 +164,9 @@ public class GuiFeatures implements Features {
   }
 
   /**
-   * Imports events from a CSV file into the current calendar. Displays a summary message with the
-   * number of successfully imported events.
+   * Imports events from a CSV file into the current calendar. The rows are parsed in chunks by a
+   * pool of workers and added to the calendar in file order, with progress shown for large files.
+   * Displays a summary message with the number of successfully imported events.
    *
    * @param filePath the path to the CSV file to import
    *
@@ -182,48 +174,21 @@ public class GuiFeatures implements Features {
    */
   @Override
   public void importCSV(String filePath) {
-    Iterator<Map<String, String>> iterator;
-    int total = 0;
-    int added = 0;
+    Iterator<ParsedRow> iterator;
     try {
-      iterator = new CsvFileParser().parseFile(filePath);
+      iterator = new CsvFileParser().parseRows(filePath);
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
-    while (iterator.hasNext()) {
-      Map<String, String> event = iterator.next();
-      boolean isAllDayEvent = Boolean.parseBoolean(event.getOrDefault("All Day Event",
-              "false"));
-
-      try {
-        if (isAllDayEvent) {
-          model.getCurrentCalendar().addSingleEventAllDay(
-                  event.get("Subject"),
-                  convertDateTimeFormat(event.get("Start Date") + " " + event.get("Start Time")),
-                  event.getOrDefault("Description", ""),
-                  event.getOrDefault("Location", ""),
-                  true,
-                  Boolean.parseBoolean(event.getOrDefault("Private", ""))
-          );
-        } else {
-          model.getCurrentCalendar().addSingleEvent(
-                  event.get("Subject"),
-                  convertDateTimeFormat(event.get("Start Date") + " " + event.get("Start Time")),
-                  convertDateTimeFormat(event.getOrDefault("End Date", "") + " "
-                          + event.getOrDefault("End Time", "")),
-                  event.getOrDefault("Description", ""),
-                  event.getOrDefault("Location", ""),
-                  true,
-                  Boolean.parseBoolean(event.getOrDefault("Private", ""))
-          );
-        }
-        total++;
-        added++;
-      } catch (IllegalArgumentException e) {
-        total++;
-      }
-    }
-    view.displayMessage("Successfully added " + added + " out of " + total + " events");
+    CsvImportPipeline pipeline = new CsvImportPipeline(model.getCurrentCalendar(), view,
+            Runtime.getRuntime().availableProcessors());
+    CsvTransferEvent record = new CsvTransferEvent();
+    record.begin();
+    pipeline.run(iterator);
+    record.record("import", Paths.get(filePath), pipeline.getTotalCount(),
+            pipeline.getAddedCount());
+    view.displayMessage("Successfully added " + pipeline.getAddedCount() + " out of "
+            + pipeline.getTotalCount() + " events");
   }
 
   /**
@@ -235,8 +200,44 @@ public class GuiFeatures implements Features {
   @Override
   public void exportCSV(String filePath) {
     try {
-      Map<String, String>[] events = model.getCurrentCalendar().getAllEvents();
-      Path path = new CsvFileExporter().export(events, filePath);
+      Path path = new CsvFileExporter().export(model.getCurrentCalendar(), filePath);
+      view.displayMessage("Successfully exported to file:" + path.toFile());
+    } catch (Exception e) {
+      view.displayError("Error exporting file: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Imports the entries of a calendar image into the current calendar. The image is mapped into
+   * memory and its entries are added in one go, without parsing or checking them row by row.
+   * Displays a summary message with the number of imported entries, or an error message if the
+   * image cannot be read or conflicts with the events in the calendar.
+   *
+   * @param filePath the path to the ".calbin" file to import
+   */
+  @Override
+  public void importCalendarImage(String filePath) {
+    try {
+      CalendarImage image = CalendarImage.open(filePath);
+      int added = image.addTo(model.getCurrentCalendar(),
+              model.getAllCalendars().get(model.getCurrentCalendarName()));
+      view.displayMessage("Successfully added " + added + " entries");
+    } catch (Exception e) {
+      view.displayError("Error importing file: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Exports the current calendar to a calendar image. Displays a success message with the file
+   * path or an error message if the export fails.
+   *
+   * @param filePath the path where the ".calbin" file should be saved
+   */
+  @Override
+  public void exportCalendarImage(String filePath) {
+    try {
+      Path path = CalendarImage.write(model.getCurrentCalendar(),
+              model.getAllCalendars().get(model.getCurrentCalendarName()), filePath);
       view.displayMessage("Successfully exported to file:" + path.toFile());
     } catch (Exception e) {
       view.displayError("Error exporting file: " + e.getMessage());
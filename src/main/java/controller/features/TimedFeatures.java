@@ -0,0 +1,151 @@
+package controller.features;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import controller.metrics.CommandMetrics;
+import controller.metrics.OperationMetrics;
+
+/**
+ * Features that record how long every call to the features they wrap takes, and whether it failed,
+ * into the metrics of the call, named "gui." and the name of the method. A call fails if it throws,
+ * or if it returns false where it reports success.
+ */
+public class TimedFeatures implements Features {
+
+  private final Features features;
+  private final CommandMetrics metrics;
+
+  /**
+   * Constructs a TimedFeatures that records the calls to the given features.
+   *
+   * @param features the features to time
+   * @param metrics  the metrics to record into
+   */
+  public TimedFeatures(Features features, CommandMetrics metrics) {
+    this.features = features;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public void refreshView() {
+    time("gui.refreshView", features::refreshView);
+  }
+
+  @Override
+  public boolean addCalendar(String calendarName, String timezone) {
+    return check("gui.addCalendar", () -> features.addCalendar(calendarName, timezone));
+  }
+
+  @Override
+  public void selectCalendar(String calendarName) {
+    time("gui.selectCalendar", () -> features.selectCalendar(calendarName));
+  }
+
+  @Override
+  public String getCurrentCalendarName() {
+    return time("gui.getCurrentCalendarName", features::getCurrentCalendarName);
+  }
+
+  @Override
+  public String[] getAvailableTimezones() {
+    return time("gui.getAvailableTimezones", features::getAvailableTimezones);
+  }
+
+  @Override
+  public YearMonth getCurrentMonth() {
+    return time("gui.getCurrentMonth", features::getCurrentMonth);
+  }
+
+  @Override
+  public Map<String, String> getAllCalendars() {
+    return time("gui.getAllCalendars", features::getAllCalendars);
+  }
+
+  @Override
+  public List<List<String>> getEventCountsInMonth(YearMonth month) {
+    return time("gui.getEventCountsInMonth", () -> features.getEventCountsInMonth(month));
+  }
+
+  @Override
+  public List<Map<String, String>> getEventDetailsOnDay(LocalDate date) {
+    return time("gui.getEventDetailsOnDay", () -> features.getEventDetailsOnDay(date));
+  }
+
+  @Override
+  public Map<String, String> getExactEvent(String eventName, String startDateTime) {
+    return time("gui.getExactEvent", () -> features.getExactEvent(eventName, startDateTime));
+  }
+
+  @Override
+  public boolean addEvent(Map<String, String> eventDetails) {
+    return check("gui.addEvent", () -> features.addEvent(eventDetails));
+  }
+
+  @Override
+  public boolean editSingleOccurrence(Map<String, String> eventDetails) {
+    return check("gui.editSingleOccurrence", () -> features.editSingleOccurrence(eventDetails));
+  }
+
+  @Override
+  public boolean editMultipleOccurrences(Map<String, String> eventDetails) {
+    return check("gui.editMultipleOccurrences",
+            () -> features.editMultipleOccurrences(eventDetails));
+  }
+
+  @Override
+  public void importCSV(String filePath) {
+    time("gui.importCSV", () -> features.importCSV(filePath));
+  }
+
+  @Override
+  public void exportCSV(String filePath) {
+    time("gui.exportCSV", () -> features.exportCSV(filePath));
+  }
+
+  @Override
+  public void importCalendarImage(String filePath) {
+    time("gui.importCalendarImage", () -> features.importCalendarImage(filePath));
+  }
+
+  @Override
+  public void exportCalendarImage(String filePath) {
+    time("gui.exportCalendarImage", () -> features.exportCalendarImage(filePath));
+  }
+
+  private void time(String name, Runnable call) {
+    time(name, () -> {
+      call.run();
+      return null;
+    });
+  }
+
+  private <T> T time(String name, Supplier<T> call) {
+    final OperationMetrics operation = metrics.operation(name);
+    final long start = System.nanoTime();
+    boolean failed = true;
+    try {
+      final T result = call.get();
+      failed = false;
+      return result;
+    } finally {
+      operation.record(System.nanoTime() - start, failed);
+    }
+  }
+
+  private boolean check(String name, BooleanSupplier call) {
+    final OperationMetrics operation = metrics.operation(name);
+    final long start = System.nanoTime();
+    boolean succeeded = false;
+    try {
+      succeeded = call.getAsBoolean();
+      return succeeded;
+    } finally {
+      operation.record(System.nanoTime() - start, !succeeded);
+    }
+  }
+}
@@ -2,21 +2,44 @@ package controller.fileexporter;
 
 import static utils.ParsingUtils.isValidCSVFileName;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import model.SingleCalendar;
+import model.calendarentry.EventView;
+import utils.jfr.CsvTransferEvent;
 
 /**
  * Implementation of the FileExporter interface for CSV files. Exports calendar data in CSV format
- * compatible with calendar applications.
+ * compatible with calendar applications. Rows are written to the file through a buffered writer
+ * as they are built, so the whole file is never held in memory.
  */
 public class CsvFileExporter implements FileExporter {
 
+  private static final String HEADER = "Subject,Start Date,Start Time,End Date,End Time,"
+          + "All Day Event,Description,Location,Private";
+  private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+  private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("hh:mm a");
+
+  /**
+   * Writes the rows of a CSV file, each preceded by a line separator, after its header, and
+   * returns the number of rows written.
+   */
+  private interface RowWriter {
+    int writeRows(Writer writer) throws IOException;
+  }
+
   /**
    * Exports a calendar's data to a CSV file at the specified path. Creates the output file and
    * parent directories if they don't exist. The CSV file includes a header row and one row per
@@ -32,6 +55,86 @@ public class CsvFileExporter implements FileExporter {
    */
   @Override
   public Path export(Map<String, String>[] events, String filePath) throws IOException {
+    return write(filePath, writer -> {
+      for (Map<String, String> event : events) {
+        writer.write(System.lineSeparator());
+        writer.write(convertMapToFormattedString(event));
+      }
+      return events.length;
+    });
+  }
+
+  /**
+   * Exports the views of a calendar's events to a CSV file at the specified path, formatting the
+   * date times of every event as its row is built. The file has the same header and rows as the
+   * one exported from the details maps of the events.
+   *
+   * @param events the views of all the events in the calendar to be exported
+   * @param filePath the destination path where the CSV file should be saved
+   *
+   * @return the Path object representing the created CSV file
+   *
+   * @throws IOException              if there's an error writing to the file
+   * @throws IllegalArgumentException if the specified file name is not a valid CSV file name
+   */
+  @Override
+  public Path export(List<EventView> events, String filePath) throws IOException {
+    return exportViews(events::forEach, filePath);
+  }
+
+  /**
+   * Exports every event of a calendar to a CSV file at the specified path. The events are taken
+   * from the calendar one at a time and each row is written as soon as it is built, so the memory
+   * used does not grow with the size of the calendar.
+   *
+   * @param calendar the calendar to be exported
+   * @param filePath the destination path where the CSV file should be saved
+   *
+   * @return the Path object representing the created CSV file
+   *
+   * @throws IOException              if there's an error writing to the file
+   * @throws IllegalArgumentException if the specified file name is not a valid CSV file name
+   */
+  @Override
+  public Path export(SingleCalendar calendar, String filePath) throws IOException {
+    return exportViews(calendar::forEachEventView, filePath);
+  }
+
+  /**
+   * Writes a row for every view given by the source. Every row is built in the same buffer and
+   * copied to the writer from a reused array.
+   */
+  private Path exportViews(
+          Consumer<Consumer<EventView>> source,
+          String filePath) throws IOException {
+    return write(filePath, writer -> {
+      StringBuilder row = new StringBuilder();
+      char[][] chars = {new char[256]};
+      int[] rows = {0};
+      try {
+        source.accept(event -> {
+          row.setLength(0);
+          row.append(System.lineSeparator());
+          appendRow(row, event);
+          if (chars[0].length < row.length()) {
+            chars[0] = new char[row.length()];
+          }
+          row.getChars(0, row.length(), chars[0], 0);
+          rows[0]++;
+          try {
+            writer.write(chars[0], 0, row.length());
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      return rows[0];
+    });
+  }
+
+  private Path write(String filePath, RowWriter rowWriter) throws IOException {
     String separator = File.separator;
     String fileName = filePath.split(separator)[filePath.split(separator).length - 1];
     if (!isValidCSVFileName(fileName)) {
@@ -41,33 +144,25 @@ public class CsvFileExporter implements FileExporter {
     if (!path.isAbsolute()) {
       path = path.toAbsolutePath();
     }
+    CsvTransferEvent record = new CsvTransferEvent();
+    record.begin();
+    int rows;
     try {
       if (!Files.exists(path)) {
         Files.createDirectories(path.getParent());
         Files.createFile(path);
       }
-      String header = "Subject,Start Date,Start Time,End Date,End Time,"
-              + "All Day Event,Description,Location,Private";
-      String[] allLines = new String[events.length + 1];
-      allLines[0] = header;
-      String[] formattedEvents = convertAllMapDetails(events);
-      System.arraycopy(formattedEvents, 0, allLines, 1, events.length);
-      Files.write(path, String.join(System.lineSeparator(), allLines).getBytes());
-
+      try (BufferedWriter writer = Files.newBufferedWriter(path, Charset.defaultCharset())) {
+        writer.write(HEADER);
+        rows = rowWriter.writeRows(writer);
+      }
+      record.record("export", path, rows, rows);
     } catch (IOException e) {
       throw new IOException("Error exporting file: " + e.getMessage());
     }
     return path;
   }
 
-  private String[] convertAllMapDetails(Map<String, String>[] events) {
-    String[] formattedEvents = new String[events.length];
-    for (int i = 0; i < events.length; i++) {
-      formattedEvents[i] = convertMapToFormattedString(events[i]);
-    }
-    return formattedEvents;
-  }
-
   private String convertMapToFormattedString(Map<String, String> eventDetails) {
 
 
@@ -84,6 +179,21 @@ public class CsvFileExporter implements FileExporter {
     );
   }
 
+  private void appendRow(StringBuilder row, EventView event) {
+    appendCsv(row, event.getName()).append(','); // Subject
+    DATE_FORMATTER.formatTo(event.getStartDateTime(), row); // Start Date
+    row.append(',');
+    TIME_FORMATTER.formatTo(event.getStartDateTime(), row); // Start Time
+    row.append(',');
+    DATE_FORMATTER.formatTo(event.getEndDateTime(), row); // End Date
+    row.append(',');
+    TIME_FORMATTER.formatTo(event.getEndDateTime(), row); // End Time
+    row.append(',').append(event.isAllDay()).append(','); // All Day Event
+    appendCsv(row, event.getDescription()).append(','); // Description
+    appendCsv(row, event.getLocation()).append(','); // Location
+    row.append(event.isPrivate()); // Private
+  }
+
   // Utility method to escape CSV values
   private String escapeCsv(String value) {
     if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
@@ -91,4 +201,20 @@ public class CsvFileExporter implements FileExporter {
     }
     return value;
   }
-}
\ No newline at end of file
+
+  // Appends a CSV value to the row, escaped the same way as escapeCsv
+  private StringBuilder appendCsv(StringBuilder row, String value) {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+      return row.append(value);
+    }
+    row.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"') {
+        row.append('"');
+      }
+      row.append(c);
+    }
+    return row.append('"');
+  }
+}
@@ -2,9 +2,11 @@ package controller.fileexporter;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
 
 import model.SingleCalendar;
+import model.calendarentry.EventView;
 
 /**
  * Interface for exporting calendar data to files. Implementations should handle exporting calendar
@@ -23,4 +25,30 @@ public interface FileExporter {
    * @throws IOException if there's an error writing to the file
    */
   Path export(Map<String, String>[] events, String filePath) throws IOException;
+
+  /**
+   * Exports the views of a calendar's events to a file at the specified path. The date times of
+   * the events are only formatted as they are written.
+   *
+   * @param events the views of all the events in the calendar to be exported
+   * @param filePath the destination path where the file should be saved
+   *
+   * @return the Path object representing the created file
+   *
+   * @throws IOException if there's an error writing to the file
+   */
+  Path export(List<EventView> events, String filePath) throws IOException;
+
+  /**
+   * Exports every event of a calendar to a file at the specified path, taking the events from the
+   * calendar one at a time instead of collecting them first.
+   *
+   * @param calendar the calendar to be exported
+   * @param filePath the destination path where the file should be saved
+   *
+   * @return the Path object representing the created file
+   *
+   * @throws IOException if there's an error writing to the file
+   */
+  Path export(SingleCalendar calendar, String filePath) throws IOException;
 }
\ No newline at end of file
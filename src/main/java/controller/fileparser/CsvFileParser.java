@@ -1,13 +1,10 @@
 package controller.fileparser;
 
-import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
@@ -15,7 +12,7 @@ import java.util.NoSuchElementException;
 /**
  * Implementation of the FileParser interface for CSV files. Parses CSV files into a collection of
  * map entries where each map represents a row with column headers as keys and row values as
- * values.
+ * values. Quoted values can hold commas, quotes and line breaks, as described in RFC 4180.
  */
 public class CsvFileParser implements FileParser {
 
@@ -31,17 +28,46 @@ public class CsvFileParser implements FileParser {
    */
   @Override
   public Iterator<Map<String, String>> parseFile(String filePath) throws IOException {
+    Iterator<ParsedRow> rows = parseRows(filePath);
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return rows.hasNext();
+      }
+
+      @Override
+      public Map<String, String> next() {
+        return rows.next().toMap();
+      }
+    };
+  }
+
+  /**
+   * Parses a CSV file at the given path and returns an iterator of its rows. The first line of the
+   * CSV file is expected to contain headers. The rows share their buffers, so a row is only valid
+   * until the row after it is asked for.
+   *
+   * @param filePath the path to the CSV file to be parsed
+   *
+   * @return an iterator of the rows of the file, whose values can be looked up by header
+   *
+   * @throws IOException if there's an error reading or parsing the file
+   */
+  @Override
+  public Iterator<ParsedRow> parseRows(String filePath) throws IOException {
     return new CsvFileIterator(filePath);
   }
 
   /**
-   * Iterator implementation that processes CSV files one line at a time. This provides
-   * memory-efficient parsing for large CSV files.
+   * Iterator implementation that processes CSV files one row at a time. This provides
+   * memory-efficient parsing for large CSV files. Two rows are used in turn, so the row returned
+   * by next stays valid while the iterator looks ahead for the row after it.
    */
-  private static class CsvFileIterator implements Iterator<Map<String, String>> {
-    private final BufferedReader reader;
-    private final List<String> headers;
-    private String nextLine;
+  private static class CsvFileIterator implements Iterator<ParsedRow> {
+    private final CsvTokenizer tokenizer;
+    private final ParsedRow[] rows;
+    private int current;
+    private boolean hasNextRow;
 
     /**
      * Creates a new iterator for the specified CSV file. Reads the first line as headers and
@@ -52,9 +78,20 @@ public class CsvFileParser implements FileParser {
      * @throws IOException if there's an error opening or reading from the file
      */
     public CsvFileIterator(String filePath) throws IOException {
-      this.reader = new BufferedReader(new FileReader(filePath));
-      this.headers = Arrays.asList(reader.readLine().split(","));
-      this.nextLine = reader.readLine();
+      this.tokenizer = new CsvTokenizer(new FileReader(filePath));
+      Map<String, Integer> headerIndexes = new HashMap<>();
+      ParsedRow headers = new ParsedRow(Map.of());
+      if (tokenizer.readRow(headers)) {
+        for (int i = 0; i < headers.size(); i++) {
+          headerIndexes.put(headers.get(i), i);
+        }
+      }
+      this.rows = new ParsedRow[]{new ParsedRow(headerIndexes), new ParsedRow(headerIndexes)};
+      try {
+        advance();
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
     }
 
     /**
@@ -64,56 +101,40 @@ public class CsvFileParser implements FileParser {
      */
     @Override
     public boolean hasNext() {
-      return nextLine != null;
+      return hasNextRow;
     }
 
     /**
-     * Processes the next row in the CSV file and returns it as a map. Maps column headers to the
-     * corresponding values in the current row. Skips empty lines in the CSV file.
+     * Returns the next row in the CSV file. Skips empty lines in the CSV file.
      *
-     * @return a map containing the values from the current row with headers as keys
+     * @return the next row, whose values can be looked up by header
      *
      * @throws NoSuchElementException if there are no more rows to process
      * @throws UncheckedIOException   if an I/O error occurs while reading the file
      */
     @Override
-    public Map<String, String> next() {
-      if (nextLine == null) {
-        throw new NoSuchElementException();
-      }
-
-      // Skip blank lines
-      while (nextLine != null && nextLine.trim().isEmpty()) {
-        try {
-          nextLine = reader.readLine();
-        } catch (IOException e) {
-          throw new UncheckedIOException(e);
-        }
-      }
-
-      // Check again after skipping blank lines
-      if (nextLine == null) {
+    public ParsedRow next() {
+      if (!hasNextRow) {
         throw new NoSuchElementException();
       }
+      ParsedRow row = rows[current];
+      current = 1 - current;
+      advance();
+      return row;
+    }
 
-      String[] values = nextLine.split(",");
-      Map<String, String> map = new HashMap<>();
-      for (int i = 0; i < Math.min(headers.size(), values.length); i++) {
-        String value = values[i].replaceAll("^\"|\"$", "");
-        map.put(headers.get(i), value);
-      }
-
+    /**
+     * Reads the row after the current one, closing the file once there are no rows left.
+     */
+    private void advance() {
       try {
-        // Skip any trailing blank lines for the next iteration
-        do {
-          nextLine = reader.readLine();
+        hasNextRow = tokenizer.readRow(rows[current]);
+        if (!hasNextRow) {
+          tokenizer.close();
         }
-        while (nextLine != null && nextLine.trim().isEmpty());
       } catch (IOException e) {
         throw new UncheckedIOException(e);
       }
-
-      return map;
     }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,160 @@
+package controller.fileparser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Splits CSV text into rows of values in a single pass over a reused character buffer, following
+ * RFC 4180. A quoted value can hold commas, line breaks and quotes written as two quotes. Lines
+ * can end with a line feed, a carriage return or both. Quotes inside an unquoted value, and text
+ * after the closing quote of a quoted value, are kept as they are instead of being rejected.
+ */
+final class CsvTokenizer implements Closeable {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  /**
+   * Where the tokenizer is inside the value being read.
+   */
+  private enum State {
+    VALUE_START,
+    UNQUOTED,
+    QUOTED,
+    QUOTE_IN_QUOTED
+  }
+
+  private final Reader reader;
+  private final char[] buffer;
+  private int position;
+  private int limit;
+  private boolean skipLineFeed;
+
+  /**
+   * Whether the last record read was a line with nothing but white space on it.
+   */
+  private boolean isBlankLine;
+
+  /**
+   * Creates a tokenizer that reads CSV text from the given reader.
+   *
+   * @param reader the reader of the CSV text.
+   */
+  CsvTokenizer(Reader reader) {
+    this.reader = reader;
+    this.buffer = new char[BUFFER_SIZE];
+  }
+
+  /**
+   * Reads the next row that is not blank into the given row. A line with nothing but white space
+   * on it is blank.
+   *
+   * @param row the row to read the values into.
+   *
+   * @return true if a row was read, false if the end of the text was reached.
+   *
+   * @throws IOException if the text cannot be read.
+   */
+  boolean readRow(ParsedRow row) throws IOException {
+    while (readRecord(row)) {
+      if (!isBlankLine) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  /**
+   * Reads the values up to the end of the next record, which can span several lines if a quoted
+   * value holds line breaks.
+   */
+  private boolean readRecord(ParsedRow row) throws IOException {
+    row.clear();
+    State state = State.VALUE_START;
+    boolean isQuoted = false;
+    int c = read();
+    if (c < 0) {
+      return false;
+    }
+    loop:
+    while (c >= 0) {
+      switch (state) {
+        case VALUE_START:
+          if (c == '"') {
+            isQuoted = true;
+            state = State.QUOTED;
+            break;
+          }
+          // the character is the first of an unquoted value, so it is looked at again as one
+          state = State.UNQUOTED;
+          continue;
+        case UNQUOTED:
+          if (c == ',') {
+            row.endValue();
+            state = State.VALUE_START;
+          } else if (c == '\n' || c == '\r') {
+            skipLineFeed = c == '\r';
+            break loop;
+          } else {
+            row.append((char) c);
+          }
+          break;
+        case QUOTED:
+          if (c == '"') {
+            state = State.QUOTE_IN_QUOTED;
+          } else {
+            row.append((char) c);
+          }
+          break;
+        case QUOTE_IN_QUOTED:
+          if (c == '"') {
+            row.append('"');
+            state = State.QUOTED;
+          } else if (c == ',') {
+            row.endValue();
+            state = State.VALUE_START;
+          } else if (c == '\n' || c == '\r') {
+            skipLineFeed = c == '\r';
+            break loop;
+          } else {
+            row.append((char) c);
+            state = State.UNQUOTED;
+          }
+          break;
+        default:
+          throw new IllegalStateException("Unknown state: " + state);
+      }
+      c = read();
+    }
+    row.endValue();
+    isBlankLine = !isQuoted && row.isBlank();
+    return true;
+  }
+
+  /**
+   * Reads the next character, skipping the line feed of a carriage return and line feed pair.
+   */
+  private int read() throws IOException {
+    if (position == limit) {
+      limit = reader.read(buffer, 0, buffer.length);
+      position = 0;
+      if (limit <= 0) {
+        limit = 0;
+        return -1;
+      }
+    }
+    char c = buffer[position++];
+    if (skipLineFeed) {
+      skipLineFeed = false;
+      if (c == '\n') {
+        return read();
+      }
+    }
+    return c;
+  }
+}
@@ -19,4 +19,17 @@ public interface FileParser {
    * @throws IOException if there's an error reading or parsing the file
    */
   Iterator<Map<String, String>> parseFile(String filePath) throws IOException;
+
+  /**
+   * Parses a file at the given path and returns an iterator of its rows. Unlike the maps of
+   * {@link #parseFile(String)}, rows can be reused by the iterator, so a row should be read before
+   * the row after it is asked for.
+   *
+   * @param filePath the path to the file to be parsed
+   *
+   * @return an iterator of rows, whose values can be looked up by position or by header
+   *
+   * @throws IOException if there's an error reading or parsing the file
+   */
+  Iterator<ParsedRow> parseRows(String filePath) throws IOException;
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+package controller.fileparser;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A row of a parsed file whose values can be looked up by their position or by the header of their
+ * column. The values of a row are kept in one character buffer and only turned into strings when
+ * they are asked for, and the buffer is reused for later rows, so a row is only valid until the
+ * row after it is asked for.
+ */
+public final class ParsedRow {
+
+  private final Map<String, Integer> headerIndexes;
+  private char[] chars;
+  private int length;
+  private int[] ends;
+  private int size;
+
+  /**
+   * Creates an empty row whose columns have the given headers.
+   *
+   * @param headerIndexes the position of the column of every header.
+   */
+  ParsedRow(Map<String, Integer> headerIndexes) {
+    this.headerIndexes = headerIndexes;
+    this.chars = new char[256];
+    this.ends = new int[16];
+  }
+
+  /**
+   * Gets the number of values in the row.
+   *
+   * @return the number of values.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the value at the given position of the row.
+   *
+   * @param index the position of the value.
+   *
+   * @return the value.
+   *
+   * @throws IndexOutOfBoundsException if the row has no value at the position.
+   */
+  public String get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("No value at index " + index);
+    }
+    int start = index == 0 ? 0 : ends[index - 1];
+    return new String(chars, start, ends[index] - start);
+  }
+
+  /**
+   * Gets the value in the column with the given header.
+   *
+   * @param header the header of the column.
+   *
+   * @return the value, or null if there is no such column or the row is too short to have it.
+   */
+  public String get(String header) {
+    Integer index = headerIndexes.get(header);
+    return index == null || index >= size ? null : get(index);
+  }
+
+  /**
+   * Gets the value in the column with the given header, or a default value if there is none.
+   *
+   * @param header       the header of the column.
+   * @param defaultValue the value to return if the row has no value for the header.
+   *
+   * @return the value, or the default value.
+   */
+  public String getOrDefault(String header, String defaultValue) {
+    String value = get(header);
+    return value != null ? value : defaultValue;
+  }
+
+  /**
+   * Copies the row into a map from the headers of its columns to its values.
+   *
+   * @return the map of the row.
+   */
+  public Map<String, String> toMap() {
+    Map<String, String> map = new HashMap<>();
+    for (Map.Entry<String, Integer> header : headerIndexes.entrySet()) {
+      if (header.getValue() < size) {
+        map.put(header.getKey(), get(header.getValue()));
+      }
+    }
+    return map;
+  }
+
+  /**
+   * Removes every value from the row.
+   */
+  void clear() {
+    length = 0;
+    size = 0;
+  }
+
+  /**
+   * Adds a character to the value being read.
+   */
+  void append(char c) {
+    if (length == chars.length) {
+      chars = Arrays.copyOf(chars, chars.length * 2);
+    }
+    chars[length++] = c;
+  }
+
+  /**
+   * Ends the value being read.
+   */
+  void endValue() {
+    if (size == ends.length) {
+      ends = Arrays.copyOf(ends, ends.length * 2);
+    }
+    ends[size++] = length;
+  }
+
+  /**
+   * Checks if the row is a single value made only of white space, the same characters that
+   * {@link String#trim()} removes.
+   */
+  boolean isBlank() {
+    if (size != 1) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (chars[i] > ' ') {
+        return false;
+      }
+    }
+    return true;
+  }
+}
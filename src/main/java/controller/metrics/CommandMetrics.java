@@ -0,0 +1,108 @@
+package controller.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The metrics of every command and GUI feature that ran, by name. A decorator looks up the metrics
+ * of its operation once, and records every run into them without locking, so the metrics cost two
+ * reads of the clock and a few atomic adds a run. The metrics can be read with "show metrics",
+ * over JMX once registered, and from a file they are dumped to now and then.
+ */
+public final class CommandMetrics implements CommandMetricsMXBean {
+
+  /**
+   * The name the metrics are registered under over JMX.
+   */
+  public static final String OBJECT_NAME = "calendar:type=CommandMetrics";
+
+  private static final OperationMetrics NEVER_RAN = new OperationMetrics("");
+
+  private final ConcurrentMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+
+  /**
+   * Gets the metrics of the given operation, made the first time it is asked for.
+   *
+   * @param name the name of the operation
+   *
+   * @return the metrics of the operation
+   */
+  public OperationMetrics operation(String name) {
+    return operations.computeIfAbsent(name, OperationMetrics::new);
+  }
+
+  /**
+   * Registers the metrics with the platform MBean server under {@link #OBJECT_NAME}.
+   *
+   * @throws IllegalArgumentException if the metrics cannot be registered
+   */
+  public void register() {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      final ObjectName name = new ObjectName(OBJECT_NAME);
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+      server.registerMBean(this, name);
+    } catch (JMException e) {
+      throw new IllegalArgumentException("Cannot register the metrics: " + e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public String[] getReport() {
+    return operations.values().stream()
+            .filter(operation -> operation.getCount() > 0)
+            .sorted((a, b) -> a.getName().compareTo(b.getName()))
+            .map(OperationMetrics::toString)
+            .toArray(String[]::new);
+  }
+
+  @Override
+  public String[] getOperations() {
+    return operations.values().stream()
+            .filter(operation -> operation.getCount() > 0)
+            .map(OperationMetrics::getName)
+            .sorted()
+            .toArray(String[]::new);
+  }
+
+  @Override
+  public long getCount(String operation) {
+    return find(operation).getCount();
+  }
+
+  @Override
+  public long getErrors(String operation) {
+    return find(operation).getErrors();
+  }
+
+  @Override
+  public long getP50Nanos(String operation) {
+    return find(operation).getLatencies().getPercentile(0.5);
+  }
+
+  @Override
+  public long getP99Nanos(String operation) {
+    return find(operation).getLatencies().getPercentile(0.99);
+  }
+
+  @Override
+  public long getMaxNanos(String operation) {
+    return find(operation).getLatencies().getMax();
+  }
+
+  @Override
+  public void reset() {
+    operations.values().forEach(OperationMetrics::reset);
+  }
+
+  private OperationMetrics find(String operation) {
+    return operations.getOrDefault(operation, NEVER_RAN);
+  }
+}
@@ -0,0 +1,73 @@
+package controller.metrics;
+
+/**
+ * The metrics of the commands and GUI features as seen over JMX, under the name
+ * {@code calendar:type=CommandMetrics}. Latencies are in nanoseconds, and an operation that never
+ * ran has zeros for all of them.
+ */
+public interface CommandMetricsMXBean {
+
+  /**
+   * Gets a line for every operation that ran, with its count, errors and latencies.
+   *
+   * @return the lines, by operation name
+   */
+  String[] getReport();
+
+  /**
+   * Gets the names of the operations that ran.
+   *
+   * @return the names, sorted
+   */
+  String[] getOperations();
+
+  /**
+   * Gets the number of runs of the given operation.
+   *
+   * @param operation the name of the operation
+   *
+   * @return the number of runs
+   */
+  long getCount(String operation);
+
+  /**
+   * Gets the number of failed runs of the given operation.
+   *
+   * @param operation the name of the operation
+   *
+   * @return the number of failed runs
+   */
+  long getErrors(String operation);
+
+  /**
+   * Gets the median latency of the given operation.
+   *
+   * @param operation the name of the operation
+   *
+   * @return the median latency in nanoseconds
+   */
+  long getP50Nanos(String operation);
+
+  /**
+   * Gets the 99th percentile latency of the given operation.
+   *
+   * @param operation the name of the operation
+   *
+   * @return the 99th percentile latency in nanoseconds
+   */
+  long getP99Nanos(String operation);
+
+  /**
+   * Gets the largest latency of the given operation.
+   *
+   * @param operation the name of the operation
+   *
+   * @return the largest latency in nanoseconds
+   */
+  long getMaxNanos(String operation);
+
+  /**
+   * Clears the metrics of every operation.
+   */
+  void reset();
+}
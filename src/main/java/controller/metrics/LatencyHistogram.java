@@ -0,0 +1,126 @@
+package controller.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies in nanoseconds that any number of threads can record into without
+ * locking. Latencies are counted in log-linear buckets: every power of two is split into 8 buckets
+ * of equal width, so a percentile read from the histogram is at most an eighth above the latency it
+ * stands for, whatever its size. Recording a latency is one atomic add to its bucket and one to the
+ * count, and the largest latency is kept exactly.
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  /**
+   * Enough buckets for every non-negative long.
+   */
+  private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Records a latency. A negative latency is recorded as 0.
+   *
+   * @param nanos the latency in nanoseconds
+   */
+  public void record(long nanos) {
+    final long value = Math.max(nanos, 0);
+    counts.incrementAndGet(bucket(value));
+    count.increment();
+    max.accumulate(value);
+  }
+
+  /**
+   * Gets the number of latencies recorded.
+   *
+   * @return the number of latencies
+   */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Gets the largest latency recorded.
+   *
+   * @return the largest latency in nanoseconds, or 0 if none was recorded
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Gets the latency that the given fraction of the recorded latencies are at or below. The latency
+   * is the top of the bucket the percentile falls in, and never more than the largest latency.
+   *
+   * @param fraction the fraction of the latencies, from 0 to 1
+   *
+   * @return the latency in nanoseconds, or 0 if none was recorded
+   *
+   * @throws IllegalArgumentException if the fraction is not between 0 and 1
+   */
+  public long getPercentile(double fraction) {
+    if (!(fraction >= 0 && fraction <= 1)) {
+      throw new IllegalArgumentException("Invalid percentile: " + fraction);
+    }
+    final long[] snapshot = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = counts.get(i);
+      total += snapshot[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+    final long rank = Math.max(1, (long) Math.ceil(fraction * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return Math.min(highestValue(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  /**
+   * Clears every latency recorded.
+   */
+  public void reset() {
+    for (int i = 0; i < BUCKETS; i++) {
+      counts.set(i, 0);
+    }
+    count.reset();
+    max.reset();
+  }
+
+  /**
+   * Gets the bucket of the given latency: the latencies below 8 have a bucket each, and every
+   * power of two above that has 8, told apart by the 3 bits after the leading one.
+   */
+  static int bucket(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    final int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+    return (shift + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /**
+   * Gets the highest latency that falls in the given bucket.
+   */
+  static long highestValue(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    final int shift = bucket / SUB_BUCKETS - 1;
+    final long next = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS + 1) << shift;
+    return next - 1;
+  }
+}
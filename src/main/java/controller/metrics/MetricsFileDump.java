@@ -0,0 +1,83 @@
+package controller.metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the report of the metrics to a file every few seconds, and once more when closed. The
+ * report is written next to the file and moved over it, so a reader never sees half a report. The
+ * dump runs on a daemon thread, which never keeps the application from exiting.
+ */
+public final class MetricsFileDump implements Closeable {
+
+  private final CommandMetrics metrics;
+  private final Path file;
+  private final ScheduledExecutorService executor;
+
+  /**
+   * Starts dumping the given metrics to the given file.
+   *
+   * @param metrics       the metrics to dump
+   * @param file          the file to dump them to
+   * @param periodSeconds the seconds between two dumps
+   *
+   * @throws IllegalArgumentException if the period is not positive
+   */
+  public MetricsFileDump(CommandMetrics metrics, Path file, long periodSeconds) {
+    if (periodSeconds <= 0) {
+      throw new IllegalArgumentException("Invalid metrics period: " + periodSeconds);
+    }
+    this.metrics = metrics;
+    this.file = file;
+    this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+      final Thread thread = new Thread(task, "metrics-dump");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.scheduleAtFixedRate(this::dumpQuietly, periodSeconds, periodSeconds,
+            TimeUnit.SECONDS);
+  }
+
+  /**
+   * Writes the report of the metrics to the file.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  public void dump() throws IOException {
+    final Path parent = file.toAbsolutePath().getParent();
+    final Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+    try {
+      Files.write(temporary, Arrays.asList(metrics.getReport()));
+      Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+              StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * Stops the dumps and writes the report one last time.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    executor.shutdownNow();
+    dump();
+  }
+
+  private void dumpQuietly() {
+    try {
+      dump();
+    } catch (IOException e) {
+      System.err.println("Cannot dump the metrics to " + file + ": " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package controller.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The count, errors and latencies of one operation, such as a command or a feature of the GUI.
+ * Any number of threads can record into it without locking.
+ */
+public final class OperationMetrics {
+
+  private final String name;
+  private final LatencyHistogram latencies = new LatencyHistogram();
+  private final LongAdder errors = new LongAdder();
+
+  OperationMetrics(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Records one run of the operation.
+   *
+   * @param nanos  how long the run took, in nanoseconds
+   * @param failed whether the run failed
+   */
+  public void record(long nanos, boolean failed) {
+    latencies.record(nanos);
+    if (failed) {
+      errors.increment();
+    }
+  }
+
+  /**
+   * Gets the name of the operation.
+   *
+   * @return the name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the number of runs recorded.
+   *
+   * @return the number of runs
+   */
+  public long getCount() {
+    return latencies.getCount();
+  }
+
+  /**
+   * Gets the number of runs that failed.
+   *
+   * @return the number of failed runs
+   */
+  public long getErrors() {
+    return errors.sum();
+  }
+
+  /**
+   * Gets the latencies of the runs.
+   *
+   * @return the histogram of the latencies
+   */
+  public LatencyHistogram getLatencies() {
+    return latencies;
+  }
+
+  void reset() {
+    latencies.reset();
+    errors.reset();
+  }
+
+  /**
+   * Gets a line with the count, errors, median, 99th percentile and largest latency.
+   *
+   * @return the line
+   */
+  @Override
+  public String toString() {
+    return name + ": count=" + getCount() + " errors=" + getErrors()
+            + " p50=" + duration(latencies.getPercentile(0.5))
+            + " p99=" + duration(latencies.getPercentile(0.99))
+            + " max=" + duration(latencies.getMax());
+  }
+
+  private static String duration(long nanos) {
+    if (nanos < 1_000) {
+      return nanos + "ns";
+    }
+    if (nanos < 1_000_000) {
+      return String.format(Locale.ROOT, "%.1fus", nanos / 1e3);
+    }
+    if (nanos < 1_000_000_000) {
+      return String.format(Locale.ROOT, "%.1fms", nanos / 1e6);
+    }
+    return String.format(Locale.ROOT, "%.1fs", nanos / 1e9);
+  }
+}
@@ -43,6 +43,20 @@ public class BasicCalendarModel implements CalendarModel {
     this.calendars.put("default", new AbstractMap.SimpleEntry<>(currentTimeZone, currentCalendar));
   }
 
+  /**
+   * Constructs a BasicCalendarModel object whose only calendar is the given one, which is the
+   * current calendar. Used to put back a model that was saved.
+   *
+   * @param calendarName the name of the calendar.
+   * @param timeZone     the time zone of the calendar.
+   * @param calendar     the calendar.
+   */
+  BasicCalendarModel(String calendarName, String timeZone, SingleCalendar calendar) {
+    this.currentCalendar = calendar;
+    this.calendars = new HashMap<>();
+    this.calendars.put(calendarName, new AbstractMap.SimpleEntry<>(timeZone, calendar));
+  }
+
   /**
    * Adds a new calendar to the system. Validates the calendar name and time zone before adding the
    * calendar to the map of calendars. The time zone must be a valid timezone, according to the IANA
@@ -53,13 +67,49 @@ public class BasicCalendarModel implements CalendarModel {
    */
   @Override
   public void addCalendar(String calendarName, String timeZone) {
+    addCalendar(calendarName, timeZone, CalendarStorage.OBJECTS);
+  }
+
+  /**
+   * Adds a new calendar to the system that keeps its events the given way. A calendar expected to
+   * hold a lot of single events can keep them as columns, which takes far less memory.
+   *
+   * @param calendarName the name of the new calendar.
+   * @param timeZone     the time zone of the new calendar.
+   * @param storage      the way the calendar keeps its events.
+   */
+  public void addCalendar(String calendarName, String timeZone, CalendarStorage storage) {
     validateNameAndTimeZone(calendarName, timeZone);
     calendars.put(
             calendarName,
-            new AbstractMap.SimpleEntry<>(timeZone, new BasicSingleCalendar(timeZone))
+            new AbstractMap.SimpleEntry<>(timeZone, storage.create(timeZone))
     );
   }
 
+  /**
+   * Adds the given calendar to the system. Used to put back a model that was saved.
+   *
+   * @param calendarName the name of the calendar.
+   * @param timeZone     the time zone of the calendar.
+   * @param calendar     the calendar.
+   */
+  void addCalendar(String calendarName, String timeZone, SingleCalendar calendar) {
+    validateNameAndTimeZone(calendarName, timeZone);
+    calendars.put(calendarName, new AbstractMap.SimpleEntry<>(timeZone, calendar));
+  }
+
+  /**
+   * Gets the calendar with the given name, which does not have to be the current calendar.
+   *
+   * @param calendarName the name of the calendar.
+   *
+   * @return the calendar.
+   */
+  SingleCalendar getCalendar(String calendarName) {
+    checkCalendarDoesNotExist(calendarName);
+    return calendars.get(calendarName).getValue();
+  }
+
   /**
    * Edits the given property of the given calendar. The property can be the name or the timezone of
    * the calendar. Validates the calendar name and time zone before editing the calendar. The time
@@ -1,47 +1,124 @@
 package model;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 import model.calendarentry.CalendarEntry;
+import model.calendarentry.EventView;
 import model.calendarentry.RecurringEvent;
 import model.calendarentry.SingleEvent;
+import utils.jfr.CalendarAddEvent;
+import utils.jfr.CalendarEditEvent;
+import utils.jfr.ConflictCheckEvent;
+import utils.jfr.RangeQueryEvent;
 
 import static utils.DateTimeUtils.DateTimeProcessingResult;
 
+import static utils.DateTimeUtils.isTimeOverLapping;
 import static utils.DateTimeUtils.processEventDateTime;
 import static utils.DateTimeUtils.stringToZdt;
 
 /**
  * The BasicSingleCalendar class is an implementation of the SingleCalendar abstract class. This
  * class provides methods to add, edit, and get events from the calendar. It also provides methods
- * to export the calendar and show the availability status of the calendar. It uses a list to store
- * the entries.
+ * to export the calendar and show the availability status of the calendar. It uses an insertion
+ * ordered set to store the entries, an interval tree over the time span of every entry to answer
+ * range and conflict queries, and an index of the entries by name for edits by name, so that none
+ * of these have to walk the whole calendar.
  */
 public class BasicSingleCalendar extends SingleCalendar {
 
   /**
-   * The list of events in the calendar.
+   * The number of events moved to a new time zone each time the calendar is changed.
    */
-  private final List<CalendarEntry> events;
+  private static final int MOVES_PER_CHANGE = 64;
+
+  /**
+   * The events in the calendar, in the order they were added.
+   */
+  private final Set<CalendarEntry> events;
+
+  /**
+   * Index of the events in the calendar by the time span they cover.
+   */
+  private final EntryIntervalTree eventIndex;
+
+  /**
+   * Index of the events in the calendar by the names they go by.
+   */
+  private final EntryNameIndex nameIndex;
+
+  /**
+   * Busy times of the calendar per day, built from the interval index as days are asked about.
+   */
+  private final FreeBusyCache busyCache;
+
+  /**
+   * The events with an occurrence that ends before it starts. Such an occurrence is busy for any
+   * range that holds the time between its end and its start, which the busy times of a day cannot
+   * tell, so status queries skip the cache while there are any.
+   */
+  private final Set<CalendarEntry> eventsEndingBeforeStart;
+
+  /**
+   * The events added or changed since status queries last looked for occurrences that end before
+   * they start. Looking through a recurring event generates its occurrences, so it is left to the
+   * first status query that could use the busy times rather than done on every change.
+   */
+  private final Set<CalendarEntry> eventsToCheck;
+
+  /**
+   * The events known to be in the time zone of the calendar. Changing the time zone only starts
+   * a new set, so the events are moved to the new time zone when they are next edited, and any
+   * event not in the set is shown as it would be after the move until then.
+   */
+  private Set<CalendarEntry> eventsInZone;
+
+  /**
+   * The events of the calendar when its time zone last changed. They are moved to the new time
+   * zone a few at a time, from nextToMove on, whenever the calendar is changed, so reads do not
+   * go on showing them through moved copies for as long as the calendar is open.
+   */
+  private CalendarEntry[] eventsToMove;
+  private int nextToMove;
 
   private String timeZone;
+  private ZoneId zoneId;
 
   /**
-   * Constructor for the BasicSingleCalendar class. Initializes the list of events. LinkedList is
-   * used as the underlying data structure. The list is empty initially meaning there are no events
-   * in the calendar. Using LinkedList as the underlying data structure allows for efficient
-   * insertion and deletion of events.
+   * Constructor for the BasicSingleCalendar class. Initializes the set of events and its interval
+   * index. Both are empty initially meaning there are no events in the calendar. LinkedHashSet is
+   * used so that events keep the order they were added in while still allowing for efficient
+   * deletion of events that are being edited.
    */
   public BasicSingleCalendar(String timeZone) {
     this.timeZone = timeZone;
-    this.events = new LinkedList<>();
+    this.zoneId = ZoneId.of(timeZone);
+    this.events = new LinkedHashSet<>();
+    this.eventIndex = new EntryIntervalTree();
+    this.nameIndex = new EntryNameIndex();
+    this.busyCache = new FreeBusyCache(eventIndex);
+    this.eventsEndingBeforeStart = Collections.newSetFromMap(new IdentityHashMap<>());
+    this.eventsToCheck = Collections.newSetFromMap(new IdentityHashMap<>());
+    this.eventsInZone = Collections.newSetFromMap(new IdentityHashMap<>());
+    this.eventsToMove = new CalendarEntry[0];
   }
 
 
@@ -98,6 +175,92 @@ public class BasicSingleCalendar extends SingleCalendar {
     );
   }
 
+  /**
+   * Adds a batch of single events to the calendar in one go. The events added so far from the batch
+   * never conflict with each other, so once sorted by start their ends never decrease either, and
+   * the event before the end of a new event is the only one of them it can conflict with. They are
+   * kept in a map sorted by start, and the events of the calendar are checked through the interval
+   * index. The events that pass are added to the calendar and the index in one pass at the end.
+   *
+   * @param batch       the events to add.
+   * @param autoDecline whether conflicting events should be automatically declined.
+   *
+   * @return a report of which events of the batch were added, and why the others were not.
+   */
+  @Override
+  public EventBatch.Report addSingleEvents(EventBatch batch, boolean autoDecline) {
+    CalendarAddEvent record = new CalendarAddEvent();
+    record.begin();
+    if (batch.isAllOrNothing()) {
+      EventBatch.Report report = addAllOrNothing(batch, autoDecline);
+      record.record("batch", report.getAddedCount(), events.size());
+      return report;
+    }
+    EventBatch.Report report = new EventBatch.Report(batch.size());
+    List<CalendarEntry> eventsToAdd = new ArrayList<>();
+    // Start of every event added so far from the batch, to the latest end among those starts
+    TreeMap<Long, Long> addedSpans = new TreeMap<>();
+    for (int row = 0; row < batch.size(); row++) {
+      EventBatch.Row event = batch.get(row);
+      CalendarEntry singleEvent;
+      try {
+        DateTimeProcessingResult result = event.isParsed()
+                ? processEventDateTime(event.parsedStart, event.parsedEnd, timeZone)
+                : processEventDateTime(event.startDateTime, event.endDateTime, timeZone);
+        singleEvent = new SingleEvent(event.name, result.startDateTime, result.endDateTime,
+                event.description, event.location, event.isPrivate, result.isAllDay);
+      } catch (IllegalArgumentException e) {
+        report.reject(row, e.getMessage());
+        continue;
+      }
+
+      if (autoDecline) {
+        long start = singleEvent.getStartDateTime().toEpochSecond();
+        long end = singleEvent.getEndDateTime().toEpochSecond();
+        Map.Entry<Long, Long> before = addedSpans.lowerEntry(end);
+        if ((before != null && before.getValue() > start) || checkConflict(singleEvent)) {
+          report.reject(row, "Conflict detected, Event not Created");
+          continue;
+        }
+        addedSpans.merge(start, end, Math::max);
+      }
+      eventsToAdd.add(singleEvent);
+    }
+
+    addAllToCalendar(eventsToAdd);
+    record.record("batch", report.getAddedCount(), events.size());
+    return report;
+  }
+
+  /**
+   * Adds every event of an all-or-nothing batch to the calendar, or none of them. The events are
+   * checked against each other in one sweep over them sorted by start, and against the calendar
+   * through the interval index, before any of them is added.
+   *
+   * @param batch       the events to add.
+   * @param autoDecline whether conflicting events should be automatically declined.
+   *
+   * @return a report of the events that failed, rolled back if there are any.
+   */
+  private EventBatch.Report addAllOrNothing(EventBatch batch, boolean autoDecline) {
+    EventBatch.Report report = new EventBatch.Report(batch.size());
+    CalendarEntry[] staged = batch.toEvents(timeZone, report);
+    if (autoDecline) {
+      EventBatch.rejectOverlapping(staged, report);
+      for (int row = 0; row < staged.length; row++) {
+        if (report.isAdded(row) && checkConflict(staged[row])) {
+          report.reject(row, "Conflict detected, Event not Created");
+        }
+      }
+    }
+    if (report.getAddedCount() < batch.size()) {
+      report.rollBack();
+      return report;
+    }
+    addAllToCalendar(Arrays.asList(staged));
+    return report;
+  }
+
   /**
    * Adds a simple recurring event to the calendar until the given date and time.
    *
@@ -184,13 +347,7 @@ public class BasicSingleCalendar extends SingleCalendar {
             weekDays,
             frequency);
 
-    if (autoDecline) {
-      if (checkConflict(recurringEvent)) {
-        throw new IllegalArgumentException("Conflict detected, Event not Created");
-      }
-    }
-
-    this.events.add(recurringEvent);
+    addChecked(recurringEvent, autoDecline);
   }
 
   /**
@@ -274,13 +431,7 @@ public class BasicSingleCalendar extends SingleCalendar {
             weekDays,
             frequency);
 
-    if (autoDecline) {
-      if (checkConflict(recurringEvent)) {
-        throw new IllegalArgumentException("Conflict detected, Event not Created");
-      }
-    }
-
-    this.events.add(recurringEvent);
+    addChecked(recurringEvent, autoDecline);
   }
 
   /**
@@ -303,6 +454,29 @@ public class BasicSingleCalendar extends SingleCalendar {
           String propertyName,
           String propertyValue,
           boolean autoDecline) {
+    CalendarEditEvent record = new CalendarEditEvent();
+    record.begin();
+    int edited = 0;
+    try {
+      edited = editSingleOccurrence(
+              eventName, startDateTime, endDateTime, propertyName, propertyValue, autoDecline);
+    } finally {
+      record.record("single", propertyName, edited, events.size());
+    }
+  }
+
+  /**
+   * Edits the single event or occurrence with the given name, start and end date times.
+   *
+   * @return the number of entries edited.
+   */
+  private int editSingleOccurrence(
+          String eventName,
+          String startDateTime,
+          String endDateTime,
+          String propertyName,
+          String propertyValue,
+          boolean autoDecline) {
     DateTimeProcessingResult result = processEventDateTime(startDateTime, endDateTime, timeZone);
 
     ZonedDateTime startZonedDateTime = result.startDateTime;
@@ -311,26 +485,33 @@ public class BasicSingleCalendar extends SingleCalendar {
     boolean eventFound = false;
     List<CalendarEntry> editedEvent = new LinkedList<>();
 
-    for (CalendarEntry entry : events) {
-      if (entry.matchesSingleOccurrence(eventName, startZonedDateTime, endZonedDateTime) != null) {
-        entry.editSingleEvent(
-                eventName,
-                startZonedDateTime,
-                endZonedDateTime,
-                propertyName,
-                propertyValue);
-
-        editedEvent.add(entry);
-        eventFound = true;
+    try {
+      for (CalendarEntry entry : findStartingAt(startZonedDateTime)) {
+        if (inCalendarZone(entry)
+                .matchesSingleOccurrence(eventName, startZonedDateTime, endZonedDateTime) != null) {
+          moveToCalendarZone(entry);
+          editedEvent.add(entry);
+          entry.editSingleEvent(
+                  eventName,
+                  startZonedDateTime,
+                  endZonedDateTime,
+                  propertyName,
+                  propertyValue);
+          eventFound = true;
+        }
       }
+    } catch (IllegalArgumentException e) {
+      undoEvents(editedEvent);
+      reindex(editedEvent);
+      throw e;
     }
 
     if (!eventFound) {
       throw new IllegalArgumentException("Event not found");
     }
 
-    events.removeAll(editedEvent);
     checkConflictAndAddAll(editedEvent, autoDecline);
+    return editedEvent.size();
   }
 
   /**
@@ -379,6 +560,28 @@ public class BasicSingleCalendar extends SingleCalendar {
    */
   @Override
   public Map<String, String>[] getEventsRange(String startDateTime, String endDateTime) {
+    ZonedDateTime[] range = parseRange(startDateTime, endDateTime);
+    return getEventsHelper(range[0], range[1]);
+  }
+
+  /**
+   * Gets the views of the events in the calendar between the given start and end date times.
+   *
+   * @param startDateTime the start date and time.
+   * @param endDateTime   the end date and time.
+   *
+   * @return the views of the events that are within the given range.
+   */
+  @Override
+  public List<EventView> getEventViewsRange(String startDateTime, String endDateTime) {
+    ZonedDateTime[] range = parseRange(startDateTime, endDateTime);
+    return getEventViewsHelper(range[0], range[1]);
+  }
+
+  /**
+   * Parses the start and end of a range of date times in the time zone of the calendar.
+   */
+  private ZonedDateTime[] parseRange(String startDateTime, String endDateTime) {
     if (startDateTime.isEmpty() || endDateTime.isEmpty()) {
       throw new IllegalArgumentException("Start and end date time cannot be empty");
     }
@@ -389,8 +592,7 @@ public class BasicSingleCalendar extends SingleCalendar {
     if (endZonedDateTime.isBefore(startZonedDateTime)) {
       throw new IllegalArgumentException("End time must be after start time");
     }
-
-    return getEventsHelper(startZonedDateTime, endZonedDateTime);
+    return new ZonedDateTime[]{startZonedDateTime, endZonedDateTime};
   }
 
   /**
@@ -407,6 +609,71 @@ public class BasicSingleCalendar extends SingleCalendar {
     return getEventsHelper(startZonedDateTime, endZonedDateTime);
   }
 
+  /**
+   * Gets the views of the events in the calendar on the given date.
+   *
+   * @param startDate the date.
+   *
+   * @return the views of the events that are on the given date.
+   */
+  @Override
+  public List<EventView> getEventViewsOnDate(String startDate) {
+    ZonedDateTime startZonedDateTime = stringToZdt(startDate, timeZone);
+    ZonedDateTime endZonedDateTime = startZonedDateTime.withHour(23).withMinute(59);
+    return getEventViewsHelper(startZonedDateTime, endZonedDateTime);
+  }
+
+  /**
+   * Gets the names of the events on every day of the given month. The occurrences in the month are
+   * collected and sorted once, and every occurrence is then added to the days it overlaps with,
+   * without building the details of the events.
+   *
+   * @param month the month to get the event names for.
+   *
+   * @return a list with, for every day of the month in order, the names of the events on that day.
+   */
+  @Override
+  public List<List<String>> getEventNamesInMonth(YearMonth month) {
+    final ZonedDateTime monthStart = month.atDay(1).atStartOfDay(zoneId);
+    final ZonedDateTime monthEnd = month.atEndOfMonth().atStartOfDay(zoneId)
+            .withHour(23).withMinute(59);
+
+    List<CalendarEntry> eventsInMonth = new ArrayList<>();
+    for (CalendarEntry entry : findCandidates(monthStart, monthEnd)) {
+      eventsInMonth.addAll(inCalendarZone(entry).getEventsIfWithinRange(monthStart, monthEnd));
+    }
+    eventsInMonth.sort(Comparator.comparing(CalendarEntry::getStartDateTime));
+
+    List<List<String>> eventNamesInMonth = new ArrayList<>();
+    for (int day = 0; day < month.lengthOfMonth(); day++) {
+      eventNamesInMonth.add(new ArrayList<>());
+    }
+    for (CalendarEntry entry : eventsInMonth) {
+      LocalDate firstDay = entry.getStartDateTime().withZoneSameInstant(zoneId).toLocalDate();
+      LocalDate lastDay = entry.getEndDateTime().withZoneSameInstant(zoneId).toLocalDate();
+      if (lastDay.isBefore(firstDay)) {
+        LocalDate swap = firstDay;
+        firstDay = lastDay;
+        lastDay = swap;
+      }
+      firstDay = firstDay.isBefore(month.atDay(1)) ? month.atDay(1) : firstDay;
+      lastDay = lastDay.isAfter(month.atEndOfMonth()) ? month.atEndOfMonth() : lastDay;
+
+      for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+        ZonedDateTime dayStart = day.atStartOfDay(zoneId);
+        if (isTimeOverLapping(
+                entry.getStartDateTime(),
+                entry.getEndDateTime(),
+                dayStart,
+                dayStart.withHour(23).withMinute(59))) {
+          eventNamesInMonth.get(day.getDayOfMonth() - 1)
+                  .add(entry.getName() != null ? entry.getName() : "");
+        }
+      }
+    }
+    return eventNamesInMonth;
+  }
+
   /**
    * Gets the events in the calendar between the given start and end date times. Returns Name,
    * StartDateTime, EndDateTime, Location. If endDateTime is empty, it will return all events on the
@@ -420,6 +687,8 @@ public class BasicSingleCalendar extends SingleCalendar {
   private Map<String, String>[] getEventsHelper(
           ZonedDateTime startDateTime,
           ZonedDateTime endDateTime) {
+    RangeQueryEvent record = new RangeQueryEvent();
+    record.begin();
     final List<Map<String, String>> eventStrings = new LinkedList<>();
     List<Map<String, String>> currentEventString;
 
@@ -427,8 +696,9 @@ public class BasicSingleCalendar extends SingleCalendar {
     List<CalendarEntry> eventsInRange = new LinkedList<>();
 
     // Collect all events in the range
-    for (CalendarEntry entry : events) {
-      List<CalendarEntry> entriesInRange = entry
+    List<CalendarEntry> candidates = findCandidates(startDateTime, endDateTime);
+    for (CalendarEntry entry : candidates) {
+      List<CalendarEntry> entriesInRange = inCalendarZone(entry)
               .getEventsIfWithinRange(startDateTime, endDateTime);
       if (entriesInRange != null && !entriesInRange.isEmpty()) {
         eventsInRange.addAll(entriesInRange);
@@ -444,9 +714,36 @@ public class BasicSingleCalendar extends SingleCalendar {
       eventStrings.addAll(currentEventString);
     }
 
+    record.record(startDateTime, endDateTime, candidates.size(), eventStrings.size(),
+            events.size());
     return eventStrings.toArray(new Map[0]);
   }
 
+  /**
+   * Gets the views of the events in the calendar between the given start and end date times,
+   * sorted by their start date times. The occurrences of recurring events are viewed without
+   * copying them first.
+   *
+   * @param startDateTime the start date and time.
+   * @param endDateTime   the end date and time.
+   *
+   * @return the views of the events between the given start and end date times.
+   */
+  private List<EventView> getEventViewsHelper(
+          ZonedDateTime startDateTime,
+          ZonedDateTime endDateTime) {
+    RangeQueryEvent record = new RangeQueryEvent();
+    record.begin();
+    List<EventView> eventViews = new ArrayList<>();
+    List<CalendarEntry> candidates = findCandidates(startDateTime, endDateTime);
+    for (CalendarEntry entry : candidates) {
+      eventViews.addAll(inCalendarZone(entry).getEventViews(startDateTime, endDateTime));
+    }
+    eventViews.sort(Comparator.comparing(EventView::getStartDateTime));
+    record.record(startDateTime, endDateTime, candidates.size(), eventViews.size(),
+            events.size());
+    return eventViews;
+  }
 
   /**
    * Gets all events in the calendar as an array of formatted strings. Each event is converted to a
@@ -456,11 +753,45 @@ public class BasicSingleCalendar extends SingleCalendar {
   public Map<String, String>[] getAllEvents() {
     List<Map<String, String>> eventStrings = new LinkedList<>();
     for (CalendarEntry event : events) {
-      eventStrings.addAll(event.getAllEventDetails());
+      eventStrings.addAll(inCalendarZone(event).getAllEventDetails());
     }
     return eventStrings.toArray(new Map[0]);
   }
 
+  /**
+   * Gets the views of all the events in the calendar, in the order they were added in.
+   */
+  @Override
+  public List<EventView> getAllEventViews() {
+    List<EventView> eventViews = new ArrayList<>();
+    forEachEventView(eventViews::add);
+    return eventViews;
+  }
+
+  /**
+   * Gives the view of every event in the calendar to the given action, in the order the events
+   * were added in. The occurrences of recurring events are generated one at a time.
+   */
+  @Override
+  public void forEachEventView(Consumer<EventView> action) {
+    for (CalendarEntry event : events) {
+      inCalendarZone(event).forEachEventView(action);
+    }
+  }
+
+  /**
+   * Gives every entry of the calendar to the given action, in the order the entries were added
+   * in.
+   *
+   * @param action the action to give the entries to.
+   */
+  @Override
+  protected void forEachEntry(Consumer<CalendarEntry> action) {
+    for (CalendarEntry event : events) {
+      action.accept(inCalendarZone(event));
+    }
+  }
+
   /**
    * Shows the availability status of the calendar at the given date and time.
    *
@@ -507,7 +838,10 @@ public class BasicSingleCalendar extends SingleCalendar {
   }
 
   /**
-   * Helper method to check calendar availability for a given time range.
+   * Helper method to check calendar availability for a given time range. Ranges of up to a month
+   * are answered from the per-day busy times, and longer ones by checking the events the interval
+   * index finds for the range. Merged busy times only answer for ranges that end after they start,
+   * and only while no event ends before it starts.
    *
    * @param startDateTime the start date and time.
    * @param endDateTime   the end date and time.
@@ -515,30 +849,41 @@ public class BasicSingleCalendar extends SingleCalendar {
    * @return "Available" if the calendar is available, "Busy" if the calendar is busy.
    */
   private String checkAvailability(ZonedDateTime startDateTime, ZonedDateTime endDateTime) {
+    final long from = startDateTime.toEpochSecond();
+    final long to = endDateTime.toEpochSecond();
+    if (from <= to && busyCache.canAnswer(from, to) && !anyEventEndingBeforeStart()) {
+      return busyCache.isBusy(from, to) ? "Busy" : "Available";
+    }
+
     final CalendarEntry testEvent = new SingleEvent("_test_", startDateTime, endDateTime,
             "", "", false, false);
 
-    for (CalendarEntry event : events) {
-      if (event.isConflict(testEvent)) {
-        return "Busy";
-      }
+    if (eventIndex.anyOverlapping(
+            startDateTime.toEpochSecond(),
+            endDateTime.toEpochSecond(),
+            event -> event.isConflict(testEvent))) {
+      return "Busy";
     }
 
     return "Available";
   }
 
   /**
-   * Change the timeZone of the calendar and all the events in the calendar.
+   * Change the timeZone of the calendar and all the events in the calendar. Moving an event to
+   * another zone keeps the instants it covers, so none of the indexes need to change, and the
+   * events themselves are moved a few at a time as the calendar is next changed, or when they are
+   * edited. Until then they are shown as they would be after the move, so changing the time zone
+   * only takes a list of the events rather than moving each of them.
    *
    * @param newTimezone the new timezone to change to.
    */
   @Override
   public void changeTimezone(String newTimezone) {
-    ZoneId zoneId = ZoneId.of(newTimezone);
+    this.zoneId = ZoneId.of(newTimezone);
     this.timeZone = newTimezone;
-    for (CalendarEntry event : events) {
-      event.updateZone(zoneId);
-    }
+    this.eventsInZone = Collections.newSetFromMap(new IdentityHashMap<>());
+    this.eventsToMove = events.toArray(new CalendarEntry[0]);
+    this.nextToMove = 0;
   }
 
   /**
@@ -575,14 +920,20 @@ public class BasicSingleCalendar extends SingleCalendar {
   }
 
   private List<CalendarEntry> fetchEvents(ZonedDateTime startDateTime, ZonedDateTime endDateTime) {
+    RangeQueryEvent record = new RangeQueryEvent();
+    record.begin();
     List<CalendarEntry> fetchedEvents = new LinkedList<>();
 
-    for (CalendarEntry event : events) {
-      List<CalendarEntry> eventsInRange = event.getEventsIfWithinRange(startDateTime, endDateTime);
+    List<CalendarEntry> candidates = findCandidates(startDateTime, endDateTime);
+    for (CalendarEntry event : candidates) {
+      List<CalendarEntry> eventsInRange = inCalendarZone(event)
+              .getEventsIfWithinRange(startDateTime, endDateTime);
       if (!(eventsInRange == null || eventsInRange.isEmpty())) {
         fetchedEvents.addAll(eventsInRange);
       }
     }
+    record.record(startDateTime, endDateTime, candidates.size(), fetchedEvents.size(),
+            events.size());
     return fetchedEvents;
   }
 
@@ -597,9 +948,9 @@ public class BasicSingleCalendar extends SingleCalendar {
   @Override
   protected CalendarEntry getEventWithStartDateTime(String eventName, String startDateTime) {
     ZonedDateTime startDateTimeZDT = stringToZdt(startDateTime, timeZone);
-    for (CalendarEntry event : events) {
+    for (CalendarEntry event : findStartingAt(startDateTimeZDT)) {
       AbstractMap.SimpleEntry<CalendarEntry, Boolean> matchedEvent
-              = event.isEventStartWith(eventName, startDateTimeZDT);
+              = inCalendarZone(event).isEventStartWith(eventName, startDateTimeZDT);
       if (matchedEvent.getKey() != null) {
         return matchedEvent.getKey();
       }
@@ -616,17 +967,25 @@ public class BasicSingleCalendar extends SingleCalendar {
    */
   @Override
   protected void addEvents(List<CalendarEntry> eventsToAdd, boolean autoDecline) {
-    // First check all events for conflicts
-    if (autoDecline) {
-      for (CalendarEntry entry : eventsToAdd) {
-        if (checkConflict(entry)) {
-          throw new IllegalArgumentException("Conflict detected, no events were added");
+    CalendarAddEvent record = new CalendarAddEvent();
+    record.begin();
+    int added = 0;
+    try {
+      // First check all events for conflicts
+      if (autoDecline) {
+        for (CalendarEntry entry : eventsToAdd) {
+          if (checkConflict(entry)) {
+            throw new IllegalArgumentException("Conflict detected, no events were added");
+          }
         }
       }
-    }
 
-    // If we reach here, all events are conflict-free
-    this.events.addAll(eventsToAdd);
+      // If we reach here, all events are conflict-free
+      addAllToCalendar(eventsToAdd);
+      added = eventsToAdd.size();
+    } finally {
+      record.record("copy", added, events.size());
+    }
   }
 
   /**
@@ -642,9 +1001,9 @@ public class BasicSingleCalendar extends SingleCalendar {
           String eventName,
           String startDateTime) {
     ZonedDateTime startDateTimeZDT = stringToZdt(startDateTime, timeZone);
-    for (CalendarEntry event : events) {
+    for (CalendarEntry event : findStartingAt(startDateTimeZDT)) {
       AbstractMap.SimpleEntry<CalendarEntry, Boolean> matchedEvent
-              = event.isEventStartWith(eventName, startDateTimeZDT);
+              = inCalendarZone(event).isEventStartWith(eventName, startDateTimeZDT);
       if (matchedEvent.getKey() != null) {
         List<Map<String, String>> matchedEventMap = matchedEvent.getKey().getAllEventDetails();
         Map<String, String> cleanedMap = cleanMapKeyValues(matchedEventMap.get(0));
@@ -661,7 +1020,7 @@ public class BasicSingleCalendar extends SingleCalendar {
     return Map.of();
   }
 
-  private Map<String, String> cleanMapKeyValues(Map<String, String> data) {
+  static Map<String, String> cleanMapKeyValues(Map<String, String> data) {
 
     // Create the final map with only the required keys
     Map<String, String> resultMap = new LinkedHashMap<>();
@@ -700,7 +1059,7 @@ public class BasicSingleCalendar extends SingleCalendar {
   /**
    * Helper method to add a field from source map to target map with quotes removed.
    */
-  private void addCleanField(
+  private static void addCleanField(
           Map<String, String> targetMap,
           Map<String, String> sourceMap,
           String fieldName) {
@@ -734,13 +1093,7 @@ public class BasicSingleCalendar extends SingleCalendar {
     CalendarEntry singleEvent = new SingleEvent(name, startZonedDateTime, endZonedDateTime,
             description, location, isPrivate, isAllDay);
 
-    if (autoDecline) {
-      if (checkConflict(singleEvent)) {
-        throw new IllegalArgumentException("Conflict detected, Event not Created");
-      }
-    }
-
-    events.add(singleEvent);
+    addChecked(singleEvent, autoDecline);
   }
 
   private void addRecurringEventUntilHelper(
@@ -765,13 +1118,32 @@ public class BasicSingleCalendar extends SingleCalendar {
             weekDays,
             untilDateTime);
 
-    if (autoDecline) {
-      if (checkConflict(recurringEvent)) {
+    addChecked(recurringEvent, autoDecline);
+  }
+
+  /**
+   * Adds the given event to the calendar, if it does not conflict with the events in it when
+   * conflicts are declined.
+   *
+   * @param event       the event to add.
+   * @param autoDecline whether a conflicting event should be declined.
+   *
+   * @throws IllegalArgumentException if the event conflicts and conflicts are declined.
+   */
+  private void addChecked(CalendarEntry event, boolean autoDecline) {
+    CalendarAddEvent record = new CalendarAddEvent();
+    record.begin();
+    int added = 0;
+    try {
+      if (autoDecline && checkConflict(event)) {
         throw new IllegalArgumentException("Conflict detected, Event not Created");
       }
+      addToCalendar(event);
+      added = 1;
+    } finally {
+      record.record(event instanceof RecurringEvent ? "recurring" : "single", added,
+              events.size());
     }
-
-    this.events.add(recurringEvent);
   }
 
   /**
@@ -782,12 +1154,182 @@ public class BasicSingleCalendar extends SingleCalendar {
    * @return true if the event conflicts with any existing events, false otherwise.
    */
   private boolean checkConflict(CalendarEntry singleEvent) {
-    for (CalendarEntry entry : events) {
-      if (entry.isConflict(singleEvent)) {
-        return true;
+    return checkConflict(singleEvent, Collections.emptySet());
+  }
+
+  /**
+   * Checks if the given event conflicts with any existing events in the calendar other than the
+   * ignored ones.
+   *
+   * @param singleEvent the event to check for conflicts
+   * @param ignored     the events of the calendar not to check against, by identity
+   *
+   * @return true if the event conflicts with any other events, false otherwise.
+   */
+  private boolean checkConflict(CalendarEntry singleEvent, Set<CalendarEntry> ignored) {
+    ZonedDateTime spanStart = singleEvent.getSpanStart();
+    ZonedDateTime spanEnd = singleEvent.getSpanEnd();
+    long from = Math.min(spanStart.toEpochSecond(), spanEnd.toEpochSecond());
+    long to = Math.max(spanStart.toEpochSecond(), spanEnd.toEpochSecond());
+    ConflictCheckEvent record = new ConflictCheckEvent();
+    if (!record.isEnabled()) {
+      return eventIndex.anyOverlapping(from, to,
+              entry -> !ignored.contains(entry) && entry.isConflict(singleEvent));
+    }
+    record.begin();
+    int[] scanned = {0};
+    boolean conflict = eventIndex.anyOverlapping(from, to, entry -> {
+      scanned[0]++;
+      return !ignored.contains(entry) && entry.isConflict(singleEvent);
+    });
+    record.record(scanned[0], conflict, events.size());
+    return conflict;
+  }
+
+  /**
+   * Gets the events whose time span may overlap with the given range, in the order they were added
+   * to the calendar. The exact overlap check is left to the caller.
+   *
+   * @param startDateTime the start of the range.
+   * @param endDateTime   the end of the range.
+   *
+   * @return the candidate events for the range.
+   */
+  private List<CalendarEntry> findCandidates(
+          ZonedDateTime startDateTime,
+          ZonedDateTime endDateTime) {
+    return eventIndex.findOverlapping(
+            Math.min(startDateTime.toEpochSecond(), endDateTime.toEpochSecond()),
+            Math.max(startDateTime.toEpochSecond(), endDateTime.toEpochSecond()));
+  }
+
+  /**
+   * Gets the events that may have an occurrence starting at the given date time, in the order they
+   * were added to the calendar. Every occurrence lies within the span of the event it belongs to,
+   * so only the events whose span holds the date time are looked up in the interval index, instead
+   * of going through every event in the calendar.
+   *
+   * @param startDateTime the start date time of the occurrence.
+   *
+   * @return the candidate events for the start date time.
+   */
+  private List<CalendarEntry> findStartingAt(ZonedDateTime startDateTime) {
+    return findCandidates(startDateTime, startDateTime);
+  }
+
+  /**
+   * Adds the given event to the calendar and to its indexes.
+   *
+   * @param event the event to add.
+   */
+  private void addToCalendar(CalendarEntry event) {
+    moveSomeToCalendarZone();
+    events.add(event);
+    eventsInZone.add(event);
+    eventIndex.insert(event);
+    nameIndex.insert(event);
+    eventsToCheck.add(event);
+    busyCache.clear();
+  }
+
+  /**
+   * Adds all the given events to the calendar and to its indexes.
+   *
+   * @param eventsToAdd the events to add.
+   */
+  private void addAllToCalendar(Collection<CalendarEntry> eventsToAdd) {
+    for (CalendarEntry event : eventsToAdd) {
+      addToCalendar(event);
+    }
+  }
+
+  /**
+   * Removes the given events from the calendar and from its indexes.
+   *
+   * @param eventsToRemove the events to remove.
+   */
+  private void removeFromCalendar(Collection<CalendarEntry> eventsToRemove) {
+    moveSomeToCalendarZone();
+    for (CalendarEntry event : eventsToRemove) {
+      events.remove(event);
+      eventIndex.remove(event);
+      nameIndex.remove(event);
+      eventsEndingBeforeStart.remove(event);
+      eventsToCheck.remove(event);
+      eventsInZone.remove(event);
+      busyCache.clear();
+    }
+  }
+
+  /**
+   * Indexes the given events again with the span and names they have now. Used when an edit fails
+   * after some events were already edited in place and undone, and are still in the calendar.
+   *
+   * @param editedEvents the events that were edited.
+   */
+  private void reindex(Collection<CalendarEntry> editedEvents) {
+    for (CalendarEntry event : editedEvents) {
+      eventIndex.insert(event);
+      nameIndex.insert(event);
+      eventsEndingBeforeStart.remove(event);
+      eventsToCheck.add(event);
+    }
+    busyCache.clear();
+  }
+
+  /**
+   * Checks if any event of the calendar has an occurrence that ends before it starts. Only the
+   * events added or changed since the last check are looked through.
+   *
+   * @return true if an occurrence ends before it starts, false otherwise.
+   */
+  private boolean anyEventEndingBeforeStart() {
+    for (CalendarEntry event : eventsToCheck) {
+      if (event.hasEventEndingBeforeStart()) {
+        eventsEndingBeforeStart.add(event);
+      }
+    }
+    eventsToCheck.clear();
+    return !eventsEndingBeforeStart.isEmpty();
+  }
+
+  /**
+   * Gets the given event as it is shown in the time zone of the calendar, without moving it.
+   *
+   * @param event an event of the calendar.
+   *
+   * @return the event itself if it is in the time zone of the calendar, or a moved copy of it.
+   */
+  private CalendarEntry inCalendarZone(CalendarEntry event) {
+    return eventsInZone.contains(event) ? event : event.inZone(zoneId);
+  }
+
+  /**
+   * Moves the given event to the time zone of the calendar if it was not moved since the time zone
+   * last changed. Called before an event is edited, since edits read date times in the time zone
+   * of the event.
+   *
+   * @param event an event of the calendar.
+   */
+  private void moveToCalendarZone(CalendarEntry event) {
+    if (eventsInZone.add(event)) {
+      event.updateZone(zoneId);
+    }
+  }
+
+  /**
+   * Moves the next few events that were in the calendar when its time zone last changed to the
+   * new time zone. Events removed since then are skipped.
+   */
+  private void moveSomeToCalendarZone() {
+    int end = Math.min(nextToMove + MOVES_PER_CHANGE, eventsToMove.length);
+    for (; nextToMove < end; nextToMove++) {
+      CalendarEntry event = eventsToMove[nextToMove];
+      if (events.contains(event)) {
+        moveToCalendarZone(event);
       }
+      eventsToMove[nextToMove] = null;
     }
-    return false;
   }
 
   /**
@@ -802,23 +1344,27 @@ public class BasicSingleCalendar extends SingleCalendar {
   }
 
   /**
-   * Checks if the given event conflicts with any existing events in the calendar. If there is a
-   * conflict, the events are not added to the calendar.
+   * Checks if the given edited events conflict with any other events in the calendar, and moves
+   * them to the end of the calendar if they do not. If there is a conflict, the edits are undone
+   * and the events are left where they were, so a failed edit does not change the calendar.
    *
-   * @param editedEvent the events to check for conflicts.
+   * @param editedEvent the events to check for conflicts, still in the calendar.
    * @param autoDecline whether to automatically decline conflicting events.
    */
   private void checkConflictAndAddAll(List<CalendarEntry> editedEvent, boolean autoDecline) {
     if (autoDecline) {
+      Set<CalendarEntry> edited = Collections.newSetFromMap(new IdentityHashMap<>());
+      edited.addAll(editedEvent);
       for (CalendarEntry event : editedEvent) {
-        if (checkConflict(event)) {
+        if (checkConflict(event, edited)) {
           undoEvents(editedEvent);
-          this.events.addAll(editedEvent);
+          reindex(editedEvent);
           throw new IllegalArgumentException("Event conflicts with existing event");
         }
       }
     }
-    this.events.addAll(editedEvent);
+    removeFromCalendar(editedEvent);
+    addAllToCalendar(editedEvent);
   }
 
   /**
@@ -838,26 +1384,61 @@ public class BasicSingleCalendar extends SingleCalendar {
           String propertyName,
           String propertyValue,
           boolean autoDecline) {
+    CalendarEditEvent record = new CalendarEditEvent();
+    record.begin();
+    int edited = 0;
+    try {
+      edited = editMatchingEvents(
+              eventName, startDateTime, propertyName, propertyValue, autoDecline);
+    } finally {
+      record.record(startDateTime.isEmpty() ? "all" : "following", propertyName, edited,
+              events.size());
+    }
+  }
+
+  /**
+   * Edits the recurring events with the given name, from the given start date time on if there
+   * is one.
+   *
+   * @return the number of entries edited.
+   */
+  private int editMatchingEvents(
+          String eventName,
+          String startDateTime,
+          String propertyName,
+          String propertyValue,
+          boolean autoDecline) {
     ZonedDateTime startZonedDateTime = null;
     if (!startDateTime.isEmpty()) {
       startZonedDateTime = stringToZdt(startDateTime, timeZone);
     }
     List<CalendarEntry> editedEvent = new LinkedList<>();
 
-    for (CalendarEntry event : events) {
-      CalendarEntry matchedEvent = event.matchesRecurringEvent(eventName, startZonedDateTime);
-
-      if (matchedEvent != null) {
-        matchedEvent.editRecurringEvent(eventName, startZonedDateTime, propertyName, propertyValue);
-        editedEvent.add(matchedEvent);
+    try {
+      for (CalendarEntry event : nameIndex.find(eventName)) {
+        CalendarEntry matchedEvent = event.matchesRecurringEvent(eventName, startZonedDateTime);
+
+        if (matchedEvent != null) {
+          moveToCalendarZone(matchedEvent);
+          editedEvent.add(matchedEvent);
+          matchedEvent.editRecurringEvent(
+                  eventName,
+                  startZonedDateTime,
+                  propertyName,
+                  propertyValue);
+        }
       }
+    } catch (IllegalArgumentException e) {
+      undoEvents(editedEvent);
+      reindex(editedEvent);
+      throw e;
     }
 
-    this.events.removeAll(editedEvent);
     if (editedEvent.isEmpty()) {
       throw new IllegalArgumentException("Could not find any recurring event: " + eventName);
     }
 
     checkConflictAndAddAll(editedEvent, autoDecline);
+    return editedEvent.size();
   }
 }
\ No newline at end of file
@@ -0,0 +1,458 @@
+package model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.calendarentry.CalendarEntry;
+import model.calendarentry.SingleEvent;
+
+/**
+ * A compact binary image of one calendar, saved in a ".calbin" file. Opening an image maps the
+ * file into memory and reads only its header, and every entry is decoded from the mapped file the
+ * first time it is used, so a large calendar opens without reading the whole file, and without the
+ * parsing and conflict checks of every row that importing a CSV file takes.
+ *
+ * <p>An image starts with a header of fixed size, followed by a dictionary of the strings used by
+ * the entries, an index of where every entry starts, and the entries in the order they were added
+ * to the calendar. Names, descriptions, locations and zones are written once in the dictionary and
+ * referred to by their number. The times of single events are written as varints of the seconds
+ * from a base time in the header, and their end as the seconds from their start. Recurring events
+ * are written as their rules and edits, as CalendarEntry writes them, so their size does not grow
+ * with the number of occurrences.
+ */
+public final class CalendarImage {
+
+  /**
+   * The extension of the files calendar images are saved in.
+   */
+  public static final String EXTENSION = ".calbin";
+
+  private static final int MAGIC = 0x43414C42;
+  private static final short VERSION = 1;
+  private static final int HEADER_BYTES = 40;
+
+  private static final byte SINGLE_EVENT = 0;
+  private static final byte RECURRING_EVENT = 1;
+  private static final int PRIVATE = 1;
+  private static final int ALL_DAY = 2;
+  private static final int NANOS = 4;
+
+  private final ByteBuffer buffer;
+  private final int entryCount;
+  private final int stringCount;
+  private final long baseEpochSecond;
+  private final int stringsStart;
+  private final int indexStart;
+  private final int dataStart;
+  private final String timeZone;
+  private final String[] strings;
+  private final ZoneId[] zones;
+
+  private CalendarImage(ByteBuffer buffer) {
+    this.buffer = buffer;
+    if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC
+            || buffer.getShort(4) != VERSION) {
+      throw new IllegalArgumentException("Not a calendar image");
+    }
+    this.entryCount = buffer.getInt(8);
+    this.stringCount = buffer.getInt(12);
+    this.baseEpochSecond = buffer.getLong(16);
+    this.stringsStart = buffer.getInt(24);
+    this.indexStart = buffer.getInt(28);
+    this.dataStart = buffer.getInt(32);
+    if (entryCount < 0 || stringCount < 0
+            || (long) HEADER_BYTES + (stringCount + 1L) * Integer.BYTES != stringsStart
+            || indexStart < stringsStart
+            || (long) indexStart + (long) entryCount * Integer.BYTES != dataStart
+            || dataStart > buffer.capacity()) {
+      throw new IllegalArgumentException("Damaged calendar image");
+    }
+    this.strings = new String[stringCount];
+    this.zones = new ZoneId[stringCount];
+    this.timeZone = stringAt(buffer.getInt(36));
+  }
+
+  /**
+   * Writes an image of the calendar to the given file, replacing the file if it exists. The file
+   * name must end with ".calbin".
+   *
+   * @param calendar the calendar to write.
+   * @param timeZone the time zone of the calendar.
+   * @param filePath the path of the file to write.
+   *
+   * @return the absolute path of the written file.
+   *
+   * @throws IOException              if the file cannot be written.
+   * @throws IllegalArgumentException if the file name does not end with ".calbin".
+   */
+  public static Path write(SingleCalendar calendar, String timeZone, String filePath)
+          throws IOException {
+    Path path = Path.of(filePath).toAbsolutePath();
+    if (!path.getFileName().toString().endsWith(EXTENSION)) {
+      throw new IllegalArgumentException("Invalid calendar image file name: " + filePath);
+    }
+    Writer writer = new Writer();
+    int zone = writer.idOf(timeZone);
+    try {
+      calendar.forEachEntry(writer::add);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    ByteBuffer[] sections = writer.finish(zone);
+
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      long remaining = 0;
+      for (ByteBuffer section : sections) {
+        remaining += section.remaining();
+      }
+      while (remaining > 0) {
+        remaining -= channel.write(sections);
+      }
+    }
+    return path;
+  }
+
+  /**
+   * Opens the image saved in the given file. Only the header of the image is read, and its entries
+   * are decoded as they are used.
+   *
+   * @param filePath the path of the file to open.
+   *
+   * @return the image in the file.
+   *
+   * @throws IOException              if the file cannot be read.
+   * @throws IllegalArgumentException if the file does not hold a calendar image.
+   */
+  public static CalendarImage open(String filePath) throws IOException {
+    try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Calendar image is too large: " + filePath);
+      }
+      // The mapping stays valid after the channel is closed
+      MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return new CalendarImage(mapped);
+    }
+  }
+
+  /**
+   * Gets the number of entries in the image. A recurring event counts as one entry.
+   *
+   * @return the number of entries.
+   */
+  public int size() {
+    return entryCount;
+  }
+
+  /**
+   * Gets the time zone of the calendar the image was written from.
+   *
+   * @return the time zone.
+   */
+  public String getTimeZone() {
+    return timeZone;
+  }
+
+  /**
+   * Adds every entry of the image to the calendar, in the given time zone of the calendar. The
+   * entries are only checked against the events already in the calendar, as they were checked
+   * against each other when they were added to the calendar the image was written from. If any of
+   * them conflicts with an event in the calendar, none of them are added.
+   *
+   * @param calendar the calendar to add the entries to.
+   * @param timeZone the time zone of the calendar.
+   *
+   * @return the number of entries added.
+   *
+   * @throws IllegalArgumentException if an entry conflicts with an event in the calendar, or the
+   *                                  image is damaged.
+   */
+  public int addTo(SingleCalendar calendar, String timeZone) {
+    calendar.addEvents(new EntryList(ZoneId.of(timeZone)), true);
+    return entryCount;
+  }
+
+  /**
+   * The entries of the image, decoded the first time they are used and moved to the zone of the
+   * calendar they are added to.
+   */
+  private final class EntryList extends AbstractList<CalendarEntry> {
+
+    private final ZoneId zone;
+    private final CalendarEntry[] decoded;
+
+    EntryList(ZoneId zone) {
+      this.zone = zone;
+      this.decoded = new CalendarEntry[entryCount];
+    }
+
+    @Override
+    public CalendarEntry get(int index) {
+      if (decoded[index] == null) {
+        CalendarEntry entry = entryAt(index);
+        if (!zone.getId().equals(timeZone)) {
+          entry.updateZone(zone);
+        }
+        decoded[index] = entry;
+      }
+      return decoded[index];
+    }
+
+    @Override
+    public int size() {
+      return entryCount;
+    }
+  }
+
+  private CalendarEntry entryAt(int index) {
+    try {
+      ByteBuffer in = buffer.duplicate();
+      in.position(dataStart + buffer.getInt(indexStart + index * Integer.BYTES));
+      byte kind = in.get();
+      if (kind == RECURRING_EVENT) {
+        byte[] bytes = new byte[(int) readVarint(in)];
+        in.get(bytes);
+        return CalendarEntry.readFrom(new DataInputStream(new ByteArrayInputStream(bytes)));
+      } else if (kind != SINGLE_EVENT) {
+        throw new IllegalArgumentException("Damaged calendar image");
+      }
+      String name = stringAt((int) readVarint(in));
+      String description = stringAt((int) readVarint(in));
+      String location = stringAt((int) readVarint(in));
+      ZoneId zone = zoneAt((int) readVarint(in));
+      int flags = in.get();
+      long start = baseEpochSecond + readZigzag(in);
+      long end = start + readZigzag(in);
+      long startNanos = (flags & NANOS) == 0 ? 0 : readVarint(in);
+      long endNanos = (flags & NANOS) == 0 ? 0 : readVarint(in);
+      return SingleEvent.restore(name,
+              ZonedDateTime.ofInstant(Instant.ofEpochSecond(start, startNanos), zone),
+              ZonedDateTime.ofInstant(Instant.ofEpochSecond(end, endNanos), zone),
+              description, location, (flags & PRIVATE) != 0, (flags & ALL_DAY) != 0);
+    } catch (IOException | IndexOutOfBoundsException | BufferUnderflowException
+             | DateTimeException e) {
+      throw new IllegalArgumentException("Damaged calendar image", e);
+    }
+  }
+
+  /**
+   * Gets the string with the given number in the dictionary, where 0 stands for null.
+   */
+  private String stringAt(int id) {
+    if (id == 0) {
+      return null;
+    }
+    if (id > stringCount) {
+      throw new IllegalArgumentException("Damaged calendar image");
+    }
+    if (strings[id - 1] == null) {
+      int from = buffer.getInt(HEADER_BYTES + (id - 1) * Integer.BYTES);
+      int to = buffer.getInt(HEADER_BYTES + id * Integer.BYTES);
+      if (from < 0 || to < from || stringsStart + to > indexStart) {
+        throw new IllegalArgumentException("Damaged calendar image");
+      }
+      byte[] bytes = new byte[to - from];
+      buffer.duplicate().position(stringsStart + from).get(bytes);
+      strings[id - 1] = new String(bytes, StandardCharsets.UTF_8);
+    }
+    return strings[id - 1];
+  }
+
+  private ZoneId zoneAt(int id) {
+    String zone = stringAt(id);
+    if (zone == null) {
+      throw new IllegalArgumentException("Damaged calendar image");
+    }
+    if (zones[id - 1] == null) {
+      zones[id - 1] = ZoneId.of(zone);
+    }
+    return zones[id - 1];
+  }
+
+  private static long readVarint(ByteBuffer in) {
+    long value = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += 7) {
+      byte b = in.get();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Damaged calendar image");
+  }
+
+  private static long readZigzag(ByteBuffer in) {
+    long value = readVarint(in);
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /**
+   * Builds the sections of an image in memory while the entries of a calendar are given to it.
+   */
+  private static final class Writer {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final Bytes data = new Bytes();
+    private int[] offsets = new int[16];
+    private int entryCount;
+    private boolean hasBase;
+    private long baseEpochSecond;
+
+    void add(CalendarEntry entry) {
+      if (entryCount == offsets.length) {
+        offsets = Arrays.copyOf(offsets, entryCount * 2);
+      }
+      offsets[entryCount++] = data.size();
+      if (entry instanceof SingleEvent) {
+        addSingleEvent(entry);
+      } else {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+          entry.writeTo(new DataOutputStream(bytes));
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        data.write(RECURRING_EVENT);
+        data.writeVarint(bytes.size());
+        data.write(bytes.toByteArray());
+      }
+    }
+
+    private void addSingleEvent(CalendarEntry event) {
+      ZonedDateTime start = event.getStartDateTime();
+      ZonedDateTime end = event.getEndDateTime();
+      if (!hasBase) {
+        hasBase = true;
+        baseEpochSecond = start.toEpochSecond();
+      }
+      boolean hasNanos = start.getNano() != 0 || end.getNano() != 0;
+      data.write(SINGLE_EVENT);
+      data.writeVarint(idOf(event.getName()));
+      data.writeVarint(idOf(event.getDescription()));
+      data.writeVarint(idOf(event.getLocation()));
+      data.writeVarint(idOf(start.getZone().getId()));
+      data.write((event.isPrivate() ? PRIVATE : 0) | (event.isAllDay() ? ALL_DAY : 0)
+              | (hasNanos ? NANOS : 0));
+      data.writeZigzag(start.toEpochSecond() - baseEpochSecond);
+      data.writeZigzag(end.toEpochSecond() - start.toEpochSecond());
+      if (hasNanos) {
+        data.writeVarint(start.getNano());
+        data.writeVarint(end.getNano());
+      }
+    }
+
+    int idOf(String string) {
+      if (string == null) {
+        return 0;
+      }
+      return ids.computeIfAbsent(string, key -> {
+        strings.add(key);
+        return strings.size();
+      });
+    }
+
+    /**
+     * Gets the header, dictionary, index and entries of the image, ready to be written in order.
+     */
+    ByteBuffer[] finish(int zone) throws IOException {
+      Bytes stringBytes = new Bytes();
+      ByteBuffer stringOffsets = ByteBuffer.allocate((strings.size() + 1) * Integer.BYTES);
+      for (String string : strings) {
+        stringOffsets.putInt(stringBytes.size());
+        stringBytes.write(string.getBytes(StandardCharsets.UTF_8));
+      }
+      stringOffsets.putInt(stringBytes.size());
+      stringOffsets.flip();
+
+      ByteBuffer index = ByteBuffer.allocate(entryCount * Integer.BYTES);
+      index.asIntBuffer().put(offsets, 0, entryCount);
+
+      long stringsStart = HEADER_BYTES + (long) stringOffsets.capacity();
+      long indexStart = stringsStart + stringBytes.size();
+      long dataStart = indexStart + index.capacity();
+      if (dataStart + data.size() > Integer.MAX_VALUE) {
+        throw new IOException("Calendar is too large for an image");
+      }
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      header.putInt(MAGIC).putShort(VERSION).putShort((short) 0);
+      header.putInt(entryCount).putInt(strings.size()).putLong(baseEpochSecond);
+      header.putInt((int) stringsStart).putInt((int) indexStart).putInt((int) dataStart);
+      header.putInt(zone);
+      header.flip();
+      return new ByteBuffer[] {header, stringOffsets, stringBytes.toBuffer(), index,
+          data.toBuffer()};
+    }
+  }
+
+  /**
+   * A growable array of bytes that varints can be written to.
+   */
+  private static final class Bytes {
+
+    private byte[] bytes = new byte[256];
+    private int size;
+
+    void write(int b) {
+      ensureCapacity(1);
+      bytes[size++] = (byte) b;
+    }
+
+    void write(byte[] array) {
+      ensureCapacity(array.length);
+      System.arraycopy(array, 0, bytes, size, array.length);
+      size += array.length;
+    }
+
+    void writeVarint(long value) {
+      while ((value & ~0x7FL) != 0) {
+        write((int) (value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      write((int) value);
+    }
+
+    void writeZigzag(long value) {
+      writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    int size() {
+      return size;
+    }
+
+    ByteBuffer toBuffer() {
+      return ByteBuffer.wrap(bytes, 0, size);
+    }
+
+    private void ensureCapacity(int extra) {
+      if (size + extra > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+      }
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only file of the changes made to a model. Every record is a list of strings, written
+ * after its length and a checksum of its bytes, so a record that was only partly written when
+ * the program stopped is found and dropped when the journal is read back.
+ *
+ * <p>Records are handed to the operating system as soon as they are appended, so they survive the
+ * program stopping, but are only forced to disk every sync interval, in the background, so that
+ * a burst of changes shares one sync. A sync interval of zero forces every record to disk before
+ * it is appended. Records appended within the last sync interval can be lost if the machine
+ * itself stops.
+ */
+final class CalendarJournal implements Closeable {
+
+  private static final int MAX_RECORD_BYTES = 1 << 26;
+
+  private final FileChannel channel;
+  private final ScheduledExecutorService syncer;
+  private boolean isDirty;
+  private IOException syncFailure;
+
+  /**
+   * Opens the journal in the given file to append records to it, creating the file if it does not
+   * exist. Anything in the file after the given length is dropped.
+   *
+   * @param file               the file of the journal.
+   * @param length             the length of the records to keep, as returned by replay.
+   * @param syncIntervalMillis how often records are forced to disk, in milliseconds.
+   *
+   * @throws IOException if the file cannot be opened.
+   */
+  CalendarJournal(Path file, long length, long syncIntervalMillis) throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    channel.truncate(length);
+    channel.position(length);
+    channel.force(true);
+    CalendarSnapshot.syncDirectory(file.getParent());
+    if (syncIntervalMillis > 0) {
+      this.syncer = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "calendar-journal-sync");
+        thread.setDaemon(true);
+        return thread;
+      });
+      syncer.scheduleWithFixedDelay(this::syncInBackground,
+              syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+    } else {
+      this.syncer = null;
+    }
+  }
+
+  /**
+   * Appends a record to the journal.
+   *
+   * @param record the fields of the record, which can be null.
+   *
+   * @throws IOException if the record cannot be written, or an earlier sync failed.
+   */
+  void append(List<String> record) throws IOException {
+    byte[] payload = encode(record);
+    CRC32 checksum = new CRC32();
+    checksum.update(payload);
+    ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES * 2 + payload.length);
+    buffer.putInt(payload.length);
+    buffer.putInt((int) checksum.getValue());
+    buffer.put(payload);
+    buffer.flip();
+
+    synchronized (this) {
+      if (syncFailure != null) {
+        throw syncFailure;
+      }
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      isDirty = true;
+    }
+    if (syncer == null) {
+      sync();
+    }
+  }
+
+  /**
+   * Forces the records appended so far to disk.
+   *
+   * @throws IOException if the records cannot be forced to disk.
+   */
+  void sync() throws IOException {
+    synchronized (this) {
+      if (!isDirty) {
+        return;
+      }
+      isDirty = false;
+    }
+    // Appends go on while the records before them are forced to disk
+    channel.force(false);
+  }
+
+  /**
+   * Forces the records to disk and closes the journal.
+   *
+   * @throws IOException if the records cannot be forced to disk.
+   */
+  @Override
+  public void close() throws IOException {
+    if (syncer != null) {
+      syncer.shutdownNow();
+    }
+    try {
+      sync();
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * Reads the records of the journal in the given file, in order, and gives them to the action.
+   * Reading stops at the end of the file or at the first record that was not written whole.
+   *
+   * @param file   the file of the journal.
+   * @param action the action to give the records to.
+   *
+   * @return the length of the records that were read whole.
+   *
+   * @throws IOException if the file cannot be read.
+   */
+  static long replay(Path file, Consumer<List<String>> action) throws IOException {
+    long length = 0;
+    try (InputStream fileIn = new BufferedInputStream(Files.newInputStream(file))) {
+      DataInputStream in = new DataInputStream(fileIn);
+      while (true) {
+        byte[] payload;
+        try {
+          int size = in.readInt();
+          int expected = in.readInt();
+          if (size < 0 || size > MAX_RECORD_BYTES) {
+            return length;
+          }
+          payload = new byte[size];
+          in.readFully(payload);
+          CRC32 checksum = new CRC32();
+          checksum.update(payload);
+          if ((int) checksum.getValue() != expected) {
+            return length;
+          }
+        } catch (EOFException e) {
+          return length;
+        }
+        action.accept(decode(payload));
+        length += Integer.BYTES * 2 + payload.length;
+      }
+    }
+  }
+
+  private void syncInBackground() {
+    try {
+      sync();
+    } catch (IOException e) {
+      synchronized (this) {
+        syncFailure = e;
+      }
+    }
+  }
+
+  private static byte[] encode(List<String> record) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(record.size());
+    for (String field : record) {
+      if (field == null) {
+        out.writeInt(-1);
+      } else {
+        byte[] fieldBytes = field.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(fieldBytes.length);
+        out.write(fieldBytes);
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private static List<String> decode(byte[] payload) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+    int size = in.readInt();
+    List<String> record = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      int length = in.readInt();
+      if (length < 0) {
+        record.add(null);
+      } else {
+        byte[] fieldBytes = new byte[length];
+        in.readFully(fieldBytes);
+        record.add(new String(fieldBytes, StandardCharsets.UTF_8));
+      }
+    }
+    return record;
+  }
+}
@@ -0,0 +1,177 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import model.calendarentry.CalendarEntry;
+
+/**
+ * Saves every calendar of a model to a file, and reads them back. A snapshot holds the name, time
+ * zone and storage of every calendar, which calendar is the current one, and every entry in the
+ * order it was added in. Recurring events are saved as their rules and edits rather than their
+ * occurrences, so the size of a snapshot grows with the entries rather than the occurrences.
+ *
+ * <p>A snapshot is written to a temporary file that is moved in place once it is on disk, so a
+ * snapshot file is either whole or missing. A checksum at the end of the file still guards it
+ * against damage on disk.
+ */
+final class CalendarSnapshot {
+
+  private static final int MAGIC = 0x43414C53;
+  private static final int VERSION = 1;
+  private static final int MAX_STRING_BYTES = 1 << 24;
+
+  private CalendarSnapshot() {
+  }
+
+  /**
+   * Writes every calendar of the model to the given file.
+   *
+   * @param model the model to save.
+   * @param file  the file to write.
+   *
+   * @throws IOException if the snapshot cannot be written.
+   */
+  static void write(BasicCalendarModel model, Path file) throws IOException {
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    CRC32 checksum = new CRC32();
+    try (FileOutputStream fileOut = new FileOutputStream(temporary.toFile())) {
+      DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+              new BufferedOutputStream(fileOut), checksum));
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      writeString(out, model.getCurrentCalendarName());
+      Map<String, String> calendars = model.getAllCalendars();
+      out.writeInt(calendars.size());
+      for (Map.Entry<String, String> calendar : calendars.entrySet()) {
+        SingleCalendar entries = model.getCalendar(calendar.getKey());
+        writeString(out, calendar.getKey());
+        writeString(out, calendar.getValue());
+        writeString(out, CalendarStorage.of(entries).name());
+        writeEntries(out, entries);
+      }
+      out.writeLong(checksum.getValue());
+      out.flush();
+      fileOut.getFD().sync();
+    }
+    Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+    syncDirectory(file.getParent());
+  }
+
+  /**
+   * Reads the calendars saved in the given file into a new model.
+   *
+   * @param file the file to read.
+   *
+   * @return the model with the saved calendars.
+   *
+   * @throws IOException if the snapshot cannot be read or is damaged.
+   */
+  static BasicCalendarModel read(Path file) throws IOException {
+    CRC32 checksum = new CRC32();
+    try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+            new BufferedInputStream(Files.newInputStream(file)), checksum))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        throw new IOException("Not a calendar snapshot: " + file);
+      }
+      String currentCalendarName = readString(in);
+      int calendarCount = in.readInt();
+      BasicCalendarModel model = null;
+      for (int i = 0; i < calendarCount; i++) {
+        String name = readString(in);
+        String timeZone = readString(in);
+        SingleCalendar calendar = CalendarStorage.valueOf(readString(in)).create(timeZone);
+        calendar.addEvents(readEntries(in), false);
+        if (model == null) {
+          model = new BasicCalendarModel(name, timeZone, calendar);
+        } else {
+          model.addCalendar(name, timeZone, calendar);
+        }
+      }
+      long expected = checksum.getValue();
+      if (model == null || in.readLong() != expected) {
+        throw new IOException("Damaged calendar snapshot: " + file);
+      }
+      model.useCalendar(currentCalendarName);
+      return model;
+    } catch (IllegalArgumentException | DateTimeException e) {
+      throw new IOException("Damaged calendar snapshot: " + file, e);
+    }
+  }
+
+  /**
+   * Writes the entries of the calendar, each after a true flag, and a false flag after the last.
+   */
+  private static void writeEntries(DataOutputStream out, SingleCalendar calendar)
+          throws IOException {
+    try {
+      calendar.forEachEntry(entry -> {
+        try {
+          out.writeBoolean(true);
+          entry.writeTo(out);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    out.writeBoolean(false);
+  }
+
+  private static List<CalendarEntry> readEntries(DataInputStream in) throws IOException {
+    List<CalendarEntry> entries = new ArrayList<>();
+    while (in.readBoolean()) {
+      entries.add(CalendarEntry.readFrom(in));
+    }
+    return entries;
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0 || length > MAX_STRING_BYTES) {
+      throw new IOException("Damaged calendar snapshot");
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Makes a file that was moved into the given directory stay there after a crash. Not every
+   * platform can open a directory, and those that cannot keep the move anyway.
+   *
+   * @param directory the directory to sync.
+   */
+  static void syncDirectory(Path directory) {
+    try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      channel.force(true);
+    } catch (IOException e) {
+      // the platform cannot sync a directory
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package model;
+
+/**
+ * The ways a calendar can keep its events. Every kind of storage behaves the same, and only
+ * differs in how much memory the events take and how fast they are looked up.
+ */
+public enum CalendarStorage {
+
+  /**
+   * Every event is kept as an object. Suits calendars of everyday size.
+   */
+  OBJECTS {
+    @Override
+    SingleCalendar create(String timeZone) {
+      return new BasicSingleCalendar(timeZone);
+    }
+  },
+
+  /**
+   * Single events are kept as columns of primitives. Suits calendars with a lot of single events.
+   */
+  COLUMNAR {
+    @Override
+    SingleCalendar create(String timeZone) {
+      return new ColumnarSingleCalendar(timeZone);
+    }
+  };
+
+  /**
+   * Creates an empty calendar in the given time zone that keeps its events this way.
+   *
+   * @param timeZone the time zone of the calendar.
+   *
+   * @return the new calendar.
+   */
+  abstract SingleCalendar create(String timeZone);
+
+  /**
+   * Gets the way the given calendar keeps its events.
+   *
+   * @param calendar the calendar.
+   *
+   * @return the storage of the calendar.
+   */
+  static CalendarStorage of(SingleCalendar calendar) {
+    return calendar instanceof ColumnarSingleCalendar ? COLUMNAR : OBJECTS;
+  }
+}
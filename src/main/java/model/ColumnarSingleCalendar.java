@@ -0,0 +1,1227 @@
+package model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import model.calendarentry.CalendarEntry;
+import model.calendarentry.EventView;
+import model.calendarentry.RecurringEvent;
+import model.calendarentry.SingleEvent;
+
+import static utils.DateTimeUtils.DateTimeProcessingResult;
+
+import static utils.DateTimeUtils.isTimeOverLapping;
+import static utils.DateTimeUtils.processEventDateTime;
+import static utils.DateTimeUtils.stringToZdt;
+
+/**
+ * An implementation of the SingleCalendar abstract class that keeps its single events as columns
+ * of primitives instead of as objects, for calendars that hold a lot of them. It behaves the same
+ * as the BasicSingleCalendar: every query gives the same events in the same order, and every add
+ * and edit fails or succeeds in the same way.
+ *
+ * <p>A single event takes a few dozen bytes in the columns, where a SingleEvent object with its
+ * date times and strings takes a few hundred, and its conflicts are checked by comparing epoch
+ * seconds. Single events are only made into objects when they are given out or edited. Recurring
+ * events are kept as objects with their own interval and name indexes, since they are few and hold
+ * the rules of their occurrences rather than the occurrences themselves. Each recurring event also
+ * takes a slot in the columns, so that every entry of the calendar keeps the order it was added in.
+ * Every event is kept in the time zone of the calendar.
+ */
+public class ColumnarSingleCalendar extends SingleCalendar {
+
+  /**
+   * The number of recurring events moved to a new time zone each time the calendar is changed.
+   */
+  private static final int MOVES_PER_CHANGE = 64;
+
+  /**
+   * The single events of the calendar, and the slots that stand in for its recurring events.
+   */
+  private final EventColumns columns;
+
+  /**
+   * The recurring events of the calendar by the slot they take in the columns.
+   */
+  private final Map<Integer, CalendarEntry> seriesBySlot;
+
+  /**
+   * The slot of every recurring event in the columns, by identity.
+   */
+  private final Map<CalendarEntry, Integer> slotBySeries;
+
+  /**
+   * Index of the recurring events in the calendar by the time span they cover.
+   */
+  private final EntryIntervalTree seriesIndex;
+
+  /**
+   * Index of the recurring events in the calendar by the names they go by.
+   */
+  private final EntryNameIndex seriesNames;
+
+  /**
+   * The recurring events known to be in the time zone of the calendar. Changing the time zone
+   * only starts a new set, the same way BasicSingleCalendar does.
+   */
+  private Set<CalendarEntry> seriesInZone;
+
+  /**
+   * The recurring events of the calendar when its time zone last changed, moved to the new time
+   * zone a few at a time from nextToMove on, the same way BasicSingleCalendar does.
+   */
+  private CalendarEntry[] seriesToMove;
+  private int nextToMove;
+
+  private String timeZone;
+  private ZoneId zoneId;
+
+  /**
+   * Constructs an empty calendar in the given time zone.
+   *
+   * @param timeZone the time zone of the calendar.
+   */
+  public ColumnarSingleCalendar(String timeZone) {
+    this.timeZone = timeZone;
+    this.zoneId = ZoneId.of(timeZone);
+    this.columns = new EventColumns();
+    this.seriesBySlot = new HashMap<>();
+    this.slotBySeries = new IdentityHashMap<>();
+    this.seriesIndex = new EntryIntervalTree();
+    this.seriesNames = new EntryNameIndex();
+    this.seriesInZone = Collections.newSetFromMap(new IdentityHashMap<>());
+    this.seriesToMove = new CalendarEntry[0];
+  }
+
+  /**
+   * Adds a single event to the calendar. If autoDecline is true, the event is not added if it
+   * conflicts with an event in the calendar.
+   *
+   * @param name          the name of the event.
+   * @param startDateTime the start date and time of the event.
+   * @param endDateTime   the end date and time of the event.
+   * @param description   the description of the event.
+   * @param location      the location of the event.
+   * @param autoDecline   whether the event should be automatically declined.
+   * @param isPrivate     whether the event is private.
+   *
+   * @throws IllegalArgumentException if there is a conflict with an existing event.
+   */
+  @Override
+  public void addSingleEvent(
+          String name,
+          String startDateTime,
+          String endDateTime,
+          String description,
+          String location,
+          boolean autoDecline,
+          boolean isPrivate) {
+    addSingleEventHelper(
+            name, startDateTime, endDateTime, description, location, autoDecline, isPrivate
+    );
+  }
+
+  /**
+   * Adds a single all day event to the calendar.
+   *
+   * @param name        the name of the event.
+   * @param startDate   the start date of the event.
+   * @param description the description of the event.
+   * @param location    the location of the event.
+   * @param autoDecline whether the event should be automatically declined.
+   * @param isPrivate   whether the event is private.
+   */
+  @Override
+  public void addSingleEventAllDay(
+          String name,
+          String startDate,
+          String description,
+          String location,
+          boolean autoDecline,
+          boolean isPrivate) {
+    addSingleEventHelper(
+            name, startDate, "", description, location, autoDecline, isPrivate
+    );
+  }
+
+  /**
+   * Adds a batch of single events to the calendar. Every event is checked against the calendar as
+   * it is when the event is reached, which includes the events of the batch added before it, and
+   * goes straight into the columns if it passes.
+   *
+   * @param batch       the events to add.
+   * @param autoDecline whether conflicting events should be automatically declined.
+   *
+   * @return a report of which events of the batch were added, and why the others were not.
+   */
+  @Override
+  public EventBatch.Report addSingleEvents(EventBatch batch, boolean autoDecline) {
+    if (batch.isAllOrNothing()) {
+      return addAllOrNothing(batch, autoDecline);
+    }
+    EventBatch.Report report = new EventBatch.Report(batch.size());
+    for (int row = 0; row < batch.size(); row++) {
+      EventBatch.Row event = batch.get(row);
+      CalendarEntry singleEvent;
+      try {
+        DateTimeProcessingResult result = event.isParsed()
+                ? processEventDateTime(event.parsedStart, event.parsedEnd, timeZone)
+                : processEventDateTime(event.startDateTime, event.endDateTime, timeZone);
+        singleEvent = new SingleEvent(event.name, result.startDateTime, result.endDateTime,
+                event.description, event.location, event.isPrivate, result.isAllDay);
+      } catch (IllegalArgumentException e) {
+        report.reject(row, e.getMessage());
+        continue;
+      }
+
+      if (autoDecline && checkConflict(singleEvent)) {
+        report.reject(row, "Conflict detected, Event not Created");
+        continue;
+      }
+      addToCalendar(singleEvent);
+    }
+    return report;
+  }
+
+  /**
+   * Adds every event of an all-or-nothing batch to the calendar, or none of them. The events are
+   * checked against each other in one sweep over them sorted by start, and against the calendar
+   * through the columns and the interval index of the recurring events, before any of them is added.
+   *
+   * @param batch       the events to add.
+   * @param autoDecline whether conflicting events should be automatically declined.
+   *
+   * @return a report of the events that failed, rolled back if there are any.
+   */
+  private EventBatch.Report addAllOrNothing(EventBatch batch, boolean autoDecline) {
+    EventBatch.Report report = new EventBatch.Report(batch.size());
+    CalendarEntry[] staged = batch.toEvents(timeZone, report);
+    if (autoDecline) {
+      EventBatch.rejectOverlapping(staged, report);
+      for (int row = 0; row < staged.length; row++) {
+        if (report.isAdded(row) && checkConflict(staged[row])) {
+          report.reject(row, "Conflict detected, Event not Created");
+        }
+      }
+    }
+    if (report.getAddedCount() < batch.size()) {
+      report.rollBack();
+      return report;
+    }
+    addAllToCalendar(Arrays.asList(staged));
+    return report;
+  }
+
+  /**
+   * Adds a simple recurring event to the calendar until the given date and time.
+   *
+   * @param name          the name of the event.
+   * @param startDateTime the start date and time of the event.
+   * @param endDateTime   the end date and time of the event.
+   * @param description   the description of the event.
+   * @param location      the location of the event.
+   * @param weekDays      the days of the week the event occurs on.
+   * @param untilDateTime the date and time the event ends.
+   * @param autoDecline   whether the event should be automatically declined.
+   * @param isPrivate     whether the event is private.
+   */
+  @Override
+  public void addRecurringEventUntil(
+          String name,
+          String startDateTime,
+          String endDateTime,
+          String description,
+          String location,
+          String weekDays,
+          String untilDateTime,
+          boolean autoDecline,
+          boolean isPrivate) {
+    DateTimeProcessingResult result = processEventDateTime(startDateTime, endDateTime, timeZone);
+    ZonedDateTime untilZonedDateTime = stringToZdt(untilDateTime, timeZone);
+    addRecurringEventHelper(new RecurringEvent(
+            name,
+            result.startDateTime,
+            result.endDateTime,
+            description,
+            location,
+            isPrivate,
+            result.isAllDay,
+            weekDays,
+            untilZonedDateTime), autoDecline);
+  }
+
+  /**
+   * Adds a simple recurring event to the calendar with the given frequency.
+   *
+   * @param name          the name of the event.
+   * @param startDateTime the start date and time of the event.
+   * @param endDateTime   the end date and time of the event.
+   * @param description   the description of the event.
+   * @param location      the location of the event.
+   * @param weekDays      the days of the week the event occurs on.
+   * @param frequency     the number of occurrences of the event.
+   * @param autoDecline   whether the event should be automatically declined.
+   * @param isPrivate     whether the event is private.
+   */
+  @Override
+  public void addRecurringEventFrequency(
+          String name,
+          String startDateTime,
+          String endDateTime,
+          String description,
+          String location,
+          String weekDays,
+          Integer frequency,
+          boolean autoDecline,
+          boolean isPrivate) {
+    DateTimeProcessingResult result = processEventDateTime(startDateTime, endDateTime, timeZone);
+    addRecurringEventHelper(new RecurringEvent(
+            name,
+            result.startDateTime,
+            result.endDateTime,
+            description,
+            location,
+            isPrivate,
+            result.isAllDay,
+            weekDays,
+            frequency), autoDecline);
+  }
+
+  /**
+   * Adds an all day recurring event until a given date and time.
+   *
+   * @param name          the name of the event.
+   * @param startDate     the start date and time of the event.
+   * @param description   the description of the event.
+   * @param location      the location of the event.
+   * @param weekDays      the days of the week the event occurs on.
+   * @param untilDateTime the date and time the event ends.
+   * @param autoDecline   whether the event should be automatically declined.
+   * @param isPrivate     whether the event is private.
+   */
+  @Override
+  public void addRecurringAllDayEventUntil(
+          String name,
+          String startDate,
+          String description,
+          String location,
+          String weekDays,
+          String untilDateTime,
+          boolean autoDecline,
+          boolean isPrivate) {
+    DateTimeProcessingResult result = processEventDateTime(startDate, "", timeZone);
+    ZonedDateTime untilZonedDateTime = stringToZdt(untilDateTime, timeZone);
+    addRecurringEventHelper(new RecurringEvent(
+            name,
+            result.startDateTime,
+            result.endDateTime,
+            description,
+            location,
+            isPrivate,
+            result.isAllDay,
+            weekDays,
+            untilZonedDateTime), autoDecline);
+  }
+
+  /**
+   * Adds an all day recurring event with the given frequency.
+   *
+   * @param name        the name of the event.
+   * @param startDate   the start date and time of the event.
+   * @param description the description of the event.
+   * @param location    the location of the event.
+   * @param weekDays    the days of the week the event occurs on.
+   * @param frequency   the number of occurrences of the event.
+   * @param autoDecline whether the event should be automatically declined.
+   * @param isPrivate   whether the event is private.
+   */
+  @Override
+  public void addRecurringAllDayEventFrequency(
+          String name,
+          String startDate,
+          String description,
+          String location,
+          String weekDays,
+          Integer frequency,
+          boolean autoDecline,
+          boolean isPrivate) {
+    DateTimeProcessingResult result = processEventDateTime(startDate, "", timeZone);
+    addRecurringEventHelper(new RecurringEvent(
+            name,
+            result.startDateTime,
+            result.endDateTime,
+            description,
+            location,
+            isPrivate,
+            result.isAllDay,
+            weekDays,
+            frequency), autoDecline);
+  }
+
+  /**
+   * Edits a single event in the calendar. The matching events are edited as objects, and the
+   * single events among them are written back to the columns once the edit is done.
+   *
+   * @param eventName     the name of the event to edit.
+   * @param startDateTime the start date and time of the event.
+   * @param endDateTime   the end date and time of the event.
+   * @param propertyName  the property to edit.
+   * @param propertyValue the new value of the property.
+   *
+   * @throws IllegalArgumentException if the event is not found.
+   */
+  @Override
+  public void editSingleEvent(
+          String eventName,
+          String startDateTime,
+          String endDateTime,
+          String propertyName,
+          String propertyValue,
+          boolean autoDecline) {
+    DateTimeProcessingResult result = processEventDateTime(startDateTime, endDateTime, timeZone);
+
+    ZonedDateTime startZonedDateTime = result.startDateTime;
+    ZonedDateTime endZonedDateTime = result.endDateTime;
+
+    compactIfSparse();
+    Map<Integer, CalendarEntry> editedEvents = new LinkedHashMap<>();
+
+    try {
+      long start = startZonedDateTime.toEpochSecond();
+      for (int slot : findSlots(start, start)) {
+        CalendarEntry entry = editableEntryAt(slot);
+        if (entry.matchesSingleOccurrence(eventName, startZonedDateTime, endZonedDateTime) != null) {
+          editedEvents.put(slot, entry);
+          entry.editSingleEvent(
+                  eventName,
+                  startZonedDateTime,
+                  endZonedDateTime,
+                  propertyName,
+                  propertyValue);
+        }
+      }
+    } catch (IllegalArgumentException e) {
+      undoEdits(editedEvents);
+      reindex(editedEvents);
+      throw e;
+    }
+
+    if (editedEvents.isEmpty()) {
+      throw new IllegalArgumentException("Event not found");
+    }
+
+    removeFromCalendar(editedEvents);
+    checkConflictAndAddAll(editedEvents, autoDecline);
+  }
+
+  /**
+   * Edits all the events with the event name and following the start date time.
+   *
+   * @param eventName     the name of the event to edit.
+   * @param startDateTime the start date and time of the event.
+   * @param propertyName  the property to edit.
+   * @param propertyValue the new value of the property.
+   * @param autoDecline   whether to automatically decline conflicting events.
+   */
+  @Override
+  public void editMultipleEventsFollowing(
+          String eventName,
+          String startDateTime,
+          String propertyName,
+          String propertyValue,
+          boolean autoDecline) {
+    editMultipleEventsHelper(eventName, startDateTime, propertyName, propertyValue, autoDecline);
+  }
+
+  /**
+   * Edits all the events with the event name.
+   *
+   * @param eventName     the name of the event to edit.
+   * @param propertyName  the property to edit.
+   * @param propertyValue the new value of the property.
+   * @param autoDecline   whether to automatically decline conflicting events.
+   */
+  @Override
+  public void editMultipleEventsAll(
+          String eventName,
+          String propertyName,
+          String propertyValue,
+          boolean autoDecline) {
+    editMultipleEventsHelper(eventName, "", propertyName, propertyValue, autoDecline);
+  }
+
+  /**
+   * Gets the events in the calendar between the given start and end date times.
+   *
+   * @param startDateTime the start date and time.
+   * @param endDateTime   the end date and time.
+   *
+   * @return Array of events that are within the given range.
+   */
+  @Override
+  public Map<String, String>[] getEventsRange(String startDateTime, String endDateTime) {
+    ZonedDateTime[] range = parseRange(startDateTime, endDateTime);
+    return getEventsHelper(range[0], range[1]);
+  }
+
+  /**
+   * Gets the views of the events in the calendar between the given start and end date times.
+   *
+   * @param startDateTime the start date and time.
+   * @param endDateTime   the end date and time.
+   *
+   * @return the views of the events that are within the given range.
+   */
+  @Override
+  public List<EventView> getEventViewsRange(String startDateTime, String endDateTime) {
+    ZonedDateTime[] range = parseRange(startDateTime, endDateTime);
+    return getEventViewsHelper(range[0], range[1]);
+  }
+
+  /**
+   * Gets the events in the calendar on the given date.
+   *
+   * @param startDate the start date and time.
+   *
+   * @return Array of events that are on the given date.
+   */
+  @Override
+  public Map<String, String>[] getEventsOnDate(String startDate) {
+    ZonedDateTime startZonedDateTime = stringToZdt(startDate, timeZone);
+    ZonedDateTime endZonedDateTime = startZonedDateTime.withHour(23).withMinute(59);
+    return getEventsHelper(startZonedDateTime, endZonedDateTime);
+  }
+
+  /**
+   * Gets the views of the events in the calendar on the given date.
+   *
+   * @param startDate the date.
+   *
+   * @return the views of the events that are on the given date.
+   */
+  @Override
+  public List<EventView> getEventViewsOnDate(String startDate) {
+    ZonedDateTime startZonedDateTime = stringToZdt(startDate, timeZone);
+    ZonedDateTime endZonedDateTime = startZonedDateTime.withHour(23).withMinute(59);
+    return getEventViewsHelper(startZonedDateTime, endZonedDateTime);
+  }
+
+  /**
+   * Gets the names of the events on every day of the given month.
+   *
+   * @param month the month to get the event names for.
+   *
+   * @return a list with, for every day of the month in order, the names of the events on that day.
+   */
+  @Override
+  public List<List<String>> getEventNamesInMonth(YearMonth month) {
+    final ZonedDateTime monthStart = month.atDay(1).atStartOfDay(zoneId);
+    final ZonedDateTime monthEnd = month.atEndOfMonth().atStartOfDay(zoneId)
+            .withHour(23).withMinute(59);
+
+    List<CalendarEntry> eventsInMonth = new ArrayList<>();
+    for (CalendarEntry entry : findCandidates(monthStart, monthEnd)) {
+      eventsInMonth.addAll(entry.getEventsIfWithinRange(monthStart, monthEnd));
+    }
+    eventsInMonth.sort(Comparator.comparing(CalendarEntry::getStartDateTime));
+
+    List<List<String>> eventNamesInMonth = new ArrayList<>();
+    for (int day = 0; day < month.lengthOfMonth(); day++) {
+      eventNamesInMonth.add(new ArrayList<>());
+    }
+    for (CalendarEntry entry : eventsInMonth) {
+      LocalDate firstDay = entry.getStartDateTime().withZoneSameInstant(zoneId).toLocalDate();
+      LocalDate lastDay = entry.getEndDateTime().withZoneSameInstant(zoneId).toLocalDate();
+      if (lastDay.isBefore(firstDay)) {
+        LocalDate swap = firstDay;
+        firstDay = lastDay;
+        lastDay = swap;
+      }
+      firstDay = firstDay.isBefore(month.atDay(1)) ? month.atDay(1) : firstDay;
+      lastDay = lastDay.isAfter(month.atEndOfMonth()) ? month.atEndOfMonth() : lastDay;
+
+      for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+        ZonedDateTime dayStart = day.atStartOfDay(zoneId);
+        if (isTimeOverLapping(
+                entry.getStartDateTime(),
+                entry.getEndDateTime(),
+                dayStart,
+                dayStart.withHour(23).withMinute(59))) {
+          eventNamesInMonth.get(day.getDayOfMonth() - 1)
+                  .add(entry.getName() != null ? entry.getName() : "");
+        }
+      }
+    }
+    return eventNamesInMonth;
+  }
+
+  /**
+   * Gets all events in the calendar as an array of formatted strings, in the order they were
+   * added in.
+   */
+  @Override
+  public Map<String, String>[] getAllEvents() {
+    List<Map<String, String>> eventStrings = new LinkedList<>();
+    for (int slot = 0; slot < columns.size(); slot++) {
+      if (columns.isLive(slot)) {
+        eventStrings.addAll(entryAt(slot).getAllEventDetails());
+      }
+    }
+    return toEventArray(eventStrings);
+  }
+
+  /**
+   * Gets the views of all the events in the calendar, in the order they were added in.
+   */
+  @Override
+  public List<EventView> getAllEventViews() {
+    List<EventView> eventViews = new ArrayList<>();
+    forEachEventView(eventViews::add);
+    return eventViews;
+  }
+
+  /**
+   * Gives the view of every event in the calendar to the given action, in the order the events
+   * were added in. Single events are viewed straight from the columns.
+   */
+  @Override
+  public void forEachEventView(Consumer<EventView> action) {
+    for (int slot = 0; slot < columns.size(); slot++) {
+      if (!columns.isLive(slot)) {
+        continue;
+      }
+      if (columns.isPlaceholder(slot) || !columns.isAllDayInZone(slot)) {
+        entryAt(slot).forEachEventView(action);
+      } else {
+        action.accept(new EventView(
+                columns.getName(slot),
+                toZdt(columns.getStart(slot)),
+                toZdt(columns.getEnd(slot)),
+                columns.getDescription(slot),
+                columns.getLocation(slot),
+                columns.isPrivate(slot),
+                columns.isAllDay(slot),
+                false));
+      }
+    }
+  }
+
+  /**
+   * Gives every entry of the calendar to the given action, in the order the entries were added
+   * in. Single events are made from the columns as they are given.
+   *
+   * @param action the action to give the entries to.
+   */
+  @Override
+  protected void forEachEntry(Consumer<CalendarEntry> action) {
+    for (int slot = 0; slot < columns.size(); slot++) {
+      if (columns.isLive(slot)) {
+        action.accept(entryAt(slot));
+      }
+    }
+  }
+
+  /**
+   * Shows the availability status of the calendar at the given date and time.
+   *
+   * @param startDateTime the start date and time.
+   *
+   * @return "Available" if the calendar is available, "Busy" if the calendar is busy.
+   *
+   * @throws IllegalArgumentException if the startDateTime is null or empty.
+   */
+  @Override
+  public String getStatusOnDateTime(String startDateTime) {
+    if (startDateTime == null || startDateTime.isEmpty()) {
+      throw new IllegalArgumentException("Start date time cannot be empty");
+    }
+
+    final ZonedDateTime startDateTimeZDT = stringToZdt(startDateTime, timeZone);
+    return checkAvailability(startDateTimeZDT, startDateTimeZDT.plusMinutes(1));
+  }
+
+  /**
+   * Shows the availability status of the calendar within the given range.
+   *
+   * @param rangeStartDateTime the start date and time of the range.
+   * @param rangeEndDateTime   the end date and time of the range.
+   *
+   * @return "Available" if the calendar is available within the given range, "Busy" otherwise.
+   */
+  @Override
+  public String getStatusInRange(String rangeStartDateTime, String rangeEndDateTime) {
+    if (rangeStartDateTime == null || rangeStartDateTime.isEmpty()) {
+      throw new IllegalArgumentException("Start date time cannot be empty");
+    }
+    if (rangeEndDateTime == null || rangeEndDateTime.isEmpty()) {
+      throw new IllegalArgumentException("End date time cannot be empty");
+    }
+
+    ZonedDateTime startDateTimeZDT = stringToZdt(rangeStartDateTime, timeZone);
+    ZonedDateTime endDateTimeZDT = stringToZdt(rangeEndDateTime, timeZone);
+
+    return checkAvailability(startDateTimeZDT, endDateTimeZDT);
+  }
+
+  /**
+   * Change the timeZone of the calendar and all the events in the calendar. The columns hold
+   * instants, so only the all day status of the single events has to be worked out again, which
+   * is done when they are next read. Recurring events are moved a few at a time as the calendar is
+   * next changed, or when they are edited.
+   *
+   * @param newTimezone the new timezone to change to.
+   */
+  @Override
+  public void changeTimezone(String newTimezone) {
+    this.zoneId = ZoneId.of(newTimezone);
+    this.timeZone = newTimezone;
+    columns.forgetAllDayFlags();
+    seriesInZone = Collections.newSetFromMap(new IdentityHashMap<>());
+    seriesToMove = slotBySeries.keySet().toArray(new CalendarEntry[0]);
+    nextToMove = 0;
+  }
+
+  /**
+   * Gets the events in the calendar between the given start and end dates.
+   *
+   * @param startDate The Start date of the range.
+   * @param endDate   the end date of the range.
+   *
+   * @return the list of events that come within the given range.
+   */
+  @Override
+  protected List<CalendarEntry> getCalendarEntriesWithinRange(String startDate, String endDate) {
+    ZonedDateTime start = stringToZdt(startDate, timeZone).withHour(0).withMinute(0);
+    ZonedDateTime end = stringToZdt(endDate, timeZone).withHour(23).withMinute(59);
+    return fetchEvents(start, end);
+  }
+
+  /**
+   * Gets the events in the calendar on the given date.
+   *
+   * @param startDate The Start date of the range.
+   *
+   * @return the list of events that come on the given date.
+   */
+  @Override
+  protected List<CalendarEntry> getCalendarEntriesOnDay(String startDate) {
+    ZonedDateTime start = stringToZdt(startDate, timeZone).withHour(0).withMinute(0);
+    ZonedDateTime end = start.withHour(23).withMinute(59);
+    return fetchEvents(start, end);
+  }
+
+  /**
+   * Gets the event with the given name and start date time.
+   *
+   * @param eventName     the name of the event.
+   * @param startDateTime the start date time of the event.
+   *
+   * @return the event with the given name and start date time if found, null otherwise.
+   */
+  @Override
+  protected CalendarEntry getEventWithStartDateTime(String eventName, String startDateTime) {
+    ZonedDateTime startDateTimeZDT = stringToZdt(startDateTime, timeZone);
+    for (CalendarEntry event : findCandidates(startDateTimeZDT, startDateTimeZDT)) {
+      AbstractMap.SimpleEntry<CalendarEntry, Boolean> matchedEvent
+              = event.isEventStartWith(eventName, startDateTimeZDT);
+      if (matchedEvent.getKey() != null) {
+        return matchedEvent.getKey();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Adds the given events to the calendar. If autoDecline is true, any conflicts caused by the new
+   * events will result in the add action to fail, resulting in no new events being created.
+   *
+   * @param eventsToAdd the events to add.
+   * @param autoDecline whether to automatically decline conflicting events.
+   */
+  @Override
+  protected void addEvents(List<CalendarEntry> eventsToAdd, boolean autoDecline) {
+    if (autoDecline) {
+      for (CalendarEntry entry : eventsToAdd) {
+        if (checkConflict(entry)) {
+          throw new IllegalArgumentException("Conflict detected, no events were added");
+        }
+      }
+    }
+    addAllToCalendar(eventsToAdd);
+  }
+
+  /**
+   * Get all event details of the event with the given name and start date time.
+   *
+   * @param eventName     the name of the event.
+   * @param startDateTime the start date time of the event.
+   *
+   * @return a map of event details with keys as field names and values as field values.
+   */
+  @Override
+  public Map<String, String> getExactEvent(String eventName, String startDateTime) {
+    ZonedDateTime startDateTimeZDT = stringToZdt(startDateTime, timeZone);
+    for (CalendarEntry event : findCandidates(startDateTimeZDT, startDateTimeZDT)) {
+      AbstractMap.SimpleEntry<CalendarEntry, Boolean> matchedEvent
+              = event.isEventStartWith(eventName, startDateTimeZDT);
+      if (matchedEvent.getKey() != null) {
+        Map<String, String> cleanedMap = BasicSingleCalendar.cleanMapKeyValues(
+                matchedEvent.getKey().getAllEventDetails().get(0));
+        cleanedMap.put("Is Recurring", matchedEvent.getValue() ? "True" : "False");
+        return cleanedMap;
+      }
+    }
+    return Map.of();
+  }
+
+  /**
+   * Parses the start and end of a range of date times in the time zone of the calendar.
+   */
+  private ZonedDateTime[] parseRange(String startDateTime, String endDateTime) {
+    if (startDateTime.isEmpty() || endDateTime.isEmpty()) {
+      throw new IllegalArgumentException("Start and end date time cannot be empty");
+    }
+
+    ZonedDateTime startZonedDateTime = stringToZdt(startDateTime, timeZone);
+    ZonedDateTime endZonedDateTime = stringToZdt(endDateTime, timeZone);
+
+    if (endZonedDateTime.isBefore(startZonedDateTime)) {
+      throw new IllegalArgumentException("End time must be after start time");
+    }
+    return new ZonedDateTime[]{startZonedDateTime, endZonedDateTime};
+  }
+
+  /**
+   * Gets the given event details as an array. Java cannot create an array of the generic map type,
+   * so an array of wildcard maps is created and cast.
+   */
+  @SuppressWarnings("unchecked")
+  private static Map<String, String>[] toEventArray(List<Map<String, String>> eventStrings) {
+    return eventStrings.toArray((Map<String, String>[]) new Map<?, ?>[eventStrings.size()]);
+  }
+
+  private Map<String, String>[] getEventsHelper(
+          ZonedDateTime startDateTime,
+          ZonedDateTime endDateTime) {
+    List<CalendarEntry> eventsInRange = fetchEvents(startDateTime, endDateTime);
+    eventsInRange.sort(Comparator.comparing(CalendarEntry::getStartDateTime));
+
+    List<Map<String, String>> eventStrings = new LinkedList<>();
+    for (CalendarEntry entry : eventsInRange) {
+      eventStrings.addAll(entry.getEventDetails(startDateTime, endDateTime, false));
+    }
+    return toEventArray(eventStrings);
+  }
+
+  private List<EventView> getEventViewsHelper(
+          ZonedDateTime startDateTime,
+          ZonedDateTime endDateTime) {
+    List<EventView> eventViews = new ArrayList<>();
+    for (CalendarEntry entry : findCandidates(startDateTime, endDateTime)) {
+      eventViews.addAll(entry.getEventViews(startDateTime, endDateTime));
+    }
+    eventViews.sort(Comparator.comparing(EventView::getStartDateTime));
+    return eventViews;
+  }
+
+  private List<CalendarEntry> fetchEvents(ZonedDateTime startDateTime, ZonedDateTime endDateTime) {
+    List<CalendarEntry> fetchedEvents = new LinkedList<>();
+    for (CalendarEntry event : findCandidates(startDateTime, endDateTime)) {
+      List<CalendarEntry> eventsInRange = event.getEventsIfWithinRange(startDateTime, endDateTime);
+      if (!(eventsInRange == null || eventsInRange.isEmpty())) {
+        fetchedEvents.addAll(eventsInRange);
+      }
+    }
+    return fetchedEvents;
+  }
+
+  /**
+   * Checks calendar availability for a given time range by comparing epoch seconds against the
+   * single events, and checking the recurring events the interval index finds for the range.
+   */
+  private String checkAvailability(ZonedDateTime startDateTime, ZonedDateTime endDateTime) {
+    final long from = startDateTime.toEpochSecond();
+    final long to = endDateTime.toEpochSecond();
+    if (columns.anyOverlapping(from, to)) {
+      return "Busy";
+    }
+
+    final CalendarEntry testEvent = new SingleEvent("_test_", startDateTime, endDateTime,
+            "", "", false, false);
+    if (seriesIndex.anyOverlapping(
+            Math.min(from, to),
+            Math.max(from, to),
+            event -> event.isConflict(testEvent))) {
+      return "Busy";
+    }
+    return "Available";
+  }
+
+  private void addSingleEventHelper(
+          String name,
+          String startDateTime,
+          String endDateTime,
+          String description,
+          String location,
+          boolean autoDecline,
+          boolean isPrivate) {
+    DateTimeProcessingResult result = processEventDateTime(startDateTime, endDateTime, timeZone);
+    CalendarEntry singleEvent = new SingleEvent(name, result.startDateTime, result.endDateTime,
+            description, location, isPrivate, result.isAllDay);
+
+    if (autoDecline && checkConflict(singleEvent)) {
+      throw new IllegalArgumentException("Conflict detected, Event not Created");
+    }
+    addToCalendar(singleEvent);
+  }
+
+  private void addRecurringEventHelper(CalendarEntry recurringEvent, boolean autoDecline) {
+    if (autoDecline && checkConflict(recurringEvent)) {
+      throw new IllegalArgumentException("Conflict detected, Event not Created");
+    }
+    addToCalendar(recurringEvent);
+  }
+
+  /**
+   * Checks if the given event conflicts with any existing events in the calendar. A single event,
+   * or every occurrence of a recurring one, is compared against the columns in epoch seconds, and
+   * the recurring events of the calendar are checked through their interval index.
+   *
+   * @param event the event to check for conflicts
+   *
+   * @return true if the event conflicts with any existing events, false otherwise.
+   */
+  private boolean checkConflict(CalendarEntry event) {
+    if (event instanceof SingleEvent) {
+      if (columns.anyOverlapping(
+              event.getStartDateTime().toEpochSecond(),
+              event.getEndDateTime().toEpochSecond())) {
+        return true;
+      }
+    } else {
+      for (EventView occurrence : event.getAllEventViews()) {
+        if (columns.anyOverlapping(
+                occurrence.getStart().getEpochSecond(),
+                occurrence.getEnd().getEpochSecond())) {
+          return true;
+        }
+      }
+    }
+
+    long spanStart = event.getSpanStart().toEpochSecond();
+    long spanEnd = event.getSpanEnd().toEpochSecond();
+    return seriesIndex.anyOverlapping(
+            Math.min(spanStart, spanEnd),
+            Math.max(spanStart, spanEnd),
+            entry -> entry.isConflict(event));
+  }
+
+  /**
+   * Gets the entries whose time span may overlap with the given range, in the order they were
+   * added to the calendar. Single events are made into new objects, so changing them does not
+   * change the calendar. The exact overlap check is left to the caller.
+   */
+  private List<CalendarEntry> findCandidates(
+          ZonedDateTime startDateTime,
+          ZonedDateTime endDateTime) {
+    long from = startDateTime.toEpochSecond();
+    long to = endDateTime.toEpochSecond();
+    List<CalendarEntry> candidates = new ArrayList<>();
+    for (int slot : findSlots(Math.min(from, to), Math.max(from, to))) {
+      candidates.add(entryAt(slot));
+    }
+    return candidates;
+  }
+
+  /**
+   * Gets the slots of the entries whose time span overlaps or touches the given range, in order.
+   */
+  private int[] findSlots(long from, long to) {
+    return mergeSlots(columns.findOverlapping(from, to), seriesIndex.findOverlapping(from, to));
+  }
+
+  /**
+   * Merges the slots of the given single events with the slots of the given recurring events,
+   * in order.
+   */
+  private int[] mergeSlots(int[] singleSlots, Collection<CalendarEntry> series) {
+    if (series.isEmpty()) {
+      return singleSlots;
+    }
+    int[] slots = Arrays.copyOf(singleSlots, singleSlots.length + series.size());
+    int next = singleSlots.length;
+    for (CalendarEntry entry : series) {
+      slots[next++] = slotBySeries.get(entry);
+    }
+    Arrays.sort(slots);
+    return slots;
+  }
+
+  /**
+   * Gets the entry in the given slot as it is shown in the time zone of the calendar: the
+   * recurring event it stands in for, or a new single event made from the columns. A recurring
+   * event that was not moved to the time zone of the calendar yet is shown as a moved copy.
+   */
+  private CalendarEntry entryAt(int slot) {
+    if (columns.isPlaceholder(slot)) {
+      CalendarEntry series = seriesBySlot.get(slot);
+      return seriesInZone.contains(series) ? series : series.inZone(zoneId);
+    }
+    SingleEvent event = SingleEvent.restore(
+            columns.getName(slot),
+            toZdt(columns.getStart(slot)),
+            toZdt(columns.getEnd(slot)),
+            columns.getDescription(slot),
+            columns.getLocation(slot),
+            columns.isPrivate(slot),
+            columns.isAllDay(slot));
+    if (!columns.isAllDayInZone(slot)) {
+      event.updateZone(zoneId);
+    }
+    return event;
+  }
+
+  /**
+   * Gets the entry in the given slot to be edited. A recurring event is moved to the time zone of
+   * the calendar first, since edits read date times in the time zone of the event.
+   */
+  private CalendarEntry editableEntryAt(int slot) {
+    if (columns.isPlaceholder(slot)) {
+      CalendarEntry series = seriesBySlot.get(slot);
+      if (seriesInZone.add(series)) {
+        series.updateZone(zoneId);
+      }
+      return series;
+    }
+    return entryAt(slot);
+  }
+
+  /**
+   * Moves the next few recurring events that were in the calendar when its time zone last changed
+   * to the new time zone. Recurring events removed since then are skipped.
+   */
+  private void moveSomeToCalendarZone() {
+    int end = Math.min(nextToMove + MOVES_PER_CHANGE, seriesToMove.length);
+    for (; nextToMove < end; nextToMove++) {
+      CalendarEntry series = seriesToMove[nextToMove];
+      if (slotBySeries.containsKey(series) && seriesInZone.add(series)) {
+        series.updateZone(zoneId);
+      }
+      seriesToMove[nextToMove] = null;
+    }
+  }
+
+  private ZonedDateTime toZdt(long epochSecond) {
+    return Instant.ofEpochSecond(epochSecond).atZone(zoneId);
+  }
+
+  /**
+   * Adds the given event to the calendar, into the columns if it is a single event, or to the
+   * indexes of the recurring events otherwise.
+   *
+   * @param event the event to add.
+   */
+  private void addToCalendar(CalendarEntry event) {
+    moveSomeToCalendarZone();
+    if (event instanceof SingleEvent) {
+      columns.add(
+              event.getStartDateTime().toEpochSecond(),
+              event.getEndDateTime().toEpochSecond(),
+              event.getName(),
+              event.getDescription(),
+              event.getLocation(),
+              event.isPrivate(),
+              event.isAllDay());
+      return;
+    }
+    int slot = columns.addPlaceholder();
+    seriesBySlot.put(slot, event);
+    slotBySeries.put(event, slot);
+    seriesIndex.insert(event);
+    seriesNames.insert(event);
+    seriesInZone.add(event);
+  }
+
+  private void addAllToCalendar(Collection<CalendarEntry> eventsToAdd) {
+    for (CalendarEntry event : eventsToAdd) {
+      addToCalendar(event);
+    }
+  }
+
+  /**
+   * Removes the events in the given slots from the calendar and from its indexes.
+   *
+   * @param eventsToRemove the events to remove, by slot.
+   */
+  private void removeFromCalendar(Map<Integer, CalendarEntry> eventsToRemove) {
+    moveSomeToCalendarZone();
+    for (Map.Entry<Integer, CalendarEntry> event : eventsToRemove.entrySet()) {
+      int slot = event.getKey();
+      if (columns.isPlaceholder(slot)) {
+        seriesBySlot.remove(slot);
+        slotBySeries.remove(event.getValue());
+        seriesIndex.remove(event.getValue());
+        seriesNames.remove(event.getValue());
+        seriesInZone.remove(event.getValue());
+      }
+      columns.remove(slot);
+    }
+  }
+
+  /**
+   * Writes the given events back to the slots they came from. Used when an edit fails after some
+   * events were already edited and are still in the calendar.
+   *
+   * @param editedEvents the events that were edited, by slot.
+   */
+  private void reindex(Map<Integer, CalendarEntry> editedEvents) {
+    for (Map.Entry<Integer, CalendarEntry> edited : editedEvents.entrySet()) {
+      CalendarEntry event = edited.getValue();
+      if (columns.isPlaceholder(edited.getKey())) {
+        seriesIndex.insert(event);
+        seriesNames.insert(event);
+      } else {
+        columns.set(
+                edited.getKey(),
+                event.getStartDateTime().toEpochSecond(),
+                event.getEndDateTime().toEpochSecond(),
+                event.getName(),
+                event.getDescription(),
+                event.getLocation(),
+                event.isPrivate(),
+                event.isAllDay());
+      }
+    }
+  }
+
+  /**
+   * Compacts the columns once enough edited events have left their slots behind, and moves the
+   * recurring events to their new slots.
+   */
+  private void compactIfSparse() {
+    if (!columns.isSparse()) {
+      return;
+    }
+    int[] moved = columns.compact();
+    Map<Integer, CalendarEntry> series = new HashMap<>(seriesBySlot);
+    seriesBySlot.clear();
+    for (Map.Entry<Integer, CalendarEntry> entry : series.entrySet()) {
+      int slot = moved[entry.getKey()];
+      seriesBySlot.put(slot, entry.getValue());
+      slotBySeries.put(entry.getValue(), slot);
+    }
+  }
+
+  /**
+   * Adds the edited events back to the calendar, after every other event. If autoDecline is true
+   * and any of them conflicts with the calendar, the edits are undone and the events are put back
+   * in the slots they came from, so a failed edit does not change the calendar.
+   *
+   * @param editedEvents the events that were edited and removed from the calendar, by slot.
+   * @param autoDecline  whether to automatically decline conflicting events.
+   */
+  private void checkConflictAndAddAll(
+          Map<Integer, CalendarEntry> editedEvents,
+          boolean autoDecline) {
+    if (autoDecline) {
+      for (CalendarEntry event : editedEvents.values()) {
+        if (checkConflict(event)) {
+          undoEdits(editedEvents);
+          restoreToCalendar(editedEvents);
+          throw new IllegalArgumentException("Event conflicts with existing event");
+        }
+      }
+    }
+    addAllToCalendar(editedEvents.values());
+  }
+
+  /**
+   * Undoes the edit of the given events.
+   *
+   * @param editedEvents the events that were edited, by slot.
+   */
+  private void undoEdits(Map<Integer, CalendarEntry> editedEvents) {
+    for (CalendarEntry event : editedEvents.values()) {
+      event.undoEdit();
+    }
+  }
+
+  /**
+   * Puts the events removed from the given slots back in them. The columns of a single event were
+   * left as they were when it was removed, and a recurring event is indexed again.
+   *
+   * @param removedEvents the events that were removed, by slot.
+   */
+  private void restoreToCalendar(Map<Integer, CalendarEntry> removedEvents) {
+    for (Map.Entry<Integer, CalendarEntry> removed : removedEvents.entrySet()) {
+      int slot = removed.getKey();
+      CalendarEntry event = removed.getValue();
+      columns.restore(slot);
+      if (columns.isPlaceholder(slot)) {
+        seriesBySlot.put(slot, event);
+        slotBySeries.put(event, slot);
+        seriesIndex.insert(event);
+        seriesNames.insert(event);
+        seriesInZone.add(event);
+      }
+    }
+  }
+
+  private void editMultipleEventsHelper(
+          String eventName,
+          String startDateTime,
+          String propertyName,
+          String propertyValue,
+          boolean autoDecline) {
+    ZonedDateTime startZonedDateTime = null;
+    if (!startDateTime.isEmpty()) {
+      startZonedDateTime = stringToZdt(startDateTime, timeZone);
+    }
+
+    compactIfSparse();
+    Map<Integer, CalendarEntry> editedEvents = new LinkedHashMap<>();
+
+    try {
+      for (int slot : mergeSlots(columns.findByName(eventName), seriesNames.find(eventName))) {
+        CalendarEntry matchedEvent = editableEntryAt(slot).matchesRecurringEvent(
+                eventName, startZonedDateTime);
+        if (matchedEvent != null) {
+          editedEvents.put(slot, matchedEvent);
+          matchedEvent.editRecurringEvent(
+                  eventName,
+                  startZonedDateTime,
+                  propertyName,
+                  propertyValue);
+        }
+      }
+    } catch (IllegalArgumentException e) {
+      undoEdits(editedEvents);
+      reindex(editedEvents);
+      throw e;
+    }
+
+    removeFromCalendar(editedEvents);
+    if (editedEvents.isEmpty()) {
+      throw new IllegalArgumentException("Could not find any recurring event: " + eventName);
+    }
+
+    checkConflictAndAddAll(editedEvents, autoDecline);
+  }
+}
@@ -0,0 +1,359 @@
+package model;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import model.calendarentry.CalendarEntry;
+
+import static utils.DateTimeUtils.isInvalidTimeZone;
+import static utils.DateTimeUtils.offsetDaysBetweenDates;
+import static utils.DateTimeUtils.stringToZdt;
+
+/**
+ * A multi-calendar system that can be shared between threads, for example by a view that repaints
+ * while an import runs in the background. It behaves like BasicCalendarModel, but every calendar
+ * is a LockedSingleCalendar guarded by its own read/write lock, so queries of a calendar run at
+ * the same time as each other and as changes to other calendars. The calendars are kept in a
+ * concurrent map that can be read without locking; adding and renaming calendars, which check
+ * the names before they change the map, are done one at a time.
+ *
+ * <p>Copying events reads the current calendar and changes the target calendar. Both are locked
+ * for the whole copy, in the order given by the calendars, so copies between two calendars in
+ * opposite directions cannot deadlock, and a copy cannot see the target calendar change time zone
+ * half way through.
+ */
+public class ConcurrentCalendarModel implements CalendarModel {
+
+  /**
+   * The map of calendars, where the key is the calendar name. Every calendar knows its own time
+   * zone.
+   */
+  private final ConcurrentMap<String, LockedSingleCalendar> calendars;
+  private final Object namesLock;
+  private volatile LockedSingleCalendar currentCalendar;
+
+  /**
+   * Constructs a ConcurrentCalendarModel object with a default calendar in the system's default
+   * time zone, which is the current calendar.
+   */
+  public ConcurrentCalendarModel() {
+    final String currentTimeZone = TimeZone.getDefault().getID();
+    this.currentCalendar = new LockedSingleCalendar(
+            CalendarStorage.OBJECTS.create(currentTimeZone), currentTimeZone);
+    this.calendars = new ConcurrentHashMap<>();
+    this.calendars.put("default", currentCalendar);
+    this.namesLock = new Object();
+  }
+
+  /**
+   * Adds a new calendar to the system. Validates the calendar name and time zone before adding the
+   * calendar. The time zone must be a valid timezone, according to the IANA Time Zone Database
+   * format.
+   *
+   * @param calendarName the name of the new calendar.
+   * @param timeZone     the time zone of the new calendar.
+   */
+  @Override
+  public void addCalendar(String calendarName, String timeZone) {
+    addCalendar(calendarName, timeZone, CalendarStorage.OBJECTS);
+  }
+
+  /**
+   * Adds a new calendar to the system that keeps its events the given way.
+   *
+   * @param calendarName the name of the new calendar.
+   * @param timeZone     the time zone of the new calendar.
+   * @param storage      the way the calendar keeps its events.
+   */
+  public void addCalendar(String calendarName, String timeZone, CalendarStorage storage) {
+    validateNameAndTimeZone(calendarName, timeZone);
+    synchronized (namesLock) {
+      checkCalendarExist(calendarName);
+      calendars.put(
+              calendarName,
+              new LockedSingleCalendar(storage.create(timeZone), timeZone)
+      );
+    }
+  }
+
+  /**
+   * Edits the given property of the given calendar. The property can be the name or the timezone of
+   * the calendar. The time zone is changed under the write lock of the calendar.
+   *
+   * @param calendarName the name of the calendar to edit.
+   * @param property     the property to edit.
+   * @param value        the new value of the property.
+   */
+  @Override
+  public void editCalendar(String calendarName, String property, String value) {
+    switch (property) {
+      case "name":
+        synchronized (namesLock) {
+          LockedSingleCalendar calendar = getCalendar(calendarName);
+          if (value == null) {
+            throw new IllegalArgumentException("Calendar name cannot be empty");
+          }
+          checkCalendarExist(value);
+          calendars.put(value, calendar);
+          calendars.remove(calendarName);
+        }
+        break;
+      case "timezone":
+        LockedSingleCalendar calendar = getCalendar(calendarName);
+        if (isInvalidTimeZone(value)) {
+          throw new IllegalArgumentException("Invalid timezone: " + value);
+        }
+        calendar.changeTimezone(value);
+        break;
+      default:
+        getCalendar(calendarName);
+        throw new IllegalArgumentException("Invalid property: " + property);
+    }
+  }
+
+  /**
+   * Changes the current calendar to the calendar with the given name.
+   *
+   * @param calendarName the name of the calendar to switch to.
+   */
+  @Override
+  public void useCalendar(String calendarName) {
+    currentCalendar = getCalendar(calendarName);
+  }
+
+  /**
+   * Copies an event from the current calendar to the target calendar. If autoDecline is true, any
+   * conflicts caused by the new copy will result in the copy action to fail, resulting in no new
+   * event being created.
+   *
+   * @param eventName          the name of the event to copy.
+   * @param targetCalendarName the name of the target calendar.
+   * @param sourceDateTime     the date and time of the event to copy.
+   * @param targetDateTime     the date and time of the new event.
+   * @param autoDecline        whether to automatically decline conflicting events.
+   */
+  @Override
+  public void copySingleEvent(
+          String eventName,
+          String targetCalendarName,
+          String sourceDateTime,
+          String targetDateTime,
+          boolean autoDecline) {
+    LockedSingleCalendar source = currentCalendar;
+    LockedSingleCalendar target = getCalendar(targetCalendarName);
+    withCopyLocks(source, target, () -> {
+      CalendarEntry eventToCopy = source.getEventWithStartDateTime(eventName, sourceDateTime);
+      if (eventToCopy == null) {
+        throw new IllegalArgumentException("Event does not exist: " + eventName);
+      }
+      ZonedDateTime targetZDT = stringToZdt(targetDateTime, target.getTimeZone());
+      eventToCopy.updateDateTime(targetZDT);
+      target.addEvents(List.of(eventToCopy), autoDecline);
+      return null;
+    });
+  }
+
+  /**
+   * Copies all events from the current calendar to the target calendar that fall within the given
+   * date range. If autoDecline is true, any conflicts caused by the new copies will result in the
+   * copy action to fail, resulting in no new events being created.
+   *
+   * @param targetCalendarName the name of the target calendar.
+   * @param rangeStartDate     the start date of the range.
+   * @param rangeEndDate       the end date of the range.
+   * @param targetDate         the date of the new events.
+   * @param autoDecline        whether to automatically decline conflicting events.
+   */
+  @Override
+  public void copyMultipleEventsRange(
+          String targetCalendarName,
+          String rangeStartDate,
+          String rangeEndDate,
+          String targetDate,
+          boolean autoDecline) {
+    LockedSingleCalendar source = currentCalendar;
+    LockedSingleCalendar target = getCalendar(targetCalendarName);
+    int offSet = offsetDaysBetweenDates(rangeStartDate, targetDate);
+    withCopyLocks(source, target, () -> {
+      addEventsToCalendar(target, offSet,
+              source.getCalendarEntriesWithinRange(rangeStartDate, rangeEndDate), autoDecline);
+      return null;
+    });
+  }
+
+  /**
+   * Copies all events from the current calendar to the target calendar that fall within the given
+   * day. If autoDecline is true, any conflicts caused by the new copies will result in the copy
+   * action to fail, resulting in no new events being created.
+   *
+   * @param targetCalendarName the name of the target calendar.
+   * @param rangeStartDate     the start date of the range.
+   * @param targetDate         the date of the new events.
+   * @param autoDecline        whether to automatically decline conflicting events.
+   */
+  @Override
+  public void copyMultipleEventsOnDay(
+          String targetCalendarName,
+          String rangeStartDate,
+          String targetDate,
+          boolean autoDecline) {
+    LockedSingleCalendar source = currentCalendar;
+    LockedSingleCalendar target = getCalendar(targetCalendarName);
+    int offSet = offsetDaysBetweenDates(rangeStartDate, targetDate);
+    withCopyLocks(source, target, () -> {
+      addEventsToCalendar(target, offSet,
+              source.getCalendarEntriesOnDay(rangeStartDate), autoDecline);
+      return null;
+    });
+  }
+
+  /**
+   * Moves the given events by the offset into the time zone of the target calendar and adds them
+   * to it. Called with the target calendar locked for writing.
+   */
+  private void addEventsToCalendar(
+          LockedSingleCalendar target,
+          int offSet,
+          List<CalendarEntry> eventsToCopy,
+          boolean autoDecline) {
+    ZoneId targetTimeZone = ZoneId.of(target.getTimeZone());
+    for (CalendarEntry event : eventsToCopy) {
+      event.addOffsetDays(offSet);
+      event.updateZone(targetTimeZone);
+    }
+    target.addEvents(eventsToCopy, autoDecline);
+  }
+
+  /**
+   * Runs a copy with the source calendar locked for reading and the target calendar locked for
+   * writing. The locks are taken in the order of the calendars, and a copy within one calendar
+   * only takes its write lock, since a read lock cannot be upgraded.
+   */
+  private static <T> T withCopyLocks(
+          LockedSingleCalendar source,
+          LockedSingleCalendar target,
+          Supplier<T> copy) {
+    List<Lock> locks = new ArrayList<>();
+    if (source == target) {
+      locks.add(target.writeLock());
+    } else if (source.getOrder() < target.getOrder()) {
+      locks.add(source.readLock());
+      locks.add(target.writeLock());
+    } else {
+      locks.add(target.writeLock());
+      locks.add(source.readLock());
+    }
+
+    int locked = 0;
+    try {
+      for (Lock lock : locks) {
+        lock.lock();
+        locked++;
+      }
+      return copy.get();
+    } finally {
+      for (int i = locked - 1; i >= 0; i--) {
+        locks.get(i).unlock();
+      }
+    }
+  }
+
+  /**
+   * Gets the current calendar. The calendar can be used from any thread.
+   *
+   * @return the instance of the current calendar.
+   */
+  @Override
+  public SingleCalendar getCurrentCalendar() {
+    return currentCalendar;
+  }
+
+  /**
+   * Gets the current calendar name.
+   *
+   * @return the name of the current calendar.
+   */
+  @Override
+  public String getCurrentCalendarName() {
+    LockedSingleCalendar current = currentCalendar;
+    return calendars.entrySet().stream()
+            .filter(entry -> entry.getValue() == current)
+            .map(Map.Entry::getKey)
+            .findFirst()
+            .orElse(null);
+  }
+
+  /**
+   * Gets the names of all calendars in the system with their time zones.
+   *
+   * @return the map of all calendars.
+   */
+  @Override
+  public Map<String, String> getAllCalendars() {
+    return calendars.entrySet().stream()
+            .collect(Collectors.toMap(
+                    Map.Entry::getKey, entry -> entry.getValue().getTimeZone()
+            ));
+  }
+
+  /**
+   * Validates the calendar name and time zone of a new calendar.
+   *
+   * @param calendarName the name of the new calendar.
+   * @param timeZone     the time zone of the new calendar.
+   *
+   * @throws IllegalArgumentException if the calendar name is empty, the calendar already exists, or
+   *                                  the time zone is invalid.
+   */
+  private void validateNameAndTimeZone(String calendarName, String timeZone) {
+    if (calendarName == null || calendarName.isBlank()) {
+      throw new IllegalArgumentException("Calendar name cannot be empty");
+    }
+    checkCalendarExist(calendarName);
+    if (timeZone == null || timeZone.isBlank()) {
+      throw new IllegalArgumentException("Timezone cannot be empty");
+    }
+    if (isInvalidTimeZone(timeZone)) {
+      throw new IllegalArgumentException("Invalid timezone: " + timeZone);
+    }
+  }
+
+  /**
+   * Gets the calendar with the given name.
+   *
+   * @param calendarName the name of the calendar.
+   *
+   * @return the calendar with the name.
+   *
+   * @throws IllegalArgumentException if the calendar does not exist.
+   */
+  private LockedSingleCalendar getCalendar(String calendarName) {
+    LockedSingleCalendar calendar = calendarName == null ? null : calendars.get(calendarName);
+    if (calendar == null) {
+      throw new IllegalArgumentException("Calendar does not exist: " + calendarName);
+    }
+    return calendar;
+  }
+
+  /**
+   * Checks if the calendar with the given name already exists.
+   *
+   * @param calendarName the name of the calendar to check.
+   *
+   * @throws IllegalArgumentException if the calendar already exists.
+   */
+  private void checkCalendarExist(String calendarName) {
+    if (calendars.containsKey(calendarName)) {
+      throw new IllegalArgumentException("Calendar already exists: " + calendarName);
+    }
+  }
+}
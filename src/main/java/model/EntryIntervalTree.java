@@ -0,0 +1,279 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import model.calendarentry.CalendarEntry;
+
+/**
+ * An augmented interval tree over the calendar entries of a single calendar. Every entry is keyed
+ * on the span of time it covers (for a recurring event this is from its first occurrence to its
+ * last one) and every node keeps the maximum span end of its subtree, so that range and conflict
+ * lookups only visit the entries whose span can overlap the queried window. The tree is a treap
+ * ordered on (span start, insertion sequence), which keeps it balanced in expectation without any
+ * re-balancing bookkeeping.
+ *
+ * <p>The tree only narrows down candidates: spans are stored with second precision and compared
+ * inclusively, so callers must still run the exact overlap check on the returned entries.
+ */
+class EntryIntervalTree {
+
+  /**
+   * A node of the treap holding one calendar entry.
+   */
+  private static final class Node {
+    private final CalendarEntry entry;
+    private final long start;
+    private final long end;
+    private final long sequence;
+    private final int priority;
+    private long maxEnd;
+    private Node left;
+    private Node right;
+
+    private Node(CalendarEntry entry, long start, long end, long sequence, int priority) {
+      this.entry = entry;
+      this.start = start;
+      this.end = end;
+      this.sequence = sequence;
+      this.priority = priority;
+      this.maxEnd = end;
+    }
+  }
+
+  /**
+   * Nodes by entry identity. Entries are mutable, so a node has to be found again through the key
+   * it was inserted with rather than through the entry's current span.
+   */
+  private final Map<CalendarEntry, Node> nodes;
+  private Node root;
+  private long nextSequence;
+  private int seed;
+
+  /**
+   * Constructs an empty interval tree.
+   */
+  EntryIntervalTree() {
+    this.nodes = new IdentityHashMap<>();
+    this.root = null;
+    this.nextSequence = 0;
+    this.seed = 0x2545F491;
+  }
+
+  /**
+   * Adds the given entry to the tree using the span it currently covers. Adding an entry that is
+   * already present re-indexes it under its current span, keeping its place in the insertion
+   * order.
+   *
+   * @param entry the entry to index.
+   */
+  void insert(CalendarEntry entry) {
+    Node present = nodes.get(entry);
+    long sequence = present != null ? present.sequence : nextSequence++;
+    remove(entry);
+    long spanStart = entry.getSpanStart().toEpochSecond();
+    long spanEnd = entry.getSpanEnd().toEpochSecond();
+    Node node = new Node(
+            entry,
+            Math.min(spanStart, spanEnd),
+            Math.max(spanStart, spanEnd),
+            sequence,
+            nextPriority());
+    nodes.put(entry, node);
+    root = insert(root, node);
+  }
+
+  /**
+   * Removes the given entry from the tree.
+   *
+   * @param entry the entry to remove.
+   *
+   * @return true if the entry was present, false otherwise.
+   */
+  boolean remove(CalendarEntry entry) {
+    Node node = nodes.remove(entry);
+    if (node == null) {
+      return false;
+    }
+    root = remove(root, node);
+    return true;
+  }
+
+  /**
+   * Gets the entries whose span overlaps the window between the given instants, both inclusive. The
+   * entries are returned in the order they were inserted in.
+   *
+   * @param from the start of the window in epoch seconds.
+   * @param to   the end of the window in epoch seconds.
+   *
+   * @return the candidate entries in insertion order.
+   */
+  List<CalendarEntry> findOverlapping(long from, long to) {
+    List<Node> found = new ArrayList<>();
+    collect(root, from, to, found);
+    found.sort(Comparator.comparingLong(node -> node.sequence));
+    List<CalendarEntry> entries = new ArrayList<>(found.size());
+    for (Node node : found) {
+      entries.add(node.entry);
+    }
+    return entries;
+  }
+
+  /**
+   * Checks if any entry whose span overlaps the given window satisfies the given test. Stops at the
+   * first entry that does.
+   *
+   * @param from the start of the window in epoch seconds.
+   * @param to   the end of the window in epoch seconds.
+   * @param test the test to run on every candidate entry.
+   *
+   * @return true if a candidate entry satisfies the test, false otherwise.
+   */
+  boolean anyOverlapping(long from, long to, Predicate<CalendarEntry> test) {
+    return anyMatch(root, from, to, test);
+  }
+
+  /**
+   * Gets the number of indexed entries.
+   *
+   * @return the number of entries in the tree.
+   */
+  int size() {
+    return nodes.size();
+  }
+
+  private Node insert(Node subtree, Node node) {
+    if (subtree == null) {
+      return node;
+    }
+    if (isBefore(node, subtree)) {
+      subtree.left = insert(subtree.left, node);
+      if (subtree.left.priority > subtree.priority) {
+        subtree = rotateRight(subtree);
+      }
+    } else {
+      subtree.right = insert(subtree.right, node);
+      if (subtree.right.priority > subtree.priority) {
+        subtree = rotateLeft(subtree);
+      }
+    }
+    update(subtree);
+    return subtree;
+  }
+
+  private Node remove(Node subtree, Node node) {
+    if (subtree == null) {
+      return null;
+    }
+    if (subtree == node) {
+      return merge(subtree.left, subtree.right);
+    }
+    if (isBefore(node, subtree)) {
+      subtree.left = remove(subtree.left, node);
+    } else {
+      subtree.right = remove(subtree.right, node);
+    }
+    update(subtree);
+    return subtree;
+  }
+
+  private Node merge(Node left, Node right) {
+    if (left == null) {
+      return right;
+    }
+    if (right == null) {
+      return left;
+    }
+    if (left.priority > right.priority) {
+      left.right = merge(left.right, right);
+      update(left);
+      return left;
+    }
+    right.left = merge(left, right.left);
+    update(right);
+    return right;
+  }
+
+  private void collect(Node subtree, long from, long to, List<Node> found) {
+    if (subtree == null || subtree.maxEnd < from) {
+      return;
+    }
+    collect(subtree.left, from, to, found);
+    if (subtree.start > to) {
+      return; // everything to the right starts even later
+    }
+    if (subtree.end >= from) {
+      found.add(subtree);
+    }
+    collect(subtree.right, from, to, found);
+  }
+
+  private boolean anyMatch(Node subtree, long from, long to, Predicate<CalendarEntry> test) {
+    if (subtree == null || subtree.maxEnd < from) {
+      return false;
+    }
+    if (anyMatch(subtree.left, from, to, test)) {
+      return true;
+    }
+    if (subtree.start > to) {
+      return false;
+    }
+    if (subtree.end >= from && test.test(subtree.entry)) {
+      return true;
+    }
+    return anyMatch(subtree.right, from, to, test);
+  }
+
+  private boolean isBefore(Node node, Node other) {
+    if (node.start != other.start) {
+      return node.start < other.start;
+    }
+    return node.sequence < other.sequence;
+  }
+
+  private Node rotateRight(Node node) {
+    Node pivot = node.left;
+    node.left = pivot.right;
+    pivot.right = node;
+    update(node);
+    update(pivot);
+    return pivot;
+  }
+
+  private Node rotateLeft(Node node) {
+    Node pivot = node.right;
+    node.right = pivot.left;
+    pivot.left = node;
+    update(node);
+    update(pivot);
+    return pivot;
+  }
+
+  private void update(Node node) {
+    long maxEnd = node.end;
+    if (node.left != null) {
+      maxEnd = Math.max(maxEnd, node.left.maxEnd);
+    }
+    if (node.right != null) {
+      maxEnd = Math.max(maxEnd, node.right.maxEnd);
+    }
+    node.maxEnd = maxEnd;
+  }
+
+  /**
+   * Generates the next treap priority with a xorshift generator, so the shape of the tree is
+   * reproducible between runs.
+   *
+   * @return the next priority.
+   */
+  private int nextPriority() {
+    seed ^= seed << 13;
+    seed ^= seed >>> 17;
+    seed ^= seed << 5;
+    return seed;
+  }
+}
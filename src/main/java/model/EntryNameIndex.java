@@ -0,0 +1,100 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import model.calendarentry.CalendarEntry;
+
+/**
+ * An index of the calendar entries of a single calendar by the names they go by. A recurring
+ * event is indexed under its own name and under every name its occurrences were given, so an edit
+ * by name only has to look at the entries that can hold an event with that name. Entries with a
+ * name are given in the order they were first indexed in, even if they were indexed again since.
+ */
+class EntryNameIndex {
+
+  private final Map<String, Set<CalendarEntry>> entriesByName;
+
+  /**
+   * Names by entry identity. Entries are mutable and can be renamed in place, so an entry has to
+   * be removed under the names it was indexed with rather than the names it has now.
+   */
+  private final Map<CalendarEntry, Set<String>> namesByEntry;
+
+  /**
+   * The order every entry was first indexed in, by entry identity.
+   */
+  private final Map<CalendarEntry, Long> sequenceByEntry;
+  private long nextSequence;
+
+  /**
+   * Constructs an empty name index.
+   */
+  EntryNameIndex() {
+    this.entriesByName = new HashMap<>();
+    this.namesByEntry = new IdentityHashMap<>();
+    this.sequenceByEntry = new IdentityHashMap<>();
+    this.nextSequence = 0;
+  }
+
+  /**
+   * Adds the given entry to the index under the names it goes by now. Adding an entry that is
+   * already present re-indexes it under its current names, keeping its place in the order.
+   *
+   * @param entry the entry to index.
+   */
+  void insert(CalendarEntry entry) {
+    Long sequence = sequenceByEntry.get(entry);
+    remove(entry);
+    sequenceByEntry.put(entry, sequence != null ? sequence : nextSequence++);
+    Set<String> names = entry.getNames();
+    namesByEntry.put(entry, names);
+    for (String name : names) {
+      entriesByName.computeIfAbsent(name, key -> new LinkedHashSet<>()).add(entry);
+    }
+  }
+
+  /**
+   * Removes the given entry from the index.
+   *
+   * @param entry the entry to remove.
+   */
+  void remove(CalendarEntry entry) {
+    Set<String> names = namesByEntry.remove(entry);
+    if (names == null) {
+      return;
+    }
+    sequenceByEntry.remove(entry);
+    for (String name : names) {
+      Set<CalendarEntry> entries = entriesByName.get(name);
+      entries.remove(entry);
+      if (entries.isEmpty()) {
+        entriesByName.remove(name);
+      }
+    }
+  }
+
+  /**
+   * Gets the entries that hold an event with the given name, in the order they were first indexed
+   * in.
+   *
+   * @param name the name of the event.
+   *
+   * @return the entries with the name.
+   */
+  List<CalendarEntry> find(String name) {
+    Set<CalendarEntry> entries = entriesByName.get(name);
+    if (entries == null) {
+      return new ArrayList<>();
+    }
+    List<CalendarEntry> found = new ArrayList<>(entries);
+    found.sort(Comparator.comparingLong(sequenceByEntry::get));
+    return found;
+  }
+}
@@ -0,0 +1,325 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import model.calendarentry.CalendarEntry;
+import model.calendarentry.SingleEvent;
+
+import static utils.DateTimeUtils.DateTimeProcessingResult;
+
+import static utils.DateTimeUtils.processEventDateTime;
+
+/**
+ * A batch of single events to add to a calendar at once, such as the rows of an imported file.
+ * Every event of the batch is given as the strings the single event methods of a calendar take,
+ * and the calendar reports for every event, in the order they were added to the batch, whether it
+ * was added or why it was not.
+ *
+ * <p>A batch is normally added event by event, and an event that fails is left out while the rest
+ * are added. An all-or-nothing batch is added as a whole instead: its events are checked against
+ * each other in one sweep over them sorted by start, and against the calendar, and if any of them
+ * fails none of them is added.
+ */
+public final class EventBatch {
+
+  private final List<Row> rows;
+  private boolean allOrNothing;
+
+  /**
+   * Creates an empty batch.
+   */
+  public EventBatch() {
+    this.rows = new ArrayList<>();
+  }
+
+  /**
+   * Adds a single event to the batch. An empty end date time makes the event an all-day event on
+   * the day it starts.
+   *
+   * @param name          the name of the event.
+   * @param startDateTime the start date and time of the event.
+   * @param endDateTime   the end date and time of the event, or an empty string.
+   * @param description   the description of the event.
+   * @param location      the location of the event.
+   * @param isPrivate     whether the event is private.
+   *
+   * @return this batch.
+   */
+  public EventBatch add(
+          String name,
+          String startDateTime,
+          String endDateTime,
+          String description,
+          String location,
+          boolean isPrivate) {
+    rows.add(new Row(name, startDateTime, endDateTime, description, location, isPrivate));
+    return this;
+  }
+
+  /**
+   * Adds a single event whose date times were already parsed to the batch. A null end date time
+   * makes the event an all-day event on the day it starts. The date times are placed in the time
+   * zone of the calendar the batch is added to.
+   *
+   * @param name          the name of the event.
+   * @param startDateTime the start date and time of the event.
+   * @param endDateTime   the end date and time of the event, or null.
+   * @param description   the description of the event.
+   * @param location      the location of the event.
+   * @param isPrivate     whether the event is private.
+   *
+   * @return this batch.
+   *
+   * @throws IllegalArgumentException if the start date time is null.
+   */
+  public EventBatch add(
+          String name,
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          String description,
+          String location,
+          boolean isPrivate) {
+    if (startDateTime == null) {
+      throw new IllegalArgumentException("Start date time cannot be empty");
+    }
+    rows.add(new Row(name, startDateTime, endDateTime, description, location, isPrivate));
+    return this;
+  }
+
+  /**
+   * Makes the batch all-or-nothing: a calendar adds every event of it or none of them.
+   *
+   * @return this batch.
+   */
+  public EventBatch allOrNothing() {
+    this.allOrNothing = true;
+    return this;
+  }
+
+  /**
+   * Checks if the batch is added as a whole or not at all.
+   *
+   * @return true if the batch is all-or-nothing, false otherwise.
+   */
+  public boolean isAllOrNothing() {
+    return allOrNothing;
+  }
+
+  /**
+   * Gets the number of events in the batch.
+   *
+   * @return the number of events.
+   */
+  public int size() {
+    return rows.size();
+  }
+
+  /**
+   * Gets the event at the given position of the batch.
+   */
+  Row get(int row) {
+    return rows.get(row);
+  }
+
+  /**
+   * Makes the single event of every row of the batch in the given time zone. A row whose date
+   * times are invalid is rejected in the report and has no event.
+   *
+   * @param timeZone the time zone of the calendar the batch is added to.
+   * @param report   the report to reject the invalid rows in.
+   *
+   * @return the events, by row, with null for the rejected rows.
+   */
+  CalendarEntry[] toEvents(String timeZone, Report report) {
+    CalendarEntry[] events = new CalendarEntry[rows.size()];
+    for (int row = 0; row < events.length; row++) {
+      Row event = rows.get(row);
+      try {
+        DateTimeProcessingResult result = event.isParsed()
+                ? processEventDateTime(event.parsedStart, event.parsedEnd, timeZone)
+                : processEventDateTime(event.startDateTime, event.endDateTime, timeZone);
+        events[row] = new SingleEvent(event.name, result.startDateTime, result.endDateTime,
+                event.description, event.location, event.isPrivate, result.isAllDay);
+      } catch (IllegalArgumentException e) {
+        report.reject(row, e.getMessage());
+      }
+    }
+    return events;
+  }
+
+  /**
+   * Rejects every event that overlaps an event of the batch starting before it, in one sweep over
+   * the events sorted by start that keeps the latest end seen so far. An event starting before
+   * that end overlaps the event it belongs to.
+   *
+   * @param events the events of the batch, by row, with null for the rejected rows.
+   * @param report the report to reject the overlapping rows in.
+   */
+  static void rejectOverlapping(CalendarEntry[] events, Report report) {
+    long[] starts = new long[events.length];
+    long[] ends = new long[events.length];
+    List<Integer> order = new ArrayList<>(events.length);
+    for (int row = 0; row < events.length; row++) {
+      if (events[row] != null) {
+        starts[row] = events[row].getStartDateTime().toEpochSecond();
+        ends[row] = events[row].getEndDateTime().toEpochSecond();
+        order.add(row);
+      }
+    }
+    order.sort(Comparator.comparingLong(row -> starts[row]));
+    long latestEnd = Long.MIN_VALUE;
+    for (int row : order) {
+      if (starts[row] < latestEnd) {
+        report.reject(row, "Conflict detected with another event of the batch, Event not Created");
+      }
+      latestEnd = Math.max(latestEnd, ends[row]);
+    }
+  }
+
+  /**
+   * A single event of the batch.
+   */
+  static final class Row {
+    final String name;
+    final String startDateTime;
+    final String endDateTime;
+    final LocalDateTime parsedStart;
+    final LocalDateTime parsedEnd;
+    final String description;
+    final String location;
+    final boolean isPrivate;
+
+    private Row(
+            String name,
+            String startDateTime,
+            String endDateTime,
+            String description,
+            String location,
+            boolean isPrivate) {
+      this.name = name;
+      this.startDateTime = startDateTime;
+      this.endDateTime = endDateTime;
+      this.parsedStart = null;
+      this.parsedEnd = null;
+      this.description = description;
+      this.location = location;
+      this.isPrivate = isPrivate;
+    }
+
+    private Row(
+            String name,
+            LocalDateTime parsedStart,
+            LocalDateTime parsedEnd,
+            String description,
+            String location,
+            boolean isPrivate) {
+      this.name = name;
+      this.startDateTime = null;
+      this.endDateTime = null;
+      this.parsedStart = parsedStart;
+      this.parsedEnd = parsedEnd;
+      this.description = description;
+      this.location = location;
+      this.isPrivate = isPrivate;
+    }
+
+    /**
+     * Checks if the date times of the event were already parsed.
+     */
+    boolean isParsed() {
+      return parsedStart != null;
+    }
+  }
+
+  /**
+   * The outcome of adding every event of a batch to a calendar.
+   */
+  public static final class Report {
+
+    private final String[] errors;
+    private int addedCount;
+    private boolean rolledBack;
+
+    /**
+     * Creates a report for a batch of the given size in which every event was added.
+     *
+     * @param size the number of events in the batch.
+     */
+    public Report(int size) {
+      this.errors = new String[size];
+      this.addedCount = size;
+    }
+
+    /**
+     * Records that the event at the given position of the batch was not added.
+     */
+    void reject(int row, String error) {
+      if (errors[row] == null) {
+        addedCount--;
+      }
+      errors[row] = error;
+    }
+
+    /**
+     * Records that none of the events of an all-or-nothing batch were added, because some of them
+     * failed. The events that failed keep their errors.
+     */
+    void rollBack() {
+      rolledBack = true;
+      addedCount = 0;
+    }
+
+    /**
+     * Gets the number of events in the batch.
+     *
+     * @return the number of events.
+     */
+    public int size() {
+      return errors.length;
+    }
+
+    /**
+     * Checks if an all-or-nothing batch was not added because some of its events failed.
+     *
+     * @return true if the batch was rolled back, false otherwise.
+     */
+    public boolean isRolledBack() {
+      return rolledBack;
+    }
+
+    /**
+     * Gets the number of events of the batch that were added.
+     *
+     * @return the number of added events.
+     */
+    public int getAddedCount() {
+      return addedCount;
+    }
+
+    /**
+     * Checks if the event at the given position of the batch was added.
+     *
+     * @param row the position of the event in the batch.
+     *
+     * @return true if the event was added, false otherwise.
+     */
+    public boolean isAdded(int row) {
+      return !rolledBack && errors[row] == null;
+    }
+
+    /**
+     * Gets why the event at the given position of the batch was not added.
+     *
+     * @param row the position of the event in the batch.
+     *
+     * @return the error message, or null if the event was added or only rolled back with the
+     *         rest of the batch.
+     */
+    public String getError(int row) {
+      return errors[row];
+    }
+  }
+}
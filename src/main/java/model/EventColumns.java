@@ -0,0 +1,480 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The single events of a calendar kept as columns of primitives instead of as objects. Every
+ * event takes a slot, and the slot holds its start and end in epoch seconds, its name, description
+ * and location as ids into a dictionary of strings, and its flags in a byte. Slots are handed out
+ * in order and never reused until the columns are compacted, so the order of the slots is the order
+ * the events were added in.
+ *
+ * <p>A slot can also stand in for an entry that is kept elsewhere, such as a recurring event, so
+ * that entries of both kinds share one order. Such slots are not indexed by time or name.
+ *
+ * <p>Whether an event is all day depends on the time zone it is seen in. The flag of a slot only
+ * holds for the time zone it was written in, so the columns remember which slots were written
+ * since the time zone last changed, and the flag of any other slot has to be worked out again.
+ *
+ * <p>Events are indexed by the UTC day they start on and by name. The indexes only ever grow
+ * between compactions, so every lookup checks that a slot still belongs where it was found.
+ */
+class EventColumns {
+
+  private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+  private static final int INITIAL_CAPACITY = 16;
+
+  /**
+   * The number of dead slots kept before compacting is worth the copy.
+   */
+  private static final int MIN_DEAD_TO_COMPACT = 1024;
+
+  private static final byte LIVE = 1;
+  private static final byte PRIVATE = 1 << 1;
+  private static final byte ALL_DAY = 1 << 2;
+  private static final byte PLACEHOLDER = 1 << 3;
+
+  private long[] startEpochSec;
+  private long[] endEpochSec;
+  private int[] nameIds;
+  private int[] descriptionIds;
+  private int[] locationIds;
+  private byte[] flags;
+  private int size;
+  private int liveCount;
+
+  /**
+   * The slots whose all day flag was written in the current time zone.
+   */
+  private BitSet allDayInZone;
+
+  /**
+   * The strings of the events, by id. Null is kept as the id -1.
+   */
+  private final List<String> strings;
+  private final Map<String, Integer> stringIds;
+
+  /**
+   * The slots of the events by the UTC day they start on.
+   */
+  private final Map<Long, IntList> slotsByDay;
+
+  /**
+   * The slots of the events by the id of their name.
+   */
+  private final Map<Integer, IntList> slotsByName;
+
+  /**
+   * The longest an event has lasted since the last compaction, so that a lookup knows how many
+   * days before a range to look at.
+   */
+  private long maxDuration;
+
+  /**
+   * Constructs empty columns.
+   */
+  EventColumns() {
+    this.startEpochSec = new long[INITIAL_CAPACITY];
+    this.endEpochSec = new long[INITIAL_CAPACITY];
+    this.nameIds = new int[INITIAL_CAPACITY];
+    this.descriptionIds = new int[INITIAL_CAPACITY];
+    this.locationIds = new int[INITIAL_CAPACITY];
+    this.flags = new byte[INITIAL_CAPACITY];
+    this.allDayInZone = new BitSet();
+    this.strings = new ArrayList<>();
+    this.stringIds = new HashMap<>();
+    this.slotsByDay = new HashMap<>();
+    this.slotsByName = new HashMap<>();
+  }
+
+  /**
+   * Adds an event in a new slot after every other slot.
+   *
+   * @return the slot of the event.
+   */
+  int add(
+          long start,
+          long end,
+          String name,
+          String description,
+          String location,
+          boolean isPrivate,
+          boolean isAllDay) {
+    int slot = newSlot();
+    write(slot, start, end, name, description, location, isPrivate, isAllDay);
+    return slot;
+  }
+
+  /**
+   * Adds a slot that stands in for an entry kept elsewhere, after every other slot.
+   *
+   * @return the slot.
+   */
+  int addPlaceholder() {
+    int slot = newSlot();
+    flags[slot] = LIVE | PLACEHOLDER;
+    nameIds[slot] = -1;
+    descriptionIds[slot] = -1;
+    locationIds[slot] = -1;
+    return slot;
+  }
+
+  /**
+   * Replaces the event in the given slot, keeping its place in the order.
+   */
+  void set(
+          int slot,
+          long start,
+          long end,
+          String name,
+          String description,
+          String location,
+          boolean isPrivate,
+          boolean isAllDay) {
+    long oldDay = dayOf(startEpochSec[slot]);
+    int oldName = nameIds[slot];
+    write(slot, start, end, name, description, location, isPrivate, isAllDay);
+    if (dayOf(start) == oldDay) {
+      // Already indexed under this day, so indexing it again would only list it twice
+      slotsByDay.get(oldDay).removeLast(slot);
+    }
+    if (nameIds[slot] == oldName && oldName != -1) {
+      slotsByName.get(oldName).removeLast(slot);
+    }
+  }
+
+  /**
+   * Frees the given slot. The slot keeps its place and its event until the columns are compacted.
+   */
+  void remove(int slot) {
+    flags[slot] &= ~LIVE;
+    liveCount--;
+  }
+
+  /**
+   * Gives back the event of a slot freed since the columns were last compacted.
+   */
+  void restore(int slot) {
+    flags[slot] |= LIVE;
+    liveCount++;
+  }
+
+  /**
+   * Gets the number of slots handed out since the last compaction, live or not.
+   */
+  int size() {
+    return size;
+  }
+
+  boolean isLive(int slot) {
+    return (flags[slot] & LIVE) != 0;
+  }
+
+  boolean isPlaceholder(int slot) {
+    return (flags[slot] & PLACEHOLDER) != 0;
+  }
+
+  long getStart(int slot) {
+    return startEpochSec[slot];
+  }
+
+  long getEnd(int slot) {
+    return endEpochSec[slot];
+  }
+
+  String getName(int slot) {
+    return stringOf(nameIds[slot]);
+  }
+
+  String getDescription(int slot) {
+    return stringOf(descriptionIds[slot]);
+  }
+
+  String getLocation(int slot) {
+    return stringOf(locationIds[slot]);
+  }
+
+  boolean isPrivate(int slot) {
+    return (flags[slot] & PRIVATE) != 0;
+  }
+
+  boolean isAllDay(int slot) {
+    return (flags[slot] & ALL_DAY) != 0;
+  }
+
+  /**
+   * Checks if the all day flag of the given slot was written in the current time zone.
+   *
+   * @param slot the slot of the event.
+   *
+   * @return true if the flag holds, false if it has to be worked out again.
+   */
+  boolean isAllDayInZone(int slot) {
+    return allDayInZone.get(slot);
+  }
+
+  /**
+   * Forgets which all day flags were written in the current time zone. Called when the time zone
+   * changes, without going through the slots.
+   */
+  void forgetAllDayFlags() {
+    allDayInZone = new BitSet();
+  }
+
+  /**
+   * Gets the live events that overlap the given range or touch it at either end, in slot order.
+   *
+   * @param from the start of the range in epoch seconds.
+   * @param to   the end of the range in epoch seconds, not before the start.
+   *
+   * @return the slots of the events.
+   */
+  int[] findOverlapping(long from, long to) {
+    IntList found = new IntList();
+    long firstDay = dayOf(from - maxDuration);
+    long lastDay = dayOf(to);
+    if (lastDay - firstDay < slotsByDay.size()) {
+      for (long day = firstDay; day <= lastDay; day++) {
+        collectOverlapping(slotsByDay.get(day), day, from, to, found);
+      }
+    } else {
+      for (Map.Entry<Long, IntList> entry : slotsByDay.entrySet()) {
+        collectOverlapping(entry.getValue(), entry.getKey(), from, to, found);
+      }
+    }
+    return found.toSortedSet();
+  }
+
+  /**
+   * Checks if any live event overlaps the range from the given start to the given end, the same
+   * way two events are checked for a conflict: an event that only touches the range does not
+   * overlap it.
+   *
+   * @param from the start of the range in epoch seconds.
+   * @param to   the end of the range in epoch seconds.
+   *
+   * @return true if an event overlaps the range, false otherwise.
+   */
+  boolean anyOverlapping(long from, long to) {
+    long firstDay = dayOf(Math.min(from, to) - maxDuration);
+    long lastDay = dayOf(Math.max(from, to));
+    if (lastDay - firstDay < slotsByDay.size()) {
+      for (long day = firstDay; day <= lastDay; day++) {
+        if (anyOverlapping(slotsByDay.get(day), day, from, to)) {
+          return true;
+        }
+      }
+    } else {
+      for (Map.Entry<Long, IntList> entry : slotsByDay.entrySet()) {
+        if (anyOverlapping(entry.getValue(), entry.getKey(), from, to)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the live events with the given name, in slot order.
+   *
+   * @param name the name of the events.
+   *
+   * @return the slots of the events.
+   */
+  int[] findByName(String name) {
+    Integer nameId = stringIds.get(name);
+    IntList slots = nameId == null ? null : slotsByName.get(nameId);
+    if (slots == null) {
+      return new int[0];
+    }
+    IntList found = new IntList();
+    for (int i = 0; i < slots.size; i++) {
+      int slot = slots.values[i];
+      if (isLive(slot) && nameIds[slot] == nameId) {
+        found.add(slot);
+      }
+    }
+    return found.toSortedSet();
+  }
+
+  /**
+   * Checks if enough slots were freed that compacting the columns is worth it.
+   */
+  boolean isSparse() {
+    int dead = size - liveCount;
+    return dead >= MIN_DEAD_TO_COMPACT && dead > liveCount;
+  }
+
+  /**
+   * Moves the live slots to the front, keeping their order, and rebuilds the indexes.
+   *
+   * @return the new slot of every old slot, or -1 for the slots that were freed.
+   */
+  int[] compact() {
+    int[] moved = new int[size];
+    int next = 0;
+    for (int slot = 0; slot < size; slot++) {
+      if (!isLive(slot)) {
+        moved[slot] = -1;
+        continue;
+      }
+      moved[slot] = next;
+      startEpochSec[next] = startEpochSec[slot];
+      endEpochSec[next] = endEpochSec[slot];
+      nameIds[next] = nameIds[slot];
+      descriptionIds[next] = descriptionIds[slot];
+      locationIds[next] = locationIds[slot];
+      flags[next] = flags[slot];
+      allDayInZone.set(next, allDayInZone.get(slot));
+      next++;
+    }
+    allDayInZone.clear(next, size);
+    size = next;
+
+    slotsByDay.clear();
+    slotsByName.clear();
+    maxDuration = 0;
+    for (int slot = 0; slot < size; slot++) {
+      if (!isPlaceholder(slot)) {
+        index(slot);
+      }
+    }
+    return moved;
+  }
+
+  private int newSlot() {
+    if (size == flags.length) {
+      int capacity = 2 * size;
+      startEpochSec = Arrays.copyOf(startEpochSec, capacity);
+      endEpochSec = Arrays.copyOf(endEpochSec, capacity);
+      nameIds = Arrays.copyOf(nameIds, capacity);
+      descriptionIds = Arrays.copyOf(descriptionIds, capacity);
+      locationIds = Arrays.copyOf(locationIds, capacity);
+      flags = Arrays.copyOf(flags, capacity);
+    }
+    liveCount++;
+    return size++;
+  }
+
+  private void write(
+          int slot,
+          long start,
+          long end,
+          String name,
+          String description,
+          String location,
+          boolean isPrivate,
+          boolean isAllDay) {
+    startEpochSec[slot] = start;
+    endEpochSec[slot] = end;
+    nameIds[slot] = idOf(name);
+    descriptionIds[slot] = idOf(description);
+    locationIds[slot] = idOf(location);
+    flags[slot] = (byte) (LIVE | (isPrivate ? PRIVATE : 0) | (isAllDay ? ALL_DAY : 0));
+    allDayInZone.set(slot);
+    index(slot);
+  }
+
+  private void index(int slot) {
+    slotsByDay.computeIfAbsent(dayOf(startEpochSec[slot]), day -> new IntList()).add(slot);
+    if (nameIds[slot] != -1) {
+      slotsByName.computeIfAbsent(nameIds[slot], name -> new IntList()).add(slot);
+    }
+    maxDuration = Math.max(maxDuration, endEpochSec[slot] - startEpochSec[slot]);
+  }
+
+  private void collectOverlapping(IntList slots, long day, long from, long to, IntList found) {
+    if (slots == null) {
+      return;
+    }
+    for (int i = 0; i < slots.size; i++) {
+      int slot = slots.values[i];
+      if ((flags[slot] & LIVE) != 0
+              && startEpochSec[slot] <= to
+              && endEpochSec[slot] >= from
+              && dayOf(startEpochSec[slot]) == day) {
+        found.add(slot);
+      }
+    }
+  }
+
+  private boolean anyOverlapping(IntList slots, long day, long from, long to) {
+    if (slots == null) {
+      return false;
+    }
+    for (int i = 0; i < slots.size; i++) {
+      int slot = slots.values[i];
+      if ((flags[slot] & LIVE) != 0
+              && startEpochSec[slot] < to
+              && endEpochSec[slot] > from
+              && dayOf(startEpochSec[slot]) == day) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int idOf(String string) {
+    if (string == null) {
+      return -1;
+    }
+    Integer id = stringIds.get(string);
+    if (id == null) {
+      id = strings.size();
+      strings.add(string);
+      stringIds.put(string, id);
+    }
+    return id;
+  }
+
+  private String stringOf(int id) {
+    return id == -1 ? null : strings.get(id);
+  }
+
+  private static long dayOf(long epochSecond) {
+    return Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+  }
+
+  /**
+   * A growable list of ints, so that the indexes do not box every slot.
+   */
+  private static final class IntList {
+
+    private int[] values = new int[4];
+    private int size;
+
+    void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, 2 * size);
+      }
+      values[size++] = value;
+    }
+
+    void removeLast(int value) {
+      if (size > 0 && values[size - 1] == value) {
+        size--;
+      }
+    }
+
+    /**
+     * Gets the values sorted and without repeats. A slot moved away from a day and back again is
+     * listed under that day twice.
+     */
+    int[] toSortedSet() {
+      int[] sorted = Arrays.copyOf(values, size);
+      Arrays.sort(sorted);
+      int count = 0;
+      for (int i = 0; i < sorted.length; i++) {
+        if (count == 0 || sorted[count - 1] != sorted[i]) {
+          sorted[count++] = sorted[i];
+        }
+      }
+      return count == sorted.length ? sorted : Arrays.copyOf(sorted, count);
+    }
+  }
+}
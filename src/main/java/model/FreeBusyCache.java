@@ -0,0 +1,167 @@
+package model;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import model.calendarentry.CalendarEntry;
+import model.calendarentry.EventView;
+
+/**
+ * A cache of the busy times of a single calendar, kept per UTC day. The busy times of a day are
+ * built the first time the day is asked about, from the events the interval tree finds for it,
+ * and are kept as a sorted array of disjoint intervals, so that asking whether a time is busy is a
+ * binary search. Days are keyed on instants, so moving the calendar to another time zone keeps the
+ * cache valid, but any other change to the events of the calendar must clear it. Days are built
+ * on reads, so the days are kept in a concurrent map to let several readers of a locked calendar
+ * ask about days at the same time.
+ *
+ * <p>Busy intervals are open: an event that ends when another starts does not make that moment
+ * busy, and only intervals that overlap are merged. Every interval is kept whole in every day it
+ * overlaps, so an event running past midnight is still found at midnight.
+ */
+class FreeBusyCache {
+
+  private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+
+  /**
+   * The number of days a range can span and still be answered from the cache. Longer ranges are
+   * better answered by the interval tree directly than by building every day they cover.
+   */
+  private static final long MAX_RANGE_DAYS = 31;
+
+  /**
+   * The number of days kept before the cache starts over, so polling ever new days cannot grow it
+   * without bound.
+   */
+  private static final int MAX_CACHED_DAYS = 4096;
+
+  private final EntryIntervalTree eventIndex;
+
+  /**
+   * The busy intervals of every cached day as pairs of start and end epoch seconds, sorted.
+   */
+  private final Map<Long, long[]> busyByDay;
+
+  /**
+   * Constructs an empty cache over the events of the given interval tree.
+   *
+   * @param eventIndex the index of the events of the calendar.
+   */
+  FreeBusyCache(EntryIntervalTree eventIndex) {
+    this.eventIndex = eventIndex;
+    this.busyByDay = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Checks if the cache can answer for the given range without building too many days.
+   *
+   * @param from the start of the range in epoch seconds.
+   * @param to   the end of the range in epoch seconds.
+   *
+   * @return true if the range spans few enough days, false otherwise.
+   */
+  boolean canAnswer(long from, long to) {
+    return dayOf(Math.max(from, to)) - dayOf(Math.min(from, to)) < MAX_RANGE_DAYS;
+  }
+
+  /**
+   * Checks if any event overlaps the given range, the same way two events are checked for a
+   * conflict.
+   *
+   * @param from the start of the range in epoch seconds.
+   * @param to   the end of the range in epoch seconds.
+   *
+   * @return true if the calendar is busy in the range, false otherwise.
+   */
+  boolean isBusy(long from, long to) {
+    long lastDay = dayOf(Math.max(from, to));
+    for (long day = dayOf(Math.min(from, to)); day <= lastDay; day++) {
+      if (overlaps(busyOn(day), from, to)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Forgets the busy times of every day. Called whenever the events of the calendar change.
+   */
+  void clear() {
+    busyByDay.clear();
+  }
+
+  private long[] busyOn(long day) {
+    long[] busy = busyByDay.get(day);
+    if (busy == null) {
+      if (busyByDay.size() >= MAX_CACHED_DAYS) {
+        busyByDay.clear();
+      }
+      busy = build(day);
+      busyByDay.put(day, busy);
+    }
+    return busy;
+  }
+
+  /**
+   * Checks if any of the given intervals overlaps the range. The intervals are disjoint and sorted,
+   * so their ends are sorted too, and only the first interval ending after the range starts can
+   * overlap it.
+   */
+  private static boolean overlaps(long[] busy, long from, long to) {
+    int low = 0;
+    int high = busy.length / 2;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (busy[2 * middle + 1] > from) {
+        high = middle;
+      } else {
+        low = middle + 1;
+      }
+    }
+    return low < busy.length / 2 && busy[2 * low] < to;
+  }
+
+  /**
+   * Collects the occurrences that overlap the given day and merges the ones that overlap each
+   * other.
+   */
+  private long[] build(long day) {
+    long dayStart = day * SECONDS_PER_DAY;
+    long dayEnd = dayStart + SECONDS_PER_DAY;
+    ZonedDateTime start = Instant.ofEpochSecond(dayStart).atZone(ZoneOffset.UTC);
+    ZonedDateTime end = Instant.ofEpochSecond(dayEnd).atZone(ZoneOffset.UTC);
+
+    List<long[]> intervals = new ArrayList<>();
+    for (CalendarEntry entry : eventIndex.findOverlapping(dayStart, dayEnd)) {
+      for (EventView view : entry.getEventViews(start, end)) {
+        intervals.add(new long[]{view.getStart().getEpochSecond(),
+            view.getEnd().getEpochSecond()});
+      }
+    }
+    intervals.sort(Comparator.comparingLong(interval -> interval[0]));
+
+    long[] busy = new long[2 * intervals.size()];
+    int count = 0;
+    for (long[] interval : intervals) {
+      if (count > 0 && interval[0] < busy[2 * count - 1]) {
+        busy[2 * count - 1] = Math.max(busy[2 * count - 1], interval[1]);
+      } else {
+        busy[2 * count] = interval[0];
+        busy[2 * count + 1] = interval[1];
+        count++;
+      }
+    }
+    return count == intervals.size() ? busy : Arrays.copyOf(busy, 2 * count);
+  }
+
+  private static long dayOf(long epochSecond) {
+    return Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+  }
+}
@@ -0,0 +1,354 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A multi-calendar system whose calendars are kept on disk, so they survive the program stopping.
+ * It behaves like BasicCalendarModel, and records every change that succeeds, to the model or to
+ * any of its calendars, in a journal in the directory it was opened on. After a number of changes
+ * it writes a snapshot of every calendar and starts a new journal, so opening the model again only
+ * reads the latest snapshot and makes the changes recorded since then again. The time that takes
+ * is bounded by the number of changes between snapshots, however long the model has been used.
+ *
+ * <p>The snapshot and the journal that follows it share a generation number in their file names.
+ * A new snapshot is written whole before the journal of its generation is started, and the files
+ * of older generations are only deleted after that, so the directory always holds a snapshot and
+ * the changes made since.
+ *
+ * <p>A change is recorded after it was made, so the journal only holds changes that can be made
+ * again. The journal forces its records to disk in the background, every sync interval.
+ */
+public class JournaledCalendarModel implements CalendarModel, Closeable {
+
+  /**
+   * The number of changes after which a new snapshot is written, unless another is given.
+   */
+  public static final int DEFAULT_SNAPSHOT_INTERVAL = 10_000;
+
+  /**
+   * How often the journal is forced to disk, in milliseconds, unless another is given.
+   */
+  public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 100;
+
+  private static final Pattern FILE_NAME = Pattern.compile("(snapshot|journal)-(\\d+)\\.(snap|log)");
+
+  private static final String ADD_CALENDAR = "addCalendar";
+  private static final String EDIT_CALENDAR = "editCalendar";
+  private static final String USE_CALENDAR = "useCalendar";
+  private static final String COPY_SINGLE_EVENT = "copySingleEvent";
+  private static final String COPY_MULTIPLE_EVENTS_RANGE = "copyMultipleEventsRange";
+  private static final String COPY_MULTIPLE_EVENTS_ON_DAY = "copyMultipleEventsOnDay";
+
+  private final Path directory;
+  private final int snapshotInterval;
+  private final long syncIntervalMillis;
+  private final Map<String, JournaledSingleCalendar> calendars;
+  private BasicCalendarModel model;
+  private JournaledSingleCalendar currentCalendar;
+  private CalendarJournal journal;
+  private long generation;
+  private int changesSinceSnapshot;
+
+  /**
+   * Opens the calendars kept in the given directory, creating the directory with a default
+   * calendar in the system's default time zone if it does not exist, like BasicCalendarModel.
+   *
+   * @param directory the directory the calendars are kept in.
+   *
+   * @throws IOException if the calendars cannot be read, or the directory cannot be written to.
+   */
+  public JournaledCalendarModel(Path directory) throws IOException {
+    this(directory, DEFAULT_SNAPSHOT_INTERVAL, DEFAULT_SYNC_INTERVAL_MILLIS);
+  }
+
+  /**
+   * Opens the calendars kept in the given directory, writing a snapshot after the given number of
+   * changes and forcing the journal to disk at the given interval.
+   *
+   * @param directory          the directory the calendars are kept in.
+   * @param snapshotInterval   the number of changes after which a new snapshot is written.
+   * @param syncIntervalMillis how often the journal is forced to disk, in milliseconds, or zero to
+   *                           force every change to disk before it returns.
+   *
+   * @throws IOException if the calendars cannot be read, or the directory cannot be written to.
+   */
+  public JournaledCalendarModel(Path directory, int snapshotInterval, long syncIntervalMillis)
+          throws IOException {
+    if (snapshotInterval <= 0) {
+      throw new IllegalArgumentException("Snapshot interval must be positive");
+    }
+    if (syncIntervalMillis < 0) {
+      throw new IllegalArgumentException("Sync interval cannot be negative");
+    }
+    this.directory = directory;
+    this.snapshotInterval = snapshotInterval;
+    this.syncIntervalMillis = syncIntervalMillis;
+    this.calendars = new HashMap<>();
+    Files.createDirectories(directory);
+
+    long latest = latestSnapshot();
+    if (latest < 0) {
+      this.model = new BasicCalendarModel();
+      this.generation = 0;
+      CalendarSnapshot.write(model, snapshotFile(generation));
+    } else {
+      this.model = CalendarSnapshot.read(snapshotFile(latest));
+      this.generation = latest;
+    }
+
+    Path journalFile = journalFile(generation);
+    long length = 0;
+    if (Files.exists(journalFile)) {
+      try {
+        length = CalendarJournal.replay(journalFile, this::replay);
+      } catch (RuntimeException e) {
+        throw new IOException("Cannot replay the journal " + journalFile, e);
+      }
+    }
+    this.journal = new CalendarJournal(journalFile, length, syncIntervalMillis);
+    deleteOlderGenerations();
+
+    for (String name : model.getAllCalendars().keySet()) {
+      calendars.put(name, new JournaledSingleCalendar(model.getCalendar(name), name, this));
+    }
+    this.currentCalendar = calendars.get(model.getCurrentCalendarName());
+    if (changesSinceSnapshot >= snapshotInterval) {
+      snapshot();
+    }
+  }
+
+  @Override
+  public void addCalendar(String calendarName, String timeZone) {
+    addCalendar(calendarName, timeZone, CalendarStorage.OBJECTS);
+  }
+
+  /**
+   * Adds a new calendar to the system that keeps its events the given way.
+   *
+   * @param calendarName the name of the new calendar.
+   * @param timeZone     the time zone of the new calendar.
+   * @param storage      the way the calendar keeps its events.
+   */
+  public void addCalendar(String calendarName, String timeZone, CalendarStorage storage) {
+    model.addCalendar(calendarName, timeZone, storage);
+    calendars.put(calendarName, new JournaledSingleCalendar(
+            model.getCalendar(calendarName), calendarName, this));
+    record(ADD_CALENDAR, calendarName, timeZone, storage.name());
+  }
+
+  @Override
+  public void editCalendar(String calendarName, String property, String value) {
+    model.editCalendar(calendarName, property, value);
+    if (property.equals("name")) {
+      JournaledSingleCalendar calendar = calendars.remove(calendarName);
+      calendar.rename(value);
+      calendars.put(value, calendar);
+    }
+    record(EDIT_CALENDAR, calendarName, property, value);
+  }
+
+  @Override
+  public void useCalendar(String calendarName) {
+    model.useCalendar(calendarName);
+    currentCalendar = calendars.get(calendarName);
+    record(USE_CALENDAR, calendarName);
+  }
+
+  @Override
+  public void copySingleEvent(
+          String eventName,
+          String targetCalendarName,
+          String sourceDateTime,
+          String targetDateTime,
+          boolean autoDecline) {
+    model.copySingleEvent(
+            eventName, targetCalendarName, sourceDateTime, targetDateTime, autoDecline);
+    record(COPY_SINGLE_EVENT, eventName, targetCalendarName, sourceDateTime, targetDateTime,
+            String.valueOf(autoDecline));
+  }
+
+  @Override
+  public void copyMultipleEventsRange(
+          String targetCalendarName,
+          String rangeStartDate,
+          String rangeEndDate,
+          String targetDate,
+          boolean autoDecline) {
+    model.copyMultipleEventsRange(
+            targetCalendarName, rangeStartDate, rangeEndDate, targetDate, autoDecline);
+    record(COPY_MULTIPLE_EVENTS_RANGE, targetCalendarName, rangeStartDate, rangeEndDate,
+            targetDate, String.valueOf(autoDecline));
+  }
+
+  @Override
+  public void copyMultipleEventsOnDay(
+          String targetCalendarName,
+          String rangeStartDate,
+          String targetDate,
+          boolean autoDecline) {
+    model.copyMultipleEventsOnDay(targetCalendarName, rangeStartDate, targetDate, autoDecline);
+    record(COPY_MULTIPLE_EVENTS_ON_DAY, targetCalendarName, rangeStartDate, targetDate,
+            String.valueOf(autoDecline));
+  }
+
+  /**
+   * Gets the current calendar. Changes made to it are recorded in the journal.
+   *
+   * @return the instance of the current calendar.
+   */
+  @Override
+  public SingleCalendar getCurrentCalendar() {
+    return currentCalendar;
+  }
+
+  @Override
+  public Map<String, String> getAllCalendars() {
+    return model.getAllCalendars();
+  }
+
+  @Override
+  public String getCurrentCalendarName() {
+    return model.getCurrentCalendarName();
+  }
+
+  /**
+   * Writes a snapshot of every calendar and starts a new journal after it, then deletes the
+   * files of the older generation. Called after every snapshot interval of changes, and can be
+   * called at any other time, such as before a planned shutdown, to make the next start faster.
+   *
+   * @throws IOException if the snapshot cannot be written.
+   */
+  public void snapshot() throws IOException {
+    long next = generation + 1;
+    journal.sync();
+    CalendarSnapshot.write(model, snapshotFile(next));
+    CalendarJournal nextJournal = new CalendarJournal(journalFile(next), 0, syncIntervalMillis);
+    CalendarJournal previousJournal = journal;
+    journal = nextJournal;
+    generation = next;
+    changesSinceSnapshot = 0;
+    previousJournal.close();
+    deleteOlderGenerations();
+  }
+
+  /**
+   * Forces the journal to disk and closes it. The model must not be changed after it is closed.
+   *
+   * @throws IOException if the journal cannot be forced to disk.
+   */
+  @Override
+  public void close() throws IOException {
+    journal.close();
+  }
+
+  /**
+   * Records a change that succeeded, and writes a snapshot if enough changes were made since the
+   * last one.
+   *
+   * @param fields the name of the change and its arguments.
+   *
+   * @throws UncheckedIOException if the change cannot be written to the journal.
+   */
+  void record(String... fields) {
+    try {
+      journal.append(Arrays.asList(fields));
+      changesSinceSnapshot++;
+      if (changesSinceSnapshot >= snapshotInterval) {
+        snapshot();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot write to the journal in " + directory, e);
+    }
+  }
+
+  /**
+   * Makes a recorded change again, while the model is opened.
+   *
+   * @param record the record of the change.
+   */
+  private void replay(List<String> record) {
+    changesSinceSnapshot++;
+    switch (record.get(0)) {
+      case ADD_CALENDAR:
+        model.addCalendar(record.get(1), record.get(2), CalendarStorage.valueOf(record.get(3)));
+        break;
+      case EDIT_CALENDAR:
+        model.editCalendar(record.get(1), record.get(2), record.get(3));
+        break;
+      case USE_CALENDAR:
+        model.useCalendar(record.get(1));
+        break;
+      case COPY_SINGLE_EVENT:
+        model.copySingleEvent(record.get(1), record.get(2), record.get(3), record.get(4),
+                Boolean.parseBoolean(record.get(5)));
+        break;
+      case COPY_MULTIPLE_EVENTS_RANGE:
+        model.copyMultipleEventsRange(record.get(1), record.get(2), record.get(3),
+                record.get(4), Boolean.parseBoolean(record.get(5)));
+        break;
+      case COPY_MULTIPLE_EVENTS_ON_DAY:
+        model.copyMultipleEventsOnDay(record.get(1), record.get(2), record.get(3),
+                Boolean.parseBoolean(record.get(4)));
+        break;
+      default:
+        SingleCalendar calendar = model.getCalendar(JournaledSingleCalendar.calendarOf(record));
+        if (!JournaledSingleCalendar.replay(calendar, record)) {
+          throw new IllegalArgumentException("Unknown journal record: " + record.get(0));
+        }
+    }
+  }
+
+  /**
+   * Gets the generation of the latest snapshot in the directory.
+   *
+   * @return the generation, or -1 if there is no snapshot.
+   */
+  private long latestSnapshot() throws IOException {
+    long latest = -1;
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+        if (matcher.matches() && matcher.group(1).equals("snapshot")) {
+          latest = Math.max(latest, Long.parseLong(matcher.group(2)));
+        }
+      }
+    }
+    return latest;
+  }
+
+  /**
+   * Deletes the snapshots and journals of older generations, and snapshots that were not written
+   * whole.
+   */
+  private void deleteOlderGenerations() throws IOException {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        String fileName = file.getFileName().toString();
+        Matcher matcher = FILE_NAME.matcher(fileName);
+        if ((matcher.matches() && Long.parseLong(matcher.group(2)) < generation)
+                || (fileName.startsWith("snapshot-") && fileName.endsWith(".tmp"))) {
+          Files.delete(file);
+        }
+      }
+    }
+  }
+
+  private Path snapshotFile(long generation) {
+    return directory.resolve("snapshot-" + generation + ".snap");
+  }
+
+  private Path journalFile(long generation) {
+    return directory.resolve("journal-" + generation + ".log");
+  }
+}
@@ -0,0 +1,454 @@
+package model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import model.calendarentry.CalendarEntry;
+import model.calendarentry.EventView;
+
+/**
+ * A single calendar whose changes are written to the journal of a JournaledCalendarModel. It
+ * wraps a calendar of the model, and every change that succeeds on the wrapped calendar is
+ * recorded with the name of the calendar and the arguments it was made with, so that making the
+ * recorded changes again, in order, gives back the same calendar. Queries are not recorded.
+ */
+class JournaledSingleCalendar extends SingleCalendar {
+
+  private static final String ADD_SINGLE_EVENT = "addSingleEvent";
+  private static final String ADD_SINGLE_EVENTS = "addSingleEvents";
+  private static final String ADD_SINGLE_EVENT_ALL_DAY = "addSingleEventAllDay";
+  private static final String ADD_RECURRING_EVENT_UNTIL = "addRecurringEventUntil";
+  private static final String ADD_RECURRING_EVENT_FREQUENCY = "addRecurringEventFrequency";
+  private static final String ADD_RECURRING_ALL_DAY_EVENT_UNTIL = "addRecurringAllDayEventUntil";
+  private static final String ADD_RECURRING_ALL_DAY_EVENT_FREQUENCY
+          = "addRecurringAllDayEventFrequency";
+  private static final String EDIT_SINGLE_EVENT = "editSingleEvent";
+  private static final String EDIT_MULTIPLE_EVENTS_FOLLOWING = "editMultipleEventsFollowing";
+  private static final String EDIT_MULTIPLE_EVENTS_ALL = "editMultipleEventsAll";
+  private static final String CHANGE_TIMEZONE = "changeTimezone";
+  private static final String ADD_EVENTS = "addEvents";
+
+  private static final int BATCH_ROW_FIELDS = 7;
+
+  private final SingleCalendar calendar;
+  private final JournaledCalendarModel journal;
+  private String name;
+
+  /**
+   * Constructs a journaled calendar around the given calendar of the model.
+   *
+   * @param calendar the calendar to record the changes of.
+   * @param name     the name of the calendar in the model.
+   * @param journal  the model whose journal the changes are written to.
+   */
+  JournaledSingleCalendar(SingleCalendar calendar, String name, JournaledCalendarModel journal) {
+    this.calendar = calendar;
+    this.name = name;
+    this.journal = journal;
+  }
+
+  /**
+   * Gives the calendar the name it was renamed to, which later records are made with.
+   *
+   * @param name the new name of the calendar.
+   */
+  void rename(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Makes a recorded change again on the given calendar.
+   *
+   * @param calendar the calendar the change was recorded on.
+   * @param record   the record of the change.
+   *
+   * @return true if the record was a change of a calendar, false if it was not.
+   */
+  static boolean replay(SingleCalendar calendar, List<String> record) {
+    List<String> args = record.subList(2, record.size());
+    switch (record.get(0)) {
+      case ADD_SINGLE_EVENT:
+        calendar.addSingleEvent(args.get(0), args.get(1), args.get(2), args.get(3), args.get(4),
+                flag(args.get(5)), flag(args.get(6)));
+        return true;
+      case ADD_SINGLE_EVENTS:
+        calendar.addSingleEvents(toBatch(args.subList(1, args.size())), flag(args.get(0)));
+        return true;
+      case ADD_SINGLE_EVENT_ALL_DAY:
+        calendar.addSingleEventAllDay(args.get(0), args.get(1), args.get(2), args.get(3),
+                flag(args.get(4)), flag(args.get(5)));
+        return true;
+      case ADD_RECURRING_EVENT_UNTIL:
+        calendar.addRecurringEventUntil(args.get(0), args.get(1), args.get(2), args.get(3),
+                args.get(4), args.get(5), args.get(6), flag(args.get(7)), flag(args.get(8)));
+        return true;
+      case ADD_RECURRING_EVENT_FREQUENCY:
+        calendar.addRecurringEventFrequency(args.get(0), args.get(1), args.get(2), args.get(3),
+                args.get(4), args.get(5), number(args.get(6)), flag(args.get(7)),
+                flag(args.get(8)));
+        return true;
+      case ADD_RECURRING_ALL_DAY_EVENT_UNTIL:
+        calendar.addRecurringAllDayEventUntil(args.get(0), args.get(1), args.get(2),
+                args.get(3), args.get(4), args.get(5), flag(args.get(6)), flag(args.get(7)));
+        return true;
+      case ADD_RECURRING_ALL_DAY_EVENT_FREQUENCY:
+        calendar.addRecurringAllDayEventFrequency(args.get(0), args.get(1), args.get(2),
+                args.get(3), args.get(4), number(args.get(5)), flag(args.get(6)),
+                flag(args.get(7)));
+        return true;
+      case EDIT_SINGLE_EVENT:
+        calendar.editSingleEvent(args.get(0), args.get(1), args.get(2), args.get(3), args.get(4),
+                flag(args.get(5)));
+        return true;
+      case EDIT_MULTIPLE_EVENTS_FOLLOWING:
+        calendar.editMultipleEventsFollowing(args.get(0), args.get(1), args.get(2), args.get(3),
+                flag(args.get(4)));
+        return true;
+      case EDIT_MULTIPLE_EVENTS_ALL:
+        calendar.editMultipleEventsAll(args.get(0), args.get(1), args.get(2), flag(args.get(3)));
+        return true;
+      case CHANGE_TIMEZONE:
+        calendar.changeTimezone(args.get(0));
+        return true;
+      case ADD_EVENTS:
+        calendar.addEvents(decodeEntries(args.get(1)), flag(args.get(0)));
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Gets the name of the calendar a record of a change of a calendar was made on.
+   */
+  static String calendarOf(List<String> record) {
+    return record.get(1);
+  }
+
+  @Override
+  public void addSingleEvent(
+          String name,
+          String startDateTime,
+          String endDateTime,
+          String description,
+          String location,
+          boolean autoDecline,
+          boolean isPrivate) {
+    calendar.addSingleEvent(
+            name, startDateTime, endDateTime, description, location, autoDecline, isPrivate);
+    record(ADD_SINGLE_EVENT, name, startDateTime, endDateTime, description, location,
+            String.valueOf(autoDecline), String.valueOf(isPrivate));
+  }
+
+  @Override
+  public EventBatch.Report addSingleEvents(EventBatch batch, boolean autoDecline) {
+    EventBatch.Report report = calendar.addSingleEvents(batch, autoDecline);
+    if (report.isRolledBack()) {
+      // nothing changed; a batch that was added as a whole replays the same without the flag
+      return report;
+    }
+    List<String> fields = new ArrayList<>();
+    fields.add(String.valueOf(autoDecline));
+    for (int row = 0; row < batch.size(); row++) {
+      EventBatch.Row event = batch.get(row);
+      fields.add(String.valueOf(event.isParsed()));
+      fields.add(event.name);
+      fields.add(event.isParsed() ? event.parsedStart.toString() : event.startDateTime);
+      fields.add(event.isParsed() ? toString(event.parsedEnd) : event.endDateTime);
+      fields.add(event.description);
+      fields.add(event.location);
+      fields.add(String.valueOf(event.isPrivate));
+    }
+    record(ADD_SINGLE_EVENTS, fields.toArray(new String[0]));
+    return report;
+  }
+
+  @Override
+  public void addSingleEventAllDay(
+          String name,
+          String startDate,
+          String description,
+          String location,
+          boolean autoDecline,
+          boolean isPrivate) {
+    calendar.addSingleEventAllDay(name, startDate, description, location, autoDecline, isPrivate);
+    record(ADD_SINGLE_EVENT_ALL_DAY, name, startDate, description, location,
+            String.valueOf(autoDecline), String.valueOf(isPrivate));
+  }
+
+  @Override
+  public void addRecurringEventUntil(
+          String name,
+          String startDateTime,
+          String endDateTime,
+          String description,
+          String location,
+          String weekDays,
+          String untilDateTime,
+          boolean autoDecline,
+          boolean isPrivate) {
+    calendar.addRecurringEventUntil(name, startDateTime, endDateTime, description, location,
+            weekDays, untilDateTime, autoDecline, isPrivate);
+    record(ADD_RECURRING_EVENT_UNTIL, name, startDateTime, endDateTime, description, location,
+            weekDays, untilDateTime, String.valueOf(autoDecline), String.valueOf(isPrivate));
+  }
+
+  @Override
+  public void addRecurringEventFrequency(
+          String name,
+          String startDateTime,
+          String endDateTime,
+          String description,
+          String location,
+          String weekDays,
+          Integer frequency,
+          boolean autoDecline,
+          boolean isPrivate) {
+    calendar.addRecurringEventFrequency(name, startDateTime, endDateTime, description, location,
+            weekDays, frequency, autoDecline, isPrivate);
+    record(ADD_RECURRING_EVENT_FREQUENCY, name, startDateTime, endDateTime, description,
+            location, weekDays, toString(frequency), String.valueOf(autoDecline),
+            String.valueOf(isPrivate));
+  }
+
+  @Override
+  public void addRecurringAllDayEventUntil(
+          String name,
+          String startDate,
+          String description,
+          String location,
+          String weekDays,
+          String untilDateTime,
+          boolean autoDecline,
+          boolean isPrivate) {
+    calendar.addRecurringAllDayEventUntil(name, startDate, description, location, weekDays,
+            untilDateTime, autoDecline, isPrivate);
+    record(ADD_RECURRING_ALL_DAY_EVENT_UNTIL, name, startDate, description, location, weekDays,
+            untilDateTime, String.valueOf(autoDecline), String.valueOf(isPrivate));
+  }
+
+  @Override
+  public void addRecurringAllDayEventFrequency(
+          String name,
+          String startDate,
+          String description,
+          String location,
+          String weekDays,
+          Integer frequency,
+          boolean autoDecline,
+          boolean isPrivate) {
+    calendar.addRecurringAllDayEventFrequency(name, startDate, description, location, weekDays,
+            frequency, autoDecline, isPrivate);
+    record(ADD_RECURRING_ALL_DAY_EVENT_FREQUENCY, name, startDate, description, location,
+            weekDays, toString(frequency), String.valueOf(autoDecline),
+            String.valueOf(isPrivate));
+  }
+
+  @Override
+  public void editSingleEvent(
+          String eventName,
+          String startDateTime,
+          String endDateTime,
+          String propertyName,
+          String propertyValue,
+          boolean autoDecline) {
+    calendar.editSingleEvent(
+            eventName, startDateTime, endDateTime, propertyName, propertyValue, autoDecline);
+    record(EDIT_SINGLE_EVENT, eventName, startDateTime, endDateTime, propertyName,
+            propertyValue, String.valueOf(autoDecline));
+  }
+
+  @Override
+  public void editMultipleEventsFollowing(
+          String eventName,
+          String startDateTime,
+          String propertyName,
+          String propertyValue,
+          boolean autoDecline) {
+    calendar.editMultipleEventsFollowing(
+            eventName, startDateTime, propertyName, propertyValue, autoDecline);
+    record(EDIT_MULTIPLE_EVENTS_FOLLOWING, eventName, startDateTime, propertyName,
+            propertyValue, String.valueOf(autoDecline));
+  }
+
+  @Override
+  public void editMultipleEventsAll(
+          String eventName,
+          String propertyName,
+          String propertyValue,
+          boolean autoDecline) {
+    calendar.editMultipleEventsAll(eventName, propertyName, propertyValue, autoDecline);
+    record(EDIT_MULTIPLE_EVENTS_ALL, eventName, propertyName, propertyValue,
+            String.valueOf(autoDecline));
+  }
+
+  @Override
+  public Map<String, String>[] getEventsRange(String startDateTime, String endDateTime) {
+    return calendar.getEventsRange(startDateTime, endDateTime);
+  }
+
+  @Override
+  public Map<String, String>[] getEventsOnDate(String startDate) {
+    return calendar.getEventsOnDate(startDate);
+  }
+
+  @Override
+  public List<EventView> getEventViewsRange(String startDateTime, String endDateTime) {
+    return calendar.getEventViewsRange(startDateTime, endDateTime);
+  }
+
+  @Override
+  public List<EventView> getEventViewsOnDate(String startDate) {
+    return calendar.getEventViewsOnDate(startDate);
+  }
+
+  @Override
+  public List<List<String>> getEventNamesInMonth(YearMonth month) {
+    return calendar.getEventNamesInMonth(month);
+  }
+
+  @Override
+  public Map<String, String>[] getAllEvents() {
+    return calendar.getAllEvents();
+  }
+
+  @Override
+  public List<EventView> getAllEventViews() {
+    return calendar.getAllEventViews();
+  }
+
+  @Override
+  public void forEachEventView(Consumer<EventView> action) {
+    calendar.forEachEventView(action);
+  }
+
+  @Override
+  public String getStatusOnDateTime(String startDateTime) {
+    return calendar.getStatusOnDateTime(startDateTime);
+  }
+
+  @Override
+  public String getStatusInRange(String rangeStartDateTime, String rangeEndDateTime) {
+    return calendar.getStatusInRange(rangeStartDateTime, rangeEndDateTime);
+  }
+
+  /**
+   * Changes the time zone of the calendar. The model changes the time zone of its calendars
+   * through editCalendar, which is recorded on its own, so only a change made straight on the
+   * calendar is recorded here.
+   */
+  @Override
+  public void changeTimezone(String newTimezone) {
+    calendar.changeTimezone(newTimezone);
+    record(CHANGE_TIMEZONE, newTimezone);
+  }
+
+  @Override
+  protected List<CalendarEntry> getCalendarEntriesWithinRange(String startDate, String endDate) {
+    return calendar.getCalendarEntriesWithinRange(startDate, endDate);
+  }
+
+  @Override
+  protected List<CalendarEntry> getCalendarEntriesOnDay(String startDate) {
+    return calendar.getCalendarEntriesOnDay(startDate);
+  }
+
+  @Override
+  protected CalendarEntry getEventWithStartDateTime(String eventName, String startDateTime) {
+    return calendar.getEventWithStartDateTime(eventName, startDateTime);
+  }
+
+  /**
+   * Adds the given entries to the calendar. The entries are recorded in their binary form, as
+   * they are not made from strings.
+   */
+  @Override
+  protected void addEvents(List<CalendarEntry> events, boolean autoDecline) {
+    String encoded = encodeEntries(events);
+    calendar.addEvents(events, autoDecline);
+    record(ADD_EVENTS, String.valueOf(autoDecline), encoded);
+  }
+
+  @Override
+  protected void forEachEntry(Consumer<CalendarEntry> action) {
+    calendar.forEachEntry(action);
+  }
+
+  @Override
+  public Map<String, String> getExactEvent(String eventName, String startDateTime) {
+    return calendar.getExactEvent(eventName, startDateTime);
+  }
+
+  private void record(String operation, String... args) {
+    String[] fields = new String[args.length + 2];
+    fields[0] = operation;
+    fields[1] = name;
+    System.arraycopy(args, 0, fields, 2, args.length);
+    journal.record(fields);
+  }
+
+  private static EventBatch toBatch(List<String> fields) {
+    EventBatch batch = new EventBatch();
+    for (int i = 0; i + BATCH_ROW_FIELDS <= fields.size(); i += BATCH_ROW_FIELDS) {
+      List<String> row = fields.subList(i, i + BATCH_ROW_FIELDS);
+      if (flag(row.get(0))) {
+        batch.add(row.get(1), LocalDateTime.parse(row.get(2)),
+                row.get(3) == null ? null : LocalDateTime.parse(row.get(3)),
+                row.get(4), row.get(5), flag(row.get(6)));
+      } else {
+        batch.add(row.get(1), row.get(2), row.get(3), row.get(4), row.get(5), flag(row.get(6)));
+      }
+    }
+    return batch;
+  }
+
+  private static String encodeEntries(List<CalendarEntry> entries) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(entries.size());
+      for (CalendarEntry entry : entries) {
+        entry.writeTo(out);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return Base64.getEncoder().encodeToString(bytes.toByteArray());
+  }
+
+  private static List<CalendarEntry> decodeEntries(String encoded) {
+    byte[] bytes = Base64.getDecoder().decode(encoded);
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+      int count = in.readInt();
+      List<CalendarEntry> entries = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        entries.add(CalendarEntry.readFrom(in));
+      }
+      return entries;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static boolean flag(String value) {
+    return Boolean.parseBoolean(value);
+  }
+
+  private static Integer number(String value) {
+    return value == null ? null : Integer.valueOf(value);
+  }
+
+  private static String toString(Object value) {
+    return value == null ? null : value.toString();
+  }
+}
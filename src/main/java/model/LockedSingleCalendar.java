@@ -0,0 +1,335 @@
+package model;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import model.calendarentry.CalendarEntry;
+import model.calendarentry.EventView;
+
+/**
+ * A single calendar that can be shared between threads. It wraps another calendar and guards it
+ * with a read/write lock, so any number of threads can query the calendar at once while changes
+ * to it are made by one thread at a time, with no readers in between. The lock is reentrant, so a
+ * thread that holds it can still call the calendar, which is how the model copies events between
+ * calendars it has locked.
+ *
+ * <p>Every locked calendar is given a number when it is made. Operations that lock more than one
+ * calendar lock them in the order of these numbers, so two such operations can never wait on each
+ * other.
+ */
+class LockedSingleCalendar extends SingleCalendar {
+
+  private static final AtomicLong NEXT_ORDER = new AtomicLong();
+
+  private final SingleCalendar calendar;
+  private final ReadWriteLock lock;
+  private final long order;
+
+  /**
+   * The time zone of the calendar, changed only under the write lock.
+   */
+  private volatile String timeZone;
+
+  /**
+   * Constructs a locked calendar around the given calendar. The given calendar must not be used
+   * other than through the locked calendar from then on.
+   *
+   * @param calendar the calendar to guard.
+   * @param timeZone the time zone of the calendar.
+   */
+  LockedSingleCalendar(SingleCalendar calendar, String timeZone) {
+    this.calendar = calendar;
+    this.lock = new ReentrantReadWriteLock();
+    this.order = NEXT_ORDER.getAndIncrement();
+    this.timeZone = timeZone;
+  }
+
+  /**
+   * Gets the time zone of the calendar.
+   *
+   * @return the time zone of the calendar.
+   */
+  String getTimeZone() {
+    return timeZone;
+  }
+
+  /**
+   * Gets the lock that guards queries of the calendar.
+   *
+   * @return the read lock of the calendar.
+   */
+  Lock readLock() {
+    return lock.readLock();
+  }
+
+  /**
+   * Gets the lock that guards changes to the calendar.
+   *
+   * @return the write lock of the calendar.
+   */
+  Lock writeLock() {
+    return lock.writeLock();
+  }
+
+  /**
+   * Gets the order the calendar is locked in when it is locked with other calendars.
+   *
+   * @return the order of the calendar.
+   */
+  long getOrder() {
+    return order;
+  }
+
+  @Override
+  public void addSingleEvent(
+          String name,
+          String startDateTime,
+          String endDateTime,
+          String description,
+          String location,
+          boolean autoDecline,
+          boolean isPrivate) {
+    write(() -> calendar.addSingleEvent(
+            name, startDateTime, endDateTime, description, location, autoDecline, isPrivate));
+  }
+
+  @Override
+  public EventBatch.Report addSingleEvents(EventBatch batch, boolean autoDecline) {
+    return write(() -> calendar.addSingleEvents(batch, autoDecline));
+  }
+
+  @Override
+  public void addSingleEventAllDay(
+          String name,
+          String startDate,
+          String description,
+          String location,
+          boolean autoDecline,
+          boolean isPrivate) {
+    write(() -> calendar.addSingleEventAllDay(
+            name, startDate, description, location, autoDecline, isPrivate));
+  }
+
+  @Override
+  public void addRecurringEventUntil(
+          String name,
+          String startDateTime,
+          String endDateTime,
+          String description,
+          String location,
+          String weekDays,
+          String untilDateTime,
+          boolean autoDecline,
+          boolean isPrivate) {
+    write(() -> calendar.addRecurringEventUntil(name, startDateTime, endDateTime, description,
+            location, weekDays, untilDateTime, autoDecline, isPrivate));
+  }
+
+  @Override
+  public void addRecurringEventFrequency(
+          String name,
+          String startDateTime,
+          String endDateTime,
+          String description,
+          String location,
+          String weekDays,
+          Integer frequency,
+          boolean autoDecline,
+          boolean isPrivate) {
+    write(() -> calendar.addRecurringEventFrequency(name, startDateTime, endDateTime, description,
+            location, weekDays, frequency, autoDecline, isPrivate));
+  }
+
+  @Override
+  public void addRecurringAllDayEventUntil(
+          String name,
+          String startDate,
+          String description,
+          String location,
+          String weekDays,
+          String untilDateTime,
+          boolean autoDecline,
+          boolean isPrivate) {
+    write(() -> calendar.addRecurringAllDayEventUntil(name, startDate, description, location,
+            weekDays, untilDateTime, autoDecline, isPrivate));
+  }
+
+  @Override
+  public void addRecurringAllDayEventFrequency(
+          String name,
+          String startDate,
+          String description,
+          String location,
+          String weekDays,
+          Integer frequency,
+          boolean autoDecline,
+          boolean isPrivate) {
+    write(() -> calendar.addRecurringAllDayEventFrequency(name, startDate, description, location,
+            weekDays, frequency, autoDecline, isPrivate));
+  }
+
+  @Override
+  public void editSingleEvent(
+          String eventName,
+          String startDateTime,
+          String endDateTime,
+          String propertyName,
+          String propertyValue,
+          boolean autoDecline) {
+    write(() -> calendar.editSingleEvent(
+            eventName, startDateTime, endDateTime, propertyName, propertyValue, autoDecline));
+  }
+
+  @Override
+  public void editMultipleEventsFollowing(
+          String eventName,
+          String startDateTime,
+          String propertyName,
+          String propertyValue,
+          boolean autoDecline) {
+    write(() -> calendar.editMultipleEventsFollowing(
+            eventName, startDateTime, propertyName, propertyValue, autoDecline));
+  }
+
+  @Override
+  public void editMultipleEventsAll(
+          String eventName,
+          String propertyName,
+          String propertyValue,
+          boolean autoDecline) {
+    write(() -> calendar.editMultipleEventsAll(
+            eventName, propertyName, propertyValue, autoDecline));
+  }
+
+  @Override
+  public Map<String, String>[] getEventsRange(String startDateTime, String endDateTime) {
+    return read(() -> calendar.getEventsRange(startDateTime, endDateTime));
+  }
+
+  @Override
+  public Map<String, String>[] getEventsOnDate(String startDate) {
+    return read(() -> calendar.getEventsOnDate(startDate));
+  }
+
+  @Override
+  public List<EventView> getEventViewsRange(String startDateTime, String endDateTime) {
+    return read(() -> calendar.getEventViewsRange(startDateTime, endDateTime));
+  }
+
+  @Override
+  public List<EventView> getEventViewsOnDate(String startDate) {
+    return read(() -> calendar.getEventViewsOnDate(startDate));
+  }
+
+  @Override
+  public List<List<String>> getEventNamesInMonth(YearMonth month) {
+    return read(() -> calendar.getEventNamesInMonth(month));
+  }
+
+  @Override
+  public Map<String, String>[] getAllEvents() {
+    return read(calendar::getAllEvents);
+  }
+
+  @Override
+  public List<EventView> getAllEventViews() {
+    return read(calendar::getAllEventViews);
+  }
+
+  /**
+   * Gives the view of every event in the calendar to the given action. The action is run under
+   * the read lock, so it must not change the calendar.
+   */
+  @Override
+  public void forEachEventView(Consumer<EventView> action) {
+    read(() -> {
+      calendar.forEachEventView(action);
+      return null;
+    });
+  }
+
+  @Override
+  protected void forEachEntry(Consumer<CalendarEntry> action) {
+    read(() -> {
+      calendar.forEachEntry(action);
+      return null;
+    });
+  }
+
+  @Override
+  public String getStatusOnDateTime(String startDateTime) {
+    return read(() -> calendar.getStatusOnDateTime(startDateTime));
+  }
+
+  @Override
+  public String getStatusInRange(String rangeStartDateTime, String rangeEndDateTime) {
+    return read(() -> calendar.getStatusInRange(rangeStartDateTime, rangeEndDateTime));
+  }
+
+  @Override
+  public void changeTimezone(String newTimezone) {
+    write(() -> {
+      calendar.changeTimezone(newTimezone);
+      timeZone = newTimezone;
+    });
+  }
+
+  @Override
+  protected List<CalendarEntry> getCalendarEntriesWithinRange(String startDate, String endDate) {
+    return read(() -> calendar.getCalendarEntriesWithinRange(startDate, endDate));
+  }
+
+  @Override
+  protected List<CalendarEntry> getCalendarEntriesOnDay(String startDate) {
+    return read(() -> calendar.getCalendarEntriesOnDay(startDate));
+  }
+
+  @Override
+  protected CalendarEntry getEventWithStartDateTime(String eventName, String startDateTime) {
+    return read(() -> calendar.getEventWithStartDateTime(eventName, startDateTime));
+  }
+
+  @Override
+  protected void addEvents(List<CalendarEntry> events, boolean autoDecline) {
+    write(() -> calendar.addEvents(events, autoDecline));
+  }
+
+  @Override
+  public Map<String, String> getExactEvent(String eventName, String startDateTime) {
+    return read(() -> calendar.getExactEvent(eventName, startDateTime));
+  }
+
+  private <T> T read(Supplier<T> query) {
+    Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      return query.get();
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  private <T> T write(Supplier<T> change) {
+    Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      return change.get();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private void write(Runnable change) {
+    write(() -> {
+      change.run();
+      return null;
+    });
+  }
+}
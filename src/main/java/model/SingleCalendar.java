@@ -1,9 +1,12 @@
 package model;
 
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import model.calendarentry.CalendarEntry;
+import model.calendarentry.EventView;
 
 /**
  * The SingleCalendar abstract class represents a single calendar the calendar application. It
@@ -33,6 +36,19 @@ public abstract class SingleCalendar {
           boolean isPrivate
   );
 
+  /**
+   * Adds a batch of single events to the calendar in one go. Every event is checked the way the
+   * single event methods check it, against the events already in the calendar and against the
+   * events added before it from the same batch, and the events that pass are all added at once.
+   * An event that is invalid or conflicts is left out and the rest of the batch is still added.
+   *
+   * @param batch       the events to add.
+   * @param autoDecline whether conflicting events should be automatically declined.
+   *
+   * @return a report of which events of the batch were added, and why the others were not.
+   */
+  public abstract EventBatch.Report addSingleEvents(EventBatch batch, boolean autoDecline);
+
   /**
    * Adds a single all day event to the calendar.
    *
@@ -221,6 +237,38 @@ public abstract class SingleCalendar {
    */
   public abstract Map<String, String>[] getEventsOnDate(String startDate);
 
+  /**
+   * Gets the views of the events in the calendar between the given start and end date times, in
+   * the same order as {@link #getEventsRange(String, String)}.
+   *
+   * @param startDateTime the start date and time.
+   * @param endDateTime   the end date and time.
+   *
+   * @return the views of the events between the given start and end date times.
+   */
+  public abstract List<EventView> getEventViewsRange(String startDateTime, String endDateTime);
+
+  /**
+   * Gets the views of the events in the calendar on the given date, in the same order as
+   * {@link #getEventsOnDate(String)}.
+   *
+   * @param startDate the date.
+   *
+   * @return the views of the events on the given date.
+   */
+  public abstract List<EventView> getEventViewsOnDate(String startDate);
+
+  /**
+   * Gets the names of the events on every day of the given month, in one pass over the calendar.
+   * The names on a day are the ones {@link #getEventsOnDate(String)} would return for that day, in
+   * the same order.
+   *
+   * @param month the month to get the event names for.
+   *
+   * @return a list with, for every day of the month in order, the names of the events on that day.
+   */
+  public abstract List<List<String>> getEventNamesInMonth(YearMonth month);
+
 
   /**
    * Exports the calendar to a file.
@@ -229,6 +277,22 @@ public abstract class SingleCalendar {
    */
   public abstract Map<String,String>[] getAllEvents();
 
+  /**
+   * Gets the views of all the events in the calendar, in the same order as
+   * {@link #getAllEvents()}.
+   *
+   * @return the views of all the events.
+   */
+  public abstract List<EventView> getAllEventViews();
+
+  /**
+   * Gives the view of every event in the calendar to the given action, in the same order as
+   * {@link #getAllEventViews()}, without collecting the views first.
+   *
+   * @param action the action to give the views to.
+   */
+  public abstract void forEachEventView(Consumer<EventView> action);
+
 
   /**
    * Shows the availability status of the calendar.
@@ -300,6 +364,15 @@ public abstract class SingleCalendar {
    */
   protected abstract void addEvents(List<CalendarEntry> events, boolean autoDecline);
 
+  /**
+   * Gives every entry of the calendar to the given action, in the order the entries were added
+   * in, as they are in the time zone of the calendar. Adding the entries to an empty calendar in
+   * that order gives back the same calendar. The action must not change the entries.
+   *
+   * @param action the action to give the entries to.
+   */
+  protected abstract void forEachEntry(Consumer<CalendarEntry> action);
+
   /**
    * Gets the events in the calendar with the given name and start date time.
    *
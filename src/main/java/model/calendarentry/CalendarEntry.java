@@ -1,11 +1,16 @@
 package model.calendarentry;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import static utils.DateTimeUtils.stringToZdt;
@@ -95,6 +100,53 @@ public abstract class CalendarEntry {
    */
   public abstract List<Map<String, String>> getAllEventDetails();
 
+  /**
+   * Gets every name the events in the calendar entry go by. The occurrences of a recurring event
+   * can be renamed on their own or from a given occurrence onwards, so they can go by more names
+   * than the recurring event itself.
+   *
+   * @return the names of the events
+   */
+  public abstract Set<String> getNames();
+
+  /**
+   * Checks if any event in the calendar entry ends before it starts. A single event never does,
+   * but the occurrences of a recurring event can once their end time is edited to before their
+   * start time.
+   *
+   * @return true if an event ends before it starts, false otherwise
+   */
+  public abstract boolean hasEventEndingBeforeStart();
+
+  /**
+   * Gets the views of the events in the calendar entry that overlap with the given time range.
+   *
+   * @param startZDT the start date time of the time range
+   * @param endZDT   the end date time of the time range
+   *
+   * @return the views of the events in the time range, in order
+   */
+  public abstract List<EventView> getEventViews(ZonedDateTime startZDT, ZonedDateTime endZDT);
+
+  /**
+   * Gives the view of every event in the calendar entry, in order, to the given action. The views
+   * are made one at a time, so none of them has to be kept once the action is done with it.
+   *
+   * @param action the action to give the views to
+   */
+  public abstract void forEachEventView(Consumer<EventView> action);
+
+  /**
+   * Gets the views of all the events in the calendar entry.
+   *
+   * @return the views of the events, in order
+   */
+  public List<EventView> getAllEventViews() {
+    List<EventView> eventViews = new ArrayList<>();
+    forEachEventView(eventViews::add);
+    return eventViews;
+  }
+
   /**
    * Updates the time zone of the calendar entry.
    *
@@ -102,6 +154,16 @@ public abstract class CalendarEntry {
    */
   public abstract void updateZone(ZoneId timeZone);
 
+  /**
+   * Gets the calendar entry as it would be after updating its time zone, leaving this entry as it
+   * is. Lets a calendar show an entry in a time zone it was not moved to yet.
+   *
+   * @param timeZone the time zone to see the entry in
+   *
+   * @return a new calendar entry in the time zone
+   */
+  public abstract CalendarEntry inZone(ZoneId timeZone);
+
   /**
    * Updates the date time of the calendar entry such that it starts on the target date time in the
    * provided time zone.
@@ -206,6 +268,50 @@ public abstract class CalendarEntry {
    */
   public abstract CalendarEntry copy();
 
+  /**
+   * Writes the calendar entry in a binary form that readFrom turns back into an equal entry,
+   * including the edits a recurring event keeps. The edits that can be undone are not written.
+   *
+   * @param out the output to write to
+   *
+   * @throws IOException if the entry cannot be written
+   */
+  public abstract void writeTo(DataOutput out) throws IOException;
+
+  /**
+   * Reads a calendar entry written by writeTo.
+   *
+   * @param in the input to read from
+   *
+   * @return the calendar entry read
+   *
+   * @throws IOException if the entry cannot be read or was not written by writeTo
+   */
+  public static CalendarEntry readFrom(DataInput in) throws IOException {
+    byte kind = in.readByte();
+    switch (kind) {
+      case EntryFormat.SINGLE_EVENT:
+        return SingleEvent.readFields(in);
+      case EntryFormat.RECURRING_EVENT:
+        return RecurringEvent.readFields(in);
+      default:
+        throw new IOException("Malformed calendar entry: unknown kind " + kind);
+    }
+  }
+
+  /**
+   * Writes the fields every calendar entry has.
+   */
+  void writeFields(DataOutput out) throws IOException {
+    EntryFormat.writeString(out, name);
+    EntryFormat.writeDateTime(out, startDateTime);
+    EntryFormat.writeDateTime(out, endDateTime);
+    EntryFormat.writeString(out, description);
+    EntryFormat.writeString(out, location);
+    out.writeBoolean(isPrivate);
+    out.writeBoolean(isAllDay);
+  }
+
   abstract boolean isConflictWithSingleEvent(SingleEvent other);
 
   abstract boolean isConflictWithRecurringEvent(RecurringEvent other);
@@ -299,8 +405,71 @@ public abstract class CalendarEntry {
             && endZDT.isEqual(startZDT.plusHours(23).withMinute(59));
   }
 
+  /**
+   * Creates a view of the calendar entry as it is now.
+   *
+   * @param isRecurring whether the entry is an occurrence of a recurring event
+   *
+   * @return the view of the calendar entry
+   */
+  protected EventView toEventView(boolean isRecurring) {
+    return new EventView(
+            name,
+            startDateTime,
+            endDateTime,
+            description,
+            location,
+            isPrivate,
+            isAllDay,
+            isRecurring);
+  }
+
   public ZonedDateTime getStartDateTime() {
     return startDateTime;
   }
 
+  public ZonedDateTime getEndDateTime() {
+    return endDateTime;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public String getLocation() {
+    return location;
+  }
+
+  public boolean isPrivate() {
+    return isPrivate;
+  }
+
+  public boolean isAllDay() {
+    return isAllDay;
+  }
+
+  /**
+   * Gets the start of the time span covered by the calendar entry. For a recurring event this is
+   * the start of its earliest occurrence.
+   *
+   * @return the start of the time span covered by the calendar entry
+   */
+  public ZonedDateTime getSpanStart() {
+    return startDateTime;
+  }
+
+  /**
+   * Gets the end of the time span covered by the calendar entry. For a recurring event this is the
+   * end of its latest occurrence.
+   *
+   * @return the end of the time span covered by the calendar entry
+   */
+  public ZonedDateTime getSpanEnd() {
+    return endDateTime;
+  }
+
 }
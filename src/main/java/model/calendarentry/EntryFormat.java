@@ -0,0 +1,76 @@
+package model.calendarentry;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * The binary form shared by the parts of a calendar entry when it is written out. Strings are
+ * written as UTF-8 bytes after their length, with a length of -1 for null, so strings of any
+ * length can be written. A date time is written as the instant it stands for and its zone, which
+ * gives back the same offset when it is read.
+ */
+final class EntryFormat {
+
+  static final byte SINGLE_EVENT = 0;
+  static final byte RECURRING_EVENT = 1;
+
+  private static final int MAX_STRING_BYTES = 1 << 24;
+
+  private EntryFormat() {
+  }
+
+  static void writeString(DataOutput out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  static String readString(DataInput in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    checkRange(length, 0, MAX_STRING_BYTES);
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  static void writeDateTime(DataOutput out, ZonedDateTime dateTime) throws IOException {
+    out.writeBoolean(dateTime != null);
+    if (dateTime != null) {
+      out.writeLong(dateTime.toEpochSecond());
+      out.writeInt(dateTime.getNano());
+      writeString(out, dateTime.getZone().getId());
+    }
+  }
+
+  static ZonedDateTime readDateTime(DataInput in) throws IOException {
+    if (!in.readBoolean()) {
+      return null;
+    }
+    Instant instant = Instant.ofEpochSecond(in.readLong(), in.readInt());
+    return ZonedDateTime.ofInstant(instant, ZoneId.of(readString(in)));
+  }
+
+  /**
+   * Checks a value read back against the range it must be in.
+   *
+   * @throws IOException if the value is out of range, as the data was not written by an entry.
+   */
+  static int checkRange(int value, int min, int max) throws IOException {
+    if (value < min || value > max) {
+      throw new IOException("Malformed calendar entry: " + value + " is out of range");
+    }
+    return value;
+  }
+}
@@ -0,0 +1,102 @@
+package model.calendarentry;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+/**
+ * An immutable, typed view of a single event or of one occurrence of a recurring event. Unlike the
+ * details maps of a calendar entry, a view keeps its date times as they are and leaves formatting
+ * them to whoever prints or exports the event. Missing text properties are kept as empty strings.
+ */
+public final class EventView {
+
+  private final String name;
+  private final ZonedDateTime startDateTime;
+  private final ZonedDateTime endDateTime;
+  private final String description;
+  private final String location;
+  private final boolean isPrivate;
+  private final boolean isAllDay;
+  private final boolean isRecurring;
+
+  /**
+   * Constructs a view of an event with the given properties.
+   *
+   * @param name          the name of the event
+   * @param startDateTime the start date time of the event
+   * @param endDateTime   the end date time of the event
+   * @param description   the description of the event
+   * @param location      the location of the event
+   * @param isPrivate     whether the event is private
+   * @param isAllDay      whether the event is an all-day event
+   * @param isRecurring   whether the event is an occurrence of a recurring event
+   */
+  public EventView(
+          String name,
+          ZonedDateTime startDateTime,
+          ZonedDateTime endDateTime,
+          String description,
+          String location,
+          boolean isPrivate,
+          boolean isAllDay,
+          boolean isRecurring) {
+    this.name = name != null ? name : "";
+    this.startDateTime = startDateTime;
+    this.endDateTime = endDateTime;
+    this.description = description != null ? description : "";
+    this.location = location != null ? location : "";
+    this.isPrivate = isPrivate;
+    this.isAllDay = isAllDay;
+    this.isRecurring = isRecurring;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public ZonedDateTime getStartDateTime() {
+    return startDateTime;
+  }
+
+  public ZonedDateTime getEndDateTime() {
+    return endDateTime;
+  }
+
+  /**
+   * Gets the instant the event starts at.
+   *
+   * @return the start instant of the event
+   */
+  public Instant getStart() {
+    return startDateTime.toInstant();
+  }
+
+  /**
+   * Gets the instant the event ends at.
+   *
+   * @return the end instant of the event
+   */
+  public Instant getEnd() {
+    return endDateTime.toInstant();
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public String getLocation() {
+    return location;
+  }
+
+  public boolean isPrivate() {
+    return isPrivate;
+  }
+
+  public boolean isAllDay() {
+    return isAllDay;
+  }
+
+  public boolean isRecurring() {
+    return isRecurring;
+  }
+}
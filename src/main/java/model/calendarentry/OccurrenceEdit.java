@@ -0,0 +1,451 @@
+package model.calendarentry;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static utils.DateTimeUtils.stringToZdt;
+import static utils.DateTimeUtils.zdtToString;
+
+/**
+ * An immutable edit of a recurring event that applies to a range of its occurrences. Edits are
+ * recorded instead of being applied to every occurrence, and are replayed in order on each
+ * occurrence when it is generated.
+ */
+abstract class OccurrenceEdit {
+
+  private static final long SECONDS_IN_DAY = 24 * 60 * 60;
+
+  private static final byte PROPERTY = 0;
+  private static final byte ZONE = 1;
+  private static final byte OFFSET_DAYS = 2;
+  private static final byte SHIFT = 3;
+  private static final byte COPY = 4;
+
+  final int fromIndex;
+  final int toIndex;
+
+  private OccurrenceEdit(int fromIndex, int toIndex) {
+    this.fromIndex = fromIndex;
+    this.toIndex = toIndex;
+  }
+
+  /**
+   * Creates an edit that updates a simple property of the occurrences.
+   *
+   * @param fromIndex     the index of the first occurrence to edit.
+   * @param toIndex       the index after the last occurrence to edit.
+   * @param propertyName  the name of the property.
+   * @param propertyValue the new value of the property.
+   *
+   * @return the edit.
+   */
+  static OccurrenceEdit property(
+          int fromIndex,
+          int toIndex,
+          String propertyName,
+          String propertyValue) {
+    return new PropertyEdit(fromIndex, toIndex, propertyName, propertyValue);
+  }
+
+  /**
+   * Creates the edits that give a new end time to a range of occurrences. Every occurrence is given
+   * the end time the occurrence before it ended up with, which only differs from the given one
+   * after an end time that fell in a daylight saving gap, so the range is split wherever that
+   * happens. Every occurrence is checked to accept its new end time.
+   *
+   * @param fromIndex   the index of the first occurrence to edit.
+   * @param toIndex     the index after the last occurrence to edit.
+   * @param occurrences gets a copy of the occurrence at an index.
+   * @param endTime     the new end time.
+   *
+   * @return the edits, in order.
+   */
+  static List<OccurrenceEdit> endTimes(
+          int fromIndex,
+          int toIndex,
+          IntFunction<CalendarEntry> occurrences,
+          String endTime) {
+    List<OccurrenceEdit> endTimeEdits = new ArrayList<>();
+    int rangeStart = fromIndex;
+    String rangeEndTime = endTime;
+    String previousEndTime = endTime;
+    for (int index = fromIndex; index < toIndex; index++) {
+      CalendarEntry occurrence = occurrences.apply(index);
+      String newEndTime = PropertyEdit.sameDayEndTime(occurrence, previousEndTime);
+      if (!newEndTime.equals(PropertyEdit.sameDayEndTime(occurrence, rangeEndTime))) {
+        endTimeEdits.add(new PropertyEdit(rangeStart, index, "endDateTime", rangeEndTime));
+        rangeStart = index;
+        rangeEndTime = previousEndTime;
+      }
+      occurrence.updateSimpleParameters("endDateTime", newEndTime);
+      previousEndTime = newEndTime;
+    }
+    endTimeEdits.add(new PropertyEdit(rangeStart, toIndex, "endDateTime", rangeEndTime));
+    return endTimeEdits;
+  }
+
+  /**
+   * Creates an edit that moves the occurrences to another time zone.
+   *
+   * @param fromIndex the index of the first occurrence to edit.
+   * @param toIndex   the index after the last occurrence to edit.
+   * @param timeZone  the new time zone.
+   *
+   * @return the edit.
+   */
+  static OccurrenceEdit zone(int fromIndex, int toIndex, ZoneId timeZone) {
+    return new ZoneEdit(fromIndex, toIndex, timeZone);
+  }
+
+  /**
+   * Creates an edit that moves the occurrences by a number of days.
+   *
+   * @param fromIndex  the index of the first occurrence to edit.
+   * @param toIndex    the index after the last occurrence to edit.
+   * @param offsetDays the number of days to move the occurrences by.
+   *
+   * @return the edit.
+   */
+  static OccurrenceEdit offsetDays(int fromIndex, int toIndex, int offsetDays) {
+    return new OffsetDaysEdit(fromIndex, toIndex, offsetDays);
+  }
+
+  /**
+   * Creates an edit that moves the occurrences by a fixed amount of time.
+   *
+   * @param fromIndex the index of the first occurrence to edit.
+   * @param toIndex   the index after the last occurrence to edit.
+   * @param timeShift the amount of time to move the occurrences by.
+   *
+   * @return the edit.
+   */
+  static OccurrenceEdit shift(int fromIndex, int toIndex, Duration timeShift) {
+    return new ShiftEdit(fromIndex, toIndex, timeShift);
+  }
+
+  /**
+   * Creates an edit that replaces the occurrences with copies of themselves. Copying a single event
+   * makes an all-day event span its start day again, so copying a recurring event has to do the
+   * same to its occurrences.
+   *
+   * @param fromIndex the index of the first occurrence to edit.
+   * @param toIndex   the index after the last occurrence to edit.
+   *
+   * @return the edit.
+   */
+  static OccurrenceEdit copy(int fromIndex, int toIndex) {
+    return new CopyEdit(fromIndex, toIndex);
+  }
+
+  /**
+   * Checks if the edit applies to the occurrence at the given index.
+   *
+   * @param index the index of the occurrence.
+   *
+   * @return true if the occurrence is in the range of the edit, false otherwise.
+   */
+  boolean covers(int index) {
+    return fromIndex <= index && index < toIndex;
+  }
+
+  /**
+   * Gets the edit limited to the occurrences before the given index.
+   *
+   * @param index the index to cut the range at.
+   *
+   * @return the limited edit, or null if it no longer applies to any occurrence.
+   */
+  OccurrenceEdit truncate(int index) {
+    if (index >= toIndex) {
+      return this;
+    }
+    return index <= fromIndex ? null : withRange(fromIndex, index);
+  }
+
+  /**
+   * Applies the edit to an occurrence.
+   *
+   * @param occurrence the occurrence to edit.
+   */
+  abstract void apply(CalendarEntry occurrence);
+
+  /**
+   * Gets the amount of time, in seconds, the edit nominally moves the occurrences by.
+   *
+   * @return the shift in seconds.
+   */
+  long shiftSeconds() {
+    return 0;
+  }
+
+  /**
+   * Gets the furthest, in seconds, the edit can move the start or end of an occurrence away from
+   * where its nominal shift puts it, such as when moving by whole days crosses a daylight saving
+   * transition.
+   *
+   * @return the maximum deviation in seconds.
+   */
+  long maxDeviationSeconds() {
+    return 0;
+  }
+
+  /**
+   * Gets the time zone the edit moves the occurrences to.
+   *
+   * @return the new time zone, or null if the edit keeps the time zone of the occurrences.
+   */
+  ZoneId getNewZone() {
+    return null;
+  }
+
+  /**
+   * Gets the name the edit gives to the occurrences.
+   *
+   * @return the new name, or null if the edit does not rename the occurrences.
+   */
+  String getNewName() {
+    return null;
+  }
+
+  abstract OccurrenceEdit withRange(int fromIndex, int toIndex);
+
+  /**
+   * Writes the edit in a binary form.
+   *
+   * @param out the output to write to.
+   *
+   * @throws IOException if the edit cannot be written.
+   */
+  abstract void writeTo(DataOutput out) throws IOException;
+
+  /**
+   * Reads an edit written by writeTo.
+   *
+   * @param in the input to read from.
+   *
+   * @return the edit read.
+   *
+   * @throws IOException if the edit cannot be read.
+   */
+  static OccurrenceEdit readFrom(DataInput in) throws IOException {
+    byte kind = in.readByte();
+    int fromIndex = EntryFormat.checkRange(in.readInt(), 0, Integer.MAX_VALUE);
+    int toIndex = EntryFormat.checkRange(in.readInt(), fromIndex, Integer.MAX_VALUE);
+    switch (kind) {
+      case PROPERTY:
+        return new PropertyEdit(
+                fromIndex, toIndex, EntryFormat.readString(in), EntryFormat.readString(in));
+      case ZONE:
+        return new ZoneEdit(fromIndex, toIndex, ZoneId.of(EntryFormat.readString(in)));
+      case OFFSET_DAYS:
+        return new OffsetDaysEdit(fromIndex, toIndex, in.readInt());
+      case SHIFT:
+        return new ShiftEdit(
+                fromIndex, toIndex, Duration.ofSeconds(in.readLong(), in.readInt()));
+      case COPY:
+        return new CopyEdit(fromIndex, toIndex);
+      default:
+        throw new IOException("Malformed occurrence edit: unknown kind " + kind);
+    }
+  }
+
+  void writeRange(DataOutput out, byte kind) throws IOException {
+    out.writeByte(kind);
+    out.writeInt(fromIndex);
+    out.writeInt(toIndex);
+  }
+
+  /**
+   * An edit of a simple property such as the name, the location or the end time.
+   */
+  private static final class PropertyEdit extends OccurrenceEdit {
+    private final String propertyName;
+    private final String propertyValue;
+
+    private PropertyEdit(int fromIndex, int toIndex, String propertyName, String propertyValue) {
+      super(fromIndex, toIndex);
+      this.propertyName = propertyName;
+      this.propertyValue = propertyValue;
+    }
+
+    @Override
+    void apply(CalendarEntry occurrence) {
+      if (propertyName.equals("endDateTime")) {
+        occurrence.updateSimpleParameters(
+                propertyName,
+                sameDayEndTime(occurrence, propertyValue));
+      } else {
+        occurrence.updateSimpleParameters(propertyName, propertyValue);
+      }
+    }
+
+    /**
+     * Gets the end date time of an occurrence that ends at the time of day of the given end time,
+     * as only the time of day changes and every occurrence keeps ending on its own day.
+     */
+    private static String sameDayEndTime(CalendarEntry occurrence, String endTime) {
+      ZonedDateTime endDateTime = occurrence.endDateTime;
+      ZonedDateTime newTime = stringToZdt(endTime, endDateTime.getZone().toString());
+      newTime = endDateTime.withHour(newTime.getHour()).withMinute(newTime.getMinute());
+      return zdtToString(newTime, true);
+    }
+
+    @Override
+    String getNewName() {
+      return propertyName.equals("name") ? propertyValue : null;
+    }
+
+    @Override
+    OccurrenceEdit withRange(int fromIndex, int toIndex) {
+      return new PropertyEdit(fromIndex, toIndex, propertyName, propertyValue);
+    }
+
+    @Override
+    void writeTo(DataOutput out) throws IOException {
+      writeRange(out, PROPERTY);
+      EntryFormat.writeString(out, propertyName);
+      EntryFormat.writeString(out, propertyValue);
+    }
+  }
+
+  /**
+   * An edit that moves occurrences to another time zone, keeping the instants they happen at.
+   */
+  private static final class ZoneEdit extends OccurrenceEdit {
+    private final ZoneId timeZone;
+
+    private ZoneEdit(int fromIndex, int toIndex, ZoneId timeZone) {
+      super(fromIndex, toIndex);
+      this.timeZone = timeZone;
+    }
+
+    @Override
+    void apply(CalendarEntry occurrence) {
+      occurrence.updateZone(timeZone);
+    }
+
+    @Override
+    ZoneId getNewZone() {
+      return timeZone;
+    }
+
+    @Override
+    OccurrenceEdit withRange(int fromIndex, int toIndex) {
+      return new ZoneEdit(fromIndex, toIndex, timeZone);
+    }
+
+    @Override
+    void writeTo(DataOutput out) throws IOException {
+      writeRange(out, ZONE);
+      EntryFormat.writeString(out, timeZone.getId());
+    }
+  }
+
+  /**
+   * An edit that moves occurrences by a number of days.
+   */
+  private static final class OffsetDaysEdit extends OccurrenceEdit {
+    private final int offsetDays;
+
+    private OffsetDaysEdit(int fromIndex, int toIndex, int offsetDays) {
+      super(fromIndex, toIndex);
+      this.offsetDays = offsetDays;
+    }
+
+    @Override
+    void apply(CalendarEntry occurrence) {
+      occurrence.addOffsetDays(offsetDays);
+    }
+
+    @Override
+    long shiftSeconds() {
+      return offsetDays * SECONDS_IN_DAY;
+    }
+
+    @Override
+    long maxDeviationSeconds() {
+      return SECONDS_IN_DAY;
+    }
+
+    @Override
+    OccurrenceEdit withRange(int fromIndex, int toIndex) {
+      return new OffsetDaysEdit(fromIndex, toIndex, offsetDays);
+    }
+
+    @Override
+    void writeTo(DataOutput out) throws IOException {
+      writeRange(out, OFFSET_DAYS);
+      out.writeInt(offsetDays);
+    }
+  }
+
+  /**
+   * An edit that moves occurrences by a fixed amount of time.
+   */
+  private static final class ShiftEdit extends OccurrenceEdit {
+    private final Duration timeShift;
+
+    private ShiftEdit(int fromIndex, int toIndex, Duration timeShift) {
+      super(fromIndex, toIndex);
+      this.timeShift = timeShift;
+    }
+
+    @Override
+    void apply(CalendarEntry occurrence) {
+      occurrence.updateDateTime(occurrence.startDateTime.plus(timeShift));
+    }
+
+    @Override
+    long shiftSeconds() {
+      return timeShift.getSeconds();
+    }
+
+    @Override
+    OccurrenceEdit withRange(int fromIndex, int toIndex) {
+      return new ShiftEdit(fromIndex, toIndex, timeShift);
+    }
+
+    @Override
+    void writeTo(DataOutput out) throws IOException {
+      writeRange(out, SHIFT);
+      out.writeLong(timeShift.getSeconds());
+      out.writeInt(timeShift.getNano());
+    }
+  }
+
+  /**
+   * An edit that replaces occurrences with copies of themselves.
+   */
+  private static final class CopyEdit extends OccurrenceEdit {
+
+    private CopyEdit(int fromIndex, int toIndex) {
+      super(fromIndex, toIndex);
+    }
+
+    @Override
+    void apply(CalendarEntry occurrence) {
+      if (occurrence.isAllDay) {
+        CalendarEntry copied = occurrence.copy();
+        occurrence.startDateTime = copied.startDateTime;
+        occurrence.endDateTime = copied.endDateTime;
+      }
+    }
+
+    @Override
+    OccurrenceEdit withRange(int fromIndex, int toIndex) {
+      return new CopyEdit(fromIndex, toIndex);
+    }
+
+    @Override
+    void writeTo(DataOutput out) throws IOException {
+      writeRange(out, COPY);
+    }
+  }
+}
@@ -0,0 +1,451 @@
+package model.calendarentry;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable rule describing a run of consecutive occurrences of a recurring event. The rule
+ * repeats a template event at the same time of day on the days of the week in a bitmask, starting
+ * from a first start date time, for a fixed number of occurrences. Occurrences are never stored,
+ * the n-th occurrence is computed on demand from the rule.
+ *
+ * <p>Occurrences start where a walk from the first start date time, one day at a time, would put
+ * them. Such a walk keeps the time of day it had been moved to by a daylight saving gap, and keeps
+ * the offset of the previous day when a time of day is ambiguous, so the rule records the days on
+ * which a gap moved the time of day.
+ */
+final class OccurrenceRule {
+
+  private static final int DAYS_IN_WEEK = 7;
+
+  private final ZonedDateTime firstStart;
+  private final int endHour;
+  private final int endMinute;
+  private final int weekDayMask;
+  private final int count;
+  private final String name;
+  private final String description;
+  private final String location;
+  private final boolean isPrivate;
+  private final boolean isAllDay;
+
+  /**
+   * Day offsets, from the date of the first start, of the matching days in the first week of the
+   * rule. The k-th occurrence falls on offset {@code 7 * (k / n) + weekOffsets[k % n]}, where n is
+   * the number of matching days in a week.
+   */
+  private final int[] weekOffsets;
+
+  /**
+   * Day offsets on which a daylight saving gap moved the time of day, in increasing order, and the
+   * time of day the occurrences start at from that day on.
+   */
+  private final long[] gapDays;
+  private final LocalTime[] gapTimes;
+
+  private OccurrenceRule(
+          ZonedDateTime firstStart,
+          ZonedDateTime endDateTime,
+          int weekDayMask,
+          int count,
+          long lastDayOffset,
+          CalendarEntry template) {
+    this.firstStart = firstStart;
+    this.endHour = endDateTime.getHour();
+    this.endMinute = endDateTime.getMinute();
+    this.weekDayMask = weekDayMask;
+    this.weekOffsets = weekOffsets(firstStart.getDayOfWeek(), weekDayMask);
+    this.count = count;
+    this.name = template.name;
+    this.description = template.description;
+    this.location = template.location;
+    this.isPrivate = template.isPrivate;
+    this.isAllDay = template.isAllDay;
+
+    List<Long> days = new ArrayList<>();
+    List<LocalTime> times = new ArrayList<>();
+    findGaps(firstStart, lastDayOffset, days, times);
+    this.gapDays = days.stream().mapToLong(Long::longValue).toArray();
+    this.gapTimes = times.toArray(new LocalTime[0]);
+  }
+
+  private OccurrenceRule(OccurrenceRule rule, int count) {
+    this.firstStart = rule.firstStart;
+    this.endHour = rule.endHour;
+    this.endMinute = rule.endMinute;
+    this.weekDayMask = rule.weekDayMask;
+    this.weekOffsets = rule.weekOffsets;
+    this.count = count;
+    this.name = rule.name;
+    this.description = rule.description;
+    this.location = rule.location;
+    this.isPrivate = rule.isPrivate;
+    this.isAllDay = rule.isAllDay;
+    this.gapDays = rule.gapDays;
+    this.gapTimes = rule.gapTimes;
+  }
+
+  private OccurrenceRule(
+          ZonedDateTime firstStart,
+          int endHour,
+          int endMinute,
+          int weekDayMask,
+          int count,
+          CalendarEntry template,
+          long[] gapDays,
+          LocalTime[] gapTimes) {
+    this.firstStart = firstStart;
+    this.endHour = endHour;
+    this.endMinute = endMinute;
+    this.weekDayMask = weekDayMask;
+    this.weekOffsets = weekOffsets(firstStart.getDayOfWeek(), weekDayMask);
+    this.count = count;
+    this.name = template.name;
+    this.description = template.description;
+    this.location = template.location;
+    this.isPrivate = template.isPrivate;
+    this.isAllDay = template.isAllDay;
+    this.gapDays = gapDays;
+    this.gapTimes = gapTimes;
+  }
+
+  /**
+   * Creates a rule for every matching day that starts before the until date time.
+   *
+   * @param startDateTime the start date time of the first candidate day.
+   * @param endDateTime   the date time whose time of day every occurrence ends at.
+   * @param untilDateTime the occurrences must start before this date time.
+   * @param daysOfWeek    the days of the week the event occurs on.
+   * @param template      the event whose name, description, location and flags are repeated.
+   *
+   * @return the rule.
+   */
+  static OccurrenceRule until(
+          ZonedDateTime startDateTime,
+          ZonedDateTime endDateTime,
+          ZonedDateTime untilDateTime,
+          List<DayOfWeek> daysOfWeek,
+          CalendarEntry template) {
+    long untilDays = ChronoUnit.DAYS.between(
+            startDateTime.toLocalDate(),
+            untilDateTime.withZoneSameInstant(startDateTime.getZone()).toLocalDate());
+    OccurrenceRule unbounded = new OccurrenceRule(
+            startDateTime,
+            endDateTime,
+            toMask(daysOfWeek),
+            0,
+            Math.max(0, untilDays + 1),
+            template);
+
+    long days = unbounded.countDaysBefore(untilDateTime, untilDays);
+    long occurrences = (days / DAYS_IN_WEEK) * unbounded.weekOffsets.length
+            + countOffsetsBelow(unbounded.weekOffsets, (int) (days % DAYS_IN_WEEK));
+    return new OccurrenceRule(unbounded, (int) Math.min(Integer.MAX_VALUE, occurrences));
+  }
+
+  /**
+   * Creates a rule for the given number of matching days.
+   *
+   * @param startDateTime the start date time of the first candidate day.
+   * @param endDateTime   the date time whose time of day every occurrence ends at.
+   * @param frequency     the number of occurrences.
+   * @param daysOfWeek    the days of the week the event occurs on.
+   * @param template      the event whose name, description, location and flags are repeated.
+   *
+   * @return the rule.
+   */
+  static OccurrenceRule times(
+          ZonedDateTime startDateTime,
+          ZonedDateTime endDateTime,
+          int frequency,
+          List<DayOfWeek> daysOfWeek,
+          CalendarEntry template) {
+    int mask = toMask(daysOfWeek);
+    if (mask == 0 && frequency > 0) {
+      throw new IllegalArgumentException("Recurring event must repeat on at least one week day");
+    }
+    int count = Math.max(0, frequency);
+    long lastDayOffset = count == 0
+            ? 0
+            : dayOffset(weekOffsets(startDateTime.getDayOfWeek(), mask), count - 1);
+    return new OccurrenceRule(startDateTime, endDateTime, mask, count, lastDayOffset, template);
+  }
+
+  /**
+   * Gets the number of occurrences of the rule.
+   *
+   * @return the number of occurrences.
+   */
+  int size() {
+    return count;
+  }
+
+  /**
+   * Gets a rule with only the first occurrences of this rule.
+   *
+   * @param newCount the number of occurrences to keep.
+   *
+   * @return the truncated rule.
+   */
+  OccurrenceRule truncate(int newCount) {
+    return newCount >= count ? this : new OccurrenceRule(this, newCount);
+  }
+
+  /**
+   * Gets the zone the occurrences of the rule are generated in.
+   *
+   * @return the zone of the rule.
+   */
+  ZoneId getZone() {
+    return firstStart.getZone();
+  }
+
+  /**
+   * Gets the name every occurrence of the rule is generated with.
+   *
+   * @return the name of the template event.
+   */
+  String getName() {
+    return name;
+  }
+
+  /**
+   * Generates the occurrence at the given position of the rule.
+   *
+   * @param ordinal the position of the occurrence, starting at 0.
+   *
+   * @return a new single event for the occurrence.
+   */
+  SingleEvent occurrence(int ordinal) {
+    ZonedDateTime start = candidateStart(dayOffset(weekOffsets, ordinal));
+    return new SingleEvent(
+            name,
+            start,
+            start.withHour(endHour).withMinute(endMinute),
+            description,
+            location,
+            isPrivate,
+            isAllDay);
+  }
+
+  /**
+   * Gets the position of the first occurrence that falls on or after the given date in the zone of
+   * the rule.
+   *
+   * @param date the date to look from.
+   *
+   * @return the position of the first occurrence on or after the date, or the size of the rule if
+   *         there is none.
+   */
+  int firstOrdinalOnOrAfter(LocalDate date) {
+    long days = ChronoUnit.DAYS.between(firstStart.toLocalDate(), date);
+    if (days <= 0) {
+      return 0;
+    }
+    long ordinal = (days / DAYS_IN_WEEK) * weekOffsets.length
+            + countOffsetsBelow(weekOffsets, (int) (days % DAYS_IN_WEEK));
+    return (int) Math.min(count, ordinal);
+  }
+
+  /**
+   * Gets the date in the zone of the rule that the occurrence at the given position is generated
+   * on.
+   *
+   * @param ordinal the position of the occurrence, starting at 0.
+   *
+   * @return the date of the occurrence.
+   */
+  LocalDate date(int ordinal) {
+    return firstStart.toLocalDate().plusDays(dayOffset(weekOffsets, ordinal));
+  }
+
+  /**
+   * Gets the position of the occurrence generated on the given date in the zone of the rule.
+   *
+   * @param date the date of the occurrence.
+   *
+   * @return the position of the occurrence, or -1 if the rule has no occurrence on the date.
+   */
+  int ordinalOn(LocalDate date) {
+    int ordinal = firstOrdinalOnOrAfter(date);
+    return ordinal < count && date(ordinal).equals(date) ? ordinal : -1;
+  }
+
+  /**
+   * Writes the rule in a binary form, with the days on which a daylight saving gap moved the time
+   * of day, so that the rule read back does not depend on the time zone rules of the reader.
+   *
+   * @param out the output to write to.
+   *
+   * @throws IOException if the rule cannot be written.
+   */
+  void writeTo(DataOutput out) throws IOException {
+    EntryFormat.writeDateTime(out, firstStart);
+    out.writeByte(endHour);
+    out.writeByte(endMinute);
+    out.writeByte(weekDayMask);
+    out.writeInt(count);
+    EntryFormat.writeString(out, name);
+    EntryFormat.writeString(out, description);
+    EntryFormat.writeString(out, location);
+    out.writeBoolean(isPrivate);
+    out.writeBoolean(isAllDay);
+    out.writeInt(gapDays.length);
+    for (int i = 0; i < gapDays.length; i++) {
+      out.writeLong(gapDays[i]);
+      out.writeLong(gapTimes[i].toNanoOfDay());
+    }
+  }
+
+  /**
+   * Reads a rule written by writeTo.
+   *
+   * @param in the input to read from.
+   *
+   * @return the rule read.
+   *
+   * @throws IOException if the rule cannot be read.
+   */
+  static OccurrenceRule readFrom(DataInput in) throws IOException {
+    ZonedDateTime firstStart = EntryFormat.readDateTime(in);
+    int endHour = EntryFormat.checkRange(in.readByte(), 0, 23);
+    int endMinute = EntryFormat.checkRange(in.readByte(), 0, 59);
+    int weekDayMask = EntryFormat.checkRange(in.readByte(), 0, (1 << DAYS_IN_WEEK) - 1);
+    int count = EntryFormat.checkRange(in.readInt(), 0, Integer.MAX_VALUE);
+    CalendarEntry template = SingleEvent.restore(
+            EntryFormat.readString(in),
+            firstStart,
+            firstStart,
+            EntryFormat.readString(in),
+            EntryFormat.readString(in),
+            in.readBoolean(),
+            in.readBoolean());
+    int gapCount = EntryFormat.checkRange(in.readInt(), 0, Integer.MAX_VALUE);
+    long[] gapDays = new long[gapCount];
+    LocalTime[] gapTimes = new LocalTime[gapCount];
+    for (int i = 0; i < gapCount; i++) {
+      gapDays[i] = in.readLong();
+      gapTimes[i] = LocalTime.ofNanoOfDay(in.readLong());
+    }
+    return new OccurrenceRule(
+            firstStart, endHour, endMinute, weekDayMask, count, template, gapDays, gapTimes);
+  }
+
+  /**
+   * Gets the start date time of the candidate day at the given offset from the first start.
+   */
+  private ZonedDateTime candidateStart(long days) {
+    if (days == 0) {
+      return firstStart;
+    }
+    LocalDateTime local = firstStart.toLocalDate().plusDays(days).atTime(timeOfDay(days));
+    ZoneRules zoneRules = firstStart.getZone().getRules();
+    if (zoneRules.getValidOffsets(local).size() > 1) {
+      ZoneOffset previousOffset = candidateStart(days - 1).getOffset();
+      return ZonedDateTime.ofLocal(local, firstStart.getZone(), previousOffset);
+    }
+    return ZonedDateTime.ofLocal(local, firstStart.getZone(), null);
+  }
+
+  private LocalTime timeOfDay(long days) {
+    LocalTime time = firstStart.toLocalTime();
+    for (int i = 0; i < gapDays.length && gapDays[i] <= days; i++) {
+      time = gapTimes[i];
+    }
+    return time;
+  }
+
+  /**
+   * Counts the candidate days that start before the until date time.
+   */
+  private long countDaysBefore(ZonedDateTime untilDateTime, long untilDays) {
+    if (!firstStart.isBefore(untilDateTime)) {
+      return 0;
+    }
+    long days = Math.max(1, untilDays - 1);
+    while (days > 1 && !candidateStart(days - 1).isBefore(untilDateTime)) {
+      days--;
+    }
+    while (candidateStart(days).isBefore(untilDateTime)) {
+      days++;
+    }
+    return days;
+  }
+
+  /**
+   * Finds the days, up to the given day offset, on which the time of day of the occurrences falls
+   * in a daylight saving gap, and the later time of day the gap moves it to.
+   */
+  private static void findGaps(
+          ZonedDateTime firstStart,
+          long lastDayOffset,
+          List<Long> days,
+          List<LocalTime> times) {
+    ZoneRules zoneRules = firstStart.getZone().getRules();
+    LocalDate firstDate = firstStart.toLocalDate();
+    LocalDate lastDate = firstDate.plusDays(lastDayOffset);
+    LocalTime time = firstStart.toLocalTime();
+
+    ZoneOffsetTransition transition = zoneRules.nextTransition(firstStart.toInstant());
+    while (transition != null && !transition.getDateTimeBefore().toLocalDate().isAfter(lastDate)) {
+      LocalDate day = transition.getDateTimeBefore().toLocalDate();
+      LocalDateTime local = day.atTime(time);
+      if (transition.isGap()
+              && day.isAfter(firstDate)
+              && !local.isBefore(transition.getDateTimeBefore())
+              && local.isBefore(transition.getDateTimeAfter())) {
+        time = local.plus(transition.getDuration()).toLocalTime();
+        days.add(ChronoUnit.DAYS.between(firstDate, day));
+        times.add(time);
+      }
+      transition = zoneRules.nextTransition(transition.getInstant());
+    }
+  }
+
+  private static long dayOffset(int[] weekOffsets, int ordinal) {
+    int perWeek = weekOffsets.length;
+    return (long) DAYS_IN_WEEK * (ordinal / perWeek) + weekOffsets[ordinal % perWeek];
+  }
+
+  private static int countOffsetsBelow(int[] offsets, int bound) {
+    int below = 0;
+    for (int offset : offsets) {
+      if (offset < bound) {
+        below++;
+      }
+    }
+    return below;
+  }
+
+  private static int toMask(List<DayOfWeek> daysOfWeek) {
+    int mask = 0;
+    for (DayOfWeek day : daysOfWeek) {
+      mask |= 1 << day.ordinal();
+    }
+    return mask;
+  }
+
+  private static int[] weekOffsets(DayOfWeek firstDay, int mask) {
+    int[] offsets = new int[Integer.bitCount(mask)];
+    int found = 0;
+    for (int offset = 0; offset < DAYS_IN_WEEK; offset++) {
+      if ((mask & (1 << firstDay.plus(offset).ordinal())) != 0) {
+        offsets[found++] = offset;
+      }
+    }
+    return offsets;
+  }
+}
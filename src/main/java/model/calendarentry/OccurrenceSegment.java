@@ -0,0 +1,341 @@
+package model.calendarentry;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static utils.DateTimeUtils.isTimeOverLapping;
+
+/**
+ * A run of consecutive occurrences of a recurring event that are generated from the same rule and
+ * changed by the same edits. The occurrences of a segment that were edited on their own are left
+ * out of it.
+ *
+ * <p>Every edit moves the occurrences it is applied to in the same way, so away from daylight
+ * saving transitions an occurrence of a segment is the occurrence generated a week earlier, moved
+ * by exactly a week. Two segments therefore conflict on some date only if they conflict in the
+ * first week of the run of dates that date is in, or on a date near a transition or near the
+ * first, last or left out occurrences, and only those dates have to be looked at.
+ */
+final class OccurrenceSegment {
+
+  /**
+   * The number of days around its shifted date an occurrence can be moved to by an edit of its
+   * times, its time zone or making it an all-day event.
+   */
+  static final int WINDOW_SLACK_DAYS = 2;
+
+  private static final long SECONDS_IN_DAY = 24 * 60 * 60;
+  private static final int DAYS_IN_WEEK = 7;
+
+  private final OccurrenceRule rule;
+  private final int base;
+  private final int fromOrdinal;
+  private final int toOrdinal;
+  private final List<OccurrenceEdit> edits;
+  private final NavigableMap<Integer, CalendarEntry> overridden;
+  private final String name;
+  private final Set<ZoneId> zones;
+  private final long shiftSeconds;
+  private final long slackDays;
+
+  /**
+   * The amount of time the edits still move an occurrence by after each of them, in order,
+   * starting with the time the occurrence is moved by after it is generated.
+   */
+  private final long[] remainingShifts;
+
+  /**
+   * Creates a segment of the occurrences of a rule.
+   *
+   * @param rule       the rule the occurrences are generated from.
+   * @param base       the index of the first occurrence of the rule.
+   * @param fromIndex  the index of the first occurrence of the segment.
+   * @param toIndex    the index after the last occurrence of the segment.
+   * @param edits      the edits of the recurring event, in order.
+   * @param overridden the occurrences of the segment that were edited on their own, by index.
+   */
+  OccurrenceSegment(
+          OccurrenceRule rule,
+          int base,
+          int fromIndex,
+          int toIndex,
+          List<OccurrenceEdit> edits,
+          NavigableMap<Integer, CalendarEntry> overridden) {
+    this.rule = rule;
+    this.base = base;
+    this.fromOrdinal = fromIndex - base;
+    this.toOrdinal = toIndex - base;
+    this.overridden = overridden;
+    this.edits = new ArrayList<>();
+
+    String segmentName = rule.getName();
+    Set<ZoneId> segmentZones = new LinkedHashSet<>();
+    segmentZones.add(rule.getZone());
+    List<Long> shifts = new ArrayList<>();
+    shifts.add(0L);
+    long deviationSeconds = 0;
+    for (OccurrenceEdit edit : edits) {
+      if (!edit.covers(fromIndex)) {
+        continue;
+      }
+      this.edits.add(edit);
+      if (edit.getNewName() != null) {
+        segmentName = edit.getNewName();
+      }
+      if (edit.getNewZone() != null) {
+        segmentZones.add(edit.getNewZone());
+      }
+      shifts.add(shifts.get(shifts.size() - 1) + edit.shiftSeconds());
+      deviationSeconds += edit.maxDeviationSeconds();
+    }
+    this.name = segmentName;
+    this.zones = segmentZones;
+    this.shiftSeconds = shifts.get(shifts.size() - 1);
+    this.slackDays = WINDOW_SLACK_DAYS + (deviationSeconds + SECONDS_IN_DAY - 1) / SECONDS_IN_DAY;
+    this.remainingShifts = shifts.stream().mapToLong(shift -> shiftSeconds - shift).toArray();
+  }
+
+  /**
+   * Gets the index of the first occurrence of the segment.
+   *
+   * @return the index of the first occurrence.
+   */
+  int fromIndex() {
+    return base + fromOrdinal;
+  }
+
+  /**
+   * Gets the index after the last occurrence of the segment.
+   *
+   * @return the index after the last occurrence.
+   */
+  int toIndex() {
+    return base + toOrdinal;
+  }
+
+  /**
+   * Gets the name every occurrence of the segment has.
+   *
+   * @return the name of the occurrences.
+   */
+  String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the index of the first occurrence that can end at or after the given date time.
+   *
+   * @param dateTime the date time to look from.
+   *
+   * @return the index of the first occurrence that can be near the date time.
+   */
+  int firstIndexNear(ZonedDateTime dateTime) {
+    return indexOnOrAfter(shiftedDate(dateTime).minusDays(slackDays));
+  }
+
+  /**
+   * Gets the index after the last occurrence that can start at or before the given date time.
+   *
+   * @param dateTime the date time to look up to.
+   *
+   * @return the index after the last occurrence that can be near the date time.
+   */
+  int endIndexNear(ZonedDateTime dateTime) {
+    return indexOnOrAfter(shiftedDate(dateTime).plusDays(slackDays + 1));
+  }
+
+  /**
+   * Generates the occurrence at the given index and replays the edits made to it.
+   *
+   * @param index the index of the occurrence.
+   *
+   * @return the occurrence.
+   */
+  SingleEvent occurrence(int index) {
+    SingleEvent occurrence = rule.occurrence(index - base);
+    for (OccurrenceEdit edit : edits) {
+      edit.apply(occurrence);
+    }
+    return occurrence;
+  }
+
+  /**
+   * Checks if any occurrence of this segment overlaps with any occurrence of the other segment.
+   *
+   * @param other the other segment.
+   *
+   * @return true if the segments conflict, false otherwise.
+   */
+  boolean conflictsWith(OccurrenceSegment other) {
+    if (fromOrdinal >= toOrdinal || other.fromOrdinal >= other.toOrdinal) {
+      return false;
+    }
+    final long nearbyDays = slackDays + other.slackDays + 2;
+    LocalDate firstDate = max(
+            rule.date(fromOrdinal),
+            shiftedDate(other.shiftedStart(other.rule.date(other.fromOrdinal)))
+                    .minusDays(nearbyDays));
+    LocalDate lastDate = min(
+            rule.date(toOrdinal - 1),
+            shiftedDate(other.shiftedStart(other.rule.date(other.toOrdinal - 1)))
+                    .plusDays(nearbyDays));
+    if (firstDate.isAfter(lastDate)) {
+      return false;
+    }
+
+    final long margin = nearbyDays + 2 * DAYS_IN_WEEK;
+    TreeSet<LocalDate> anchors = new TreeSet<>();
+    addAnchor(anchors, other, other.rule.date(other.fromOrdinal));
+    addAnchor(anchors, other, other.rule.date(other.toOrdinal - 1));
+    for (int index : overridden.keySet()) {
+      addAnchor(anchors, this, rule.date(index - base));
+    }
+    for (int index : other.overridden.keySet()) {
+      addAnchor(anchors, other, other.rule.date(index - other.base));
+    }
+    addTransitionAnchors(anchors, this, firstDate.minusDays(margin), lastDate.plusDays(margin));
+    addTransitionAnchors(anchors, other, firstDate.minusDays(margin), lastDate.plusDays(margin));
+
+    Map<LocalDate, CalendarEntry> otherOccurrences = new HashMap<>();
+    LocalDate date = firstDate;
+    int regularDays = 0;
+    while (!date.isAfter(lastDate)) {
+      LocalDate anchor = anchors.ceiling(date.minusDays(margin));
+      boolean isNearAnchor = anchor != null && !anchor.isAfter(date.plusDays(margin));
+      if (isNearAnchor || regularDays < DAYS_IN_WEEK) {
+        if (conflictsOn(date, other, otherOccurrences)) {
+          return true;
+        }
+        regularDays = isNearAnchor ? 0 : regularDays + 1;
+        date = date.plusDays(1);
+      } else if (anchor == null) {
+        // Every later date repeats one of the week of dates already looked at.
+        return false;
+      } else {
+        date = anchor.minusDays(margin);
+        regularDays = 0;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks if the occurrence of this segment generated on the given date overlaps with any
+   * occurrence of the other segment. The occurrences of the other segment are kept by date, as the
+   * same ones are looked at for consecutive dates.
+   */
+  private boolean conflictsOn(
+          LocalDate date,
+          OccurrenceSegment other,
+          Map<LocalDate, CalendarEntry> otherOccurrences) {
+    CalendarEntry entry = occurrenceOn(date);
+    if (entry == null) {
+      return false;
+    }
+    ZonedDateTime earliest = entry.endDateTime.isBefore(entry.startDateTime)
+            ? entry.endDateTime : entry.startDateTime;
+    ZonedDateTime latest = entry.endDateTime.isBefore(entry.startDateTime)
+            ? entry.startDateTime : entry.endDateTime;
+    LocalDate lastOtherDate = other.shiftedDate(latest).plusDays(other.slackDays + 1);
+    for (LocalDate otherDate = other.shiftedDate(earliest).minusDays(other.slackDays + 1);
+         !otherDate.isAfter(lastOtherDate);
+         otherDate = otherDate.plusDays(1)) {
+      if (!otherOccurrences.containsKey(otherDate)) {
+        otherOccurrences.put(otherDate, other.occurrenceOn(otherDate));
+      }
+      CalendarEntry otherEntry = otherOccurrences.get(otherDate);
+      if (otherEntry != null && isTimeOverLapping(
+              entry.startDateTime,
+              entry.endDateTime,
+              otherEntry.startDateTime,
+              otherEntry.endDateTime)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the occurrence of the segment generated on the given date, or null if there is none.
+   */
+  private CalendarEntry occurrenceOn(LocalDate date) {
+    int ordinal = rule.ordinalOn(date);
+    if (ordinal < fromOrdinal || ordinal >= toOrdinal || overridden.containsKey(base + ordinal)) {
+      return null;
+    }
+    return occurrence(base + ordinal);
+  }
+
+  /**
+   * Adds the date of this segment that occurrences generated on the given date of a segment are
+   * moved near.
+   */
+  private void addAnchor(Set<LocalDate> anchors, OccurrenceSegment segment, LocalDate date) {
+    anchors.add(shiftedDate(segment.shiftedStart(date)));
+  }
+
+  /**
+   * Adds the dates of this segment near which the occurrences of a segment are generated or moved
+   * across a daylight saving transition of one of the zones they are in.
+   */
+  private void addTransitionAnchors(
+          Set<LocalDate> anchors,
+          OccurrenceSegment segment,
+          LocalDate firstDate,
+          LocalDate lastDate) {
+    ZonedDateTime from = shiftedStart(firstDate);
+    ZonedDateTime to = shiftedStart(lastDate.plusDays(1));
+    for (ZoneId zone : segment.zones) {
+      ZoneRules zoneRules = zone.getRules();
+      for (long remainingShift : segment.remainingShifts) {
+        ZoneOffsetTransition transition = zoneRules.nextTransition(
+                from.minusSeconds(remainingShift).toInstant());
+        while (transition != null
+                && transition.getInstant().isBefore(to.minusSeconds(remainingShift).toInstant())) {
+          anchors.add(shiftedDate(ZonedDateTime.ofInstant(transition.getInstant(), zone)
+                  .plusSeconds(remainingShift)));
+          transition = zoneRules.nextTransition(transition.getInstant());
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the date time that the start of the given date is moved to by the edits.
+   */
+  private ZonedDateTime shiftedStart(LocalDate date) {
+    return date.atStartOfDay(rule.getZone()).plusSeconds(shiftSeconds);
+  }
+
+  /**
+   * Gets the date that occurrences near the given date time are generated on, before the edits
+   * move them.
+   */
+  private LocalDate shiftedDate(ZonedDateTime dateTime) {
+    return dateTime.minusSeconds(shiftSeconds).withZoneSameInstant(rule.getZone()).toLocalDate();
+  }
+
+  private int indexOnOrAfter(LocalDate date) {
+    int ordinal = rule.firstOrdinalOnOrAfter(date);
+    return base + Math.max(fromOrdinal, Math.min(toOrdinal, ordinal));
+  }
+
+  private static LocalDate max(LocalDate first, LocalDate second) {
+    return second.isAfter(first) ? second : first;
+  }
+
+  private static LocalDate min(LocalDate first, LocalDate second) {
+    return second.isBefore(first) ? second : first;
+  }
+}
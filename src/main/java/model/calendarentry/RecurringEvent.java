@@ -1,5 +1,8 @@
 package model.calendarentry;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.DayOfWeek;
 import java.time.Duration;
 import java.time.ZoneId;
@@ -7,30 +10,52 @@ import java.time.ZonedDateTime;
 import java.time.temporal.TemporalAmount;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import utils.jfr.OccurrenceGenerationEvent;
 
-import static utils.DateTimeUtils.calculateUntilDateTime;
 import static utils.DateTimeUtils.isTimeOverLapping;
 import static utils.DateTimeUtils.parseWeekDays;
 import static utils.DateTimeUtils.stringToZdt;
-import static utils.DateTimeUtils.zdtToString;
 import static utils.DateTimeUtils.daysOfWeekToString;
 
 /**
  * Represents a recurring event in the calendar. A recurring event is an event that occurs multiple
  * times over a period of time. The event can be repeated on specific days of the week or at a
  * specific frequency. The event can be edited by changing the start time, end time, days of the
- * week, frequency, or end time. It also stores a list of all the occurrences of the event.
+ * week, frequency, or end time.
+ *
+ * <p>The occurrences of the event are not stored. The event keeps the rules the occurrences are
+ * generated from, the edits made to ranges of occurrences and the occurrences that were edited on
+ * their own, and expands only the occurrences that can fall in the time range being looked at.
+ * Occurrences are numbered in the order they were generated in, which is the order they are
+ * reported in.
  */
 public class RecurringEvent extends CalendarEntry {
 
-  private final List<CalendarEntry> calendarEntries;
+  private List<OccurrenceRule> rules;
+  private List<OccurrenceEdit> edits;
+  private TreeMap<Integer, CalendarEntry> overrides;
   private ZonedDateTime untilDateTime;
   private List<DayOfWeek> daysOfWeek;
   private int frequency;
 
+  /**
+   * What the last edit changed, or null if the event was not edited since it was made.
+   */
+  private UndoRecord lastEdit;
+
   /**
    * Constructs a recurring event with untilDateTime given. Generates occurrences based on the
    * startDateTime, endDateTime, untilDateTime, daysOfWeek, and the template event which is the
@@ -59,13 +84,11 @@ public class RecurringEvent extends CalendarEntry {
     super(name, startDateTime, endDateTime, description, location, isPrivate, isAllDay);
     this.daysOfWeek = parseWeekDays(daysOfWeekStr);
     this.untilDateTime = untilDateTime;
-    this.calendarEntries = generateOccurrences(
-            startDateTime,
-            endDateTime,
-            untilDateTime,
-            daysOfWeek,
-            this);
-    this.frequency = this.calendarEntries.size();
+    this.rules = new ArrayList<>();
+    this.edits = new ArrayList<>();
+    this.overrides = new TreeMap<>();
+    appendRule(OccurrenceRule.until(startDateTime, endDateTime, untilDateTime, daysOfWeek, this));
+    this.frequency = size();
     previousState = null;
   }
 
@@ -96,14 +119,14 @@ public class RecurringEvent extends CalendarEntry {
     super(name, startDateTime, endDateTime, description, location, isPrivate, isAllDay);
     this.daysOfWeek = parseWeekDays(daysOfWeekStr);
     this.frequency = frequency;
-    this.calendarEntries = generateOccurrencesByFrequency(
-            startDateTime,
-            endDateTime,
-            frequency,
-            daysOfWeek,
-            this
-    );
-    this.untilDateTime = this.calendarEntries.get(this.calendarEntries.size() - 1).endDateTime;
+    this.rules = new ArrayList<>();
+    this.edits = new ArrayList<>();
+    this.overrides = new TreeMap<>();
+    appendRule(OccurrenceRule.times(startDateTime, endDateTime, frequency, daysOfWeek, this));
+    if (rules.isEmpty()) {
+      throw new IllegalArgumentException("Recurring event must occur at least once");
+    }
+    this.untilDateTime = occurrenceAt(size() - 1).endDateTime;
     previousState = null;
   }
 
@@ -125,11 +148,42 @@ public class RecurringEvent extends CalendarEntry {
 
     this.daysOfWeek = parseWeekDays(daysOfWeekToString(recurringEvent.daysOfWeek));
     this.frequency = recurringEvent.frequency;
-    this.calendarEntries = copyCalendarEntries(recurringEvent.calendarEntries);
-    this.previousState = recurringEvent.previousState;
+    this.rules = new ArrayList<>(recurringEvent.rules);
+    this.edits = new ArrayList<>(recurringEvent.edits);
+    this.overrides = copyOverrides(recurringEvent.overrides);
     this.untilDateTime = recurringEvent.untilDateTime;
   }
 
+  /**
+   * Constructs a recurring event from its parts, as written by writeTo or kept by inZone. The
+   * header is taken as it is, without moving an all-day event to the day it starts.
+   */
+  private RecurringEvent(
+          CalendarEntry header,
+          ZonedDateTime untilDateTime,
+          List<DayOfWeek> daysOfWeek,
+          int frequency,
+          List<OccurrenceRule> rules,
+          List<OccurrenceEdit> edits,
+          TreeMap<Integer, CalendarEntry> overrides) {
+    super(
+            header.name,
+            header.startDateTime,
+            header.endDateTime,
+            header.description,
+            header.location,
+            header.isPrivate,
+            false
+    );
+    this.isAllDay = header.isAllDay;
+    this.untilDateTime = untilDateTime;
+    this.daysOfWeek = daysOfWeek;
+    this.frequency = frequency;
+    this.rules = rules;
+    this.edits = edits;
+    this.overrides = overrides;
+  }
+
   /**
    * Checks if the recurring event conflicts with another calendar entry.
    *
@@ -152,23 +206,15 @@ public class RecurringEvent extends CalendarEntry {
    */
   @Override
   boolean isConflictWithSingleEvent(SingleEvent other) {
-    for (CalendarEntry entry : calendarEntries) {
-      if (isTimeOverLapping(
-              entry.startDateTime,
-              entry.endDateTime,
-              other.startDateTime,
-              other.endDateTime)
-      ) {
-        return true;
-      }
-    }
-    return false;
+    return overlapsOccurrence(other);
   }
 
   /**
    * Checks if the recurring event conflicts with another recurring event. The recurring event
    * conflicts with the other recurring event if any of the occurrences of the recurring event
-   * overlaps with any of the occurrences of the other recurring event.
+   * overlaps with any of the occurrences of the other recurring event. The occurrences generated
+   * from the rules are compared a segment at a time, and the occurrences that were edited on their
+   * own are looked up in the other event one at a time.
    *
    * @param other the other recurring event
    *
@@ -176,14 +222,24 @@ public class RecurringEvent extends CalendarEntry {
    */
   @Override
   boolean isConflictWithRecurringEvent(RecurringEvent other) {
-    for (CalendarEntry entry : calendarEntries) {
-      for (CalendarEntry otherEntry : other.calendarEntries) {
-        if (isTimeOverLapping(
-                entry.startDateTime,
-                entry.endDateTime,
-                otherEntry.startDateTime,
-                otherEntry.endDateTime)
-        ) {
+    if (!isTimeOverLapping(getSpanStart(), getSpanEnd(), other.getSpanStart(), other.getSpanEnd())) {
+      return false;
+    }
+    for (CalendarEntry entry : overrides.values()) {
+      if (other.overlapsOccurrence(entry)) {
+        return true;
+      }
+    }
+    for (CalendarEntry entry : other.overrides.values()) {
+      if (overlapsOccurrence(entry)) {
+        return true;
+      }
+    }
+
+    List<OccurrenceSegment> otherSegments = other.segments();
+    for (OccurrenceSegment segment : segments()) {
+      for (OccurrenceSegment otherSegment : otherSegments) {
+        if (segment.conflictsWith(otherSegment)) {
           return true;
         }
       }
@@ -203,12 +259,42 @@ public class RecurringEvent extends CalendarEntry {
   public AbstractMap.SimpleEntry<CalendarEntry, Boolean> isEventStartWith(
           String eventName,
           ZonedDateTime startZDT) {
-    for (CalendarEntry entry : calendarEntries) {
-      if (entry.name.equals(eventName) && entry.startDateTime.equals(startZDT)) {
-        return new AbstractMap.SimpleEntry<>(entry.copy(), true);
-      }
+    AbstractMap.SimpleEntry<Integer, CalendarEntry> found = findOccurrence(
+            startZDT,
+            startZDT,
+            eventName,
+            entry -> entry.name.equals(eventName) && entry.startDateTime.equals(startZDT));
+    return new AbstractMap.SimpleEntry<>(found == null ? null : found.getValue().copy(), true);
+  }
+
+  /**
+   * Gets the name of the recurring event along with the names of the segments of its occurrences
+   * and of the occurrences that were edited on their own.
+   *
+   * @return the names of the recurring event and its occurrences.
+   */
+  @Override
+  public Set<String> getNames() {
+    Set<String> names = new HashSet<>();
+    names.add(name);
+    for (OccurrenceSegment segment : segments()) {
+      names.add(segment.getName());
+    }
+    for (CalendarEntry entry : overrides.values()) {
+      names.add(entry.name);
     }
-    return new AbstractMap.SimpleEntry<>(null, true);
+    return names;
+  }
+
+  /**
+   * Checks if any occurrence of the recurring event ends before it starts.
+   *
+   * @return true if an occurrence ends before it starts, false otherwise.
+   */
+  @Override
+  public boolean hasEventEndingBeforeStart() {
+    return findOccurrence(null, null, null,
+            occurrence -> occurrence.endDateTime.isBefore(occurrence.startDateTime)) != null;
   }
 
   /**
@@ -222,7 +308,8 @@ public class RecurringEvent extends CalendarEntry {
     endDateTime = endDateTime.plusDays(offsetDays);
     untilDateTime = untilDateTime.plusDays(offsetDays);
 
-    for (CalendarEntry entry : calendarEntries) {
+    recordEdit(OccurrenceEdit.offsetDays(0, size(), offsetDays));
+    for (CalendarEntry entry : overrides.values()) {
       entry.addOffsetDays(offsetDays);
     }
   }
@@ -241,18 +328,27 @@ public class RecurringEvent extends CalendarEntry {
           ZonedDateTime endDateTime,
           String propertyName,
           String propertyValue) {
-    previousState = new RecurringEvent(this);
-    for (CalendarEntry entry : calendarEntries) {
+    lastEdit = new UndoRecord(lastEdit);
+    List<AbstractMap.SimpleEntry<Integer, CalendarEntry>> matches = new ArrayList<>();
+    visitOccurrences(startDateTime, startDateTime, eventName, (index, entry) -> {
       if (entry.matchesSingleOccurrence(eventName, startDateTime, endDateTime) != null) {
-        entry.updateSimpleParameters(propertyName, propertyValue);
+        matches.add(new AbstractMap.SimpleEntry<>(index, entry));
       }
+      return true;
+    });
+
+    // An occurrence edited on its own no longer follows the rules, so it is kept as it is.
+    for (AbstractMap.SimpleEntry<Integer, CalendarEntry> match : matches) {
+      CalendarEntry occurrence = editableOccurrence(match.getKey(), match.getValue());
+      occurrence.updateSimpleParameters(propertyName, propertyValue);
+      overrides.put(match.getKey(), occurrence);
     }
   }
 
   /**
    * Returns the details of the recurring event that overlaps with the given time range. Goes
-   * through all the occurrences of the recurring event and returns the details of the occurrences
-   * that overlap with the given time range.
+   * through the occurrences of the recurring event around the time range and returns the details
+   * of the occurrences that overlap with the given time range.
    *
    * @param startTime the start time of the event
    * @param endTime   the end time of the event
@@ -265,12 +361,10 @@ public class RecurringEvent extends CalendarEntry {
           ZonedDateTime endTime,
           boolean isRecurring) {
     List<Map<String,String>> result = new LinkedList<>();
-    for (CalendarEntry entry : calendarEntries) {
-      List<Map<String,String>> events = entry.getEventDetails(startTime, endTime, true);
-      if (events != null) {
-        result.addAll(events);
-      }
-    }
+    visitOccurrences(startTime, endTime, null, (index, entry) -> {
+      result.addAll(entry.getEventDetails(startTime, endTime, true));
+      return true;
+    });
 
     return result;
   }
@@ -284,12 +378,48 @@ public class RecurringEvent extends CalendarEntry {
   @Override
   public List<Map<String,String>> getAllEventDetails() {
     List<Map<String,String>> result = new LinkedList<>();
-    for (CalendarEntry entry : calendarEntries) {
+    visitOccurrences(null, null, null, (index, entry) -> {
       result.addAll(entry.getAllEventDetails());
-    }
+      return true;
+    });
+    return result;
+  }
+
+  /**
+   * Gets the views of the occurrences that overlap with the given time range. Only the occurrences
+   * near the time range are generated, and no copies or details maps are made of them.
+   *
+   * @param startZDT the start date time of the time range
+   * @param endZDT   the end date time of the time range
+   *
+   * @return the views of the occurrences in the time range, in order
+   */
+  @Override
+  public List<EventView> getEventViews(ZonedDateTime startZDT, ZonedDateTime endZDT) {
+    List<EventView> result = new ArrayList<>();
+    visitOccurrences(startZDT, endZDT, null, (index, entry) -> {
+      if (isTimeOverLapping(entry.startDateTime, entry.endDateTime, startZDT, endZDT)) {
+        result.add(entry.toEventView(true));
+      }
+      return true;
+    });
     return result;
   }
 
+  /**
+   * Gives the view of every occurrence of the recurring event to the given action. The occurrences
+   * are generated one at a time, so the views of a long series are never all kept at once.
+   *
+   * @param action the action to give the views to
+   */
+  @Override
+  public void forEachEventView(Consumer<EventView> action) {
+    visitOccurrences(null, null, null, (index, entry) -> {
+      action.accept(entry.toEventView(true));
+      return true;
+    });
+  }
+
   /**
    * Updates the time zone of the recurring event and all its occurrences.
    *
@@ -300,7 +430,9 @@ public class RecurringEvent extends CalendarEntry {
     startDateTime = startDateTime.withZoneSameInstant(timeZone);
     endDateTime = endDateTime.withZoneSameInstant(timeZone);
     untilDateTime = untilDateTime.withZoneSameInstant(timeZone);
-    for (CalendarEntry entry : calendarEntries) {
+
+    recordEdit(OccurrenceEdit.zone(0, size(), timeZone));
+    for (CalendarEntry entry : overrides.values()) {
       entry.updateZone(timeZone);
     }
   }
@@ -315,7 +447,7 @@ public class RecurringEvent extends CalendarEntry {
    */
   @Override
   public void updateDateTime(ZonedDateTime targetZDT) {
-    final TemporalAmount timeShift = Duration.between(startDateTime, targetZDT);
+    final Duration timeShift = Duration.between(startDateTime, targetZDT);
     final TemporalAmount eventDuration = Duration.between(startDateTime, endDateTime);
 
     startDateTime = targetZDT;
@@ -323,7 +455,8 @@ public class RecurringEvent extends CalendarEntry {
 
     untilDateTime = untilDateTime.plus(timeShift);
 
-    for (CalendarEntry entry : calendarEntries) {
+    recordEdit(OccurrenceEdit.shift(0, size(), timeShift));
+    for (CalendarEntry entry : overrides.values()) {
       entry.updateDateTime(entry.startDateTime.plus(timeShift));
     }
   }
@@ -345,7 +478,7 @@ public class RecurringEvent extends CalendarEntry {
 
           String propertyName, String propertyValue) {
     boolean editAll = (targetStartTime == null);
-    previousState = new RecurringEvent(this);
+    lastEdit = new UndoRecord(lastEdit);
 
     switch (propertyName) {
       case "startDateTime":
@@ -386,31 +519,26 @@ public class RecurringEvent extends CalendarEntry {
           String eventName,
           ZonedDateTime startDateTime,
           ZonedDateTime endDateTime) {
-    for (CalendarEntry entry : calendarEntries) {
-      if (entry.name.equals(eventName)
-              && entry.startDateTime.isEqual(startDateTime)
-              && entry.endDateTime.isEqual(endDateTime)) {
-        return entry;
-      }
-    }
+    AbstractMap.SimpleEntry<Integer, CalendarEntry> found = findOccurrence(
+            startDateTime,
+            startDateTime,
+            eventName,
+            entry -> entry.name.equals(eventName)
+                    && entry.startDateTime.isEqual(startDateTime)
+                    && entry.endDateTime.isEqual(endDateTime));
 
-    return null;
+    return found == null ? null : found.getValue();
   }
 
   /**
-   * Reverse the edit by reverting the calendar entry to its previous state.
+   * Reverse the edit by reverting the calendar entry to its previous state. Only what the edit
+   * changed is put back, so undoing an edit costs as much as the edit did.
    */
   @Override
   public void undoEdit() {
-    super.undoEdit();
-    if (previousState instanceof RecurringEvent) {
-      RecurringEvent prevState = (RecurringEvent) previousState;
-      this.untilDateTime = prevState.untilDateTime;
-      this.daysOfWeek = parseWeekDays(daysOfWeekToString(prevState.daysOfWeek));
-      this.frequency = prevState.frequency;
-      this.calendarEntries.clear();
-      this.calendarEntries.addAll(copyCalendarEntries(prevState.calendarEntries));
-      this.previousState = prevState.previousState;
+    if (lastEdit != null) {
+      lastEdit.restore();
+      lastEdit = lastEdit.previous;
     }
   }
 
@@ -425,18 +553,7 @@ public class RecurringEvent extends CalendarEntry {
    */
   @Override
   public CalendarEntry matchesRecurringEvent(String eventName, ZonedDateTime targetDateTime) {
-    if (targetDateTime == null) {
-      if (name.equals(eventName)) {
-        return this;
-      }
-    }
-    for (CalendarEntry entry : calendarEntries) {
-      if (entry.name.equals(eventName) && (!entry.startDateTime.isBefore(targetDateTime))) {
-        return this;
-      }
-    }
-
-    return null;
+    return findFirstMatchingEvent(eventName, targetDateTime) == -1 ? null : this;
   }
 
   /**
@@ -446,12 +563,155 @@ public class RecurringEvent extends CalendarEntry {
    */
   @Override
   public CalendarEntry copy() {
-    return new RecurringEvent(this);
+    RecurringEvent copy = new RecurringEvent(this);
+    copy.recordEdit(OccurrenceEdit.copy(0, copy.size()));
+    return copy;
   }
 
   /**
-   * Searched for all the occurrences and returns the instances that overlap with the given time
-   * range.
+   * Writes the recurring event in a binary form: its header, its rules, the edits recorded on
+   * them and the occurrences that were edited on their own. The occurrences are not written, so
+   * the size of the output does not grow with the number of occurrences.
+   *
+   * @param out the output to write to
+   *
+   * @throws IOException if the event cannot be written
+   */
+  @Override
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeByte(EntryFormat.RECURRING_EVENT);
+    writeFields(out);
+    EntryFormat.writeDateTime(out, untilDateTime);
+    out.writeInt(daysOfWeek.size());
+    for (DayOfWeek day : daysOfWeek) {
+      out.writeByte(day.getValue());
+    }
+    out.writeInt(frequency);
+    out.writeInt(rules.size());
+    for (OccurrenceRule rule : rules) {
+      rule.writeTo(out);
+    }
+    out.writeInt(edits.size());
+    for (OccurrenceEdit edit : edits) {
+      edit.writeTo(out);
+    }
+    out.writeInt(overrides.size());
+    for (Map.Entry<Integer, CalendarEntry> override : overrides.entrySet()) {
+      out.writeInt(override.getKey());
+      override.getValue().writeTo(out);
+    }
+  }
+
+  /**
+   * Reads a recurring event written by writeTo, after the kind of the entry.
+   */
+  static RecurringEvent readFields(DataInput in) throws IOException {
+    CalendarEntry header = SingleEvent.readFields(in);
+    ZonedDateTime untilDateTime = EntryFormat.readDateTime(in);
+    int dayCount = EntryFormat.checkRange(in.readInt(), 0, DayOfWeek.values().length);
+    List<DayOfWeek> daysOfWeek = new ArrayList<>(dayCount);
+    for (int i = 0; i < dayCount; i++) {
+      daysOfWeek.add(DayOfWeek.of(EntryFormat.checkRange(in.readByte(), 1, 7)));
+    }
+    int frequency = in.readInt();
+
+    int ruleCount = EntryFormat.checkRange(in.readInt(), 0, Integer.MAX_VALUE);
+    List<OccurrenceRule> rules = new ArrayList<>();
+    for (int i = 0; i < ruleCount; i++) {
+      rules.add(OccurrenceRule.readFrom(in));
+    }
+    int editCount = EntryFormat.checkRange(in.readInt(), 0, Integer.MAX_VALUE);
+    List<OccurrenceEdit> edits = new ArrayList<>();
+    for (int i = 0; i < editCount; i++) {
+      edits.add(OccurrenceEdit.readFrom(in));
+    }
+    int overrideCount = EntryFormat.checkRange(in.readInt(), 0, Integer.MAX_VALUE);
+    TreeMap<Integer, CalendarEntry> overrides = new TreeMap<>();
+    for (int i = 0; i < overrideCount; i++) {
+      overrides.put(in.readInt(), CalendarEntry.readFrom(in));
+    }
+    return new RecurringEvent(
+            header, untilDateTime, daysOfWeek, frequency, rules, edits, overrides);
+  }
+
+  /**
+   * Gets the recurring event as it would be after updating its time zone. The rules and edits are
+   * shared with the new event rather than generated, so this costs as much as the occurrences
+   * that were edited on their own.
+   *
+   * @param timeZone the time zone to see the event in
+   *
+   * @return a new recurring event in the time zone
+   */
+  @Override
+  public CalendarEntry inZone(ZoneId timeZone) {
+    RecurringEvent moved = new RecurringEvent(this, untilDateTime, new ArrayList<>(daysOfWeek),
+            frequency, new ArrayList<>(rules), new ArrayList<>(edits),
+            overridesInZone(overrides, timeZone));
+    moved.updateZone(timeZone);
+    return moved;
+  }
+
+  /**
+   * Gets the start of the time span covered by the recurring event. The span starts no later than
+   * the earliest start or end of any of its occurrences.
+   *
+   * @return the start of the time span covered by the recurring event.
+   */
+  @Override
+  public ZonedDateTime getSpanStart() {
+    ZonedDateTime spanStart = startDateTime;
+    int base = 0;
+    for (OccurrenceRule rule : rules) {
+      // Every occurrence of a rule is moved the same way, so the first one is the earliest.
+      int first = base;
+      while (first < base + rule.size() && overrides.containsKey(first)) {
+        first++;
+      }
+      if (first < base + rule.size()) {
+        CalendarEntry entry = generate(rule, base, first - base);
+        spanStart = earliest(spanStart, earliest(entry.startDateTime, entry.endDateTime)
+                .minusDays(OccurrenceSegment.WINDOW_SLACK_DAYS));
+      }
+      base += rule.size();
+    }
+    for (CalendarEntry entry : overrides.values()) {
+      spanStart = earliest(spanStart, earliest(entry.startDateTime, entry.endDateTime));
+    }
+    return spanStart;
+  }
+
+  /**
+   * Gets the end of the time span covered by the recurring event. The span ends no earlier than the
+   * latest start or end of any of its occurrences.
+   *
+   * @return the end of the time span covered by the recurring event.
+   */
+  @Override
+  public ZonedDateTime getSpanEnd() {
+    ZonedDateTime spanEnd = endDateTime;
+    int base = 0;
+    for (OccurrenceRule rule : rules) {
+      int last = base + rule.size() - 1;
+      while (last >= base && overrides.containsKey(last)) {
+        last--;
+      }
+      if (last >= base) {
+        CalendarEntry entry = generate(rule, base, last - base);
+        spanEnd = latest(spanEnd, latest(entry.startDateTime, entry.endDateTime)
+                .plusDays(OccurrenceSegment.WINDOW_SLACK_DAYS));
+      }
+      base += rule.size();
+    }
+    for (CalendarEntry entry : overrides.values()) {
+      spanEnd = latest(spanEnd, latest(entry.startDateTime, entry.endDateTime));
+    }
+    return spanEnd;
+  }
+
+  /**
+   * Searched for the occurrences around the given time range and returns the instances that
+   * overlap with it.
    *
    * @param startZDT the start date of the time range
    * @param endZDT   the end date of the time range
@@ -461,11 +721,12 @@ public class RecurringEvent extends CalendarEntry {
   @Override
   public List<CalendarEntry> getEventsIfWithinRange(ZonedDateTime startZDT, ZonedDateTime endZDT) {
     List<CalendarEntry> result = new LinkedList<>();
-    for (CalendarEntry entry : calendarEntries) {
+    visitOccurrences(startZDT, endZDT, null, (index, entry) -> {
       if (isTimeOverLapping(entry.startDateTime, entry.endDateTime, startZDT, endZDT)) {
         result.add(entry.copy());
       }
-    }
+      return true;
+    });
     return result;
   }
 
@@ -484,20 +745,20 @@ public class RecurringEvent extends CalendarEntry {
         return 0;
       }
     }
-    for (int i = 0; i < calendarEntries.size(); i++) {
-      ZonedDateTime entryTime = calendarEntries.get(i).startDateTime;
-      String entryName = calendarEntries.get(i).name;
-      if (entryName.equals(eventName)
-              && (targetStartTime == null || !entryTime.isBefore(targetStartTime))) {
-        return i;
-      }
-    }
+    AbstractMap.SimpleEntry<Integer, CalendarEntry> found = findOccurrence(
+            targetStartTime,
+            null,
+            eventName,
+            entry -> entry.name.equals(eventName)
+                    && (targetStartTime == null || !entry.startDateTime.isBefore(targetStartTime)));
 
-    return -1;
+    return found == null ? -1 : found.getKey();
   }
 
   /**
-   * Update the simple parameters of the following events starting from an index.
+   * Update the simple parameters of the following events starting from an index. The edit is
+   * checked against the occurrences it applies to before it is recorded, so an edit that fails
+   * leaves the event unchanged.
    *
    * @param startIndex    the first index of event that needs to be updated.
    * @param propertyName  the name of the property that needs to be updated.
@@ -508,126 +769,61 @@ public class RecurringEvent extends CalendarEntry {
       throw new IllegalArgumentException("No such calendar entry found");
     }
 
-    for (int i = startIndex; i < calendarEntries.size(); i++) {
-      CalendarEntry event = calendarEntries.get(i);
-      if (propertyName.equals("endDateTime")) {
-        ZonedDateTime endDateTime = event.endDateTime;
-        ZonedDateTime newTime = stringToZdt(propertyValue, endDateTime.getZone().toString());
-        newTime = endDateTime.withHour(newTime.getHour()).withMinute(newTime.getMinute());
-        propertyValue = zdtToString(newTime, true);
+    final int size = size();
+    final List<OccurrenceEdit> newEdits;
+    if (propertyName.equals("endDateTime")) {
+      // The new end time can be before the start of only some of the occurrences.
+      newEdits = OccurrenceEdit.endTimes(
+              startIndex,
+              size,
+              index -> occurrenceAt(index).copy(),
+              propertyValue);
+    } else {
+      OccurrenceEdit edit = OccurrenceEdit.property(startIndex, size, propertyName, propertyValue);
+      if (startIndex < size) {
+        edit.apply(occurrenceAt(startIndex).copy());
       }
-
-      event.updateSimpleParameters(propertyName, propertyValue);
+      newEdits = List.of(edit);
     }
-  }
 
-  /**
-   * Generate occurrences of the recurring event based on the startDateTime, endDateTime,
-   * newUntilDateTime, daysOfWeek, and the template event.
-   *
-   * @param startDateTime    start date time of the event.
-   * @param endDateTime      end date time of the event.
-   * @param newUntilDateTime new end date time of the event.
-   * @param daysOfWeek       Days of the week the event occurs on.
-   * @param templateEvent    the template event.
-   *
-   * @return a list of occurrences of the event.
-   */
-  private List<CalendarEntry> generateOccurrences(
-          ZonedDateTime startDateTime,
-          ZonedDateTime endDateTime,
-          ZonedDateTime newUntilDateTime,
-          List<DayOfWeek> daysOfWeek,
-          CalendarEntry templateEvent) {
-    List<CalendarEntry> allOccurrences = new ArrayList<>();
-    ZonedDateTime occurrenceStartDT = startDateTime;
-
-    while (occurrenceStartDT.isBefore(newUntilDateTime)) {
-      if (daysOfWeek.contains(occurrenceStartDT.getDayOfWeek())) {
-        ZonedDateTime occurrenceEndDT = occurrenceStartDT
-                .withHour(endDateTime.getHour())
-                .withMinute(endDateTime.getMinute());
-
-        allOccurrences.add(new SingleEvent(
-                templateEvent.name,
-                occurrenceStartDT,
-                occurrenceEndDT,
-                templateEvent.description,
-                templateEvent.location,
-                templateEvent.isPrivate,
-                templateEvent.isAllDay));
+    for (OccurrenceEdit edit : newEdits) {
+      for (Map.Entry<Integer, CalendarEntry> override
+              : overrides.subMap(edit.fromIndex, edit.toIndex).entrySet()) {
+        CalendarEntry occurrence = editableOccurrence(override.getKey(), override.getValue());
+        edit.apply(occurrence);
+        override.setValue(occurrence);
       }
-
-      occurrenceStartDT = occurrenceStartDT.plusDays(1);
+      recordEdit(edit);
     }
-
-    return allOccurrences;
   }
 
   /**
-   * Generate occurrences of the recurring event based on the startDateTime, endDateTime,
-   * newFrequency, daysOfWeek, and the template event.
+   * Find the index of the occurrence an edit of the rules starts from.
    *
-   * @param startDateTime start date time of the event.
-   * @param endDateTime   end date time of the event.
-   * @param newFrequency  frequency of the event.
-   * @param daysOfWeek    days of the week the event occurs on.
-   * @param templateEvent template event.
-   *
-   * @return a list of occurrences of the event.
-   */
-  private List<CalendarEntry> generateOccurrencesByFrequency(
-          ZonedDateTime startDateTime,
-          ZonedDateTime endDateTime,
-          int newFrequency,
-          List<DayOfWeek> daysOfWeek,
-          CalendarEntry templateEvent) {
-    ZonedDateTime newUntilDateTime = calculateUntilDateTime(
-            startDateTime,
-            newFrequency,
-            daysOfWeek);
-
-    return generateOccurrences(
-            startDateTime,
-            endDateTime,
-            newUntilDateTime,
-            daysOfWeek,
-            templateEvent);
-  }
-
-
-  /**
-   * Delete all the event with the given name and target start time.
+   * @param eventName       name of the event that needs to be updated.
+   * @param targetStartTime target start time of the event.
    *
-   * @param eventName       name of the event that needs to be deleted
-   * @param targetStartTime target start time of the event that needs to be deleted
+   * @return the index of the first occurrence to replace.
    */
-  private CalendarEntry deleteFromEvent(String eventName, ZonedDateTime targetStartTime) {
+  private int findEditStart(String eventName, ZonedDateTime targetStartTime) {
     int index = findFirstMatchingEvent(eventName, targetStartTime);
     if (index == -1) {
       throw new IllegalArgumentException("No such calendar entry found");
     }
-    CalendarEntry event = (targetStartTime == null) ? this : calendarEntries.get(index);
-    calendarEntries.subList(index, calendarEntries.size()).clear();
-
-    return event;
+    return index;
   }
 
-  private void generateOccurrencesAndAddToCalendarEntries(
-          ZonedDateTime startDateTime,
-          ZonedDateTime endDateTime,
-          ZonedDateTime untilDateTime,
-          List<DayOfWeek> daysOfWeek,
-          CalendarEntry templateEvent) {
-    List<CalendarEntry> newOccurrences = generateOccurrences(
-            startDateTime,
-            endDateTime,
-            untilDateTime,
-            daysOfWeek,
-            templateEvent
-    );
-
-    calendarEntries.addAll(newOccurrences);
+  /**
+   * Gets the event the replacing occurrences are generated from. This is the recurring event itself
+   * when all occurrences are edited and the occurrence the edit starts from otherwise.
+   *
+   * @param index           index of the first occurrence to replace.
+   * @param targetStartTime target start time of the event.
+   *
+   * @return the template event.
+   */
+  private CalendarEntry templateAt(int index, ZonedDateTime targetStartTime) {
+    return (targetStartTime == null) ? this : occurrenceAt(index);
   }
 
   /**
@@ -641,25 +837,22 @@ public class RecurringEvent extends CalendarEntry {
           String eventName,
           ZonedDateTime targetStartTime,
           String propertyValue) {
-    CalendarEntry deletedEvent = deleteFromEvent(eventName, targetStartTime);
-    if (deletedEvent == null) {
-      return;
-    }
+    int index = findEditStart(eventName, targetStartTime);
+    CalendarEntry templateEvent = templateAt(index, targetStartTime);
     ZonedDateTime newStartDateTime = stringToZdt(
             propertyValue,
             startDateTime.getZone().toString()
     );
     ZonedDateTime newEndDateTime = newStartDateTime
-            .withHour(deletedEvent.endDateTime.getHour())
-            .withMinute(deletedEvent.endDateTime.getMinute());
+            .withHour(templateEvent.endDateTime.getHour())
+            .withMinute(templateEvent.endDateTime.getMinute());
 
-    generateOccurrencesAndAddToCalendarEntries(
+    replaceOccurrencesFrom(index, OccurrenceRule.until(
             newStartDateTime,
             newEndDateTime,
             untilDateTime,
             daysOfWeek,
-            deletedEvent
-    );
+            templateEvent));
   }
 
   /**
@@ -673,19 +866,16 @@ public class RecurringEvent extends CalendarEntry {
           String eventName,
           ZonedDateTime targetStartTime,
           String propertyValue) {
-    CalendarEntry deletedEvent = deleteFromEvent(eventName, targetStartTime);
-    if (deletedEvent == null) {
-      return;
-    }
-
+    int index = findEditStart(eventName, targetStartTime);
+    CalendarEntry templateEvent = templateAt(index, targetStartTime);
     ZonedDateTime newUntilDateTime = stringToZdt(propertyValue, untilDateTime.getZone().toString());
-    generateOccurrencesAndAddToCalendarEntries(
-            deletedEvent.startDateTime,
-            deletedEvent.endDateTime,
+
+    replaceOccurrencesFrom(index, OccurrenceRule.until(
+            templateEvent.startDateTime,
+            templateEvent.endDateTime,
             newUntilDateTime,
             daysOfWeek,
-            deletedEvent
-    );
+            templateEvent));
     untilDateTime = newUntilDateTime;
   }
 
@@ -697,22 +887,19 @@ public class RecurringEvent extends CalendarEntry {
    * @param propertyValue   the value of the weekDays that needs to be updated.
    */
   private void editWeekDays(String eventName, ZonedDateTime targetStartTime, String propertyValue) {
-    CalendarEntry deletedEvent = deleteFromEvent(eventName, targetStartTime);
-    if (deletedEvent == null) {
-      return;
-    }
+    int index = findEditStart(eventName, targetStartTime);
+    CalendarEntry templateEvent = templateAt(index, targetStartTime);
     List<DayOfWeek> newDaysOfWeek = parseWeekDays(propertyValue);
-    if (calendarEntries.isEmpty()) {
-      daysOfWeek = newDaysOfWeek;
-    }
 
-    generateOccurrencesAndAddToCalendarEntries(
-            deletedEvent.startDateTime,
-            deletedEvent.endDateTime,
+    replaceOccurrencesFrom(index, OccurrenceRule.until(
+            templateEvent.startDateTime,
+            templateEvent.endDateTime,
             untilDateTime,
             newDaysOfWeek,
-            deletedEvent
-    );
+            templateEvent));
+    if (index == 0) {
+      daysOfWeek = newDaysOfWeek;
+    }
   }
 
   /**
@@ -726,34 +913,437 @@ public class RecurringEvent extends CalendarEntry {
           String eventName,
           ZonedDateTime targetStartTime,
           String propertyValue) {
-    CalendarEntry deletedEvent = deleteFromEvent(eventName, targetStartTime);
-    if (deletedEvent == null) {
-      return;
-    }
+    int newFrequency = Integer.parseInt(propertyValue);
+    int index = findEditStart(eventName, targetStartTime);
+    CalendarEntry templateEvent = templateAt(index, targetStartTime);
 
-    List<CalendarEntry> newOccurrences = generateOccurrencesByFrequency(
-            deletedEvent.startDateTime,
-            deletedEvent.endDateTime,
-            Integer.parseInt(propertyValue),
+    replaceOccurrencesFrom(index, OccurrenceRule.times(
+            templateEvent.startDateTime,
+            templateEvent.endDateTime,
+            newFrequency,
             daysOfWeek,
-            deletedEvent);
+            templateEvent));
+    frequency = size();
+  }
 
-    calendarEntries.addAll(newOccurrences);
-    frequency = calendarEntries.size();
+  /**
+   * Replaces the occurrences from the given index onwards with the occurrences of a new rule.
+   *
+   * @param index the index of the first occurrence to replace.
+   * @param rule  the rule generating the new occurrences.
+   */
+  private void replaceOccurrencesFrom(int index, OccurrenceRule rule) {
+    List<OccurrenceRule> keptRules = new ArrayList<>();
+    int base = 0;
+    for (OccurrenceRule kept : rules) {
+      if (base < index) {
+        keptRules.add(kept.truncate(index - base));
+      }
+      base += kept.size();
+    }
+    rules = keptRules;
+
+    List<OccurrenceEdit> keptEdits = new ArrayList<>();
+    for (OccurrenceEdit edit : edits) {
+      OccurrenceEdit kept = edit.truncate(index);
+      if (kept != null) {
+        keptEdits.add(kept);
+      }
+    }
+    edits = keptEdits;
+
+    for (int removed : overrides.tailMap(index, true).keySet()) {
+      lastEdit.keepOverride(removed);
+    }
+    overrides.tailMap(index, true).clear();
+    appendRule(rule);
+  }
+
+  /**
+   * Gets the occurrence at the given index in a form the current edit can change. An occurrence
+   * that was edited on its own is kept for undo and replaced by a copy the first time the edit
+   * changes it, so the kept occurrence is never changed.
+   *
+   * @param index      the index of the occurrence.
+   * @param occurrence the occurrence at the index.
+   *
+   * @return the occurrence to change.
+   */
+  private CalendarEntry editableOccurrence(int index, CalendarEntry occurrence) {
+    if (!lastEdit.keepOverride(index) || !overrides.containsKey(index)) {
+      return occurrence;
+    }
+    return SingleEvent.restore(occurrence.name, occurrence.startDateTime, occurrence.endDateTime,
+            occurrence.description, occurrence.location, occurrence.isPrivate, occurrence.isAllDay);
+  }
+
+  private void appendRule(OccurrenceRule rule) {
+    if (rule.size() > 0) {
+      rules.add(rule);
+    }
+  }
+
+  private void recordEdit(OccurrenceEdit edit) {
+    if (edit.fromIndex < edit.toIndex) {
+      edits.add(edit);
+    }
+  }
+
+  /**
+   * Gets the number of occurrences of the event.
+   *
+   * @return the number of occurrences.
+   */
+  private int size() {
+    int size = 0;
+    for (OccurrenceRule rule : rules) {
+      size += rule.size();
+    }
+    return size;
+  }
+
+  /**
+   * Gets the occurrence at the given index.
+   *
+   * @param index the index of the occurrence.
+   *
+   * @return the occurrence, which is generated unless it was edited on its own.
+   */
+  private CalendarEntry occurrenceAt(int index) {
+    CalendarEntry override = overrides.get(index);
+    if (override != null) {
+      return override;
+    }
+    int base = 0;
+    for (OccurrenceRule rule : rules) {
+      if (index < base + rule.size()) {
+        return generate(rule, base, index - base);
+      }
+      base += rule.size();
+    }
+    throw new IndexOutOfBoundsException("No occurrence at index " + index);
+  }
+
+  /**
+   * Generates an occurrence from its rule and replays the edits made to it.
+   *
+   * @param rule    the rule of the occurrence.
+   * @param base    the index of the first occurrence of the rule.
+   * @param ordinal the position of the occurrence in the rule.
+   *
+   * @return the occurrence.
+   */
+  private SingleEvent generate(OccurrenceRule rule, int base, int ordinal) {
+    SingleEvent occurrence = rule.occurrence(ordinal);
+    for (OccurrenceEdit edit : edits) {
+      if (edit.covers(base + ordinal)) {
+        edit.apply(occurrence);
+      }
+    }
+    return occurrence;
   }
 
   /**
-   * Copies the list of calendar entries.
+   * Checks if any occurrence overlaps with the given calendar entry.
    *
-   * @param originalEntries the original list of calendar entries.
+   * @param entry the calendar entry.
    *
-   * @return the copied list of calendar entries.
+   * @return true if an occurrence overlaps with the entry, false otherwise.
    */
-  private List<CalendarEntry> copyCalendarEntries(List<CalendarEntry> originalEntries) {
-    List<CalendarEntry> copiedEntries = new LinkedList<>();
-    for (CalendarEntry entry : originalEntries) {
-      copiedEntries.add(entry.copy());
+  private boolean overlapsOccurrence(CalendarEntry entry) {
+    return findOccurrence(
+            entry.startDateTime,
+            entry.endDateTime,
+            null,
+            occurrence -> isTimeOverLapping(
+                    occurrence.startDateTime,
+                    occurrence.endDateTime,
+                    entry.startDateTime,
+                    entry.endDateTime)) != null;
+  }
+
+  /**
+   * Finds the first occurrence, in order, that passes the given test.
+   *
+   * @param from      the start of the time range the occurrence must be near, or null.
+   * @param to        the end of the time range the occurrence must be near, or null.
+   * @param eventName the name the occurrence must have, or null.
+   * @param test      the test the occurrence must pass.
+   *
+   * @return the index and the occurrence found, or null if there is none.
+   */
+  private AbstractMap.SimpleEntry<Integer, CalendarEntry> findOccurrence(
+          ZonedDateTime from,
+          ZonedDateTime to,
+          String eventName,
+          Predicate<CalendarEntry> test) {
+    List<AbstractMap.SimpleEntry<Integer, CalendarEntry>> found = new ArrayList<>(1);
+    visitOccurrences(from, to, eventName, (index, entry) -> {
+      if (test.test(entry)) {
+        found.add(new AbstractMap.SimpleEntry<>(index, entry));
+        return false;
+      }
+      return true;
+    });
+    return found.isEmpty() ? null : found.get(0);
+  }
+
+  /**
+   * Visits the occurrences in order until the visitor returns false. Only the occurrences near the
+   * given time range, and only the occurrences of segments with the given name, are generated.
+   * Occurrences that were edited on their own are always visited, so the visitor still has to
+   * check the occurrences it is given.
+   *
+   * @param from      the start of the time range, or null to start from the first occurrence.
+   * @param to        the end of the time range, or null to go up to the last occurrence.
+   * @param eventName the name the occurrences must have, or null for any name.
+   * @param visitor   the visitor called with the index and the occurrence.
+   */
+  private void visitOccurrences(
+          ZonedDateTime from,
+          ZonedDateTime to,
+          String eventName,
+          BiPredicate<Integer, CalendarEntry> visitor) {
+    OccurrenceGenerationEvent record = new OccurrenceGenerationEvent();
+    record.begin();
+    int generated = generateOccurrences(from, to, eventName, visitor);
+    record.record(getName(), generated, size());
+  }
+
+  /**
+   * Visits the occurrences for visitOccurrences, counting the ones generated from the segments
+   * rather than taken from the edited occurrences.
+   *
+   * @return the number of occurrences generated
+   */
+  private int generateOccurrences(
+          ZonedDateTime from,
+          ZonedDateTime to,
+          String eventName,
+          BiPredicate<Integer, CalendarEntry> visitor) {
+    if (from != null && to != null && to.isBefore(from)) {
+      return generateOccurrences(to, from, eventName, visitor);
+    }
+
+    int generated = 0;
+    Iterator<Map.Entry<Integer, CalendarEntry>> edited = overrides.entrySet().iterator();
+    Map.Entry<Integer, CalendarEntry> nextEdited = edited.hasNext() ? edited.next() : null;
+    for (OccurrenceSegment segment : segments()) {
+      int low = segment.fromIndex();
+      int high = segment.toIndex();
+      if (eventName != null && !segment.getName().equals(eventName)) {
+        high = low;
+      } else {
+        if (from != null) {
+          low = segment.firstIndexNear(from);
+        }
+        if (to != null) {
+          high = segment.endIndexNear(to);
+        }
+      }
+
+      for (int index = low; index < high; index++) {
+        final boolean isEdited = overrides.containsKey(index);
+        while (nextEdited != null && nextEdited.getKey() <= index) {
+          if (!visitor.test(nextEdited.getKey(), nextEdited.getValue())) {
+            return generated;
+          }
+          nextEdited = edited.hasNext() ? edited.next() : null;
+        }
+        if (!isEdited) {
+          generated++;
+          if (!visitor.test(index, segment.occurrence(index))) {
+            return generated;
+          }
+        }
+      }
+    }
+
+    while (nextEdited != null) {
+      if (!visitor.test(nextEdited.getKey(), nextEdited.getValue())) {
+        return generated;
+      }
+      nextEdited = edited.hasNext() ? edited.next() : null;
+    }
+    return generated;
+  }
+
+  /**
+   * Splits the occurrences into segments, in order, such that the same edits were made to every
+   * occurrence of a segment.
+   *
+   * @return the segments of the occurrences.
+   */
+  private List<OccurrenceSegment> segments() {
+    List<OccurrenceSegment> segments = new ArrayList<>();
+    int base = 0;
+    for (OccurrenceRule rule : rules) {
+      final int end = base + rule.size();
+      TreeSet<Integer> cuts = new TreeSet<>(List.of(base, end));
+      for (OccurrenceEdit edit : edits) {
+        if (base < edit.fromIndex && edit.fromIndex < end) {
+          cuts.add(edit.fromIndex);
+        }
+        if (base < edit.toIndex && edit.toIndex < end) {
+          cuts.add(edit.toIndex);
+        }
+      }
+
+      int from = base;
+      for (int to : cuts.tailSet(base, false)) {
+        segments.add(new OccurrenceSegment(
+                rule,
+                base,
+                from,
+                to,
+                edits,
+                overrides.subMap(from, true, to, false)));
+        from = to;
+      }
+      base = end;
+    }
+    return segments;
+  }
+
+  /**
+   * Copies the occurrences that were edited on their own.
+   *
+   * @param originalOverrides the original occurrences by index.
+   *
+   * @return the copied occurrences by index.
+   */
+  private static TreeMap<Integer, CalendarEntry> copyOverrides(
+          TreeMap<Integer, CalendarEntry> originalOverrides) {
+    TreeMap<Integer, CalendarEntry> copiedOverrides = new TreeMap<>();
+    for (Map.Entry<Integer, CalendarEntry> entry : originalOverrides.entrySet()) {
+      copiedOverrides.put(entry.getKey(), entry.getValue().copy());
+    }
+    return copiedOverrides;
+  }
+
+  /**
+   * Gets the occurrences that were edited on their own as they are, seen in the given time zone.
+   * Unlike copyOverrides, an all-day occurrence is not moved to the start and end of its day.
+   *
+   * @param originalOverrides the original occurrences by index.
+   * @param timeZone          the time zone to see the occurrences in.
+   *
+   * @return the occurrences by index in the time zone.
+   */
+  private static TreeMap<Integer, CalendarEntry> overridesInZone(
+          TreeMap<Integer, CalendarEntry> originalOverrides, ZoneId timeZone) {
+    TreeMap<Integer, CalendarEntry> movedOverrides = new TreeMap<>();
+    for (Map.Entry<Integer, CalendarEntry> entry : originalOverrides.entrySet()) {
+      movedOverrides.put(entry.getKey(), entry.getValue().inZone(timeZone));
+    }
+    return movedOverrides;
+  }
+
+  private static ZonedDateTime earliest(ZonedDateTime first, ZonedDateTime second) {
+    return second.isBefore(first) ? second : first;
+  }
+
+  private static ZonedDateTime latest(ZonedDateTime first, ZonedDateTime second) {
+    return second.isAfter(first) ? second : first;
+  }
+
+  /**
+   * What an edit of the recurring event changed, kept so the edit can be undone. An edit only
+   * ever appends to the lists of rules and edits or replaces them with new lists, so the lists are
+   * kept with their lengths rather than copied, and only the occurrences edited on their own that
+   * the edit replaced or removed are kept. The record of an edit is therefore as large as the edit,
+   * however long the series is.
+   */
+  private final class UndoRecord {
+
+    private final UndoRecord previous;
+    private final String name;
+    private final ZonedDateTime startDateTime;
+    private final ZonedDateTime endDateTime;
+    private final String description;
+    private final String location;
+    private final boolean isPrivate;
+    private final boolean isAllDay;
+    private final ZonedDateTime untilDateTime;
+    private final List<DayOfWeek> daysOfWeek;
+    private final int frequency;
+    private final List<OccurrenceRule> rules;
+    private final int ruleCount;
+    private final List<OccurrenceEdit> edits;
+    private final int editCount;
+
+    /**
+     * The occurrences edited on their own as they were before the edit, by index, with null for
+     * the indexes that had none.
+     */
+    private final Map<Integer, CalendarEntry> overrides;
+
+    /**
+     * Records the state of the recurring event before an edit.
+     *
+     * @param previous the record of the edit before, or null.
+     */
+    private UndoRecord(UndoRecord previous) {
+      RecurringEvent event = RecurringEvent.this;
+      this.previous = previous;
+      this.name = event.name;
+      this.startDateTime = event.startDateTime;
+      this.endDateTime = event.endDateTime;
+      this.description = event.description;
+      this.location = event.location;
+      this.isPrivate = event.isPrivate;
+      this.isAllDay = event.isAllDay;
+      this.untilDateTime = event.untilDateTime;
+      this.daysOfWeek = event.daysOfWeek;
+      this.frequency = event.frequency;
+      this.rules = event.rules;
+      this.ruleCount = event.rules.size();
+      this.edits = event.edits;
+      this.editCount = event.edits.size();
+      this.overrides = new HashMap<>();
+    }
+
+    /**
+     * Keeps the occurrence edited on its own at the given index, unless it was kept already.
+     *
+     * @param index the index of the occurrence.
+     *
+     * @return true if the occurrence was not kept already, false otherwise.
+     */
+    private boolean keepOverride(int index) {
+      if (overrides.containsKey(index)) {
+        return false;
+      }
+      overrides.put(index, RecurringEvent.this.overrides.get(index));
+      return true;
+    }
+
+    /**
+     * Puts the recurring event back to the state it was recorded in.
+     */
+    private void restore() {
+      RecurringEvent event = RecurringEvent.this;
+      event.name = name;
+      event.startDateTime = startDateTime;
+      event.endDateTime = endDateTime;
+      event.description = description;
+      event.location = location;
+      event.isPrivate = isPrivate;
+      event.isAllDay = isAllDay;
+      event.untilDateTime = untilDateTime;
+      event.daysOfWeek = daysOfWeek;
+      event.frequency = frequency;
+      rules.subList(ruleCount, rules.size()).clear();
+      event.rules = rules;
+      edits.subList(editCount, edits.size()).clear();
+      event.edits = edits;
+      for (Map.Entry<Integer, CalendarEntry> override : overrides.entrySet()) {
+        if (override.getValue() == null) {
+          event.overrides.remove(override.getKey());
+        } else {
+          event.overrides.put(override.getKey(), override.getValue());
+        }
+      }
     }
-    return copiedEntries;
   }
 }
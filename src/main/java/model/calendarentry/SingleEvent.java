@@ -1,5 +1,8 @@
 package model.calendarentry;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -9,9 +12,11 @@ import java.util.AbstractMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 
 import static utils.DateTimeUtils.isTimeOverLapping;
+import static utils.DateTimeUtils.zdtToString;
 
 /**
  * Represents a single event in a calendar. A single event is an event that occurs once and has at
@@ -19,6 +24,9 @@ import static utils.DateTimeUtils.isTimeOverLapping;
  */
 public class SingleEvent extends CalendarEntry {
 
+  private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+  private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("hh:mm a");
+
   /**
    * The set of restricted edits for a single event. We need this because a single event can be
    * matched with edit multiple commands, and we need to restrict the edit of certain properties.
@@ -75,6 +83,35 @@ public class SingleEvent extends CalendarEntry {
     );
   }
 
+  /**
+   * Restores a single event exactly as it was kept. Unlike the constructor, an all-day event is
+   * not moved to the start and end of its day, since an event kept with the all day status already
+   * covers its day the way it was made to.
+   *
+   * @param name          the name of the event
+   * @param startDateTime the start date time of the event
+   * @param endDateTime   the end date time of the event
+   * @param description   the description of the event
+   * @param location      the location of the event
+   * @param isPrivate     the privacy of the event
+   * @param isAllDay      the all day status of the event
+   *
+   * @return the restored single event
+   */
+  public static SingleEvent restore(
+          String name,
+          ZonedDateTime startDateTime,
+          ZonedDateTime endDateTime,
+          String description,
+          String location,
+          boolean isPrivate,
+          boolean isAllDay) {
+    SingleEvent event = new SingleEvent(
+            name, startDateTime, endDateTime, description, location, isPrivate, false);
+    event.isAllDay = isAllDay;
+    return event;
+  }
+
   /**
    * Checks if this single event conflicts with another calendar entry.
    *
@@ -118,6 +155,26 @@ public class SingleEvent extends CalendarEntry {
     return other.isConflictWithSingleEvent(this);
   }
 
+  /**
+   * Gets the name of the single event, which is the only name it goes by.
+   *
+   * @return a set holding the name of the event.
+   */
+  @Override
+  public Set<String> getNames() {
+    return Set.of(name);
+  }
+
+  /**
+   * Checks if the single event ends before it starts.
+   *
+   * @return true if the event ends before it starts, false otherwise.
+   */
+  @Override
+  public boolean hasEventEndingBeforeStart() {
+    return endDateTime.isBefore(startDateTime);
+  }
+
   /**
    * Checks if the single event has the same name and start date time. Returns the copy of the
    * single event if the event matches, null otherwise.
@@ -172,12 +229,10 @@ public class SingleEvent extends CalendarEntry {
       return List.of(); // Return an empty list if event is not in range
     }
 
-    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
-
     Map<String, String> eventDetails = Map.of(
         "Name", name != null ? name : "",
-        "StartDateTime", startDateTime != null ? startDateTime.format(formatter) : "",
-        "EndDateTime", endDateTime != null ? endDateTime.format(formatter) : "",
+        "StartDateTime", startDateTime != null ? zdtToString(startDateTime, true) : "",
+        "EndDateTime", endDateTime != null ? zdtToString(endDateTime, true) : "",
         "Description", description != null ? description : "",
         "Location", location != null ? location : "",
         "IsPrivate", String.valueOf(isPrivate),
@@ -196,15 +251,12 @@ public class SingleEvent extends CalendarEntry {
    */
   @Override
   public List<Map<String,String>> getAllEventDetails() {
-    DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-    DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("hh:mm a");
-
     Map<String, String> eventDetails = Map.of(
         "Name", name != null ? name : "",
-        "StartDate", startDateTime != null ? startDateTime.format(dateFormatter) : "",
-        "StartTime", startDateTime != null ? startDateTime.format(timeFormatter) : "",
-        "EndDate", endDateTime != null ? endDateTime.format(dateFormatter) : "",
-        "EndTime", endDateTime != null ? endDateTime.format(timeFormatter) : "",
+        "StartDate", startDateTime != null ? startDateTime.format(DATE_FORMATTER) : "",
+        "StartTime", startDateTime != null ? startDateTime.format(TIME_FORMATTER) : "",
+        "EndDate", endDateTime != null ? endDateTime.format(DATE_FORMATTER) : "",
+        "EndTime", endDateTime != null ? endDateTime.format(TIME_FORMATTER) : "",
         "Description", description != null ? description : "",
         "Location", location != null ? location : "",
         "IsPrivate", String.valueOf(isPrivate),
@@ -213,6 +265,32 @@ public class SingleEvent extends CalendarEntry {
     return List.of(eventDetails);
   }
 
+  /**
+   * Gets the view of the single event if it overlaps with the given time range.
+   *
+   * @param startZDT the start date time of the time range
+   * @param endZDT   the end date time of the time range
+   *
+   * @return the view of the event, or an empty list if it is not in the time range
+   */
+  @Override
+  public List<EventView> getEventViews(ZonedDateTime startZDT, ZonedDateTime endZDT) {
+    if (!isTimeOverLapping(startDateTime, endDateTime, startZDT, endZDT)) {
+      return List.of();
+    }
+    return List.of(toEventView(false));
+  }
+
+  /**
+   * Gives the view of the single event to the given action.
+   *
+   * @param action the action to give the view to.
+   */
+  @Override
+  public void forEachEventView(Consumer<EventView> action) {
+    action.accept(toEventView(false));
+  }
+
   /**
    * Updates the time zone of the Single event.
    *
@@ -225,6 +303,22 @@ public class SingleEvent extends CalendarEntry {
     isAllDay = checkAllDay(startDateTime, endDateTime);
   }
 
+  /**
+   * Gets the single event as it would be after updating its time zone. The event is restored
+   * exactly before it is moved, so moving it only changes what moving this event would change.
+   *
+   * @param timeZone the time zone to see the event in
+   *
+   * @return a new single event in the time zone
+   */
+  @Override
+  public CalendarEntry inZone(ZoneId timeZone) {
+    SingleEvent moved = restore(
+            name, startDateTime, endDateTime, description, location, isPrivate, isAllDay);
+    moved.updateZone(timeZone);
+    return moved;
+  }
+
   /**
    * Updates the date time of the calendar entry such that it starts on the target date time in the
    * provided time zone.
@@ -272,13 +366,23 @@ public class SingleEvent extends CalendarEntry {
           ZonedDateTime endDateTime,
           String propertyName,
           String propertyValue) {
-    previousState = new SingleEvent(this);
+    keepPreviousState();
     updateSimpleParameters(propertyName, propertyValue);
   }
 
+  /**
+   * Keeps the event exactly as it is as the state to undo the next edit to. The copy constructor
+   * is not used, since it moves an all-day event to the start and end of its day.
+   */
+  private void keepPreviousState() {
+    previousState = restore(
+            name, startDateTime, endDateTime, description, location, isPrivate, isAllDay);
+  }
+
   /**
    * Edits the single event if the property name is not complex(restricted), i.e., startDateTime,
-   * endDateTime, frequency and daysOfWeek. Fails silently otherwise.
+   * endDateTime, frequency and daysOfWeek. Fails silently otherwise, keeping the event as it is as
+   * the state to undo to, since the calendar may still undo the edit along with the others.
    *
    * @param eventName     the name of the event
    * @param startDateTime the start date time of the event
@@ -293,6 +397,7 @@ public class SingleEvent extends CalendarEntry {
           String propertyValue) {
     if (restrictedEdits.contains(propertyName)) {
       // fail Silently for complex parameters.
+      keepPreviousState();
       return;
     }
     editSingleEvent(eventName, startDateTime, endDateTime, propertyName, propertyValue);
@@ -340,6 +445,33 @@ public class SingleEvent extends CalendarEntry {
     return new SingleEvent(this);
   }
 
+  /**
+   * Writes the single event in a binary form.
+   *
+   * @param out the output to write to.
+   *
+   * @throws IOException if the event cannot be written.
+   */
+  @Override
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeByte(EntryFormat.SINGLE_EVENT);
+    writeFields(out);
+  }
+
+  /**
+   * Reads a single event written by writeTo, after the kind of the entry.
+   */
+  static SingleEvent readFields(DataInput in) throws IOException {
+    return restore(
+            EntryFormat.readString(in),
+            EntryFormat.readDateTime(in),
+            EntryFormat.readDateTime(in),
+            EntryFormat.readString(in),
+            EntryFormat.readString(in),
+            in.readBoolean(),
+            in.readBoolean());
+  }
+
   /**
    * Matches a recurring event.
    *
@@ -1,8 +1,11 @@
 package utils;
 
+import java.time.DateTimeException;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -13,25 +16,45 @@ import java.time.zone.ZoneRulesException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * Utility class for date and time operations.
+ * Utility class for date and time operations. Date and date time strings of the formats YYYY-MM-DD
+ * and YYYY-MM-DDTHH:MM are checked, parsed and written by hand, as every command, imported row and
+ * shown event goes through them, and the formatters, patterns and zones they use are built once.
  */
 public class DateTimeUtils {
 
   /**
-   * Regular expression for date string of the format YYYY-MM-DD.
+   * The length of a date string of the format YYYY-MM-DD.
    */
-  private static final String DATE_STRING_REGEX =
-          "^\\d{4}-(0[1-9]|1[0-2])-(0[1-9]|[12][0-9]|3[01])$";
+  private static final int DATE_LENGTH = 10;
 
   /**
-   * Regular expression for date time string of the format YYYY-MM-DDTHH:MM.
+   * The length of a date time string of the format YYYY-MM-DDTHH:MM.
    */
-  private static final String DATA_TIME_STRING_REGEX =
-          "^\\d{4}-(0[1-9]|1[0-2])-(0[1-9]|[12][0-9]|3[01])T(0[0-9]|1[0-9]|2[0-3]):[0-5][0-9]$";
+  private static final int DATE_TIME_LENGTH = 16;
+
+  private static final DateTimeFormatter DATE_TIME_FORMATTER =
+          DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+  private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+  private static final DateTimeFormatter READABLE_FORMATTER =
+          DateTimeFormatter.ofPattern("MMM d, yyyy h:mm a");
+
+  /**
+   * The zones of the time zones seen so far. Looking a zone up by its name parses the name and
+   * searches the zone providers every time, and the same few zones are looked up for every event.
+   */
+  private static final Map<String, ZoneId> ZONES = new ConcurrentHashMap<>();
+
+  /**
+   * Pattern of a date time string of the format MM/dd/yyyy hh:mm AM/PM, used by the UI and in
+   * imported files. Compiled once as every imported row is converted with it.
+   */
+  private static final Pattern UI_DATE_TIME_PATTERN = Pattern.compile(
+          "(\\d{1,2})/(\\d{1,2})/(\\d{4})\\s+(\\d{1,2}):(\\d{2})\\s+([AP]M)");
 
   /**
    * Mapping of characters to day of the week.
@@ -54,8 +77,7 @@ public class DateTimeUtils {
    */
   public static boolean isInvalidDateOrDateTimeString(String dateTimeString) {
 
-    return !dateTimeString.matches(DATA_TIME_STRING_REGEX)
-            && !dateTimeString.matches(DATE_STRING_REGEX);
+    return !isDateTime(dateTimeString) && !isDate(dateTimeString);
   }
 
   /**
@@ -66,7 +88,7 @@ public class DateTimeUtils {
    * @return true if the given date string is invalid, false otherwise
    */
   public static boolean isInvalidDateString(String dateString) {
-    return !dateString.matches(DATE_STRING_REGEX);
+    return !isDate(dateString);
   }
 
   /**
@@ -77,7 +99,54 @@ public class DateTimeUtils {
    * @return true if the given date time string is invalid, false otherwise
    */
   public static boolean isInvalidDateTimeString(String dateTimeString) {
-    return !dateTimeString.matches(DATA_TIME_STRING_REGEX);
+    return !isDateTime(dateTimeString);
+  }
+
+  /**
+   * Checks a date string of the format YYYY-MM-DD, with a month from 01 to 12 and a day from 01 to
+   * 31. The day is not checked against the length of the month.
+   */
+  private static boolean isDate(CharSequence date) {
+    return date.length() == DATE_LENGTH && hasDate(date);
+  }
+
+  /**
+   * Checks a date time string of the format YYYY-MM-DDTHH:MM, with the date checked as isDate
+   * checks it, an hour from 00 to 23 and a minute from 00 to 59.
+   */
+  private static boolean isDateTime(CharSequence dateTime) {
+    return dateTime.length() == DATE_TIME_LENGTH && hasDate(dateTime)
+            && dateTime.charAt(10) == 'T' && dateTime.charAt(13) == ':'
+            && isDigits(dateTime, 11, 2) && isDigits(dateTime, 14, 2)
+            && digits(dateTime, 11, 2) <= 23 && digits(dateTime, 14, 2) <= 59;
+  }
+
+  private static boolean hasDate(CharSequence date) {
+    if (!isDigits(date, 0, 4) || date.charAt(4) != '-' || !isDigits(date, 5, 2)
+            || date.charAt(7) != '-' || !isDigits(date, 8, 2)) {
+      return false;
+    }
+    int month = digits(date, 5, 2);
+    int day = digits(date, 8, 2);
+    return month >= 1 && month <= 12 && day >= 1 && day <= 31;
+  }
+
+  private static boolean isDigits(CharSequence text, int from, int count) {
+    for (int i = from; i < from + count; i++) {
+      char c = text.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int digits(CharSequence text, int from, int count) {
+    int value = 0;
+    for (int i = from; i < from + count; i++) {
+      value = value * 10 + (text.charAt(i) - '0');
+    }
+    return value;
   }
 
 
@@ -90,7 +159,33 @@ public class DateTimeUtils {
    * @return true if the given week days string is invalid, false otherwise
    */
   public static boolean isInvalidWeekDays(String weekDays) {
-    return !weekDays.matches("^[MTWRFSU]+$");
+    if (weekDays.isEmpty()) {
+      return true;
+    }
+    for (int i = 0; i < weekDays.length(); i++) {
+      if (!DAY_MAPPING.containsKey(weekDays.charAt(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Get the zone of the given time zone, from the zones seen so far if it was seen before.
+   *
+   * @param timeZone time zone
+   *
+   * @return the zone of the time zone
+   *
+   * @throws DateTimeException if the time zone is not valid, as ZoneId.of throws it
+   */
+  public static ZoneId zoneOf(String timeZone) {
+    ZoneId zone = ZONES.get(timeZone);
+    if (zone == null) {
+      zone = ZoneId.of(timeZone);
+      ZONES.putIfAbsent(timeZone, zone);
+    }
+    return zone;
   }
 
 
@@ -107,11 +202,16 @@ public class DateTimeUtils {
     ZonedDateTime zdt;
     try {
       // Parse the timezone
-      ZoneId zone = ZoneId.of(timeZone);
+      ZoneId zone = zoneOf(timeZone);
 
       // Parse dates with timezone awareness
 
-      if (dateTime.contains("T")) {
+      LocalDateTime fast = parseFixedWidth(dateTime);
+      if (fast != null && dateTime.length() == DATE_TIME_LENGTH) {
+        zdt = ZonedDateTime.of(fast, zone);
+      } else if (fast != null) {
+        zdt = fast.toLocalDate().atStartOfDay(zone);
+      } else if (dateTime.contains("T")) {
         // Parse as datetime
         LocalDateTime ldt = LocalDateTime.parse(dateTime);
         zdt = ldt.atZone(zone);
@@ -129,6 +229,27 @@ public class DateTimeUtils {
     return zdt;
   }
 
+  /**
+   * Parses a date or date time string of the format YYYY-MM-DD or YYYY-MM-DDTHH:MM by hand, taking
+   * a date as the start of its day.
+   *
+   * @return the date time, or null if the string is not of either format or is not a real date,
+   *         so it can be parsed, and rejected, the usual way
+   */
+  private static LocalDateTime parseFixedWidth(CharSequence dateTime) {
+    boolean hasTime = isDateTime(dateTime);
+    if (!hasTime && !isDate(dateTime)) {
+      return null;
+    }
+    int day = digits(dateTime, 8, 2);
+    int month = digits(dateTime, 5, 2);
+    if (day > 28 && day > Month.of(month).length(Year.isLeap(digits(dateTime, 0, 4)))) {
+      return null;
+    }
+    return LocalDateTime.of(digits(dateTime, 0, 4), month, day,
+            hasTime ? digits(dateTime, 11, 2) : 0, hasTime ? digits(dateTime, 14, 2) : 0);
+  }
+
 
   /**
    * Convert a ZonedDateTime object to a string.
@@ -143,17 +264,50 @@ public class DateTimeUtils {
       throw new IllegalArgumentException("ZonedDateTime cannot be null");
     }
 
-    DateTimeFormatter formatter;
+    if (zdt.getYear() < 0 || zdt.getYear() > 9999) {
+      return zdt.format(includeTime ? DATE_TIME_FORMATTER : DATE_FORMATTER);
+    }
+    StringBuilder sb = new StringBuilder(DATE_TIME_LENGTH);
+    return appendDateTime(sb, zdt.toLocalDateTime(), includeTime).toString();
+  }
 
+  /**
+   * Append a date time to the given builder in the format YYYY-MM-DDTHH:MM, or YYYY-MM-DD without
+   * its time, without building a string for it first. The year must be from 0 to 9999.
+   *
+   * @param sb          the builder to append to
+   * @param dateTime    the date time to append
+   * @param includeTime true if the time should be appended, false otherwise
+   *
+   * @return the builder
+   */
+  public static StringBuilder appendDateTime(
+          StringBuilder sb,
+          LocalDateTime dateTime,
+          boolean includeTime) {
+    appendPadded(sb, dateTime.getYear(), 4).append('-');
+    appendPadded(sb, dateTime.getMonthValue(), 2).append('-');
+    appendPadded(sb, dateTime.getDayOfMonth(), 2);
     if (includeTime) {
-      // Format with date and time (ISO_LOCAL_DATE_TIME)
-      formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
-    } else {
-      // Format with date only (ISO_LOCAL_DATE)
-      formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+      sb.append('T');
+      appendPadded(sb, dateTime.getHour(), 2).append(':');
+      appendPadded(sb, dateTime.getMinute(), 2);
     }
+    return sb;
+  }
 
-    return zdt.format(formatter);
+  /**
+   * Appends a number that is not negative, padded with zeros to the given width.
+   */
+  private static StringBuilder appendPadded(StringBuilder sb, int value, int width) {
+    int digitCount = 1;
+    for (int rest = value / 10; rest > 0; rest /= 10) {
+      digitCount++;
+    }
+    for (int i = digitCount; i < width; i++) {
+      sb.append('0');
+    }
+    return sb.append(value);
   }
 
   /**
@@ -259,6 +413,39 @@ public class DateTimeUtils {
     return new DateTimeProcessingResult(startZonedDateTime, endZonedDateTime, isAllDay);
   }
 
+  /**
+   * Process the start and end date time of an event that were already parsed, such as by a worker
+   * of an import. The result is the same as processing them as strings.
+   *
+   * @param startDateTime start date time
+   * @param endDateTime   end date time, or null for an all day event
+   * @param timeZone      the time zone of the date times
+   *
+   * @return DateTimeProcessingResult object
+   */
+  public static DateTimeProcessingResult processEventDateTime(
+          LocalDateTime startDateTime,
+          LocalDateTime endDateTime,
+          String timeZone) {
+    ZoneId zone;
+    try {
+      zone = zoneOf(timeZone);
+    } catch (ZoneRulesException e) {
+      throw new IllegalArgumentException("Invalid timezone: " + timeZone);
+    }
+    boolean isAllDay = endDateTime == null;
+    if (isAllDay) {
+      endDateTime = startDateTime.toLocalDate().atTime(23, 59); // all day -> end time = 23:59
+    }
+    ZonedDateTime startZonedDateTime = startDateTime.atZone(zone);
+    ZonedDateTime endZonedDateTime = endDateTime.atZone(zone);
+    if (endZonedDateTime.isBefore(startZonedDateTime)) {
+      throw new IllegalArgumentException("End time must be after start time");
+    }
+
+    return new DateTimeProcessingResult(startZonedDateTime, endZonedDateTime, isAllDay);
+  }
+
   /**
    * Class to hold the result of processing the start and end date time of an event.
    */
@@ -293,7 +480,7 @@ public class DateTimeUtils {
    */
   public static boolean isInvalidTimeZone(String timeZone) {
     try {
-      ZoneId test = ZoneId.of(timeZone);
+      zoneOf(timeZone);
     } catch (Exception e) {
       return true;
     }
@@ -309,11 +496,16 @@ public class DateTimeUtils {
    * @return the number of days between the two dates
    */
   public static int offsetDaysBetweenDates(String firstDate, String endDate) {
-    Temporal start = LocalDate.parse(firstDate);
-    Temporal end = LocalDate.parse(endDate);
+    Temporal start = parseDate(firstDate);
+    Temporal end = parseDate(endDate);
     return (int) ChronoUnit.DAYS.between(start, end);
   }
 
+  private static LocalDate parseDate(String date) {
+    LocalDateTime fast = isDate(date) ? parseFixedWidth(date) : null;
+    return fast != null ? fast.toLocalDate() : LocalDate.parse(date);
+  }
+
   /**
    * Calculate the untilDateTime based on the startDateTime, frequency, and daysOfWeek.
    *
@@ -355,12 +547,13 @@ public class DateTimeUtils {
 
     try {
       // Parse the input datetime string
-      LocalDateTime dateTime = LocalDateTime.parse(time24,
-              DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
+      LocalDateTime dateTime = isDateTime(time24) ? parseFixedWidth(time24) : null;
+      if (dateTime == null) {
+        dateTime = LocalDateTime.parse(time24, DATE_TIME_FORMATTER);
+      }
 
       // Format to a more readable format with 12-hour time
-      return dateTime.format(
-              DateTimeFormatter.ofPattern("MMM d, yyyy h:mm a"));
+      return dateTime.format(READABLE_FORMATTER);
     } catch (DateTimeParseException e) {
       // Return the original string if parsing fails
       return time24;
@@ -387,10 +580,7 @@ public class DateTimeUtils {
    */
   public static String convertDateTimeFormat(String dateTimeStr) {
     try {
-      // Using regex to parse MM/dd/yyyy hh:mm a format
-      String regex = "(\\d{1,2})/(\\d{1,2})/(\\d{4})\\s+(\\d{1,2}):(\\d{2})\\s+([AP]M)";
-      Pattern pattern = Pattern.compile(regex);
-      String convertedDateTime = getConvertedDateTime(dateTimeStr, pattern);
+      String convertedDateTime = getConvertedDateTime(dateTimeStr, UI_DATE_TIME_PATTERN);
 
       // Check if this is a valid date time in the model's expected format
       if (isInvalidDateTimeString(convertedDateTime)) {
@@ -428,6 +618,11 @@ public class DateTimeUtils {
     }
 
     // Format to yyyy-MM-dd'T'HH:mm
-    return String.format("%04d-%02d-%02dT%02d:%02d", year, month, day, hour, minute);
+    StringBuilder sb = new StringBuilder(DATE_TIME_LENGTH);
+    appendPadded(sb, year, 4).append('-');
+    appendPadded(sb, month, 2).append('-');
+    appendPadded(sb, day, 2).append('T');
+    appendPadded(sb, hour, 2).append(':');
+    return appendPadded(sb, minute, 2).toString();
   }
 }
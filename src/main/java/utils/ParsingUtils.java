@@ -78,6 +78,20 @@ public class ParsingUtils {
     return fileName.matches(csvRegex);
   }
 
+  /**
+   * Check if the given file name is a valid calendar image file name. The file name should be of
+   * the format [a-zA-Z0-9]+.calbin. No special characters are allowed in the file name.
+   *
+   * @param fileName file name
+   *
+   * @return true if the given file name is a valid calendar image file name, false otherwise
+   */
+  public static boolean isValidCalbinFileName(String fileName) {
+    final String calbinRegex = "[a-zA-Z0-9_\\-. ]+\\.calbin$";
+
+    return fileName.matches(calbinRegex);
+  }
+
   /**
    * Escape the given value for CSV format. If the value is null, an empty string is returned.
    * Encloses the value in double quotes and escapes any inner double quotes.
@@ -0,0 +1,44 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded for every add of events to a calendar, including the conflict check before it.
+ */
+@Name("calendar.Add")
+@Label("Calendar Add")
+@Category({"Calendar", "Model"})
+@Description("Events added to a calendar, with the conflict check before them")
+public final class CalendarAddEvent extends Event {
+
+  @Label("Kind")
+  @Description("single, recurring, batch or copy")
+  private String kind;
+
+  @Label("Events Added")
+  private int added;
+
+  @Label("Calendar Size")
+  @Description("The number of entries in the calendar after the add")
+  private int calendarSize;
+
+  /**
+   * Ends the event and commits it, if it is recorded and took long enough.
+   *
+   * @param kind         what was added: single, recurring, batch or copy
+   * @param added        the number of events added
+   * @param calendarSize the number of entries in the calendar after the add
+   */
+  public void record(String kind, int added, int calendarSize) {
+    if (shouldCommit()) {
+      this.kind = kind;
+      this.added = added;
+      this.calendarSize = calendarSize;
+      commit();
+    }
+  }
+}
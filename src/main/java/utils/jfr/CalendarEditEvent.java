@@ -0,0 +1,48 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded for every edit of the events of a calendar.
+ */
+@Name("calendar.Edit")
+@Label("Calendar Edit")
+@Category({"Calendar", "Model"})
+@Description("Events of a calendar edited, with the conflict check after the edit")
+public final class CalendarEditEvent extends Event {
+
+  @Label("Kind")
+  @Description("single, following or all")
+  private String kind;
+
+  @Label("Property")
+  private String property;
+
+  @Label("Entries Edited")
+  private int edited;
+
+  @Label("Calendar Size")
+  private int calendarSize;
+
+  /**
+   * Ends the event and commits it, if it is recorded and took long enough.
+   *
+   * @param kind         which occurrences were edited: single, following or all
+   * @param property     the property that was edited
+   * @param edited       the number of entries edited, 0 if the edit failed
+   * @param calendarSize the number of entries in the calendar
+   */
+  public void record(String kind, String property, int edited, int calendarSize) {
+    if (shouldCommit()) {
+      this.kind = kind;
+      this.property = property;
+      this.edited = edited;
+      this.calendarSize = calendarSize;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Recorded for a check of an entry against the entries of a calendar that took at least 10
+ * microseconds. Every add runs one, so the quick ones are left out by default.
+ */
+@Name("calendar.ConflictCheck")
+@Label("Calendar Conflict Check")
+@Category({"Calendar", "Model"})
+@Description("An entry checked for conflicts against the entries of a calendar")
+@Threshold("10 us")
+@StackTrace(false)
+public final class ConflictCheckEvent extends Event {
+
+  @Label("Entries Scanned")
+  @Description("The entries of the calendar compared against the entry")
+  private int scanned;
+
+  @Label("Conflict")
+  private boolean conflict;
+
+  @Label("Calendar Size")
+  private int calendarSize;
+
+  /**
+   * Ends the event and commits it, if it is recorded and took long enough.
+   *
+   * @param scanned      the entries compared against the entry
+   * @param conflict     whether the entry conflicts
+   * @param calendarSize the number of entries in the calendar
+   */
+  public void record(int scanned, boolean conflict, int calendarSize) {
+    if (shouldCommit()) {
+      this.scanned = scanned;
+      this.conflict = conflict;
+      this.calendarSize = calendarSize;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package utils.jfr;
+
+import java.nio.file.Path;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded for every import of a CSV file into a calendar and every export of a calendar to one.
+ */
+@Name("calendar.CsvTransfer")
+@Label("CSV Import or Export")
+@Category({"Calendar", "Files"})
+@Description("A calendar imported from or exported to a CSV file")
+public final class CsvTransferEvent extends Event {
+
+  @Label("Direction")
+  @Description("import or export")
+  private String direction;
+
+  @Label("File")
+  private String file;
+
+  @Label("Rows")
+  private int rows;
+
+  @Label("Events Added")
+  @Description("The rows added to the calendar by an import")
+  private int added;
+
+  @Label("Size")
+  @Description("The size of the file, read only if the event is committed")
+  @DataAmount
+  private long bytes;
+
+  /**
+   * Ends the event and commits it, if it is recorded and took long enough.
+   *
+   * @param direction import or export
+   * @param file      the CSV file
+   * @param rows      the rows read or written, without the header
+   * @param added     the rows added to the calendar by an import, or the rows written
+   */
+  public void record(String direction, Path file, int rows, int added) {
+    if (shouldCommit()) {
+      this.direction = direction;
+      this.file = file.toString();
+      this.rows = rows;
+      this.added = added;
+      this.bytes = file.toFile().length();
+      commit();
+    }
+  }
+}
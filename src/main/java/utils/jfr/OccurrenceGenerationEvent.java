@@ -0,0 +1,50 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Recorded when generating the occurrences of a recurring event took at least 10 microseconds.
+ * Occurrences are generated for every query and check that reaches the event, so the quick ones
+ * are left out by default.
+ */
+@Name("calendar.OccurrenceGeneration")
+@Label("Occurrence Generation")
+@Category({"Calendar", "Model"})
+@Description("Occurrences of a recurring event generated from its rules")
+@Threshold("10 us")
+@StackTrace(false)
+public final class OccurrenceGenerationEvent extends Event {
+
+  @Label("Event Name")
+  private String name;
+
+  @Label("Occurrences")
+  @Description("The occurrences generated")
+  private int occurrences;
+
+  @Label("Total Occurrences")
+  @Description("The occurrences the recurring event has")
+  private int total;
+
+  /**
+   * Ends the event and commits it, if it is recorded and took long enough.
+   *
+   * @param name        the name of the recurring event
+   * @param occurrences the occurrences generated
+   * @param total       the occurrences the recurring event has
+   */
+  public void record(String name, int occurrences, int total) {
+    if (shouldCommit()) {
+      this.name = name;
+      this.occurrences = occurrences;
+      this.total = total;
+      commit();
+    }
+  }
+}
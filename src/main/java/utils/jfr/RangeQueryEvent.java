@@ -0,0 +1,59 @@
+package utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded for every query of the events of a calendar in a range of date times.
+ */
+@Name("calendar.RangeQuery")
+@Label("Calendar Range Query")
+@Category({"Calendar", "Model"})
+@Description("Events of a calendar looked up in a range of date times")
+public final class RangeQueryEvent extends Event {
+
+  @Label("Range Start")
+  private String rangeStart;
+
+  @Label("Range End")
+  private String rangeEnd;
+
+  @Label("Candidates")
+  @Description("The entries the interval index gave whose span overlaps the range")
+  private int candidates;
+
+  @Label("Results")
+  @Description("The events and occurrences found in the range")
+  private int results;
+
+  @Label("Calendar Size")
+  private int calendarSize;
+
+  /**
+   * Ends the event and commits it, if it is recorded and took long enough.
+   *
+   * @param rangeStart   the start of the range
+   * @param rangeEnd     the end of the range
+   * @param candidates   the entries whose span overlaps the range
+   * @param results      the events and occurrences found in the range
+   * @param calendarSize the number of entries in the calendar
+   */
+  public void record(
+          Object rangeStart,
+          Object rangeEnd,
+          int candidates,
+          int results,
+          int calendarSize) {
+    if (shouldCommit()) {
+      this.rangeStart = String.valueOf(rangeStart);
+      this.rangeEnd = String.valueOf(rangeEnd);
+      this.candidates = candidates;
+      this.results = results;
+      this.calendarSize = calendarSize;
+      commit();
+    }
+  }
+}
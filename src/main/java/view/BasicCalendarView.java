@@ -3,7 +3,8 @@ package view;
 import java.io.IOException;
 
 /**
- * A basic implementation of the CalendarView interface that writes to an Appendable object.
+ * A basic implementation of the CalendarView interface that writes to an Appendable object, in
+ * color or as plain text.
  */
 public class BasicCalendarView implements CalendarView {
 
@@ -18,14 +19,36 @@ public class BasicCalendarView implements CalendarView {
    * The Appendable object to write to.
    */
   private final Appendable out;
+  /**
+   * The escape codes written around every message, empty when writing plain text.
+   */
+  private final String errorColor;
+  private final String messageColor;
+  private final String dataColor;
+  private final String resetColor;
 
   /**
-   * Constructs a new BasicCalendarView that writes to the given Appendable object.
+   * Constructs a new BasicCalendarView that writes to the given Appendable object in color.
    *
    * @param out the Appendable object to write to
    */
   public BasicCalendarView(Appendable out) {
+    this(out, true);
+  }
+
+  /**
+   * Constructs a new BasicCalendarView that writes to the given Appendable object. Plain text has
+   * no ANSI escape codes, for output that goes to a file or another program.
+   *
+   * @param out     the Appendable object to write to
+   * @param colored whether to color the output with ANSI escape codes
+   */
+  public BasicCalendarView(Appendable out, boolean colored) {
     this.out = out;
+    this.errorColor = colored ? ANSI_RED_ERROR : "";
+    this.messageColor = colored ? ANSI_GREEN_MESSAGE : "";
+    this.dataColor = colored ? ANSI_BLUE_DATA : "";
+    this.resetColor = colored ? ANSI_RESET_USER_INPUT : "";
   }
 
   /**
@@ -37,9 +60,9 @@ public class BasicCalendarView implements CalendarView {
   @Override
   public void displayMessage(String message) {
     try {
-      out.append(ANSI_GREEN_MESSAGE)
+      out.append(messageColor)
               .append(message)
-              .append(ANSI_RESET_USER_INPUT)
+              .append(resetColor)
               .append(System.lineSeparator());
     } catch (IOException e) {
       handleIOException(e);
@@ -55,10 +78,10 @@ public class BasicCalendarView implements CalendarView {
   @Override
   public void displayError(String message) {
     try {
-      out.append(ANSI_RED_ERROR)
+      out.append(errorColor)
               .append("ERROR: ")
               .append(message)
-              .append(ANSI_RESET_USER_INPUT)
+              .append(resetColor)
               .append(System.lineSeparator());
     } catch (IOException e) {
       handleIOException(e);
@@ -75,11 +98,11 @@ public class BasicCalendarView implements CalendarView {
   public void displayEntries(String[] calendar) {
     try {
       for (String entry : calendar) {
-        out.append(ANSI_BLUE_DATA)
+        out.append(dataColor)
                 .append(entry)
                 .append(System.lineSeparator());
       }
-      out.append(ANSI_RESET_USER_INPUT);
+      out.append(resetColor);
     } catch (IOException e) {
       handleIOException(e);
     }
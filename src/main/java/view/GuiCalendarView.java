@@ -18,6 +18,7 @@ import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JSeparator;
+import javax.swing.SwingUtilities;
 import javax.swing.UIDefaults;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
@@ -57,6 +58,7 @@ public class GuiCalendarView extends JFrame implements GuiView {
   private JPanel monthYearTZPanel;
   private JLabel monthYearLabel;
   private JLabel timeZoneLabel;
+  private JLabel statusLabel;
 
   private List<List<String>> eventNamesInMonth;
 
@@ -119,6 +121,9 @@ public class GuiCalendarView extends JFrame implements GuiView {
     });
     calendarColorMap = new HashMap<>();
     calendarNameTimeZoneMap = new LinkedHashMap<>();
+    statusLabel = new JLabel(" ");
+    statusLabel.setBorder(BorderFactory.createEmptyBorder(2, 8, 2, 8));
+    add(statusLabel, BorderLayout.SOUTH);
 
     setJMenuBar(createMenuBar());
   }
@@ -270,9 +275,6 @@ public class GuiCalendarView extends JFrame implements GuiView {
    * Updates the UI components when the current month changes.
    */
   private void updateUIForMonthChange() {
-    setMonthYearTZPanel();
-    setEventCounts();
-    monthViewPanel.setMonth(currentMonth, eventNamesInMonth, selectedCalendarColor);
     refresh();
   }
 
@@ -373,9 +375,6 @@ public class GuiCalendarView extends JFrame implements GuiView {
       if (selectedCalendarName != null) {
         features.selectCalendar(selectedCalendarName);
         selectedCalendarTimeZone = calendarNameTimeZoneMap.get(selectedCalendarName);
-        setMonthYearTZPanel();
-        setEventCounts();
-        monthViewPanel.setMonth(currentMonth, eventNamesInMonth, selectedCalendarColor);
         refresh();
       }
     });
@@ -488,4 +487,20 @@ public class GuiCalendarView extends JFrame implements GuiView {
   public void displayMessage(String message) {
     JOptionPane.showMessageDialog(this, message, "Message", JOptionPane.INFORMATION_MESSAGE);
   }
+
+  /**
+   * Displays the progress of a long task in the status bar. The status bar is painted right away
+   * when called on the event dispatch thread, since the task keeps that thread busy until it ends.
+   *
+   * @param message the progress to display
+   */
+  @Override
+  public void displayProgress(String message) {
+    if (!SwingUtilities.isEventDispatchThread()) {
+      SwingUtilities.invokeLater(() -> statusLabel.setText(message));
+      return;
+    }
+    statusLabel.setText(message);
+    statusLabel.paintImmediately(statusLabel.getVisibleRect());
+  }
 }
\ No newline at end of file
@@ -39,4 +39,12 @@ public interface GuiView {
    */
   void displayMessage(String message);
 
+  /**
+   * Displays the progress of a long task to the user without waiting for them, unlike
+   * displayMessage.
+   *
+   * @param message the progress to display
+   */
+  void displayProgress(String message);
+
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package view;
+
+/**
+ * A CalendarView that shows only the errors of the view it wraps. Used for batch runs, where the
+ * messages and entries of every command would bury the errors.
+ */
+public class QuietCalendarView implements CalendarView {
+
+  /**
+   * The view that shows the errors.
+   */
+  private final CalendarView view;
+
+  /**
+   * Constructs a new QuietCalendarView that shows the errors on the given view.
+   *
+   * @param view the view to show the errors on
+   */
+  public QuietCalendarView(CalendarView view) {
+    this.view = view;
+  }
+
+  /**
+   * Ignores the message.
+   *
+   * @param message the message to display
+   */
+  @Override
+  public void displayMessage(String message) {
+    // only errors are shown
+  }
+
+  /**
+   * Displays the error message on the wrapped view.
+   *
+   * @param message the error message to display
+   */
+  @Override
+  public void displayError(String message) {
+    view.displayError(message);
+  }
+
+  /**
+   * Ignores the entries.
+   *
+   * @param events the events to display
+   */
+  @Override
+  public void displayEntries(String[] events) {
+    // only errors are shown
+  }
+}
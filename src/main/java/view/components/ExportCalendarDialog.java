@@ -51,6 +51,8 @@ public class ExportCalendarDialog extends JDialog {
     setDefaultCloseOperation(DISPOSE_ON_CLOSE);
 
     fileChooser = new JFileChooser();
+    fileChooser.addChoosableFileFilter(
+            new FileNameExtensionFilter("Calendar Images", "calbin"));
     fileChooser.setFileFilter(
             new FileNameExtensionFilter("CSV Files", "csv"));
     fileChooser.setAcceptAllFileFilterUsed(false);
@@ -95,10 +97,14 @@ public class ExportCalendarDialog extends JDialog {
     fileChooser.addActionListener(e -> {
       if (JFileChooser.APPROVE_SELECTION.equals(e.getActionCommand())) {
         String filePath = fileChooser.getSelectedFile().getAbsolutePath();
-        if (!filePath.toLowerCase().endsWith(".csv")) {
-          filePath += ".csv";
+        if (filePath.toLowerCase().endsWith(".calbin")) {
+          features.exportCalendarImage(filePath);
+        } else {
+          if (!filePath.toLowerCase().endsWith(".csv")) {
+            filePath += ".csv";
+          }
+          features.exportCSV(filePath);
         }
-        features.exportCSV(filePath);
         features.refreshView();
         dispose();
       } else if (JFileChooser.CANCEL_SELECTION.equals(e.getActionCommand())) {
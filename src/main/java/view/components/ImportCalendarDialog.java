@@ -51,6 +51,8 @@ public class ImportCalendarDialog extends JDialog {
     setDefaultCloseOperation(DISPOSE_ON_CLOSE);
 
     fileChooser = new JFileChooser();
+    fileChooser.addChoosableFileFilter(
+            new FileNameExtensionFilter("Calendar Images", "calbin"));
     fileChooser.setFileFilter(new FileNameExtensionFilter("CSV Files", "csv"));
     fileChooser.setAcceptAllFileFilterUsed(false);
     fileChooser.setMultiSelectionEnabled(false);
@@ -108,7 +110,12 @@ public class ImportCalendarDialog extends JDialog {
   private void setActionListener() {
     fileChooser.addActionListener(e -> {
       if (JFileChooser.APPROVE_SELECTION.equals(e.getActionCommand())) {
-        features.importCSV(fileChooser.getSelectedFile().getAbsolutePath());
+        String filePath = fileChooser.getSelectedFile().getAbsolutePath();
+        if (filePath.toLowerCase().endsWith(".calbin")) {
+          features.importCalendarImage(filePath);
+        } else {
+          features.importCSV(filePath);
+        }
         features.refreshView();
         dispose();
       } else if (JFileChooser.CANCEL_SELECTION.equals(e.getActionCommand())) {
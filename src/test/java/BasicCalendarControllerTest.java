@@ -1,19 +1,24 @@
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
 import controller.BasicCalendarController;
 import controller.CalendarController;
+import controller.metrics.CommandMetrics;
 import model.BasicCalendarModel;
 import model.CalendarModel;
 import view.BasicCalendarView;
 import view.CalendarView;
+import view.QuietCalendarView;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -27,6 +32,9 @@ public class BasicCalendarControllerTest {
   private static final String ANSI_GREEN_MESSAGE = "\u001B[32m";
   private static final String ANSI_BLUE_DATA = "\u001B[34m";
   private static final String ANSI_RESET_USER_INPUT = "\u001B[0m";
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   private final CalendarView view;
   private final CalendarModel model;
   private final StringBuilder out;
@@ -1285,5 +1293,187 @@ public class BasicCalendarControllerTest {
             + System.lineSeparator(), output);
   }
 
+  @Test
+  public void testKeyWordsInsideQuotes() {
+    InputStream in = new ByteArrayInputStream(("create event \"Meet to plan on Friday\" "
+            + "from 2025-03-10T16:00 to 2025-03-10T17:00 location \"Library\""
+            + System.lineSeparator()
+            + "edit event location \"Meet to plan on Friday\" from 2025-03-10T16:00 "
+            + "to 2025-03-10T17:00 with \"Cafe\"" + System.lineSeparator()
+            + "print events from 2025-03-10T00:00 to 2025-03-11T00:00"
+            + System.lineSeparator() + "exit").getBytes());
+    CalendarController controller = new BasicCalendarController(model, view, in);
+    controller.startApp(new String[]{"--mode", "interactive"});
+    final String output = out.toString();
+    assertEquals(ANSI_GREEN_MESSAGE
+            + "You are in interactive mode, please enter your commands"
+            + ANSI_RESET_USER_INPUT + System.lineSeparator()
+            + ANSI_GREEN_MESSAGE + "Command executed successfully" + ANSI_RESET_USER_INPUT
+            + System.lineSeparator()
+            + ANSI_GREEN_MESSAGE + "Command executed successfully" + ANSI_RESET_USER_INPUT
+            + System.lineSeparator()
+            + ANSI_GREEN_MESSAGE + "List of events:" + ANSI_RESET_USER_INPUT
+            + System.lineSeparator()
+            + ANSI_BLUE_DATA + "Name:Meet to plan on Friday StartDateTime:2025-03-10T16:00 "
+            + "EndDateTime:2025-03-10T17:00 Location:Cafe" + System.lineSeparator()
+            + ANSI_RESET_USER_INPUT
+            + ANSI_GREEN_MESSAGE + "Command executed successfully" + ANSI_RESET_USER_INPUT
+            + System.lineSeparator()
+            + ANSI_GREEN_MESSAGE + "Goodbye!" + ANSI_RESET_USER_INPUT
+            + System.lineSeparator(), output);
+  }
+
+  @Test
+  public void testBatchCarriesOnPastErrors() throws IOException {
+    Path script = folder.getRoot().toPath().resolve("batch.txt");
+    Files.write(script, List.of(
+            "create event Standup from 2025-03-03T09:00 to 2025-03-03T09:30",
+            "",
+            "create event Sync from 2025-03-03T09:15 to 2025-03-03T09:45",
+            "show status on 2025-03-03T09:10"));
+    CalendarController controller = new BasicCalendarController(model, view,
+            new ByteArrayInputStream(new byte[0]));
+    controller.startApp(new String[]{"--mode", "batch", script.toString()});
+
+    String[] lines = out.toString().split(System.lineSeparator());
+    assertEquals(6, lines.length);
+    assertEquals(ANSI_GREEN_MESSAGE + "You are in batch mode, please wait for the output"
+            + ANSI_RESET_USER_INPUT, lines[0]);
+    assertEquals(ANSI_GREEN_MESSAGE + "Command executed successfully" + ANSI_RESET_USER_INPUT,
+            lines[1]);
+    assertEquals(ANSI_RED_ERROR + "ERROR: Line 3: Conflict detected, Event not Created for "
+            + "command: create event Sync from 2025-03-03T09:15 to 2025-03-03T09:45"
+            + ANSI_RESET_USER_INPUT, lines[2]);
+    assertEquals(ANSI_GREEN_MESSAGE + "Busy" + ANSI_RESET_USER_INPUT, lines[3]);
+    assertEquals(ANSI_GREEN_MESSAGE + "Command executed successfully" + ANSI_RESET_USER_INPUT,
+            lines[4]);
+    assertTrue(lines[5], lines[5].startsWith(ANSI_GREEN_MESSAGE
+            + "Ran 3 commands with 1 errors in "));
+    assertTrue(lines[5], lines[5].endsWith(" lines/sec)" + ANSI_RESET_USER_INPUT));
+  }
+
+  @Test
+  public void testBatchQuiet() throws IOException {
+    Path script = folder.getRoot().toPath().resolve("batch.txt");
+    Files.write(script, List.of(
+            "create event Standup from 2025-03-03T09:00 to 2025-03-03T09:30",
+            "print events on 2025-03-03",
+            "delete event Standup",
+            "exit",
+            "print events on 2025-03-03"));
+    CalendarView plainView = new BasicCalendarView(out, false);
+    CalendarController controller = new BasicCalendarController(model, plainView,
+            new ByteArrayInputStream(new byte[0]));
+    controller.startApp(new String[]{"--mode", "batch", script.toString(), "--quiet"});
+
+    String[] lines = out.toString().split(System.lineSeparator());
+    assertEquals(2, lines.length);
+    assertEquals("ERROR: Line 3: Unknown command: delete event Standup for command: "
+            + "delete event Standup", lines[0]);
+    assertTrue(lines[1], lines[1].startsWith("Ran 3 commands with 1 errors in "));
+  }
+
+  @Test
+  public void testQuietViewShowsOnlyErrors() {
+    CalendarView quietView = new QuietCalendarView(view);
+    quietView.displayMessage("message");
+    quietView.displayEntries(new String[] {"entry"});
+    quietView.displayError("error");
+    assertEquals(ANSI_RED_ERROR + "ERROR: error" + ANSI_RESET_USER_INPUT
+            + System.lineSeparator(), out.toString());
+  }
+
+  @Test
+  public void testTransactionCommitsAsWhole() throws IOException {
+    Path script = folder.getRoot().toPath().resolve("batch.txt");
+    Files.write(script, List.of(
+            "begin",
+            "create event Standup from 2025-03-03T09:00 to 2025-03-03T09:30",
+            "create event \"Team lunch\" on 2025-03-04",
+            "show status on 2025-03-03T09:10",
+            "commit"));
+    CalendarController controller = new BasicCalendarController(model,
+            new BasicCalendarView(out, false), new ByteArrayInputStream(new byte[0]));
+    controller.startApp(new String[]{"--mode", "batch", script.toString(), "--quiet"});
+
+    String[] lines = out.toString().split(System.lineSeparator());
+    assertEquals(1, lines.length);
+    assertTrue(lines[0], lines[0].startsWith("Ran 5 commands with 0 errors in "));
+    assertEquals(2, model.getCurrentCalendar().getAllEvents().length);
+  }
 
-}
\ No newline at end of file
+  @Test
+  public void testTransactionRollsBack() throws IOException {
+    Path script = folder.getRoot().toPath().resolve("batch.txt");
+    Files.write(script, List.of(
+            "create event Standup from 2025-03-03T09:00 to 2025-03-03T09:30",
+            "begin",
+            "create event Late from 2025-03-03T14:00 to 2025-03-03T15:00",
+            "create event Sync from 2025-03-03T09:15 to 2025-03-03T09:45",
+            "commit",
+            "begin",
+            "create event Review from 2025-03-04T10:00 to 2025-03-04T11:00 repeats T for 2 times",
+            "begin",
+            "rollback",
+            "commit",
+            "begin",
+            "create event Late from 2025-03-03T14:00 to 2025-03-03T15:00"));
+    CalendarController controller = new BasicCalendarController(model,
+            new BasicCalendarView(out, false), new ByteArrayInputStream(new byte[0]));
+    controller.startApp(new String[]{"--mode", "batch", script.toString(), "--quiet"});
+
+    String[] lines = out.toString().split(System.lineSeparator());
+    assertEquals(6, lines.length);
+    assertEquals("ERROR: Line 5: Transaction rolled back, 1 of 2 events failed: Conflict "
+            + "detected, Event not Created for event Sync for command: commit", lines[0]);
+    assertEquals("ERROR: Line 7: Recurring events cannot be created inside a transaction for "
+            + "command: create event Review from 2025-03-04T10:00 to 2025-03-04T11:00 repeats T "
+            + "for 2 times", lines[1]);
+    assertEquals("ERROR: Line 8: Transaction already started, commit or rollback first for "
+            + "command: begin", lines[2]);
+    assertEquals("ERROR: Line 10: No transaction to commit for command: commit", lines[3]);
+    assertEquals("ERROR: Transaction not committed, 1 staged events were dropped", lines[4]);
+    assertTrue(lines[5], lines[5].startsWith("Ran 12 commands with 5 errors in "));
+    assertEquals(1, model.getCurrentCalendar().getAllEvents().length);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testHeadlessTransactionMustBeCommitted() throws IOException {
+    Path script = folder.getRoot().toPath().resolve("headless.txt");
+    Files.write(script, List.of(
+            "begin",
+            "create event Standup from 2025-03-03T09:00 to 2025-03-03T09:30",
+            "exit"));
+    CalendarController controller = new BasicCalendarController(model, view,
+            new ByteArrayInputStream(new byte[0]));
+    try {
+      controller.startApp(new String[]{"--mode", "headless", script.toString()});
+    } catch (IllegalArgumentException e) {
+      assertEquals("Error: Transaction not committed before 'exit'", e.getMessage());
+      assertEquals(0, model.getCurrentCalendar().getAllEvents().length);
+      throw e;
+    }
+  }
+
+  @Test
+  public void testShowMetrics() throws IOException {
+    Path script = folder.getRoot().toPath().resolve("batch.txt");
+    Files.write(script, List.of(
+            "create event Standup from 2025-03-03T09:00 to 2025-03-03T09:30",
+            "create event Sync from 2025-03-03T09:15 to 2025-03-03T09:45",
+            "show status on 2025-03-03T09:10",
+            "show metrics"));
+    CommandMetrics metrics = new CommandMetrics();
+    CalendarController controller = new BasicCalendarController(model,
+            new BasicCalendarView(out, false), new ByteArrayInputStream(new byte[0]), metrics);
+    controller.startApp(new String[]{"--mode", "batch", script.toString()});
+
+    assertEquals(2, metrics.getCount("create"));
+    assertEquals(1, metrics.getErrors("create"));
+    assertEquals(2, metrics.getCount("show"));
+    String[] lines = out.toString().split(System.lineSeparator());
+    assertTrue(lines[5], lines[5].startsWith("create: count=2 errors=1 p50="));
+    // the show metrics command itself is recorded after it ran
+    assertTrue(lines[6], lines[6].startsWith("show: count=1 errors=0 p50="));
+  }
+}
@@ -54,6 +54,22 @@ public class BasicCalendarViewTest {
     assertEquals(expected, output.toString());
   }
 
+  @Test
+  public void testPlainOutput() {
+    StringBuilder output = new StringBuilder();
+    BasicCalendarView view = new BasicCalendarView(output, false);
+
+    view.displayMessage("Test message");
+    view.displayError("Error message");
+    view.displayEntries(new String[] {"Day 1", "Day 2"});
+
+    String expected = "Test message" + System.lineSeparator()
+            + "ERROR: Error message" + System.lineSeparator()
+            + "Day 1" + System.lineSeparator()
+            + "Day 2" + System.lineSeparator();
+    assertEquals(expected, output.toString());
+  }
+
   @Test
   public void testDisplayMessageIOException() {
     Appendable failingAppendable = new FailingAppendable();
@@ -1,12 +1,32 @@
 import org.junit.Test;
 
+import controller.fileexporter.CsvFileExporter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import model.BasicSingleCalendar;
+import model.EventBatch;
 import model.SingleCalendar;
+import model.calendarentry.EventView;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static utils.DateTimeUtils.isTimeOverLapping;
 
 /**
  * Test class for BasicSingleCalendar.
@@ -2789,4 +2809,549 @@ public class BasicSingleCalendarTest {
 
     assertEquals(0, result.size());
   }
+
+  @Test
+  public void testGetEventsRangeManyEvents() {
+    for (int day = 1; day <= 28; day++) {
+      String date = String.format("2025-02-%02d", day);
+      for (int hour = 8; hour < 18; hour++) {
+        singleCal.addSingleEvent(
+                "Event " + day + "-" + hour,
+                String.format("%sT%02d:00", date, hour),
+                String.format("%sT%02d:30", date, hour),
+                "",
+                "",
+                true,
+                false);
+      }
+    }
+
+    Map<String, String>[] events = singleCal
+            .getEventsRange("2025-02-10T09:30", "2025-02-11T08:30");
+    assertEquals(9, events.length);
+    assertEquals("Event 10-10", events[0].get("Name"));
+    assertEquals("Event 11-8", events[8].get("Name"));
+    assertEquals(10, singleCal.getEventsOnDate("2025-02-20").length);
+    assertEquals("Busy", singleCal.getStatusOnDateTime("2025-02-14T12:15"));
+    assertEquals("Available", singleCal.getStatusOnDateTime("2025-02-14T12:30"));
+  }
+
+  @Test
+  public void testConflictAfterEditMovesEvent() {
+    singleCal.addSingleEvent("Event1", "2025-02-10T10:00", "2025-02-10T11:00",
+            "", "", true, false);
+    singleCal.addSingleEvent("Event2", "2025-02-10T12:00", "2025-02-10T13:00",
+            "", "", true, false);
+    singleCal.editSingleEvent("Event1", "2025-02-10T10:00", "2025-02-10T11:00",
+            "endDateTime", "2025-02-10T11:30", true);
+
+    assertEquals("Busy", singleCal.getStatusOnDateTime("2025-02-10T11:15"));
+    try {
+      singleCal.addSingleEvent("Event3", "2025-02-10T11:20", "2025-02-10T11:40",
+              "", "", true, false);
+      fail("Event3 should conflict with the edited Event1");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Conflict detected, Event not Created", e.getMessage());
+    }
+    singleCal.addSingleEvent("Event3", "2025-02-10T11:30", "2025-02-10T12:00",
+            "", "", true, false);
+    assertEquals(3, singleCal.getEventsOnDate("2025-02-10").length);
+  }
+
+  @Test
+  public void testRecurringSpanIndexedForRangeQuery() {
+    singleCal.addRecurringEventFrequency("Standup", "2025-01-06T09:00", "2025-01-06T09:15",
+            "", "", "MWF", 30, true, false);
+
+    assertEquals(1, singleCal.getEventsOnDate("2025-02-21").length);
+    assertEquals(0, singleCal.getEventsOnDate("2025-02-20").length);
+    assertEquals(0, singleCal.getEventsOnDate("2025-03-31").length);
+    assertEquals("Busy", singleCal.getStatusOnDateTime("2025-02-14T09:10"));
+  }
+
+  @Test
+  public void testEventNamesInMonth() {
+    singleCal.addSingleEvent("Trip", "2025-02-27T18:00", "2025-03-02T10:00",
+            "", "", true, false);
+    singleCal.addSingleEventAllDay("Holiday", "2025-03-17", "", "", false, false);
+    singleCal.addRecurringEventFrequency("Standup", "2025-03-03T09:00", "2025-03-03T09:15",
+            "", "", "MWF", 12, false, false);
+    singleCal.addSingleEvent("Early", "2025-03-05T08:00", "2025-03-05T08:30",
+            "", "", true, false);
+    singleCal.addSingleEvent("Late", "2025-03-31T23:30", "2025-04-01T01:00",
+            "", "", true, false);
+
+    List<List<String>> names = singleCal.getEventNamesInMonth(YearMonth.of(2025, 3));
+    assertEquals(31, names.size());
+    assertEquals(List.of("Trip"), names.get(0));
+    assertEquals(List.of("Trip"), names.get(1));
+    assertEquals(List.of("Standup"), names.get(2));
+    assertEquals(List.of("Early", "Standup"), names.get(4));
+    assertEquals(List.of("Holiday", "Standup"), names.get(16));
+    assertEquals(List.of("Late"), names.get(30));
+    assertEquals(List.of(), names.get(29));
+    for (int day = 1; day <= 31; day++) {
+      String date = String.format("2025-03-%02d", day);
+      List<String> expected = new ArrayList<>();
+      for (Map<String, String> event : singleCal.getEventsOnDate(date)) {
+        expected.add(event.get("Name"));
+      }
+      assertEquals(date, expected, names.get(day - 1));
+    }
+  }
+
+  @Test
+  public void testEventNamesInEmptyMonth() {
+    List<List<String>> names = singleCal.getEventNamesInMonth(YearMonth.of(2024, 2));
+    assertEquals(29, names.size());
+    for (List<String> day : names) {
+      assertEquals(0, day.size());
+    }
+  }
+
+  @Test
+  public void testEventViewsMatchEventDetails() {
+    singleCal.addSingleEvent("Trip", "2025-02-27T18:00", "2025-03-02T10:00",
+            "Away", "Lisbon, PT", true, false);
+    singleCal.addRecurringEventFrequency("Standup", "2025-03-03T09:00", "2025-03-03T09:15",
+            "", "Room 1", "MWF", 12, false, false);
+    singleCal.addSingleEvent("Early", "2025-03-05T08:00", "2025-03-05T08:30",
+            "", "", false, false);
+    singleCal.editSingleEvent("Standup", "2025-03-07T09:00", "2025-03-07T09:15",
+            "location", "Room 2", false);
+
+    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+    Map<String, String>[] details = singleCal.getEventsRange("2025-03-01T00:00",
+            "2025-03-10T00:00");
+    List<EventView> views = singleCal.getEventViewsRange("2025-03-01T00:00",
+            "2025-03-10T00:00");
+    assertEquals(details.length, views.size());
+    for (int i = 0; i < details.length; i++) {
+      assertEquals(details[i].get("Name"), views.get(i).getName());
+      assertEquals(details[i].get("StartDateTime"),
+              views.get(i).getStartDateTime().format(formatter));
+      assertEquals(details[i].get("EndDateTime"),
+              views.get(i).getEndDateTime().format(formatter));
+      assertEquals(details[i].get("Location"), views.get(i).getLocation());
+    }
+    assertFalse(views.get(0).isRecurring());
+    assertTrue(views.get(1).isRecurring());
+    assertEquals("Room 2", views.get(4).getLocation());
+
+    List<EventView> onDate = singleCal.getEventViewsOnDate("2025-03-05");
+    assertEquals(2, onDate.size());
+    assertEquals("Early", onDate.get(0).getName());
+    assertEquals("Standup", onDate.get(1).getName());
+
+    List<EventView> all = singleCal.getAllEventViews();
+    assertEquals(singleCal.getAllEvents().length, all.size());
+    assertEquals(14, all.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEventViewsRangeEndBeforeStart() {
+    singleCal.getEventViewsRange("2025-03-10T00:00", "2025-03-01T00:00");
+  }
+
+  @Test
+  public void testExportEventViewsMatchesEventDetails() throws IOException {
+    singleCal.addSingleEvent("Trip", "2025-02-27T18:00", "2025-03-02T10:00",
+            "Away, \"far\"", "Lisbon, PT", true, false);
+    singleCal.addRecurringEventFrequency("Standup", "2025-03-03T09:00", "2025-03-03T09:15",
+            "", "Room 1", "MWF", 5, false, true);
+    singleCal.addSingleEventAllDay("Holiday", "2025-03-17", "", "", false, false);
+
+    File detailsFile = File.createTempFile("details", ".csv");
+    File viewsFile = File.createTempFile("views", ".csv");
+    try {
+      new CsvFileExporter().export(singleCal.getAllEvents(), detailsFile.getAbsolutePath());
+      new CsvFileExporter().export(singleCal.getAllEventViews(), viewsFile.getAbsolutePath());
+      assertEquals(Files.readAllLines(detailsFile.toPath()),
+              Files.readAllLines(viewsFile.toPath()));
+      assertEquals(8, Files.readAllLines(viewsFile.toPath()).size());
+    } finally {
+      detailsFile.delete();
+      viewsFile.delete();
+    }
+  }
+
+  @Test
+  public void testStreamingExportMatchesEventDetails() throws IOException {
+    singleCal.addSingleEvent("Trip", "2025-02-27T18:00", "2025-03-02T10:00",
+            "Line one\nline \"two\"", "Lisbon, PT", true, false);
+    singleCal.addRecurringEventFrequency("Standup", "2025-03-03T09:00", "2025-03-03T09:15",
+            "", "Room 1", "MTWRF", 2000, false, true);
+    singleCal.editSingleEvent("Standup", "2025-03-07T09:00", "2025-03-07T09:15",
+            "name", "Planning", false);
+
+    File detailsFile = File.createTempFile("details", ".csv");
+    File streamedFile = File.createTempFile("streamed", ".csv");
+    try {
+      Files.write(streamedFile.toPath(), new byte[100_000]);
+      new CsvFileExporter().export(singleCal.getAllEvents(), detailsFile.getAbsolutePath());
+      new CsvFileExporter().export(singleCal, streamedFile.getAbsolutePath());
+      assertTrue(Arrays.equals(Files.readAllBytes(detailsFile.toPath()),
+              Files.readAllBytes(streamedFile.toPath())));
+    } finally {
+      detailsFile.delete();
+      streamedFile.delete();
+    }
+  }
+
+  @Test
+  public void testAddSingleEventsReport() {
+    singleCal.addSingleEvent("Existing", "2025-03-03T09:00", "2025-03-03T10:00",
+            "", "", true, false);
+    EventBatch batch = new EventBatch()
+            .add("Clash", "2025-03-03T09:30", "2025-03-03T09:45", "", "", false)
+            .add("First", "2025-03-03T10:00", "2025-03-03T11:00", "", "Room 1", false)
+            .add("Second", "2025-03-03T10:30", "2025-03-03T11:30", "", "", false)
+            .add("Backwards", "2025-03-03T12:00", "2025-03-03T11:00", "", "", false)
+            .add("Holiday", "2025-03-04T00:00", "", "", "", true)
+            .add("Touching", "2025-03-03T11:00", "2025-03-03T12:00", "", "", false);
+
+    EventBatch.Report report = singleCal.addSingleEvents(batch, true);
+    assertEquals(6, report.size());
+    assertEquals(3, report.getAddedCount());
+    assertEquals("Conflict detected, Event not Created", report.getError(0));
+    assertTrue(report.isAdded(1));
+    assertEquals("Conflict detected, Event not Created", report.getError(2));
+    assertEquals("End time must be after start time", report.getError(3));
+    assertTrue(report.isAdded(4));
+    assertTrue(report.isAdded(5));
+
+    Map<String, String>[] events = singleCal.getAllEvents();
+    assertEquals(4, events.length);
+    assertEquals("First", events[1].get("Name"));
+    assertEquals("Room 1", events[1].get("Location"));
+    assertEquals("Holiday", events[2].get("Name"));
+    assertEquals("true", events[2].get("IsAllDay"));
+    assertEquals("true", events[2].get("IsPrivate"));
+    assertEquals("Touching", events[3].get("Name"));
+  }
+
+  @Test
+  public void testAddSingleEventsWithoutAutoDecline() {
+    singleCal.addSingleEvent("Existing", "2025-03-03T09:00", "2025-03-03T10:00",
+            "", "", true, false);
+    EventBatch batch = new EventBatch()
+            .add("Clash", "2025-03-03T09:30", "2025-03-03T09:45", "", "", false)
+            .add("Clash again", "2025-03-03T09:30", "2025-03-03T09:45", "", "", false)
+            .add("Backwards", "2025-03-03T12:00", "2025-03-03T11:00", "", "", false);
+
+    EventBatch.Report report = singleCal.addSingleEvents(batch, false);
+    assertEquals(2, report.getAddedCount());
+    assertFalse(report.isAdded(2));
+    assertEquals(3, singleCal.getAllEvents().length);
+  }
+
+  @Test
+  public void testAddAllOrNothingBatch() {
+    singleCal.addSingleEvent("Existing", "2025-03-03T09:00", "2025-03-03T10:00",
+            "", "", true, false);
+    EventBatch batch = new EventBatch().allOrNothing()
+            .add("Late", "2025-03-03T14:00", "2025-03-03T15:00", "", "", false)
+            .add("Touching", "2025-03-03T10:00", "2025-03-03T11:00", "", "", false)
+            .add("Holiday", "2025-03-04T00:00", "", "", "", true);
+
+    EventBatch.Report report = singleCal.addSingleEvents(batch, true);
+    assertFalse(report.isRolledBack());
+    assertEquals(3, report.getAddedCount());
+    Map<String, String>[] events = singleCal.getAllEvents();
+    assertEquals(4, events.length);
+    assertEquals("Late", events[1].get("Name"));
+    assertEquals("Holiday", events[3].get("Name"));
+  }
+
+  @Test
+  public void testAllOrNothingBatchRollsBack() {
+    singleCal.addSingleEvent("Existing", "2025-03-03T09:00", "2025-03-03T10:00",
+            "", "", true, false);
+    EventBatch batch = new EventBatch().allOrNothing()
+            .add("Long", "2025-03-03T12:00", "2025-03-03T16:00", "", "", false)
+            .add("Fine", "2025-03-03T10:00", "2025-03-03T11:00", "", "", false)
+            .add("Inside", "2025-03-03T14:00", "2025-03-03T15:00", "", "", false)
+            .add("Clash", "2025-03-03T09:30", "2025-03-03T09:45", "", "", false);
+
+    EventBatch.Report report = singleCal.addSingleEvents(batch, true);
+    assertTrue(report.isRolledBack());
+    assertEquals(0, report.getAddedCount());
+    assertFalse(report.isAdded(1));
+    assertNull(report.getError(1));
+    assertNull(report.getError(0));
+    assertEquals("Conflict detected with another event of the batch, Event not Created",
+            report.getError(2));
+    assertEquals("Conflict detected, Event not Created", report.getError(3));
+    assertEquals(1, singleCal.getAllEvents().length);
+
+    EventBatch overlapping = new EventBatch().allOrNothing()
+            .add("Clash", "2025-03-03T09:30", "2025-03-03T09:45", "", "", false)
+            .add("Clash again", "2025-03-03T09:30", "2025-03-03T09:45", "", "", false);
+    assertEquals(2, singleCal.addSingleEvents(overlapping, false).getAddedCount());
+    assertEquals(3, singleCal.getAllEvents().length);
+  }
+
+  @Test
+  public void testAddSingleEventsMatchesSequentialAdds() {
+    SingleCalendar sequentialCal = new BasicSingleCalendar("America/New_York");
+    for (SingleCalendar calendar : List.of(singleCal, sequentialCal)) {
+      calendar.addRecurringEventFrequency("Standup", "2025-03-03T09:00", "2025-03-03T09:30",
+              "", "", "MWF", 20, true, false);
+      calendar.addSingleEvent("Lunch", "2025-03-05T12:00", "2025-03-05T13:00",
+              "", "", true, false);
+    }
+
+    Random random = new Random(42);
+    EventBatch batch = new EventBatch();
+    List<Boolean> sequentialAdded = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      String day = String.format("2025-03-%02d", 1 + random.nextInt(28));
+      String start = String.format("%sT%02d:%02d", day, random.nextInt(24),
+              15 * random.nextInt(4));
+      String end = random.nextInt(10) == 0 ? ""
+              : String.format("%sT%02d:%02d", day, random.nextInt(24), 15 * random.nextInt(4));
+      batch.add("Event " + i, start, end, "", "", false);
+      try {
+        if (end.isEmpty()) {
+          sequentialCal.addSingleEventAllDay("Event " + i, start, "", "", true, false);
+        } else {
+          sequentialCal.addSingleEvent("Event " + i, start, end, "", "", true, false);
+        }
+        sequentialAdded.add(true);
+      } catch (IllegalArgumentException e) {
+        sequentialAdded.add(false);
+      }
+    }
+
+    EventBatch.Report report = singleCal.addSingleEvents(batch, true);
+    for (int i = 0; i < batch.size(); i++) {
+      assertEquals("Event " + i, sequentialAdded.get(i), report.isAdded(i));
+    }
+    assertEquals(Arrays.asList(sequentialCal.getAllEvents()),
+            Arrays.asList(singleCal.getAllEvents()));
+  }
+
+  @Test
+  public void testGetExactEventFollowsEditsAndTimezone() {
+    singleCal.addRecurringEventFrequency("Standup", "2025-03-03T09:00", "2025-03-03T09:30",
+            "", "", "MWF", 6, true, false);
+    singleCal.addSingleEvent("Lunch", "2025-03-05T12:00", "2025-03-05T13:00",
+            "", "", true, false);
+
+    singleCal.editSingleEvent("Standup", "2025-03-05T09:00", "2025-03-05T09:30",
+            "name", "Retro", true);
+    singleCal.editSingleEvent("Lunch", "2025-03-05T12:00", "2025-03-05T13:00",
+            "startDateTime", "2025-03-05T11:00", true);
+    assertEquals("True", singleCal.getExactEvent("Retro", "2025-03-05T09:00")
+            .get("Is Recurring"));
+    assertTrue(singleCal.getExactEvent("Standup", "2025-03-05T09:00").isEmpty());
+    assertEquals("Standup", singleCal.getExactEvent("Standup", "2025-03-07T09:00")
+            .get("Name"));
+    assertTrue(singleCal.getExactEvent("Lunch", "2025-03-05T12:00").isEmpty());
+
+    try {
+      singleCal.editSingleEvent("Lunch", "2025-03-05T11:00", "2025-03-05T13:00",
+              "startDateTime", "2025-03-05T09:15", true);
+      fail("Expected a conflict");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Event conflicts with existing event", e.getMessage());
+    }
+    assertEquals("False", singleCal.getExactEvent("Lunch", "2025-03-05T11:00")
+            .get("Is Recurring"));
+
+    singleCal.changeTimezone("Europe/London");
+    assertEquals("Lunch", singleCal.getExactEvent("Lunch", "2025-03-05T16:00").get("Name"));
+    assertEquals("Retro", singleCal.getExactEvent("Retro", "2025-03-05T14:00").get("Name"));
+    singleCal.editSingleEvent("Retro", "2025-03-05T14:00", "2025-03-05T14:30",
+            "location", "Room 1", true);
+    assertEquals("Room 1", singleCal.getExactEvent("Retro", "2025-03-05T14:00")
+            .get("Location"));
+  }
+
+  @Test
+  public void testEditByNameFollowsRenames() {
+    singleCal.addRecurringEventFrequency("Standup", "2025-03-03T09:00", "2025-03-03T09:30",
+            "", "", "MWF", 6, true, false);
+    singleCal.addSingleEvent("Lunch", "2025-03-05T12:00", "2025-03-05T13:00",
+            "", "", true, false);
+
+    singleCal.editSingleEvent("Standup", "2025-03-05T09:00", "2025-03-05T09:30",
+            "name", "Retro", true);
+    singleCal.editMultipleEventsAll("Retro", "location", "Room 2", true);
+    assertEquals("Room 2", singleCal.getExactEvent("Retro", "2025-03-05T09:00")
+            .get("Location"));
+
+    singleCal.editMultipleEventsFollowing("Standup", "2025-03-10T09:00", "name", "Sync", true);
+    singleCal.editMultipleEventsAll("Sync", "description", "Weekly sync", true);
+    singleCal.editMultipleEventsAll("Standup", "location", "Room 3", true);
+    assertEquals("Weekly sync", singleCal.getExactEvent("Sync", "2025-03-12T09:00")
+            .get("Description"));
+    assertEquals("Room 3", singleCal.getExactEvent("Sync", "2025-03-12T09:00")
+            .get("Location"));
+    assertEquals("Room 3", singleCal.getExactEvent("Standup", "2025-03-07T09:00")
+            .get("Location"));
+    assertEquals("Room 3", singleCal.getExactEvent("Retro", "2025-03-05T09:00")
+            .get("Location"));
+
+    singleCal.editMultipleEventsAll("Lunch", "name", "Brunch", true);
+    try {
+      singleCal.editMultipleEventsAll("Lunch", "location", "Cafe", true);
+      fail("Expected the renamed event to be gone");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Could not find any recurring event: Lunch", e.getMessage());
+    }
+    singleCal.editMultipleEventsAll("Brunch", "location", "Cafe", true);
+    assertEquals("Cafe", singleCal.getExactEvent("Brunch", "2025-03-05T12:00")
+            .get("Location"));
+  }
+
+  @Test
+  public void testFailedEditKeepsOrderOfEvents() {
+    singleCal.addSingleEvent("Gym", "2025-03-03T07:00", "2025-03-03T08:00", "", "", true, false);
+    singleCal.addRecurringEventFrequency("Gym", "2025-03-04T07:00", "2025-03-04T08:00", "", "",
+            "T", 2, true, false);
+    singleCal.addSingleEvent("Gym", "2025-03-05T07:00", "2025-03-05T08:00", "", "", true, false);
+
+    try {
+      singleCal.editMultipleEventsAll("Gym", "frequency", "often", false);
+      fail("Expected the frequency to be rejected");
+    } catch (IllegalArgumentException e) {
+      // The first single event was matched before the recurring event failed
+    }
+    singleCal.editMultipleEventsAll("Gym", "location", "Pool", false);
+
+    List<String> starts = new ArrayList<>();
+    for (Map<String, String> event : singleCal.getAllEvents()) {
+      starts.add(event.get("StartDate") + " " + event.get("Location"));
+    }
+    assertEquals(List.of("03/03/2025 Pool", "03/04/2025 Pool", "03/11/2025 Pool",
+            "03/05/2025 Pool"), starts);
+  }
+
+  @Test
+  public void testStatusMatchesEventsAfterChanges() {
+    singleCal.addSingleEvent("Moved", "2025-03-20T10:00", "2025-03-20T11:00", "", "",
+            false, false);
+    Random random = new Random(7);
+    for (int i = 0; i < 300; i++) {
+      LocalDateTime start = LocalDateTime.of(2025, 3, 1, 6, 0)
+              .plusDays(random.nextInt(40)).plusMinutes(30L * random.nextInt(36));
+      String end = start.plusMinutes(30L * (1 + random.nextInt(8))).toString();
+      if (random.nextInt(10) == 0) {
+        singleCal.addRecurringEventFrequency("Series " + i, start.toString(), end, "", "",
+                "MTWRFSU".substring(random.nextInt(7)).substring(0, 1), 5, false, false);
+      } else {
+        singleCal.addSingleEvent("Event " + i, start.toString(), end, "", "", false, false);
+      }
+    }
+
+    assertStatusMatchesEvents(random, "America/New_York");
+    singleCal.editSingleEvent("Moved", "2025-03-20T10:00", "2025-03-20T11:00",
+            "startDateTime", "2025-03-20T08:00", false);
+    singleCal.addSingleEvent("Late", "2025-04-12T23:00", "2025-04-13T01:00", "", "",
+            false, false);
+    assertEquals("Busy", singleCal.getStatusOnDateTime("2025-04-13T00:00"));
+    assertEquals("Available", singleCal.getStatusInRange("2025-04-13T01:00",
+            "2025-04-13T02:00"));
+    assertStatusMatchesEvents(random, "America/New_York");
+    singleCal.changeTimezone("Asia/Kolkata");
+    assertStatusMatchesEvents(random, "Asia/Kolkata");
+  }
+
+  @Test
+  public void testTimezoneChangesThereAndBack() {
+    singleCal.addSingleEventAllDay("Holiday", "2025-03-20", "", "", false, false);
+    singleCal.addSingleEvent("Meeting", "2025-03-20T10:00", "2025-03-20T11:00", "", "",
+            false, false);
+    singleCal.addRecurringEventFrequency("Review", "2025-03-21T09:00", "2025-03-21T09:30", "",
+            "", "F", 3, false, false);
+
+    singleCal.changeTimezone("Asia/Kolkata");
+    Map<String, String>[] events = singleCal.getAllEvents();
+    assertEquals("false", events[0].get("IsAllDay"));
+    assertEquals("09:30 AM", events[0].get("StartTime"));
+    assertEquals("07:30 PM", events[1].get("StartTime"));
+    assertEquals("06:30 PM", events[2].get("StartTime"));
+    assertEquals("Busy", singleCal.getStatusOnDateTime("2025-03-28T18:45"));
+
+    singleCal.editSingleEvent("Meeting", "2025-03-20T19:30", "2025-03-20T20:30",
+            "startDateTime", "2025-03-20T19:00", false);
+    singleCal.editMultipleEventsAll("Review", "location", "Room 2", false);
+    singleCal.changeTimezone("America/New_York");
+    events = singleCal.getAllEvents();
+    assertEquals("true", events[0].get("IsAllDay"));
+    assertEquals("12:00 AM", events[0].get("StartTime"));
+    assertEquals("11:59 PM", events[0].get("EndTime"));
+    assertEquals("09:30 AM", events[1].get("StartTime"));
+    assertEquals("09:00 AM", events[4].get("StartTime"));
+    assertEquals("Room 2", events[4].get("Location"));
+    assertEquals("Busy", singleCal.getStatusOnDateTime("2025-03-21T09:15"));
+    assertEquals("Available", singleCal.getStatusOnDateTime("2025-03-21T09:30"));
+  }
+
+  @Test
+  public void testEventsMovedToNewTimezoneOverLaterChanges() {
+    for (int day = 1; day <= 28; day++) {
+      String date = String.format("2025-04-%02d", day);
+      singleCal.addSingleEvent("Meeting", date + "T10:00", date + "T11:00", "", "", false, false);
+      singleCal.addSingleEventAllDay("Holiday", date, "", "", false, false);
+      singleCal.addSingleEvent("Call", date + "T22:30", date + "T23:30", "", "", false, false);
+      singleCal.addRecurringEventFrequency("Review", date + "T08:00", date + "T08:30", "", "",
+              "MTWRFSU", 3, false, false);
+    }
+    List<Map<String, String>> original = Arrays.asList(singleCal.getAllEvents());
+
+    singleCal.changeTimezone("Asia/Kolkata");
+    List<Map<String, String>> moved = Arrays.asList(singleCal.getAllEvents());
+    for (int day = 1; day <= 4; day++) {
+      singleCal.addSingleEvent("Gym", String.format("2025-05-%02dT07:00", day),
+              String.format("2025-05-%02dT08:00", day), "", "", false, false);
+    }
+    List<Map<String, String>> afterChanges = Arrays.asList(singleCal.getAllEvents());
+    assertEquals(moved, afterChanges.subList(0, moved.size()));
+    assertEquals("Busy", singleCal.getStatusOnDateTime("2025-04-10T20:45"));
+
+    singleCal.changeTimezone("America/New_York");
+    assertEquals(original, Arrays.asList(singleCal.getAllEvents()).subList(0, original.size()));
+  }
+
+  @Test
+  public void testStatusOfOccurrencesEndingBeforeStart() {
+    singleCal.addSingleEvent("First", "2025-03-10T10:00", "2025-03-10T11:00", "", "",
+            false, false);
+    singleCal.addSingleEvent("Second", "2025-03-10T10:30", "2025-03-10T12:00", "", "",
+            false, false);
+    assertEquals("Available", singleCal.getStatusInRange("2025-03-10T11:30",
+            "2025-03-10T10:15"));
+
+    singleCal.addRecurringEventFrequency("Review", "2025-03-17T22:30", "2025-03-18T01:00", "",
+            "", "MW", 6, false, false);
+    assertTrue(singleCal.getAllEventViews().stream()
+            .anyMatch(view -> view.getEndDateTime().isBefore(view.getStartDateTime())));
+    assertEquals("Busy", singleCal.getStatusInRange("2025-03-19T00:00", "2025-03-20T00:00"));
+    assertStatusMatchesEvents(new Random(11), "America/New_York");
+
+    singleCal.editMultipleEventsAll("Review", "endDateTime", "2025-03-17T23:30", false);
+    assertTrue(singleCal.getAllEventViews().stream()
+            .noneMatch(view -> view.getEndDateTime().isBefore(view.getStartDateTime())));
+    assertStatusMatchesEvents(new Random(12), "America/New_York");
+  }
+
+  private void assertStatusMatchesEvents(Random random, String timeZone) {
+    List<EventView> views = singleCal.getAllEventViews();
+    for (int i = 0; i < 500; i++) {
+      ZonedDateTime from = ZonedDateTime.of(2025, 3, 1, 0, 0, 0, 0, ZoneId.of("UTC"))
+              .plusMinutes(15L * random.nextInt(4 * 24 * 45));
+      ZonedDateTime to = from.plusMinutes(15L * random.nextInt(4 * 24 * 40));
+      boolean isBusy = false;
+      for (EventView view : views) {
+        isBusy |= isTimeOverLapping(view.getStartDateTime(), view.getEndDateTime(), from, to);
+      }
+      ZoneId zone = ZoneId.of(timeZone);
+      String start = from.withZoneSameInstant(zone).toLocalDateTime().toString();
+      String end = to.withZoneSameInstant(zone).toLocalDateTime().toString();
+      assertEquals(start + " to " + end, isBusy ? "Busy" : "Available",
+              singleCal.getStatusInRange(start, end));
+    }
+  }
 }
@@ -0,0 +1,140 @@
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import model.BasicSingleCalendar;
+import model.CalendarImage;
+import model.ColumnarSingleCalendar;
+import model.SingleCalendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test class for CalendarImage. A calendar added from an image must answer like the calendar the
+ * image was written from.
+ */
+public class CalendarImageTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private SingleCalendar calendar;
+  private String filePath;
+
+  @Before
+  public void setUp() {
+    calendar = new BasicSingleCalendar("America/New_York");
+    calendar.addSingleEvent("Standup", "2025-03-03T09:00", "2025-03-03T09:30", "daily",
+            "room 1", true, true);
+    calendar.addSingleEvent("Standup", "2025-03-04T09:00", "2025-03-04T09:30", "daily",
+            "room 1", true, false);
+    calendar.addSingleEventAllDay("Holiday", "2025-03-07", "", "", true, false);
+    calendar.addRecurringEventFrequency("Review", "2025-03-04T14:00", "2025-03-04T15:00",
+            "weekly", "", "TR", 6, true, false);
+    calendar.addRecurringAllDayEventUntil("Gym", "2025-03-01", "", "", "SU", "2025-03-30",
+            true, false);
+    calendar.editMultipleEventsFollowing("Review", "2025-03-11T14:00", "location", "room 9",
+            false);
+    filePath = folder.getRoot().toPath().resolve("work.calbin").toString();
+  }
+
+  @Test
+  public void testImageRoundTrip() throws IOException {
+    Path path = CalendarImage.write(calendar, "America/New_York", filePath);
+    assertEquals(filePath, path.toString());
+
+    CalendarImage image = CalendarImage.open(filePath);
+    assertEquals(5, image.size());
+    assertEquals("America/New_York", image.getTimeZone());
+
+    for (SingleCalendar target : List.of(new BasicSingleCalendar("America/New_York"),
+            new ColumnarSingleCalendar("America/New_York"))) {
+      assertEquals(5, image.addTo(target, "America/New_York"));
+      assertEquals(events(calendar), events(target));
+      assertEquals(calendar.getStatusOnDateTime("2025-03-13T14:30"),
+              target.getStatusOnDateTime("2025-03-13T14:30"));
+      // a series read from an image can still be edited as one
+      target.editMultipleEventsAll("Review", "description", "monthly", false);
+      assertEquals("monthly", target.getEventsOnDate("2025-03-18")[0].get("Description"));
+    }
+  }
+
+  @Test
+  public void testImageInAnotherTimezone() throws IOException {
+    CalendarImage.write(calendar, "America/New_York", filePath);
+    calendar.changeTimezone("Asia/Kolkata");
+
+    SingleCalendar target = new BasicSingleCalendar("Asia/Kolkata");
+    CalendarImage.open(filePath).addTo(target, "Asia/Kolkata");
+    assertEquals(events(calendar), events(target));
+  }
+
+  @Test
+  public void testConflictingImageAddsNothing() throws IOException {
+    CalendarImage.write(calendar, "America/New_York", filePath);
+    SingleCalendar target = new BasicSingleCalendar("America/New_York");
+    target.addSingleEvent("Dentist", "2025-03-03T09:15", "2025-03-03T10:00", "", "",
+            true, false);
+    try {
+      CalendarImage.open(filePath).addTo(target, "America/New_York");
+      fail("Conflicting image should be rejected");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Conflict detected, no events were added", e.getMessage());
+    }
+    assertEquals(1, target.getAllEvents().length);
+  }
+
+  @Test
+  public void testEmptyCalendarImage() throws IOException {
+    CalendarImage.write(new ColumnarSingleCalendar("UTC"), "UTC", filePath);
+    CalendarImage image = CalendarImage.open(filePath);
+    assertEquals(0, image.size());
+    assertEquals("UTC", image.getTimeZone());
+    SingleCalendar target = new BasicSingleCalendar("UTC");
+    assertEquals(0, image.addTo(target, "UTC"));
+    assertEquals(0, target.getAllEvents().length);
+  }
+
+  @Test
+  public void testInvalidImagesAreRejected() throws IOException {
+    try {
+      CalendarImage.write(calendar, "America/New_York", filePath + ".csv");
+      fail("File name without the image extension should be rejected");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().startsWith("Invalid calendar image file name"));
+    }
+
+    Path notImage = folder.getRoot().toPath().resolve("other.calbin");
+    Files.write(notImage, "Subject,Start Date".getBytes());
+    try {
+      CalendarImage.open(notImage.toString());
+      fail("File without an image should be rejected");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Not a calendar image", e.getMessage());
+    }
+
+    CalendarImage.write(calendar, "America/New_York", filePath);
+    byte[] bytes = Files.readAllBytes(Path.of(filePath));
+    Files.write(Path.of(filePath), Arrays.copyOf(bytes, bytes.length / 2));
+    try {
+      CalendarImage.open(filePath).addTo(new BasicSingleCalendar("UTC"), "UTC");
+      fail("Truncated image should be rejected");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Damaged calendar image", e.getMessage());
+    }
+  }
+
+  private static List<Map<String, String>> events(SingleCalendar calendar) {
+    return Arrays.asList(calendar.getAllEvents());
+  }
+}
@@ -0,0 +1,82 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import model.BasicSingleCalendar;
+import model.SingleCalendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for the flight recorder events emitted by the calendar operations.
+ */
+public class CalendarRecordingTest {
+
+  @Test
+  public void testCalendarOperationsAreRecorded() throws IOException {
+    final SingleCalendar calendar = new BasicSingleCalendar("UTC");
+    final List<RecordedEvent> events;
+    try (Recording recording = new Recording()) {
+      recording.enable("calendar.Add");
+      recording.enable("calendar.Edit");
+      recording.enable("calendar.RangeQuery");
+      recording.enable("calendar.ConflictCheck").withThreshold(Duration.ZERO);
+      recording.enable("calendar.OccurrenceGeneration").withThreshold(Duration.ZERO);
+      recording.start();
+
+      calendar.addSingleEvent("Meeting", "2025-06-02T10:00", "2025-06-02T11:00", "", "", true,
+              false);
+      calendar.addRecurringEventFrequency("Standup", "2025-06-03T09:00", "2025-06-03T09:15", "",
+              "", "TR", 4, true, false);
+      calendar.editSingleEvent("Meeting", "2025-06-02T10:00", "2025-06-02T11:00", "location",
+              "Room 4", true);
+      calendar.getEventsRange("2025-06-01T00:00", "2025-06-30T00:00");
+
+      recording.stop();
+      final Path file = Files.createTempFile("calendar", ".jfr");
+      try {
+        recording.dump(file);
+        events = RecordingFile.readAllEvents(file);
+      } finally {
+        Files.delete(file);
+      }
+    }
+
+    final List<RecordedEvent> adds = named(events, "calendar.Add");
+    assertEquals(2, adds.size());
+    assertEquals("single", adds.get(0).getString("kind"));
+    assertEquals(1, adds.get(0).getInt("added"));
+    assertEquals("recurring", adds.get(1).getString("kind"));
+    assertEquals(2, adds.get(1).getInt("calendarSize"));
+
+    final List<RecordedEvent> edits = named(events, "calendar.Edit");
+    assertEquals(1, edits.size());
+    assertEquals("location", edits.get(0).getString("property"));
+    assertEquals(1, edits.get(0).getInt("edited"));
+
+    final List<RecordedEvent> queries = named(events, "calendar.RangeQuery");
+    assertFalse(queries.isEmpty());
+    assertEquals(5, queries.get(queries.size() - 1).getInt("results"));
+
+    assertFalse(named(events, "calendar.ConflictCheck").isEmpty());
+    assertTrue(named(events, "calendar.OccurrenceGeneration").stream()
+            .anyMatch(event -> event.getInt("occurrences") == 4));
+  }
+
+  private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+    return events.stream()
+            .filter(event -> event.getEventType().getName().equals(name))
+            .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+            .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,332 @@
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import model.BasicCalendarModel;
+import model.BasicSingleCalendar;
+import model.CalendarStorage;
+import model.ColumnarSingleCalendar;
+import model.EventBatch;
+import model.SingleCalendar;
+import model.calendarentry.EventView;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for ColumnarSingleCalendar. The columnar calendar must behave exactly like the
+ * BasicSingleCalendar, so most tests run the same operations on both and compare every answer.
+ */
+public class ColumnarSingleCalendarTest {
+
+  private static final String[] NAMES = {"Standup", "Review", "Lunch", "Gym", "Call"};
+  private static final String[] PROPERTIES = {"name", "description", "location", "private",
+      "public", "startDateTime", "endDateTime", "allDay", "frequency"};
+
+  private final SingleCalendar basic;
+  private final SingleCalendar columnar;
+
+  /**
+   * Constructor for ColumnarSingleCalendarTest.
+   */
+  public ColumnarSingleCalendarTest() {
+    this.basic = new BasicSingleCalendar("America/New_York");
+    this.columnar = new ColumnarSingleCalendar("America/New_York");
+  }
+
+  @Test
+  public void testAddAndQuerySingleEvents() {
+    columnar.addSingleEvent("Event1", "2025-03-01T10:00", "2025-03-01T11:00",
+            "Description", "Room 1", false, true);
+    columnar.addSingleEventAllDay("Holiday", "2025-03-02", "", "", false, false);
+    columnar.addSingleEvent("Late", "2025-03-01T23:00", "2025-03-02T01:00", "", "", false,
+            false);
+
+    assertEquals(3, columnar.getAllEvents().length);
+    assertEquals("Event1", columnar.getEventsOnDate("2025-03-01")[0].get("Name"));
+    assertEquals("Room 1", columnar.getEventsOnDate("2025-03-01")[0].get("Location"));
+    assertEquals("true", columnar.getEventsOnDate("2025-03-01")[0].get("IsPrivate"));
+    assertEquals(2, columnar.getEventsOnDate("2025-03-02").length);
+    assertEquals("true", columnar.getEventsOnDate("2025-03-02")[1].get("IsAllDay"));
+    assertEquals("Busy", columnar.getStatusOnDateTime("2025-03-02T00:30"));
+    assertEquals("Available", columnar.getStatusOnDateTime("2025-03-01T11:00"));
+  }
+
+  @Test
+  public void testConflictsAreDeclined() {
+    columnar.addSingleEvent("Event1", "2025-03-01T10:00", "2025-03-01T11:00", "", "", true,
+            false);
+    columnar.addRecurringEventFrequency("Series", "2025-03-03T10:00", "2025-03-03T11:00", "",
+            "", "M", 4, true, false);
+
+    assertConflict("Conflict detected, Event not Created", () -> columnar.addSingleEvent(
+            "Event2", "2025-03-01T10:30", "2025-03-01T12:00", "", "", true, false));
+    assertConflict("Conflict detected, Event not Created", () -> columnar.addSingleEvent(
+            "Event2", "2025-03-17T09:00", "2025-03-17T10:30", "", "", true, false));
+    assertConflict("Event conflicts with existing event", () -> columnar.editSingleEvent(
+            "Event1", "2025-03-01T10:00", "2025-03-01T11:00", "endDateTime",
+            "2025-03-03T10:30", true));
+    columnar.addSingleEvent("Event2", "2025-03-01T11:00", "2025-03-01T12:00", "", "", true,
+            false);
+
+    assertEquals(2 + 4, columnar.getAllEventViews().size());
+    assertEquals("2025-03-01T10:00",
+            columnar.getEventViewsOnDate("2025-03-01").get(0).getStartDateTime()
+                    .toLocalDateTime().toString());
+  }
+
+  @Test
+  public void testRandomOperationsMatchBasicCalendar() {
+    for (long seed = 1; seed <= 4; seed++) {
+      SingleCalendar expected = new BasicSingleCalendar("America/New_York");
+      SingleCalendar actual = new ColumnarSingleCalendar("America/New_York");
+      Random random = new Random(seed);
+      for (int i = 0; i < 600; i++) {
+        String operation = randomOperation(random, expected, i);
+        assertEquals(operation, outcome(() -> apply(operation, expected)),
+                outcome(() -> apply(operation, actual)));
+        assertSameAnswers(operation, expected, actual, random);
+      }
+    }
+  }
+
+  @Test
+  public void testManyEditsCompactTheColumns() {
+    for (int i = 0; i < 3000; i++) {
+      String start = LocalDateTime.of(2025, 1, 1, 8, 0).plusHours(i).toString();
+      String end = LocalDateTime.of(2025, 1, 1, 8, 30).plusHours(i).toString();
+      for (SingleCalendar calendar : List.of(basic, columnar)) {
+        calendar.addSingleEvent(i % 2 == 0 ? "Even" : "Odd", start, end, "", "", false, false);
+      }
+    }
+    basic.addRecurringEventFrequency("Series", "2025-01-01T06:00", "2025-01-01T07:00", "", "",
+            "MTWRF", 40, false, false);
+    columnar.addRecurringEventFrequency("Series", "2025-01-01T06:00", "2025-01-01T07:00", "",
+            "", "MTWRF", 40, false, false);
+
+    for (String[] edit : new String[][]{
+        {"Even", "location", "Room 1"},
+        {"Odd", "description", "Moved"},
+        {"Even", "name", "Renamed"},
+        {"Series", "location", "Room 2"},
+        {"Renamed", "private", "true"}}) {
+      basic.editMultipleEventsAll(edit[0], edit[1], edit[2], false);
+      columnar.editMultipleEventsAll(edit[0], edit[1], edit[2], false);
+      assertEquals(Arrays.asList(basic.getAllEvents()), Arrays.asList(columnar.getAllEvents()));
+    }
+    assertEquals(Arrays.asList(basic.getEventsRange("2025-02-01T00:00", "2025-02-03T00:00")),
+            Arrays.asList(columnar.getEventsRange("2025-02-01T00:00", "2025-02-03T00:00")));
+    assertEquals(basic.getExactEvent("Renamed", "2025-01-02T08:00"),
+            columnar.getExactEvent("Renamed", "2025-01-02T08:00"));
+  }
+
+  @Test
+  public void testModelCopiesBetweenStorages() {
+    BasicCalendarModel model = new BasicCalendarModel();
+    model.addCalendar("Objects", "America/New_York");
+    model.addCalendar("Columns", "Asia/Kolkata", CalendarStorage.COLUMNAR);
+    model.addCalendar("Copy", "Europe/London", CalendarStorage.COLUMNAR);
+    model.useCalendar("Objects");
+    model.getCurrentCalendar().addSingleEvent("Event1", "2025-03-21T10:00", "2025-03-21T11:00",
+            "", "Room 1", false, false);
+    model.getCurrentCalendar().addRecurringEventFrequency("Series", "2025-03-20T09:00",
+            "2025-03-20T09:30", "", "", "R", 3, false, false);
+
+    model.copyMultipleEventsRange("Columns", "2025-03-20", "2025-03-27", "2025-04-01", true);
+    model.useCalendar("Columns");
+    assertTrue(model.getCurrentCalendar() instanceof ColumnarSingleCalendar);
+    assertEquals(3, model.getCurrentCalendar().getEventViewsRange("2025-04-01T00:00",
+            "2025-04-30T00:00").size());
+    assertEquals("Room 1", model.getCurrentCalendar()
+            .getExactEvent("Event1", "2025-04-02T19:30").get("Location"));
+
+    model.copySingleEvent("Event1", "Copy", "2025-04-02T19:30", "2025-05-01T09:00", true);
+    model.useCalendar("Copy");
+    assertEquals("Busy", model.getCurrentCalendar().getStatusOnDateTime("2025-05-01T09:30"));
+    model.editCalendar("Copy", "timezone", "America/New_York");
+    assertEquals("Busy", model.getCurrentCalendar().getStatusOnDateTime("2025-05-01T04:30"));
+  }
+
+  /**
+   * Picks a random operation for the given calendar, and returns a description of it that can be
+   * applied to any calendar.
+   */
+  private String randomOperation(Random random, SingleCalendar calendar, int step) {
+    LocalDateTime start = LocalDateTime.of(2025, 3, 1, 6, 0)
+            .plusDays(random.nextInt(30)).plusMinutes(30L * random.nextInt(40));
+    String end = start.plusMinutes(30L * (1 + random.nextInt(6))).toString();
+    String name = random.nextInt(3) == 0 ? "Event " + step : NAMES[random.nextInt(NAMES.length)];
+    boolean autoDecline = random.nextBoolean();
+    List<EventView> views = calendar.getAllEventViews();
+    EventView view = views.isEmpty() ? null : views.get(random.nextInt(views.size()));
+    String property = PROPERTIES[random.nextInt(PROPERTIES.length)];
+    String value = randomValue(random, property);
+
+    switch (random.nextInt(12)) {
+      case 0:
+        return "allDay|" + name + "|" + start.toLocalDate() + "|" + autoDecline;
+      case 1:
+        return "series|" + name + "|" + start + "|" + end + "|" + autoDecline + "|"
+                + (1 + random.nextInt(6));
+      case 2:
+        return "seriesUntil|" + name + "|" + start + "|" + end + "|" + autoDecline + "|"
+                + start.plusDays(random.nextInt(20));
+      case 3:
+      case 4:
+        if (view != null) {
+          return "edit|" + view.getName() + "|" + view.getStartDateTime().toLocalDateTime()
+                  + "|" + view.getEndDateTime().toLocalDateTime() + "|" + property + "|"
+                  + value + "|" + autoDecline;
+        }
+        return "add|" + name + "|" + start + "|" + end + "|" + autoDecline;
+      case 5:
+        return "editAll|" + name + "|" + property + "|" + value + "|" + autoDecline;
+      case 6:
+        return "editFollowing|" + name + "|" + start + "|" + property + "|" + value + "|"
+                + autoDecline;
+      case 7:
+        return "batch|" + name + "|" + start + "|" + end + "|" + autoDecline + "|"
+                + random.nextBoolean();
+      case 8:
+        if (random.nextInt(10) == 0) {
+          return "zone|" + (random.nextBoolean() ? "Asia/Kolkata" : "America/New_York");
+        }
+        return "add|" + name + "|" + start + "|" + end + "|" + autoDecline;
+      default:
+        return "add|" + name + "|" + start + "|" + end + "|" + autoDecline;
+    }
+  }
+
+  private static String randomValue(Random random, String property) {
+    switch (property) {
+      case "name":
+        return NAMES[random.nextInt(NAMES.length)];
+      case "startDateTime":
+      case "endDateTime":
+        return LocalDateTime.of(2025, 3, 1, 6, 0)
+                .plusDays(random.nextInt(30)).plusMinutes(30L * random.nextInt(40)).toString();
+      case "private":
+      case "public":
+        return String.valueOf(random.nextBoolean());
+      default:
+        return "Value " + random.nextInt(3);
+    }
+  }
+
+  private static void apply(String operation, SingleCalendar calendar) {
+    String[] parts = operation.split("\\|");
+    switch (parts[0]) {
+      case "add":
+        calendar.addSingleEvent(parts[1], parts[2], parts[3], "", "Room", parse(parts[4]),
+                false);
+        break;
+      case "allDay":
+        calendar.addSingleEventAllDay(parts[1], parts[2], "Holiday", "", parse(parts[3]),
+                true);
+        break;
+      case "series":
+        calendar.addRecurringEventFrequency(parts[1], parts[2], parts[3], "", "", "MWF",
+                Integer.parseInt(parts[5]), parse(parts[4]), false);
+        break;
+      case "seriesUntil":
+        calendar.addRecurringEventUntil(parts[1], parts[2], parts[3], "", "", "TRS", parts[5],
+                parse(parts[4]), false);
+        break;
+      case "edit":
+        calendar.editSingleEvent(parts[1], parts[2], parts[3], parts[4], parts[5],
+                parse(parts[6]));
+        break;
+      case "editAll":
+        calendar.editMultipleEventsAll(parts[1], parts[2], parts[3], parse(parts[4]));
+        break;
+      case "editFollowing":
+        calendar.editMultipleEventsFollowing(parts[1], parts[2], parts[3], parts[4],
+                parse(parts[5]));
+        break;
+      case "batch":
+        EventBatch batch = new EventBatch();
+        batch.add(parts[1], parts[2], parts[3], "", "", false);
+        if (parse(parts[5])) {
+          batch.allOrNothing();
+        } else {
+          batch.add(parts[1], parts[2], parts[3], "", "", false);
+        }
+        batch.add(parts[1] + " later", parts[3], "", "", "", true);
+        calendar.addSingleEvents(batch, parse(parts[4]));
+        break;
+      case "zone":
+        calendar.changeTimezone(parts[1]);
+        break;
+      default:
+        throw new IllegalStateException(parts[0]);
+    }
+  }
+
+  private static boolean parse(String value) {
+    return Boolean.parseBoolean(value);
+  }
+
+  private static void assertSameAnswers(
+          String operation,
+          SingleCalendar expected,
+          SingleCalendar actual,
+          Random random) {
+    assertEquals(operation, Arrays.asList(expected.getAllEvents()),
+            Arrays.asList(actual.getAllEvents()));
+
+    LocalDateTime from = LocalDateTime.of(2025, 2, 27, 0, 0)
+            .plusHours(random.nextInt(24 * 40));
+    String start = from.toString();
+    String end = from.plusHours(random.nextInt(24 * 10)).toString();
+    String day = from.toLocalDate().toString();
+    List<Function<SingleCalendar, Object>> queries = new ArrayList<>();
+    queries.add(calendar -> Arrays.asList(calendar.getEventsRange(start, end)));
+    queries.add(calendar -> Arrays.asList(calendar.getEventsOnDate(day)));
+    queries.add(calendar -> describe(calendar.getEventViewsRange(start, end)));
+    queries.add(calendar -> describe(calendar.getAllEventViews()));
+    queries.add(calendar -> calendar.getEventNamesInMonth(YearMonth.of(2025, 3)));
+    queries.add(calendar -> calendar.getStatusInRange(start, end));
+    queries.add(calendar -> calendar.getStatusOnDateTime(start));
+    for (Function<SingleCalendar, Object> query : queries) {
+      assertEquals(operation, query.apply(expected), query.apply(actual));
+    }
+
+    List<EventView> views = expected.getAllEventViews();
+    if (!views.isEmpty()) {
+      EventView view = views.get(random.nextInt(views.size()));
+      String viewStart = view.getStartDateTime().toLocalDateTime().toString();
+      assertEquals(operation, expected.getExactEvent(view.getName(), viewStart),
+              actual.getExactEvent(view.getName(), viewStart));
+    }
+  }
+
+  private static List<String> describe(List<EventView> views) {
+    List<String> described = new ArrayList<>();
+    for (EventView view : views) {
+      described.add(view.getName() + "|" + view.getStartDateTime() + "|" + view.getEndDateTime()
+              + "|" + view.getDescription() + "|" + view.getLocation() + "|" + view.isPrivate()
+              + "|" + view.isAllDay() + "|" + view.isRecurring());
+    }
+    return described;
+  }
+
+  private static String outcome(Runnable operation) {
+    try {
+      operation.run();
+      return "ok";
+    } catch (RuntimeException e) {
+      // Both calendars must fail the same way, even where the failure is not an expected one
+      return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+  }
+
+  private static void assertConflict(String message, Runnable operation) {
+    assertEquals("IllegalArgumentException: " + message, outcome(operation));
+  }
+}
@@ -0,0 +1,94 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import controller.command.ArgumentGrammar;
+import controller.command.CommandArguments;
+import controller.command.CommandLexer;
+import controller.command.CommandLine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for CommandLexer and ArgumentGrammar.
+ */
+public class CommandLexerTest {
+
+  private static final ArgumentGrammar GRAMMAR = ArgumentGrammar.keyWords("from", "to",
+          "location").flags("--public").fields("name");
+
+  private final CommandLexer lexer = new CommandLexer();
+
+  @Test
+  public void testTokensMatchSplit() {
+    for (String text : List.of("create event Standup on 2025-03-03",
+            "create  event \"Team  sync\"   on 2025-03-03",
+            "edit events name \"a\" \"b c\"",
+            "show",
+            "print events on 2025-03-03   ")) {
+      assertEquals(text, Arrays.asList(text.split(" ")), tokens(lexer.tokenize(text)));
+    }
+  }
+
+  @Test
+  public void testQuotedPhrases() {
+    CommandLine line = lexer.tokenize("create event \"Meet to  plan\" location \"Lab\" to \"x");
+    assertEquals(-1, line.quoteStart(1));
+    assertEquals(2, line.quoteStart(2));
+    assertEquals(2, line.quoteStart(5));
+    assertEquals("Meet to  plan", line.phrase(2));
+    assertEquals("Lab", line.phrase(7));
+    // a quote that is never closed is not a phrase
+    assertEquals(-1, line.quoteStart(9));
+  }
+
+  @Test
+  public void testGrammar() {
+    CommandArguments arguments = GRAMMAR.parse(lexer.tokenize(
+            "create event \"Meet to plan\" from 2025-03-03T09:00 to 2025-03-03T10:00 "
+                    + "location \"Room 4\" --public"));
+    assertEquals(5, arguments.position(GRAMMAR.slot("from")));
+    assertEquals("2025-03-03T09:00", arguments.get(GRAMMAR.slot("from")));
+    assertEquals("2025-03-03T10:00", arguments.get(GRAMMAR.slot("to")));
+    assertEquals("Room 4", arguments.get(GRAMMAR.slot("location")));
+    assertTrue(arguments.has(GRAMMAR.slot("--public")));
+    assertEquals("Meet to plan", arguments.valueAfter(1));
+    assertEquals("", arguments.get(GRAMMAR.slot("name")));
+    arguments.set(GRAMMAR.slot("name"), "Meet");
+    assertEquals("Meet", arguments.get(GRAMMAR.slot("name")));
+
+    // the same arguments are filled again for the next line
+    arguments = GRAMMAR.parse(lexer.tokenize("create event Standup on 2025-03-03"));
+    assertFalse(arguments.hasKeyWords());
+    assertFalse(arguments.has(GRAMMAR.slot("--public")));
+    assertEquals("", arguments.get(GRAMMAR.slot("from")));
+    assertEquals("", arguments.get(GRAMMAR.slot("name")));
+    assertEquals("Standup on 2025-03-03", arguments.valueAfter(1));
+  }
+
+  @Test
+  public void testValueStopsAtOptions() {
+    CommandArguments arguments = GRAMMAR.parse(lexer.tokenize(
+            "create event from 2025-03-03T09:00 --autoDecline to"));
+    assertEquals("2025-03-03T09:00", arguments.get(GRAMMAR.slot("from")));
+    assertEquals("", arguments.get(GRAMMAR.slot("to")));
+    assertEquals(5, arguments.position(GRAMMAR.slot("to")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownSlot() {
+    GRAMMAR.slot("until");
+  }
+
+  private static List<String> tokens(CommandLine line) {
+    List<String> tokens = new ArrayList<>();
+    for (int i = 0; i < line.size(); i++) {
+      tokens.add(line.get(i));
+    }
+    return tokens;
+  }
+}
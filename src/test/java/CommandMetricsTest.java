@@ -0,0 +1,87 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import controller.metrics.CommandMetrics;
+import controller.metrics.LatencyHistogram;
+import controller.metrics.OperationMetrics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for LatencyHistogram and CommandMetrics.
+ */
+public class CommandMetricsTest {
+
+  @Test
+  public void testPercentilesAreWithinABucket() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getPercentile(0.99));
+    for (long nanos = 1; nanos <= 1000; nanos++) {
+      histogram.record(nanos * 1000);
+    }
+    assertEquals(1000, histogram.getCount());
+    assertEquals(1_000_000, histogram.getMax());
+    long median = histogram.getPercentile(0.5);
+    assertTrue(String.valueOf(median), median >= 500_000 && median <= 500_000 * 9 / 8);
+    long p99 = histogram.getPercentile(0.99);
+    assertTrue(String.valueOf(p99), p99 >= 990_000 && p99 <= 1_000_000);
+    // the top of the bucket 1000 falls in
+    assertEquals(1_023, histogram.getPercentile(0));
+    assertEquals(1_000_000, histogram.getPercentile(1));
+  }
+
+  @Test
+  public void testSmallAndLargeLatencies() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(-5);
+    histogram.record(3);
+    histogram.record(Long.MAX_VALUE);
+    assertEquals(0, histogram.getPercentile(0.3));
+    assertEquals(3, histogram.getPercentile(0.5));
+    assertEquals(Long.MAX_VALUE, histogram.getPercentile(1));
+    histogram.reset();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMax());
+  }
+
+  @Test
+  public void testConcurrentRecords() throws InterruptedException {
+    CommandMetrics metrics = new CommandMetrics();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      threads.add(new Thread(() -> {
+        OperationMetrics operation = metrics.operation("create");
+        for (int i = 0; i < 10_000; i++) {
+          operation.record(i, i % 10 == 0);
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(40_000, metrics.getCount("create"));
+    assertEquals(4_000, metrics.getErrors("create"));
+    assertEquals(9_999, metrics.getMaxNanos("create"));
+  }
+
+  @Test
+  public void testReport() {
+    CommandMetrics metrics = new CommandMetrics();
+    metrics.operation("show");
+    metrics.operation("print").record(2_500, false);
+    metrics.operation("create").record(800, true);
+    metrics.operation("create").record(3_000_000, false);
+    assertArrayEquals(new String[] {"create", "print"}, metrics.getOperations());
+    assertArrayEquals(new String[] {
+        "create: count=2 errors=1 p50=831ns p99=3.0ms max=3.0ms",
+        "print: count=1 errors=0 p50=2.5us p99=2.5us max=2.5us"}, metrics.getReport());
+    assertEquals(0, metrics.getCount("edit"));
+    metrics.reset();
+    assertEquals(0, metrics.getReport().length);
+  }
+}
@@ -0,0 +1,217 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import model.BasicCalendarModel;
+import model.CalendarModel;
+import model.CalendarStorage;
+import model.ConcurrentCalendarModel;
+import model.SingleCalendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test class for ConcurrentCalendarModel. The model must answer like BasicCalendarModel when used
+ * from one thread, and must stay consistent and free of deadlocks when used from many.
+ */
+public class ConcurrentCalendarModelTest {
+
+  private static final int WRITERS = 4;
+  private static final int READERS = 3;
+  private static final int COPIERS = 2;
+  private static final int EVENTS_PER_WRITER = 140;
+  private static final int COPIES_PER_COPIER = 60;
+
+  @Test
+  public void testBehavesLikeBasicModel() {
+    CalendarModel basic = new BasicCalendarModel();
+    CalendarModel concurrent = new ConcurrentCalendarModel();
+    for (CalendarModel model : List.of(basic, concurrent)) {
+      model.addCalendar("work", "America/New_York");
+      model.addCalendar("home", "Asia/Kolkata");
+      model.useCalendar("work");
+      model.getCurrentCalendar().addSingleEvent("Standup", "2025-03-03T09:00",
+              "2025-03-03T09:30", "daily", "room 1", true, false);
+      model.getCurrentCalendar().addRecurringEventFrequency("Review", "2025-03-04T14:00",
+              "2025-03-04T15:00", "", "", "TR", 4, true, false);
+      model.copySingleEvent("Standup", "home", "2025-03-03T09:00", "2025-03-10T09:00", true);
+      model.copyMultipleEventsRange("home", "2025-03-01", "2025-03-08", "2025-04-01", true);
+      model.editCalendar("home", "name", "personal");
+      model.editCalendar("personal", "timezone", "Europe/Paris");
+      model.useCalendar("personal");
+      model.copyMultipleEventsOnDay("work", "2025-04-04", "2025-05-01", true);
+    }
+
+    assertEquals(basic.getAllCalendars(), concurrent.getAllCalendars());
+    assertEquals(basic.getCurrentCalendarName(), concurrent.getCurrentCalendarName());
+    for (String name : List.of("work", "personal")) {
+      basic.useCalendar(name);
+      concurrent.useCalendar(name);
+      assertEquals(Arrays.asList(basic.getCurrentCalendar().getAllEvents()),
+              Arrays.asList(concurrent.getCurrentCalendar().getAllEvents()));
+    }
+  }
+
+  @Test
+  public void testInvalidCalendarsAreRejected() {
+    ConcurrentCalendarModel model = new ConcurrentCalendarModel();
+    model.addCalendar("work", "UTC", CalendarStorage.COLUMNAR);
+    assertRejected(() -> model.addCalendar("work", "UTC"), "Calendar already exists: work");
+    assertRejected(() -> model.addCalendar(null, "UTC"), "Calendar name cannot be empty");
+    assertRejected(() -> model.addCalendar("home", "Mars/Olympus"),
+            "Invalid timezone: Mars/Olympus");
+    assertRejected(() -> model.useCalendar("home"), "Calendar does not exist: home");
+    assertRejected(() -> model.useCalendar(null), "Calendar does not exist: null");
+    assertRejected(() -> model.editCalendar("work", "name", "default"),
+            "Calendar already exists: default");
+    assertRejected(() -> model.editCalendar("work", "color", "red"), "Invalid property: color");
+    assertRejected(() -> model.copyMultipleEventsOnDay("home", "2025-03-03", "2025-03-04", true),
+            "Calendar does not exist: home");
+    assertRejected(() -> model.copySingleEvent("Standup", "work", "2025-03-03T09:00",
+            "2025-03-04T09:00", true), "Event does not exist: Standup");
+  }
+
+  @Test
+  public void testConcurrentReadsAndWrites() throws InterruptedException {
+    ConcurrentCalendarModel model = new ConcurrentCalendarModel();
+    model.addCalendar("a", "UTC");
+    model.addCalendar("b", "UTC", CalendarStorage.COLUMNAR);
+    model.addCalendar("x", "UTC");
+    model.useCalendar("a");
+    SingleCalendar a = model.getCurrentCalendar();
+    model.useCalendar("b");
+    SingleCalendar b = model.getCurrentCalendar();
+    SingleCalendar[] calendars = {a, b};
+
+    ExecutorService threads = Executors.newFixedThreadPool(WRITERS + READERS + COPIERS + 1);
+    Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch writing = new CountDownLatch(WRITERS + COPIERS + 1);
+    AtomicBoolean done = new AtomicBoolean();
+
+    for (int w = 0; w < WRITERS; w++) {
+      final int writer = w;
+      run(threads, start, writing, failures, () -> {
+        SingleCalendar calendar = calendars[writer % 2];
+        for (int i = 0; i < EVENTS_PER_WRITER; i++) {
+          String startTime = marchTime(i, writer);
+          calendar.addSingleEvent("w" + writer + "-" + i, startTime,
+                  startTime.substring(0, 14) + "30", "", "", true, false);
+        }
+      });
+    }
+
+    for (int c = 0; c < COPIERS; c++) {
+      final int copier = c;
+      run(threads, start, writing, failures, () -> {
+        for (int i = 0; i < COPIES_PER_COPIER; i++) {
+          String source = (i + copier) % 2 == 0 ? "a" : "b";
+          String target = i % 3 == 0 ? source : (source.equals("a") ? "b" : "a");
+          String day = String.format("%02d", 1 + i % 28);
+          model.useCalendar(source);
+          model.copyMultipleEventsOnDay(target, "2025-03-" + day, "2025-04-" + day, false);
+        }
+      });
+    }
+
+    run(threads, start, writing, failures, () -> {
+      for (int i = 0; i < 20; i++) {
+        model.editCalendar("a", "timezone", i % 2 == 0 ? "Etc/UTC" : "UTC");
+        model.editCalendar(i % 2 == 0 ? "x" : "y", "name", i % 2 == 0 ? "y" : "x");
+      }
+    });
+
+    for (int r = 0; r < READERS; r++) {
+      run(threads, start, null, failures, () -> {
+        int[] lastSizes = new int[calendars.length];
+        while (!done.get()) {
+          for (int c = 0; c < calendars.length; c++) {
+            int size = calendars[c].getAllEventViews().size();
+            if (size < lastSizes[c]) {
+              fail("Calendar " + c + " lost events: " + lastSizes[c] + " then " + size);
+            }
+            lastSizes[c] = size;
+            calendars[c].getStatusOnDateTime("2025-03-05T07:00");
+            calendars[c].getStatusInRange("2025-03-01T00:00", "2025-03-03T00:00");
+            calendars[c].getEventsOnDate("2025-04-05");
+          }
+          model.getAllCalendars();
+          model.getCurrentCalendarName();
+        }
+      });
+    }
+
+    start.countDown();
+    boolean finished = writing.await(60, TimeUnit.SECONDS);
+    done.set(true);
+    threads.shutdown();
+    assertTrue("Writers did not finish, likely deadlocked",
+            finished && threads.awaitTermination(60, TimeUnit.SECONDS));
+    if (!failures.isEmpty()) {
+      throw new AssertionError("A thread failed", failures.peek());
+    }
+
+    for (int c = 0; c < calendars.length; c++) {
+      assertEquals(EVENTS_PER_WRITER * WRITERS / 2,
+              calendars[c].getEventsRange("2025-03-01T00:00", "2025-03-28T23:59").length);
+    }
+    for (int w = 0; w < WRITERS; w++) {
+      for (int i = 0; i < EVENTS_PER_WRITER; i++) {
+        String startTime = marchTime(i, w);
+        assertEquals("Busy", calendars[w % 2].getStatusOnDateTime(startTime));
+        assertEquals("w" + w + "-" + i,
+                calendars[w % 2].getExactEvent("w" + w + "-" + i, startTime).get("Name"));
+      }
+    }
+    assertEquals(Map.of("default", model.getAllCalendars().get("default"),
+            "a", "UTC", "b", "UTC", "x", "UTC"), model.getAllCalendars());
+  }
+
+  /**
+   * Gives every writer its own hours of every day of March, so their events never conflict.
+   */
+  private static String marchTime(int event, int writer) {
+    return String.format("2025-03-%02dT%02d:00",
+            1 + event % 28, writer * 5 + event / 28);
+  }
+
+  private static void run(
+          ExecutorService threads,
+          CountDownLatch start,
+          CountDownLatch finished,
+          Queue<Throwable> failures,
+          Runnable task) {
+    threads.execute(() -> {
+      try {
+        start.await();
+        task.run();
+      } catch (Throwable e) {
+        failures.add(e);
+      } finally {
+        if (finished != null) {
+          finished.countDown();
+        }
+      }
+    });
+  }
+
+  private static void assertRejected(Runnable action, String message) {
+    try {
+      action.run();
+      fail("Expected IllegalArgumentException: " + message);
+    } catch (IllegalArgumentException e) {
+      assertEquals(message, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,142 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import controller.features.Features;
+import controller.features.GuiFeatures;
+import controller.fileparser.CsvFileParser;
+import controller.fileparser.ParsedRow;
+import model.BasicCalendarModel;
+import model.CalendarModel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test class for CsvFileParser.
+ */
+public class CsvFileParserTest {
+
+  private File file;
+
+  @Before
+  public void setUp() throws IOException {
+    file = File.createTempFile("parser", ".csv");
+  }
+
+  @After
+  public void tearDown() {
+    file.delete();
+  }
+
+  private Iterator<ParsedRow> parse(String content) throws IOException {
+    Files.write(file.toPath(), content.getBytes());
+    return new CsvFileParser().parseRows(file.getAbsolutePath());
+  }
+
+  @Test
+  public void testSimpleRows() throws IOException {
+    Iterator<ParsedRow> rows = parse("Subject,Location\nML,Room 1\nPDP,Room 2\n");
+    ParsedRow row = rows.next();
+    assertEquals(2, row.size());
+    assertEquals("ML", row.get(0));
+    assertEquals("Room 1", row.get("Location"));
+    row = rows.next();
+    assertEquals("PDP", row.get("Subject"));
+    assertFalse(rows.hasNext());
+  }
+
+  @Test
+  public void testQuotedValues() throws IOException {
+    Iterator<ParsedRow> rows = parse("Subject,Description,Location\n"
+            + "\"Trip, long\",\"Say \"\"hi\"\"\",\"Line one\nline two\"\n"
+            + "Next,,\"\"\n");
+    ParsedRow row = rows.next();
+    assertEquals("Trip, long", row.get("Subject"));
+    assertEquals("Say \"hi\"", row.get("Description"));
+    assertEquals("Line one\nline two", row.get("Location"));
+    row = rows.next();
+    assertEquals("Next", row.get("Subject"));
+    assertEquals("", row.get("Description"));
+    assertEquals("", row.get("Location"));
+    assertFalse(rows.hasNext());
+  }
+
+  @Test
+  public void testLineEndingsAndBlankLines() throws IOException {
+    Iterator<ParsedRow> rows = parse("Subject,Location\r\n\r\nML,Room 1\r\n   \r"
+            + "PDP,Room 2\r\n\n");
+    assertEquals("Room 1", rows.next().get("Location"));
+    assertEquals("Room 2", rows.next().get("Location"));
+    assertFalse(rows.hasNext());
+  }
+
+  @Test
+  public void testShortAndLongRows() throws IOException {
+    Iterator<ParsedRow> rows = parse("Subject,Start Date,Location\nML\nPDP,04/01/2025,A,B");
+    ParsedRow row = rows.next();
+    assertEquals(1, row.size());
+    assertNull(row.get("Location"));
+    assertEquals("none", row.getOrDefault("Start Date", "none"));
+    assertNull(row.get("Missing"));
+    row = rows.next();
+    assertEquals(4, row.size());
+    assertEquals("B", row.get(3));
+    assertEquals(Map.of("Subject", "PDP", "Start Date", "04/01/2025", "Location", "A"),
+            row.toMap());
+  }
+
+  @Test
+  public void testRowStaysValidWhileLookingAhead() throws IOException {
+    Iterator<ParsedRow> rows = parse("Subject\nFirst\nSecond\n");
+    ParsedRow first = rows.next();
+    assertTrue(rows.hasNext());
+    assertEquals("First", first.get("Subject"));
+    assertEquals("Second", rows.next().get("Subject"));
+    try {
+      rows.next();
+      fail("Expected no more rows");
+    } catch (NoSuchElementException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testParseFileMaps() throws IOException {
+    Files.write(file.toPath(), "Subject,Location\n\"A, B\",\"Room \"\"1\"\"\"\n".getBytes());
+    Iterator<Map<String, String>> maps = new CsvFileParser().parseFile(file.getAbsolutePath());
+    assertEquals(Map.of("Subject", "A, B", "Location", "Room \"1\""), maps.next());
+    assertFalse(maps.hasNext());
+  }
+
+  @Test
+  public void testExportedFileImportsBack() throws IOException {
+    CalendarModel source = new BasicCalendarModel();
+    source.getCurrentCalendar().addSingleEvent("Review, final", "2025-04-01T09:00",
+            "2025-04-01T10:00", "Bring \"notes\"\nand slides", "Room 1, West", true, true);
+    source.getCurrentCalendar().addSingleEventAllDay("Holiday", "2025-04-02", "", "",
+            true, false);
+    Features sourceFeatures = new GuiFeatures(source, new MockGui(new StringBuilder()));
+    sourceFeatures.exportCSV(file.getAbsolutePath());
+
+    CalendarModel target = new BasicCalendarModel();
+    StringBuilder log = new StringBuilder();
+    new GuiFeatures(target, new MockGui(log)).importCSV(file.getAbsolutePath());
+    assertTrue(log.toString().contains("Successfully added 2 out of 2 events"));
+    Map<String, String> event = target.getCurrentCalendar()
+            .getExactEvent("Review, final", "2025-04-01T09:00");
+    assertEquals("Bring \"notes\"\nand slides", event.get("Description"));
+    assertEquals("Room 1, West", event.get("Location"));
+    assertEquals(2, target.getCurrentCalendar().getAllEvents().length);
+  }
+}
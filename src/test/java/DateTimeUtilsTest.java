@@ -1,8 +1,11 @@
 import org.junit.Test;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,8 +14,12 @@ import utils.DateTimeUtils;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static utils.DateTimeUtils.appendDateTime;
 import static utils.DateTimeUtils.calculateUntilDateTime;
+import static utils.DateTimeUtils.convertDateTimeFormat;
 import static utils.DateTimeUtils.convertTo12HourFormat;
 import static utils.DateTimeUtils.daysOfWeekToString;
 import static utils.DateTimeUtils.isInvalidDateOrDateTimeString;
@@ -23,6 +30,7 @@ import static utils.DateTimeUtils.isTimeOverLapping;
 import static utils.DateTimeUtils.parseWeekDays;
 import static utils.DateTimeUtils.stringToZdt;
 import static utils.DateTimeUtils.zdtToString;
+import static utils.DateTimeUtils.zoneOf;
 
 /**
  * Test class for DateTimeUtils.
@@ -245,4 +253,67 @@ public class DateTimeUtilsTest {
     String time12Hour = convertTo12HourFormat("invalid-date-time");
     assertEquals("invalid-date-time", time12Hour);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testHandWrittenChecksMatchRegex() {
+    String dateRegex = "^\\d{4}-(0[1-9]|1[0-2])-(0[1-9]|[12][0-9]|3[01])$";
+    String dateTimeRegex = "^\\d{4}-(0[1-9]|1[0-2])-(0[1-9]|[12][0-9]|3[01])"
+            + "T(0[0-9]|1[0-9]|2[0-3]):[0-5][0-9]$";
+    String[] samples = {"2023-01-15", "2023-01-15T14:30", "0000-01-01", "9999-12-31T23:59",
+        "2023-00-15", "2023-01-00", "2023-02-31", "2023-1-15", "2023-01-15T", "2023-01-15T1:30",
+        "2023-01-15t14:30", "2023-01-15T14:3a", "2023-01-15\n", "2023-01-15T14:30\n",
+        "20230-01-15", "", "2023-01-15T23:59:00", "２０２３-01-15"};
+    for (String sample : samples) {
+      assertEquals(sample, !sample.matches(dateRegex), isInvalidDateString(sample));
+      assertEquals(sample, !sample.matches(dateTimeRegex), isInvalidDateTimeString(sample));
+    }
+    for (String sample : new String[] {"M", "MTWRFSU", "", "MX", "m", "UUU"}) {
+      assertEquals(sample, !sample.matches("^[MTWRFSU]+$"), isInvalidWeekDays(sample));
+    }
+  }
+
+  @Test
+  public void testFastParsingMatchesJavaTime() {
+    ZoneId zone = ZoneId.of("America/New_York");
+    assertEquals(LocalDateTime.parse("2024-02-29T09:15").atZone(zone),
+            stringToZdt("2024-02-29T09:15", "America/New_York"));
+    assertEquals(LocalDate.parse("2025-03-09").atStartOfDay(zone),
+            stringToZdt("2025-03-09", "America/New_York"));
+    // in the gap of the change to daylight saving time
+    assertEquals(LocalDateTime.parse("2025-03-09T02:30").atZone(zone),
+            stringToZdt("2025-03-09T02:30", "America/New_York"));
+    assertEquals(LocalDateTime.parse("2025-03-09T10:00:30").atZone(zone),
+            stringToZdt("2025-03-09T10:00:30", "America/New_York"));
+    try {
+      stringToZdt("2025-02-29T09:15", "America/New_York");
+      fail("February 29 of a year that is not a leap year should be rejected");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().startsWith("Invalid date format: "));
+    }
+  }
+
+  @Test
+  public void testFastFormattingMatchesFormatter() {
+    DateTimeFormatter dateTime = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+    for (String sample : new String[] {"2025-01-05T07:05:59", "0042-12-31T23:00",
+        "9999-06-15T00:00", "+12025-01-01T00:00"}) {
+      ZonedDateTime zdt = LocalDateTime.parse(sample).atZone(ZoneId.of("UTC"));
+      assertEquals(zdt.format(dateTime), zdtToString(zdt, true));
+      assertEquals(zdt.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")),
+              zdtToString(zdt, false));
+    }
+    StringBuilder sb = new StringBuilder("at ");
+    assertEquals("at 2025-01-05T07:05",
+            appendDateTime(sb, LocalDateTime.parse("2025-01-05T07:05"), true).toString());
+    assertEquals("2025-03-04T00:05", convertDateTimeFormat("3/4/2025 12:05 AM"));
+    assertEquals("2025-12-14T13:30", convertDateTimeFormat("12/14/2025 1:30 PM"));
+  }
+
+  @Test
+  public void testZonesAreCached() {
+    assertSame(zoneOf("Asia/Kolkata"), zoneOf("Asia/Kolkata"));
+    assertEquals(ZoneId.of("Asia/Kolkata"), zoneOf("Asia/Kolkata"));
+    assertTrue(DateTimeUtils.isInvalidTimeZone("Mars/Olympus"));
+    assertTrue(DateTimeUtils.isInvalidTimeZone("not a zone"));
+  }
+}
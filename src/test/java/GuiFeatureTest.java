@@ -99,7 +99,21 @@ public class GuiFeatureTest {
       assertEquals(expected[i] + 1, actual.get(i).size()); // 1 mock event
     }
 
-    assertTrue(modelSb.toString().contains("getCurrentCalendar"));
+    assertEquals("getCurrentCalendar: getEventNamesInMonth: " + YearMonth.now(),
+            modelSb.toString());
+  }
+
+  @Test
+  public void testImportCsvAddsOneBatch() {
+    StringBuilder modelSb = new StringBuilder();
+    StringBuilder viewSb = new StringBuilder();
+    CalendarModel model = new MockModelTest.MockModel(modelSb);
+    GuiView guiView = new MockGui(viewSb);
+    Features features = new GuiFeatures(model, guiView);
+    features.importCSV("./scripts/test_importAllValid.csv");
+    assertEquals("getCurrentCalendar: addSingleEvents: 6, true", modelSb.toString());
+    assertEquals("displayMessage called with message: Successfully added 6 out of 6 events",
+            viewSb.toString());
   }
 
   @Test
@@ -987,7 +1001,7 @@ public class GuiFeatureTest {
 
     // Dynamically construct the expected message
     String expectedPath = new java.io.File(fileName).getAbsolutePath();
-    assertEquals("getCurrentCalendar: getAllEvents: ", modelSb.toString());
+    assertEquals("getCurrentCalendar: forEachEventView: ", modelSb.toString());
     assertEquals("displayMessage called with message: Successfully exported to file:"
             + expectedPath, viewSb.toString());
 
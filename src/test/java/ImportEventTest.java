@@ -1,15 +1,22 @@
 import controller.features.Features;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.Random;
 
 import model.BasicCalendarModel;
 import model.CalendarModel;
+import model.SingleCalendar;
 
 import org.junit.Test;
 
 import controller.features.GuiFeatures;
 
 import static org.junit.Assert.assertEquals;
+import static utils.DateTimeUtils.convertDateTimeFormat;
 
 /**
  * Test class for ImportEvent functionality.
@@ -229,4 +236,57 @@ public class ImportEventTest {
     }
   }
 
+  @Test
+  public void testLargeImportMatchesSequentialAdds() throws IOException {
+    File file = File.createTempFile("import", ".csv");
+    CalendarModel sequentialModel = new BasicCalendarModel();
+    SingleCalendar sequentialCal = sequentialModel.getCurrentCalendar();
+    int sequentialAdded = 0;
+    int addedAtProgress = 0;
+    Random random = new Random(7);
+    StringBuilder csv = new StringBuilder("Subject,Start Date,Start Time,End Date,End Time,"
+            + "All Day Event,Description,Location,Private\n");
+    for (int i = 0; i < 12000; i++) {
+      String date = String.format("%02d/%02d/2025", 1 + random.nextInt(12),
+              1 + random.nextInt(28));
+      String startTime = String.format("%02d:%02d %s", 1 + random.nextInt(12),
+              15 * random.nextInt(4), random.nextBoolean() ? "AM" : "PM");
+      String endTime = random.nextInt(50) == 0 ? "25:00 PM"
+              : String.format("%02d:%02d %s", 1 + random.nextInt(12), 15 * random.nextInt(4),
+              random.nextBoolean() ? "AM" : "PM");
+      boolean isAllDay = random.nextInt(20) == 0;
+      csv.append("Event ").append(i).append(',').append(date).append(',').append(startTime)
+              .append(',').append(date).append(',').append(endTime).append(',').append(isAllDay)
+              .append(",,Room ").append(i % 7).append(",false\n");
+      try {
+        String start = convertDateTimeFormat(date + " " + startTime);
+        if (isAllDay) {
+          sequentialCal.addSingleEventAllDay("Event " + i, start, "", "Room " + i % 7,
+                  true, false);
+        } else {
+          sequentialCal.addSingleEvent("Event " + i, start,
+                  convertDateTimeFormat(date + " " + endTime), "", "Room " + i % 7, true, false);
+        }
+        sequentialAdded++;
+      } catch (IllegalArgumentException e) {
+        // counted as not added
+      }
+      if (i == 10239) {
+        addedAtProgress = sequentialAdded;
+      }
+    }
+    Files.write(file.toPath(), csv.toString().getBytes());
+    try {
+      features.importCSV(file.getAbsolutePath());
+    } finally {
+      file.delete();
+    }
+
+    assertEquals("displayProgress called with message: Imported 10240 rows, added "
+            + addedAtProgress + " events so far"
+            + "displayMessage called with message: Successfully added " + sequentialAdded
+            + " out of 12000 events", sb.toString());
+    assertEquals(Arrays.asList(sequentialCal.getAllEvents()),
+            Arrays.asList(calendarModel.getCurrentCalendar().getAllEvents()));
+  }
 }
@@ -0,0 +1,381 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import model.BasicCalendarModel;
+import model.CalendarModel;
+import model.CalendarStorage;
+import model.EventBatch;
+import model.JournaledCalendarModel;
+import model.calendarentry.EventView;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test class for JournaledCalendarModel. The model must answer like BasicCalendarModel, and give
+ * back the same calendars when it is opened again on the same directory.
+ */
+public class JournaledCalendarModelTest {
+
+  private static final String[] NAMES = {"Standup", "Review", "Gym"};
+  private static final String[] WEEK_DAYS = {"MW", "TR", "MTWRF", "SU"};
+  private static final String[] PROPERTIES = {"name", "location", "description",
+    "startDateTime", "endDateTime", "private", "weekDays", "frequency", "untilDateTime"};
+  private static final String[] CALENDARS = {"default", "work", "home"};
+  private static final String[] ZONES = {"America/New_York", "Asia/Kolkata", "Europe/Paris",
+    "UTC"};
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testRandomChangesSurviveReopening() throws IOException {
+    for (int seed = 0; seed < 300; seed++) {
+      Path directory = folder.newFolder("seed-" + seed).toPath();
+      Random random = new Random(seed);
+      CalendarModel basic = new BasicCalendarModel();
+      JournaledCalendarModel journaled = new JournaledCalendarModel(directory, 7, 0);
+      try {
+        for (int change = 0; change < 40; change++) {
+          makeSameChange(randomChange(basic, random), basic, journaled, seed);
+          if (random.nextInt(8) == 0) {
+            journaled.close();
+            journaled = reopen(directory, seed);
+            assertSameCalendars("seed " + seed, basic, journaled);
+          }
+        }
+      } finally {
+        journaled.close();
+      }
+      try (JournaledCalendarModel reopened = reopen(directory, seed)) {
+        assertSameCalendars("seed " + seed, basic, reopened);
+      }
+    }
+  }
+
+  @Test
+  public void testSnapshotsReplaceOlderGenerations() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    Random random = new Random(42);
+    CalendarModel basic = new BasicCalendarModel();
+    try (JournaledCalendarModel journaled = new JournaledCalendarModel(directory, 4, 10)) {
+      for (int change = 0; change < 30; change++) {
+        makeSameChange(randomChange(basic, random), basic, journaled, 42);
+      }
+    }
+    List<String> files = fileNames(directory);
+    assertEquals(2, files.size());
+    assertTrue(files.toString(), files.get(0).startsWith("journal-"));
+    assertTrue(files.toString(), files.get(1).startsWith("snapshot-"));
+
+    // series restored from a snapshot must still be editable as one
+    try (JournaledCalendarModel reopened = new JournaledCalendarModel(directory, 4, 10)) {
+      for (CalendarModel model : List.of(basic, reopened)) {
+        model.getCurrentCalendar().addRecurringEventFrequency("Retro", "2025-02-03T14:00",
+                "2025-02-03T15:00", "", "", "MW", 6, false, false);
+        model.getCurrentCalendar().editMultipleEventsFollowing("Retro", "2025-02-10T14:00",
+                "location", "room 9", false);
+      }
+      assertSameCalendars("reopened", basic, reopened);
+    }
+    try (JournaledCalendarModel reopened = new JournaledCalendarModel(directory, 4, 10)) {
+      assertSameCalendars("reopened", basic, reopened);
+    }
+  }
+
+  @Test
+  public void testTornJournalTailIsDropped() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    CalendarModel basic = new BasicCalendarModel();
+    Random random = new Random(7);
+    try (JournaledCalendarModel journaled = new JournaledCalendarModel(directory, 1000, 0)) {
+      for (int change = 0; change < 30; change++) {
+        makeSameChange(randomChange(basic, random), basic, journaled, 7);
+      }
+    }
+    Path journal = directory.resolve("journal-0.log");
+    Files.write(journal, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+    try (JournaledCalendarModel reopened = new JournaledCalendarModel(directory, 1000, 0)) {
+      assertSameCalendars("torn tail", basic, reopened);
+      for (CalendarModel model : List.of(basic, reopened)) {
+        model.getCurrentCalendar().addSingleEvent("Lunch", "2025-03-05T12:00",
+                "2025-03-05T13:00", "", "", false, false);
+      }
+    }
+    try (JournaledCalendarModel reopened = new JournaledCalendarModel(directory)) {
+      assertSameCalendars("torn tail", basic, reopened);
+    }
+  }
+
+  @Test
+  public void testFailedChangesAreNotRecorded() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    try (JournaledCalendarModel journaled = new JournaledCalendarModel(directory, 1000, 0)) {
+      journaled.getCurrentCalendar().addSingleEvent("Standup", "2025-03-03T09:00",
+              "2025-03-03T09:30", "", "", true, false);
+      try {
+        journaled.getCurrentCalendar().addSingleEvent("Sync", "2025-03-03T09:15",
+                "2025-03-03T09:45", "", "", true, false);
+        fail("Conflicting event should be declined");
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+      try {
+        journaled.addCalendar("default", "UTC");
+        fail("Existing calendar should be rejected");
+      } catch (IllegalArgumentException e) {
+        assertEquals("Calendar already exists: default", e.getMessage());
+      }
+    }
+    try (JournaledCalendarModel reopened = new JournaledCalendarModel(directory)) {
+      assertEquals(1, reopened.getCurrentCalendar().getAllEvents().length);
+      assertEquals(1, reopened.getAllCalendars().size());
+    }
+  }
+
+  @Test
+  public void testConflictingEditAllLeavesCalendarAsItWas() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    CalendarModel basic = new BasicCalendarModel();
+    ((BasicCalendarModel) basic).addCalendar("work", "UTC", CalendarStorage.COLUMNAR);
+    try (JournaledCalendarModel journaled = new JournaledCalendarModel(directory, 1000, 0)) {
+      journaled.addCalendar("work", "UTC", CalendarStorage.COLUMNAR);
+      for (String calendar : new String[] {"default", "work"}) {
+        makeSameChange(m -> m.useCalendar(calendar), basic, journaled, 0);
+        makeSameChange(m -> m.getCurrentCalendar().addRecurringEventFrequency("Standup",
+                "2025-03-03T09:00", "2025-03-03T09:30", "", "", "MW", 4, true, false),
+                basic, journaled, 0);
+        makeSameChange(m -> m.getCurrentCalendar().addSingleEvent("Review", "2025-03-05T10:00",
+                "2025-03-05T11:00", "", "", true, false), basic, journaled, 0);
+        makeSameChange(m -> m.getCurrentCalendar().addSingleEvent("Gym", "2025-03-04T10:00",
+                "2025-03-04T11:00", "", "", true, false), basic, journaled, 0);
+        List<Map<String, String>> before =
+                Arrays.asList(journaled.getCurrentCalendar().getAllEvents());
+        try {
+          journaled.getCurrentCalendar().editMultipleEventsAll("Standup", "endDateTime",
+                  "2025-03-03T10:30", true);
+          fail("Edit overlapping Review should be declined");
+        } catch (IllegalArgumentException e) {
+          assertEquals("Event conflicts with existing event", e.getMessage());
+        }
+        assertEquals(before, Arrays.asList(journaled.getCurrentCalendar().getAllEvents()));
+        makeSameChange(m -> m.getCurrentCalendar().editSingleEvent("Gym", "2025-03-04T10:00",
+                "2025-03-04T11:00", "location", "room 1", true), basic, journaled, 0);
+      }
+    }
+    try (JournaledCalendarModel reopened = reopen(directory, 0)) {
+      assertSameCalendars("after a conflicting edit", basic, reopened);
+    }
+  }
+
+  @Test
+  public void testInvalidIntervalsAreRejected() {
+    Path directory = folder.getRoot().toPath();
+    try {
+      new JournaledCalendarModel(directory, 0, 10);
+      fail("Snapshot interval of zero should be rejected");
+    } catch (IllegalArgumentException | IOException e) {
+      assertEquals("Snapshot interval must be positive", e.getMessage());
+    }
+    try {
+      new JournaledCalendarModel(directory, 10, -1);
+      fail("Negative sync interval should be rejected");
+    } catch (IllegalArgumentException | IOException e) {
+      assertEquals("Sync interval cannot be negative", e.getMessage());
+    }
+  }
+
+  /**
+   * Picks a random change from the state of the given model. Changes are made in a few days of a
+   * few calendars, so many of them conflict or fail.
+   */
+  private static Consumer<CalendarModel> randomChange(CalendarModel model, Random random) {
+    String name = NAMES[random.nextInt(NAMES.length)];
+    String start = randomDateTime(random);
+    String end = LocalDateTime.parse(start).plusMinutes(30 + 30 * random.nextInt(3)).toString();
+    String weekDays = WEEK_DAYS[random.nextInt(WEEK_DAYS.length)];
+    int frequency = 2 + random.nextInt(4);
+    boolean autoDecline = random.nextBoolean();
+    boolean isPrivate = random.nextBoolean();
+    Map<String, String> event = randomEvent(model, random);
+    String property = PROPERTIES[random.nextInt(PROPERTIES.length)];
+    String value = valueOf(property, event, random);
+    String calendar = CALENDARS[random.nextInt(CALENDARS.length)];
+    String zone = ZONES[random.nextInt(ZONES.length)];
+    switch (random.nextInt(14)) {
+      case 0:
+      case 1:
+        return m -> m.getCurrentCalendar().addSingleEvent(name, start, end, "", "", autoDecline,
+                isPrivate);
+      case 2:
+        return m -> m.getCurrentCalendar().addSingleEventAllDay(name, start.substring(0, 10),
+                "", "", autoDecline, isPrivate);
+      case 3:
+        if (random.nextBoolean()) {
+          return m -> m.getCurrentCalendar().addRecurringAllDayEventFrequency(name,
+                  start.substring(0, 10), "", "", weekDays, frequency, true, isPrivate);
+        }
+        return m -> m.getCurrentCalendar().addRecurringEventFrequency(name, start, end, "", "",
+                weekDays, frequency, true, isPrivate);
+      case 4:
+        String until = LocalDateTime.parse(start).plusDays(10).toString();
+        if (random.nextBoolean()) {
+          return m -> m.getCurrentCalendar().addRecurringAllDayEventUntil(name,
+                  start.substring(0, 10), "", "", weekDays, until, true, isPrivate);
+        }
+        return m -> m.getCurrentCalendar().addRecurringEventUntil(name, start, end, "", "",
+                weekDays, until, true, isPrivate);
+      case 5:
+        EventBatch batch = new EventBatch()
+                .add(name, start, end, "", "", isPrivate)
+                .add(name, LocalDateTime.parse(end), null, "", "", isPrivate);
+        return m -> m.getCurrentCalendar().addSingleEvents(batch, autoDecline);
+      case 6:
+      case 7:
+        return m -> m.getCurrentCalendar().editSingleEvent(event.get("Name"),
+                event.get("StartDateTime"), event.get("EndDateTime"), property, value,
+                autoDecline);
+      case 8:
+        return m -> m.getCurrentCalendar().editMultipleEventsFollowing(event.get("Name"),
+                event.get("StartDateTime"), property, value, autoDecline);
+      case 9:
+      case 10:
+        return m -> m.getCurrentCalendar().editMultipleEventsAll(event.get("Name"), property,
+                value, autoDecline);
+      case 11:
+        return m -> m.editCalendar(m.getCurrentCalendarName(), "timezone", zone);
+      case 12:
+        if (random.nextBoolean()) {
+          return m -> m.copySingleEvent(event.get("Name"), calendar, event.get("StartDateTime"),
+                  start, autoDecline);
+        }
+        return m -> m.copyMultipleEventsRange(calendar, "2025-03-03", "2025-03-05",
+                start.substring(0, 10), autoDecline);
+      default:
+        if (random.nextBoolean()) {
+          return m -> m.useCalendar(calendar);
+        }
+        return m -> {
+          if (m instanceof JournaledCalendarModel) {
+            ((JournaledCalendarModel) m).addCalendar(calendar, zone, CalendarStorage.COLUMNAR);
+          } else {
+            ((BasicCalendarModel) m).addCalendar(calendar, zone, CalendarStorage.COLUMNAR);
+          }
+        };
+    }
+  }
+
+  private static String randomDateTime(Random random) {
+    return LocalDateTime.of(2025, 3, 3 + random.nextInt(5), 8 + random.nextInt(4),
+            30 * random.nextInt(2)).toString();
+  }
+
+  /**
+   * Picks an event of the current calendar, or one that is not in it if it has none.
+   */
+  private static Map<String, String> randomEvent(CalendarModel model, Random random) {
+    List<EventView> events = model.getCurrentCalendar().getAllEventViews();
+    if (events.isEmpty() || random.nextInt(10) == 0) {
+      String start = randomDateTime(random);
+      return Map.of("Name", "Missing", "StartDateTime", start,
+              "EndDateTime", LocalDateTime.parse(start).plusHours(1).toString());
+    }
+    EventView event = events.get(random.nextInt(events.size()));
+    return Map.of("Name", event.getName(),
+            "StartDateTime", event.getStartDateTime().toLocalDateTime().toString(),
+            "EndDateTime", event.getEndDateTime().toLocalDateTime().toString());
+  }
+
+  private static String valueOf(String property, Map<String, String> event, Random random) {
+    switch (property) {
+      case "name":
+        return NAMES[random.nextInt(NAMES.length)];
+      case "startDateTime":
+      case "endDateTime":
+        return LocalDateTime.parse(event.get(property.equals("startDateTime")
+                ? "StartDateTime" : "EndDateTime"))
+                .plusMinutes(30 * (random.nextInt(5) - 2)).toString();
+      case "private":
+        return String.valueOf(random.nextBoolean());
+      case "weekDays":
+        return WEEK_DAYS[random.nextInt(WEEK_DAYS.length)];
+      case "frequency":
+        return String.valueOf(1 + random.nextInt(5));
+      case "untilDateTime":
+        return LocalDateTime.parse(event.get("StartDateTime"))
+                .plusDays(random.nextInt(8)).toString();
+      default:
+        return "room " + random.nextInt(5);
+    }
+  }
+
+  /**
+   * Makes the same change to both models, which must both fail the same way or both succeed.
+   */
+  private static void makeSameChange(
+          Consumer<CalendarModel> change,
+          CalendarModel expected,
+          CalendarModel actual,
+          int seed) {
+    String expectedError = errorOf(change, expected);
+    assertEquals("seed " + seed, expectedError, errorOf(change, actual));
+  }
+
+  private static String errorOf(Consumer<CalendarModel> change, CalendarModel model) {
+    try {
+      change.accept(model);
+      return null;
+    } catch (IllegalArgumentException e) {
+      return e.getMessage();
+    }
+  }
+
+  private static JournaledCalendarModel reopen(Path directory, int seed) {
+    try {
+      return new JournaledCalendarModel(directory, 7, 0);
+    } catch (IOException e) {
+      throw new AssertionError("seed " + seed + ": " + e.getMessage(), e);
+    }
+  }
+
+  private static void assertSameCalendars(
+          String message,
+          CalendarModel expected,
+          CalendarModel actual) {
+    assertEquals(message, expected.getAllCalendars(), actual.getAllCalendars());
+    assertEquals(message, expected.getCurrentCalendarName(), actual.getCurrentCalendarName());
+    String current = expected.getCurrentCalendarName();
+    for (String name : expected.getAllCalendars().keySet()) {
+      expected.useCalendar(name);
+      actual.useCalendar(name);
+      assertEquals(message + ", " + name,
+              Arrays.asList(expected.getCurrentCalendar().getAllEvents()),
+              Arrays.asList(actual.getCurrentCalendar().getAllEvents()));
+    }
+    expected.useCalendar(current);
+    actual.useCalendar(current);
+  }
+
+  private static List<String> fileNames(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.map(file -> file.getFileName().toString()).sorted()
+              .collect(Collectors.toList());
+    }
+  }
+}
@@ -60,4 +60,12 @@ public class MockGui implements GuiView {
   public void displayMessage(String message) {
     sb.append("displayMessage called with message: ").append(message);
   }
+
+  /**
+   * Mock implementation of the displayProgress method.
+   */
+  @Override
+  public void displayProgress(String message) {
+    sb.append("displayProgress called with message: ").append(message);
+  }
 }
\ No newline at end of file
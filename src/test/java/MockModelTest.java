@@ -2,14 +2,21 @@ import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import controller.BasicCalendarController;
 import controller.CalendarController;
 import model.CalendarModel;
+import model.EventBatch;
 import model.SingleCalendar;
 import model.calendarentry.CalendarEntry;
+import model.calendarentry.EventView;
 import view.BasicCalendarView;
 import view.CalendarView;
 
@@ -209,6 +216,21 @@ public class MockModelTest {
                 .append(", ").append(isPrivate);
       }
 
+      /**
+       * Adds a batch of single events to the calendar. Mock method that logs the size of the batch
+       * and reports every event as added.
+       *
+       * @param batch       the events to add.
+       * @param autoDecline whether conflicting events should be automatically declined.
+       *
+       * @return a report with every event added.
+       */
+      @Override
+      public EventBatch.Report addSingleEvents(EventBatch batch, boolean autoDecline) {
+        log.append("addSingleEvents: ").append(batch.size()).append(", ").append(autoDecline);
+        return new EventBatch.Report(batch.size());
+      }
+
       /**
        * Adds a single event to the calendar.
        *
@@ -461,6 +483,54 @@ public class MockModelTest {
         return new Map[]{mockEvent};
       }
 
+      /**
+       * Gets the views of the events in the given range. Mock method that logs the range and
+       * returns one mock event.
+       *
+       * @param startDateTime the start date and time.
+       * @param endDateTime   the end date and time.
+       *
+       * @return the views of the events in the range.
+       */
+      @Override
+      public List<EventView> getEventViewsRange(String startDateTime, String endDateTime) {
+        log.append("getEventViewsRange: ").append(startDateTime).append(", ")
+                .append(endDateTime);
+        return List.of(mockEventView());
+      }
+
+      /**
+       * Gets the views of the events on the given date. Mock method that logs the date and
+       * returns one mock event.
+       *
+       * @param startDate the date.
+       *
+       * @return the views of the events on the date.
+       */
+      @Override
+      public List<EventView> getEventViewsOnDate(String startDate) {
+        log.append("getEventViewsOnDate: ").append(startDate);
+        return List.of(mockEventView());
+      }
+
+      /**
+       * Gets the names of the events on every day of the given month. Mock method that logs the
+       * month and returns one mock event per day.
+       *
+       * @param month the month to get the event names for.
+       *
+       * @return the names of the events on every day of the month.
+       */
+      @Override
+      public List<List<String>> getEventNamesInMonth(YearMonth month) {
+        log.append("getEventNamesInMonth: ").append(month);
+        List<List<String>> eventNames = new ArrayList<>();
+        for (int day = 0; day < month.lengthOfMonth(); day++) {
+          eventNames.add(List.of("Mock Event"));
+        }
+        return eventNames;
+      }
+
       /**
        * Exports the calendar to a file. Mock method to export the calendar to a file.
        *
@@ -477,6 +547,36 @@ public class MockModelTest {
         return new Map[]{mockEvent};
       }
 
+      /**
+       * Gets the views of all the events. Mock method that logs the call and returns one mock
+       * event.
+       *
+       * @return the views of all the events.
+       */
+      @Override
+      public List<EventView> getAllEventViews() {
+        log.append("getAllEventViews: ");
+        return List.of(mockEventView());
+      }
+
+      /**
+       * Gives the view of every event to the action. Mock method that logs the call and gives one
+       * mock event.
+       *
+       * @param action the action to give the views to.
+       */
+      @Override
+      public void forEachEventView(Consumer<EventView> action) {
+        log.append("forEachEventView: ");
+        action.accept(mockEventView());
+      }
+
+      private EventView mockEventView() {
+        ZonedDateTime start = ZonedDateTime.of(2020, 11, 10, 11, 0, 0, 0, ZoneId.of("UTC"));
+        return new EventView("Mock Event", start, start.plusHours(1), "", "Mock Location",
+                false, false, false);
+      }
+
       /**
        * Shows the availability status of the calendar. Mock method to show the availability status
        * of the calendar.
@@ -578,6 +678,16 @@ public class MockModelTest {
         log.append("addEvents: ").append(event).append(", ").append(autoDecline);
       }
 
+      /**
+       * Mock method to give every entry to the action.
+       *
+       * @param action the action to give the entries to
+       */
+      @Override
+      public void forEachEntry(Consumer<CalendarEntry> action) {
+        log.append("forEachEntry: ");
+      }
+
       /**
        * Mock method to get the event with the exact date time.
        *
@@ -1123,7 +1233,7 @@ public class MockModelTest {
     CalendarView view = new BasicCalendarView(out);
     CalendarController controller = new BasicCalendarController(model, view, in);
     controller.startApp(new String[]{"--mode", "interactive"});
-    assertEquals("getCurrentCalendar: getEventsOnDate: 2021-03-01", log.toString());
+    assertEquals("getCurrentCalendar: getEventViewsOnDate: 2021-03-01", log.toString());
   }
 
   @Test
@@ -1137,7 +1247,7 @@ public class MockModelTest {
     CalendarView view = new BasicCalendarView(out);
     CalendarController controller = new BasicCalendarController(model, view, in);
     controller.startApp(new String[]{"--mode", "interactive"});
-    assertEquals("getCurrentCalendar: getEventsRange: 2021-03-01T00:00, 2021-03-02T23:59",
+    assertEquals("getCurrentCalendar: getEventViewsRange: 2021-03-01T00:00, 2021-03-02T23:59",
             log.toString());
   }
 
@@ -1151,7 +1261,7 @@ public class MockModelTest {
     CalendarView view = new BasicCalendarView(out);
     CalendarController controller = new BasicCalendarController(model, view, in);
     controller.startApp(new String[]{"--mode", "interactive"});
-    assertEquals("getCurrentCalendar: getAllEvents: ", log.toString());
+    assertEquals("getCurrentCalendar: forEachEventView: ", log.toString());
   }
 
   @Test
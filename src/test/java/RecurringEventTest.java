@@ -2,10 +2,12 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static utils.DateTimeUtils.stringToZdt;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -265,4 +267,185 @@ public class RecurringEventTest {
     List<Map<String,String>> eventList = event.getAllEventDetails();
     assertEquals(2, eventList.size());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testLongSeriesRangeQuery() {
+    ZonedDateTime start = stringToZdt("2025-01-06T09:00", "UTC");
+    ZonedDateTime end = stringToZdt("2025-01-06T09:15", "UTC");
+    ZonedDateTime until = stringToZdt("2035-01-01", "UTC");
+    RecurringEvent event = new RecurringEvent("Standup", start, end, "Description", "Location",
+            false, false, "MTWRF", until);
+
+    List<CalendarEntry> events = event.getEventsIfWithinRange(
+            stringToZdt("2030-06-03T00:00", "UTC"),
+            stringToZdt("2030-06-09T23:59", "UTC"));
+    assertEquals(5, events.size());
+    assertEquals(stringToZdt("2030-06-03T09:00", "UTC"), events.get(0).getStartDateTime());
+    assertEquals(stringToZdt("2030-06-07T09:00", "UTC"), events.get(4).getStartDateTime());
+    assertEquals(2605, event.getAllEventDetails().size());
+  }
+
+  @Test
+  public void testEditOneOccurrenceOfLongSeries() {
+    ZonedDateTime start = stringToZdt("2025-01-06T09:00", "UTC");
+    ZonedDateTime end = stringToZdt("2025-01-06T09:15", "UTC");
+    ZonedDateTime until = stringToZdt("2035-01-01", "UTC");
+    RecurringEvent event = new RecurringEvent("Standup", start, end, "Description", "Location",
+            false, false, "MTWRF", until);
+
+    ZonedDateTime occurrenceStart = stringToZdt("2031-03-04T09:00", "UTC");
+    ZonedDateTime occurrenceEnd = stringToZdt("2031-03-04T09:15", "UTC");
+    event.editSingleEvent("Standup", occurrenceStart, occurrenceEnd, "name", "Retro");
+
+    assertNotNull(event.matchesSingleOccurrence("Retro", occurrenceStart, occurrenceEnd));
+    assertNull(event.matchesSingleOccurrence("Standup", occurrenceStart, occurrenceEnd));
+    List<Map<String, String>> week = event.getEventDetails(
+            stringToZdt("2031-03-03T00:00", "UTC"),
+            stringToZdt("2031-03-05T23:59", "UTC"),
+            true);
+    assertEquals(3, week.size());
+    assertEquals("Standup", week.get(0).get("Name"));
+    assertEquals("Retro", week.get(1).get("Name"));
+    assertEquals("Standup", week.get(2).get("Name"));
+
+    event.undoEdit();
+    assertNull(event.matchesSingleOccurrence("Retro", occurrenceStart, occurrenceEnd));
+  }
+
+  @Test
+  public void testEditFollowingOccurrencesOfLongSeries() {
+    ZonedDateTime start = stringToZdt("2025-01-06T09:00", "America/New_York");
+    ZonedDateTime end = stringToZdt("2025-01-06T09:15", "America/New_York");
+    ZonedDateTime until = stringToZdt("2035-01-01", "America/New_York");
+    RecurringEvent event = new RecurringEvent("Standup", start, end, "Description", "Location",
+            false, false, "MTWRF", until);
+
+    event.editRecurringEvent("Standup", stringToZdt("2030-01-01", "America/New_York"),
+            "endDateTime", "2030-01-01T09:30");
+
+    List<Map<String, String>> before = event.getEventDetails(
+            stringToZdt("2029-12-31T00:00", "America/New_York"),
+            stringToZdt("2029-12-31T23:59", "America/New_York"),
+            true);
+    assertEquals("2029-12-31T09:15", before.get(0).get("EndDateTime"));
+    List<Map<String, String>> after = event.getEventDetails(
+            stringToZdt("2034-07-03T00:00", "America/New_York"),
+            stringToZdt("2034-07-03T23:59", "America/New_York"),
+            true);
+    assertEquals("2034-07-03T09:00", after.get(0).get("StartDateTime"));
+    assertEquals("2034-07-03T09:30", after.get(0).get("EndDateTime"));
+  }
+
+  @Test
+  public void testFailedEditLeavesEventUnchanged() {
+    ZonedDateTime start = stringToZdt("2023-12-01T10:00:00", "UTC");
+    ZonedDateTime end = stringToZdt("2023-12-01T11:00:00", "UTC");
+    RecurringEvent event = new RecurringEvent("Event", start, end, "Description", "Location",
+            false, false, "MTWRFSU", 5);
+
+    try {
+      event.editRecurringEvent("Event", null, "endDateTime", "2023-12-01T09:00");
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals("End date time cannot be before start date time", e.getMessage());
+    }
+    List<Map<String, String>> eventList = event.getAllEventDetails();
+    assertEquals(5, eventList.size());
+    assertEquals("11:00 AM", eventList.get(4).get("EndTime"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroFrequency() {
+    ZonedDateTime start = stringToZdt("2023-12-01T10:00:00", "UTC");
+    ZonedDateTime end = stringToZdt("2023-12-01T11:00:00", "UTC");
+    new RecurringEvent("Event", start, end, "Description", "Location", false, false, "MTWRFSU", 0);
+  }
+
+  @Test
+  public void testLongSeriesConflictLate() {
+    ZonedDateTime start = stringToZdt("2025-01-06T09:00", "UTC");
+    RecurringEvent standup = new RecurringEvent("Standup", start, start.plusMinutes(15),
+            "Description", "Location", false, false, "MTWRF",
+            stringToZdt("2035-01-01", "UTC"));
+    RecurringEvent review = new RecurringEvent("Review", start.plusMinutes(15),
+            start.plusMinutes(45), "Description", "Location", false, false, "MTWRF",
+            stringToZdt("2035-01-01", "UTC"));
+    ZonedDateTime lateStart = stringToZdt("2034-06-02T09:10", "UTC");
+    RecurringEvent retro = new RecurringEvent("Retro", lateStart, lateStart.plusMinutes(30),
+            "Description", "Location", false, false, "F", 4);
+
+    assertFalse(standup.isConflict(review));
+    assertFalse(review.isConflict(standup));
+    assertTrue(standup.isConflict(retro));
+    assertTrue(retro.isConflict(review));
+  }
+
+  @Test
+  public void testRecurringConflictAfterDaylightSavingChange() {
+    ZonedDateTime start = stringToZdt("2025-04-01T01:00", "America/New_York");
+    ZonedDateTime otherStart = stringToZdt("2025-04-01T06:10", "UTC");
+    RecurringEvent local = new RecurringEvent("Local", start, start.plusMinutes(50),
+            "Description", "Location", false, false, "MTWRFSU",
+            stringToZdt("2025-10-30", "America/New_York"));
+    RecurringEvent utc = new RecurringEvent("Utc", otherStart, otherStart.plusMinutes(30),
+            "Description", "Location", false, false, "MTWRFSU",
+            stringToZdt("2025-11-10", "UTC"));
+
+    assertFalse(local.isConflict(utc));
+    local.editRecurringEvent("Local", null, "untilDateTime", "2025-11-10T00:00");
+    assertTrue(local.isConflict(utc));
+    assertTrue(utc.isConflict(local));
+  }
+
+  @Test
+  public void testRecurringConflictWithEditedOccurrence() {
+    ZonedDateTime start = stringToZdt("2025-01-06T09:00", "UTC");
+    RecurringEvent standup = new RecurringEvent("Standup", start, start.plusMinutes(15),
+            "Description", "Location", false, false, "MTWRF",
+            stringToZdt("2027-01-01", "UTC"));
+    ZonedDateTime otherStart = stringToZdt("2025-01-06T10:00", "UTC");
+    RecurringEvent planning = new RecurringEvent("Planning", otherStart,
+            otherStart.plusMinutes(30), "Description", "Location", false, false, "M",
+            stringToZdt("2027-01-01", "UTC"));
+
+    assertFalse(standup.isConflict(planning));
+    standup.editSingleEvent("Standup", stringToZdt("2026-03-02T09:00", "UTC"),
+            stringToZdt("2026-03-02T09:15", "UTC"), "endDateTime", "2026-03-02T10:05");
+    assertTrue(standup.isConflict(planning));
+    assertTrue(planning.isConflict(standup));
+  }
+
+  @Test
+  public void testUndoEditsInReverseOrder() {
+    ZonedDateTime start = stringToZdt("2025-03-03T09:00", "UTC");
+    ZonedDateTime end = stringToZdt("2025-03-03T10:00", "UTC");
+    RecurringEvent event = new RecurringEvent("Standup", start, end, "Description", "Location",
+            false, false, "MWF", 30);
+    ZonedDateTime soloStart = stringToZdt("2025-03-10T09:00", "UTC");
+    ZonedDateTime soloEnd = stringToZdt("2025-03-10T10:00", "UTC");
+    ZonedDateTime followingStart = stringToZdt("2025-03-07T09:00", "UTC");
+
+    List<List<Map<String, String>>> states = new ArrayList<>();
+    states.add(event.getAllEventDetails());
+    event.editSingleEvent("Standup", soloStart, soloEnd, "name", "Solo");
+    states.add(event.getAllEventDetails());
+    event.editSingleEvent("Solo", soloStart, soloEnd, "description", "Moved");
+    states.add(event.getAllEventDetails());
+    event.editRecurringEvent("Standup", followingStart, "location", "Room 2");
+    states.add(event.getAllEventDetails());
+    event.editRecurringEvent("Standup", null, "name", "Sync");
+    states.add(event.getAllEventDetails());
+    event.editRecurringEvent("Sync", followingStart, "weekDays", "TR");
+    states.add(event.getAllEventDetails());
+    event.editRecurringEvent("Sync", null, "frequency", "12");
+
+    assertEquals(12, event.getAllEventDetails().size());
+    for (int i = states.size() - 1; i >= 0; i--) {
+      event.undoEdit();
+      assertEquals(states.get(i), event.getAllEventDetails());
+    }
+    assertEquals("Solo", states.get(2).get(3).get("Name"));
+    assertEquals("Moved", states.get(3).get(3).get("Description"));
+    assertEquals("Room 2", states.get(3).get(3).get("Location"));
+  }
+}